@@ -0,0 +1,92 @@
+/**
+ * Represents a single booking within a batch submitted to a hotel.
+ * Holds the guest, room, stay dates, and discount code for one reservation.
+ */
+public class BookingRequest {
+    /**
+     * The name of the guest making the reservation.
+     */
+    private String guestName;
+
+    /**
+     * The name of the room to reserve.
+     */
+    private String roomName;
+
+    /**
+     * The day of check-in for the reservation.
+     */
+    private int checkInDay;
+
+    /**
+     * The day of check-out for the reservation.
+     */
+    private int checkOutDay;
+
+    /**
+     * The discount code to apply, if any.
+     */
+    private String discountCode;
+
+    /**
+     * Constructs a new BookingRequest with the specified details.
+     * 
+     * @param guestName The name of the guest making the reservation.
+     * @param roomName The name of the room to reserve.
+     * @param checkInDay The day of check-in for the reservation.
+     * @param checkOutDay The day of check-out for the reservation.
+     * @param discountCode The discount code to apply, if any.
+     */
+    public BookingRequest(String guestName, String roomName, int checkInDay, int checkOutDay, String discountCode) {
+        this.guestName = guestName;
+        this.roomName = roomName;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
+        this.discountCode = discountCode;
+    }
+
+    /**
+     * Gets the name of the guest making the reservation.
+     * 
+     * @return The guest name.
+     */
+    public String getGuestName() {
+        return guestName;
+    }
+
+    /**
+     * Gets the name of the room to reserve.
+     * 
+     * @return The room name.
+     */
+    public String getRoomName() {
+        return roomName;
+    }
+
+    /**
+     * Gets the check-in day of the request.
+     * 
+     * @return The check-in day.
+     */
+    public int getCheckInDay() {
+        return checkInDay;
+    }
+
+    /**
+     * Gets the check-out day of the request.
+     * 
+     * @return The check-out day.
+     */
+    public int getCheckOutDay() {
+        return checkOutDay;
+    }
+
+    /**
+     * Gets the discount code of the request.
+     * 
+     * @return The discount code, or null if none was given.
+     */
+    public String getDiscountCode() {
+        return discountCode;
+    }
+}
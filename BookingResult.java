@@ -0,0 +1,101 @@
+/**
+ * Represents the outcome of one request in a batch booking or import.
+ * A batch booking is applied all-or-nothing, so every result reports whether its request was booked,
+ * rejected, in conflict with another booking, or left unapplied because another request in the
+ * batch failed.
+ */
+public class BookingResult {
+    /**
+     * The possible outcomes of a booking request.
+     */
+    public enum Status {
+        /** The reservation was added to the hotel. */
+        BOOKED,
+        /** The request itself failed validation. */
+        REJECTED,
+        /** The room is already booked for some of the requested days. */
+        CONFLICT,
+        /** The request was valid but the batch was not applied. */
+        NOT_APPLIED
+    }
+
+    /**
+     * The request this result belongs to.
+     */
+    private BookingRequest request;
+
+    /**
+     * The outcome of the request.
+     */
+    private Status status;
+
+    /**
+     * The reservation created for the request, or null if it was not booked.
+     */
+    private Reservation reservation;
+
+    /**
+     * A short description of the outcome.
+     */
+    private String message;
+
+    /**
+     * Constructs a new BookingResult.
+     * 
+     * @param request The request this result belongs to.
+     * @param status The outcome of the request.
+     * @param reservation The reservation created for the request, or null if it was not booked.
+     * @param message A short description of the outcome.
+     */
+    public BookingResult(BookingRequest request, Status status, Reservation reservation, String message) {
+        this.request = request;
+        this.status = status;
+        this.reservation = reservation;
+        this.message = message;
+    }
+
+    /**
+     * Gets the request this result belongs to.
+     * 
+     * @return The booking request.
+     */
+    public BookingRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Gets the outcome of the request.
+     * 
+     * @return The status.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks if the request was booked.
+     * 
+     * @return True if the reservation was added; false otherwise.
+     */
+    public boolean isBooked() {
+        return status == Status.BOOKED;
+    }
+
+    /**
+     * Gets the reservation created for the request.
+     * 
+     * @return The reservation, or null if the request was not booked.
+     */
+    public Reservation getReservation() {
+        return reservation;
+    }
+
+    /**
+     * Gets a short description of the outcome.
+     * 
+     * @return The message.
+     */
+    public String getMessage() {
+        return message;
+    }
+}
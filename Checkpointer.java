@@ -0,0 +1,159 @@
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Periodically checkpoints a reservation system in the background.
+ * A checkpoint writes a snapshot of every hotel and then deletes the journal segments the snapshot
+ * makes redundant, so startup replay and disk usage stay bounded. Checkpoints are skipped while
+ * little journal has accumulated, and snapshots are written at a limited rate on a low-priority
+ * thread; bookings only wait for the brief moment the hotels' state is captured.
+ */
+public class Checkpointer implements AutoCloseable {
+    /**
+     * The reservation system to checkpoint.
+     */
+    private final HotelReservationSystem system;
+
+    /**
+     * The time between checkpoint attempts, in milliseconds.
+     */
+    private final long intervalMillis;
+
+    /**
+     * The amount of journal, in bytes, that must accumulate before a checkpoint is taken.
+     */
+    private final long minBytes;
+
+    /**
+     * The snapshot write rate limit in bytes per second, or 0 for no limit.
+     */
+    private final long maxBytesPerSecond;
+
+    /**
+     * The thread that takes checkpoints.
+     */
+    private final Thread thread;
+
+    /**
+     * The journal position of the last checkpoint.
+     */
+    private long lastCheckpointPosition;
+
+    /**
+     * The number of checkpoints taken.
+     */
+    private volatile int checkpointCount;
+
+    /**
+     * The number of checkpoints that failed.
+     */
+    private volatile int failureCount;
+
+    /**
+     * Set once the checkpointer has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Constructs a Checkpointer.
+     *
+     * @param system The reservation system to checkpoint; it must have a journal and a snapshot file.
+     * @param intervalMillis The time between checkpoint attempts, in milliseconds.
+     * @param minBytes The amount of journal, in bytes, that must accumulate before a checkpoint is taken.
+     * @param maxBytesPerSecond The snapshot write rate limit in bytes per second, or 0 for no limit.
+     */
+    public Checkpointer(HotelReservationSystem system, long intervalMillis, long minBytes, long maxBytesPerSecond) {
+        this.system = system;
+        this.intervalMillis = Math.max(1, intervalMillis);
+        this.minBytes = minBytes;
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.lastCheckpointPosition = system.getJournal() == null ? 0 : system.getJournal().getPosition()
+                - system.getJournal().getReplayedBytes();
+        this.thread = new Thread(this::run, "checkpointer");
+        this.thread.setDaemon(true);
+        this.thread.setPriority(Thread.MIN_PRIORITY);
+    }
+
+    /**
+     * Starts taking checkpoints in the background.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Takes checkpoints until the checkpointer is closed.
+     */
+    private void run() {
+        while (!closed) {
+            synchronized (this) {
+                try {
+                    wait(intervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            if (!closed) {
+                checkpoint(minBytes, maxBytesPerSecond);
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot and deletes the journal segments it covers, if enough journal has accumulated.
+     *
+     * @param minimumBytes The amount of journal, in bytes, that must accumulate since the last checkpoint.
+     * @param bytesPerSecond The snapshot write rate limit in bytes per second, or 0 for no limit.
+     * @return True if a checkpoint was taken; false if none was due or it failed, in which case
+     *         {@link #getFailureCount()} is incremented.
+     */
+    public synchronized boolean checkpoint(long minimumBytes, long bytesPerSecond) {
+        Journal journal = system.getJournal();
+        if (journal == null || journal.getPosition() - lastCheckpointPosition < Math.max(1, minimumBytes)) {
+            return false;
+        }
+        try {
+            Long position = system.writeSnapshot(bytesPerSecond).join();
+            if (position == null) {
+                return false;
+            }
+            journal.compact(position);
+            lastCheckpointPosition = position;
+            checkpointCount++;
+            return true;
+        } catch (CompletionException | IOException e) {
+            failureCount++;
+            System.out.println("Checkpoint failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Gets the number of checkpoints taken.
+     *
+     * @return The number of checkpoints.
+     */
+    public int getCheckpointCount() {
+        return checkpointCount;
+    }
+
+    /**
+     * Gets the number of checkpoints that failed to write a snapshot or delete journal segments.
+     * A failed checkpoint leaves the journal intact, so no changes are lost, but replay grows until a
+     * later checkpoint succeeds.
+     *
+     * @return The number of failed checkpoints.
+     */
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Stops taking checkpoints in the background. A checkpoint in progress is allowed to finish.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,269 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports every hotel's reservations in a columnar binary format for offline analytics.
+ * Reservations are streamed from each hotel's latest snapshot straight into fixed-size column
+ * blocks, so memory use does not grow with the number of rows and large exports run at disk speed.
+ * Archived reservations are exported first, one decompressed archive block at a time.
+ *
+ * Layout (big-endian, version 1):
+ * <pre>
+ * file    := MAGIC version:int hotel* END:int(-1)
+ * hotel   := nameLength:int name:utf8 block* rowCount:int(0)
+ * block   := rowCount:int newStrings:int str*
+ *            guest:int[rowCount] room:int[rowCount] type:byte[rowCount]
+ *            checkIn:int[rowCount] checkOut:int[rowCount] total:double[rowCount] discount:int[rowCount]
+ * str     := length:int utf8-bytes
+ * </pre>
+ * Guest names, room names and discount codes are dictionary-encoded per hotel: each block first
+ * lists the strings that appear for the first time, and the string columns hold dictionary ids in
+ * order of first appearance. A discount id of -1 means no code. Room types are 0 for Standard,
+ * 1 for Deluxe and 2 for Executive.
+ */
+public class ColumnarExporter {
+    /**
+     * Identifies a columnar export file ("HRCX").
+     */
+    private static final int MAGIC = 0x48524358;
+
+    /**
+     * The current version of the layout.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The bytes each row takes across all columns.
+     */
+    private static final int ROW_BYTES = 4 + 4 + 1 + 4 + 4 + 8 + 4;
+
+    /**
+     * The number of rows in a full column block.
+     */
+    private final int blockRows;
+
+    /**
+     * Buffer that column blocks are assembled in.
+     */
+    private final ByteBuffer block;
+
+    /**
+     * Buffer for the block header and dictionary strings.
+     */
+    private ByteBuffer header = ByteBuffer.allocate(1 << 16);
+
+    /**
+     * Constructs a ColumnarExporter that writes blocks of 64K rows.
+     */
+    public ColumnarExporter() {
+        this(1 << 16);
+    }
+
+    /**
+     * Constructs a ColumnarExporter.
+     *
+     * @param blockRows The number of rows in a full column block.
+     */
+    public ColumnarExporter(int blockRows) {
+        this.blockRows = Math.max(1, blockRows);
+        this.block = ByteBuffer.allocateDirect(this.blockRows * ROW_BYTES);
+    }
+
+    /**
+     * Exports the reservations of every hotel in a reservation system.
+     *
+     * @param system The reservation system to export.
+     * @param path The file to write.
+     * @return The number of reservations exported.
+     * @throws IOException If the file cannot be written.
+     */
+    public long export(HotelReservationSystem system, Path path) throws IOException {
+        return export(system.getHotels(), path);
+    }
+
+    /**
+     * Exports the reservations of the given hotels.
+     *
+     * @param hotels The hotels to export.
+     * @param path The file to write.
+     * @return The number of reservations exported.
+     * @throws IOException If the file cannot be written.
+     */
+    public long export(List<Hotel> hotels, Path path) throws IOException {
+        long rows = 0;
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            header.clear();
+            header.putInt(MAGIC).putInt(VERSION);
+            writeFully(out, header);
+            for (Hotel hotel : hotels) {
+                rows += exportHotel(out, hotel.getSnapshot(), hotel.getName());
+            }
+            header.clear();
+            header.putInt(-1);
+            writeFully(out, header);
+        }
+        return rows;
+    }
+
+    /**
+     * Exports one hotel's archived and current reservations as a series of column blocks.
+     *
+     * @param out The file to write to.
+     * @param state The snapshot of the hotel to export.
+     * @param hotelName The name of the hotel.
+     * @return The number of reservations exported.
+     * @throws IOException If the file cannot be written.
+     */
+    private long exportHotel(FileChannel out, HotelSnapshot state, String hotelName) throws IOException {
+        header.clear();
+        putString(hotelName);
+        writeFully(out, header);
+
+        Map<String, Integer> dictionary = new HashMap<>();
+        long rows = 0;
+        ReservationArchive archive = state.getArchive();
+        for (int i = 0; i < archive.getBlockCount(); i++) {
+            rows += exportRows(out, archive.readBlock(i), dictionary);
+        }
+        rows += exportRows(out, state.getReservations(), dictionary);
+
+        header.clear();
+        header.putInt(0);
+        writeFully(out, header);
+        return rows;
+    }
+
+    /**
+     * Exports reservations as column blocks of up to the block size.
+     *
+     * @param out The file to write to.
+     * @param reservations The reservations to export.
+     * @param dictionary The dictionary ids of the hotel's strings written so far.
+     * @return The number of reservations exported.
+     * @throws IOException If the file cannot be written.
+     */
+    private long exportRows(FileChannel out, List<Reservation> reservations, Map<String, Integer> dictionary) throws IOException {
+        for (int first = 0; first < reservations.size(); first += blockRows) {
+            int count = Math.min(blockRows, reservations.size() - first);
+            header.clear();
+            header.putInt(count);
+            int newStringsAt = header.position();
+            header.putInt(0);
+            int newStrings = 0;
+
+            // Column regions of the block, in layout order
+            int guestAt = 0;
+            int roomAt = guestAt + count * 4;
+            int typeAt = roomAt + count * 4;
+            int checkInAt = typeAt + count;
+            int checkOutAt = checkInAt + count * 4;
+            int totalAt = checkOutAt + count * 4;
+            int discountAt = totalAt + count * 8;
+            block.clear();
+
+            for (int i = 0; i < count; i++) {
+                Reservation reservation = reservations.get(first + i);
+                Room room = reservation.getRoom();
+                int before = dictionary.size();
+                int guest = encode(dictionary, reservation.getGuestName());
+                int roomName = encode(dictionary, room.getName());
+                String discountCode = reservation.getDiscountCode();
+                int discount = discountCode == null ? -1 : encode(dictionary, discountCode);
+                newStrings += dictionary.size() - before;
+
+                block.putInt(guestAt + i * 4, guest);
+                block.putInt(roomAt + i * 4, roomName);
+                block.put(typeAt + i, room.getTypeCode());
+                block.putInt(checkInAt + i * 4, reservation.getCheckInDay());
+                block.putInt(checkOutAt + i * 4, reservation.getCheckOutDay());
+                block.putDouble(totalAt + i * 8, reservation.getSumPrice());
+                block.putInt(discountAt + i * 4, discount);
+            }
+            header.putInt(newStringsAt, newStrings);
+            writeFully(out, header);
+
+            block.position(0).limit(count * ROW_BYTES);
+            while (block.hasRemaining()) {
+                out.write(block);
+            }
+        }
+        return reservations.size();
+    }
+
+    /**
+     * Looks up a string's dictionary id, adding it to the dictionary and the block header if it is new.
+     *
+     * @param dictionary The ids of the strings seen so far.
+     * @param value The string to encode.
+     * @return The string's dictionary id.
+     */
+    private int encode(Map<String, Integer> dictionary, String value) {
+        Integer id = dictionary.get(value);
+        if (id == null) {
+            id = dictionary.size();
+            dictionary.put(value, id);
+            putString(value);
+        }
+        return id;
+    }
+
+    /**
+     * Appends a length-prefixed UTF-8 string to the header buffer, growing it if needed.
+     *
+     * @param value The string to append.
+     */
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (header.remaining() < 4 + bytes.length) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(header.capacity() * 2, header.position() + 4 + bytes.length));
+            header.flip();
+            larger.put(header);
+            header = larger;
+        }
+        header.putInt(bytes.length).put(bytes);
+    }
+
+    /**
+     * Writes the filled part of a buffer to the file.
+     *
+     * @param out The file to write to.
+     * @param buffer The buffer, filled from position 0 to its current position.
+     * @throws IOException If the write fails.
+     */
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Exports the journaled reservation system to a file.
+     *
+     * @param args The path of the file to write.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.out.println("Usage: java ColumnarExporter <reservations.hrcx>");
+            return;
+        }
+        HotelReservationSystem system = HotelReservationSystem.open();
+        long start = System.nanoTime();
+        try {
+            long rows = new ColumnarExporter().export(system, Paths.get(args[0]));
+            System.out.println("Exported " + rows + " reservations in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        } catch (IOException e) {
+            System.out.println("Could not export to " + args[0] + ": " + e.getMessage());
+        }
+    }
+}
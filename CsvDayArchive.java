@@ -0,0 +1,89 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A day archive that appends one line per archived day to a CSV file, in the form
+ * {@code hotel,date,bookedRooms,roomCount,revenue,priceModifier}.
+ */
+public class CsvDayArchive implements DayArchive, AutoCloseable {
+    /**
+     * The file the days are appended to.
+     */
+    private final Path path;
+
+    /**
+     * The writer appending to the file.
+     */
+    private final BufferedWriter out;
+
+    /**
+     * Opens an archive file, creating it if it does not exist and appending to it if it does.
+     *
+     * @param path The archive file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public CsvDayArchive(Path path) throws IOException {
+        this.path = path;
+        this.out = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Appends one past day of a hotel to the file.
+     *
+     * @param hotelName The name of the hotel.
+     * @param day The day number.
+     * @param bookedRooms The number of rooms that were occupied on the day.
+     * @param roomCount The number of rooms the hotel had.
+     * @param revenue The revenue earned for the night starting on the day.
+     * @param priceModifier The price modifier that applied to the day.
+     */
+    @Override
+    public synchronized void archiveDay(String hotelName, int day, int bookedRooms, int roomCount, double revenue, double priceModifier) {
+        try {
+            out.write(quote(hotelName) + "," + HotelCalendar.format(day) + "," + bookedRooms + "," + roomCount + ","
+                    + revenue + "," + priceModifier);
+            out.newLine();
+        } catch (IOException e) {
+            System.out.println("Could not archive day " + HotelCalendar.format(day) + " of " + hotelName + " to " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the buffered lines to the file.
+     */
+    @Override
+    public synchronized void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            System.out.println("Could not flush day archive " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException If the buffered lines cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Quotes a CSV field if it contains a separator, quote, or line break.
+     *
+     * @param field The field.
+     * @return The field as it should appear in the file.
+     */
+    private static String quote(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,55 +1,103 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 /**
- * Manages price modifiers for specific days of the month.
- * Provides functionality to set and retrieve price modifiers that adjust the nightly rate based on the day of the month.
+ * Manages price modifiers for specific days of the calendar.
+ * Provides functionality to set and retrieve price modifiers that adjust the nightly rate based on the day.
+ * Only days whose modifier differs from the default of 1.0 are stored, so the cost of the calendar
+ * follows the number of modified days rather than how far ahead it reaches. Changes replace the
+ * map instead of modifying it, so prices can be computed without locking while modifiers change.
  */
 public class DatePriceModifier {
     /**
-     * List of price modifiers for each day of the month.
-     * Each element corresponds to a day, with a default value of 1.0 (no modification).
+     * Price modifiers of the days that have one, by day number.
+     * Days that are not present have the default modifier of 1.0 (no modification).
      */
-    private List<Double> modifiers;
+    private volatile NavigableMap<Integer, Double> modifiers;
 
     /**
      * Initializes the DatePriceModifier with default modifiers.
-     * Sets all days of the month to a default modifier of 1.0 (no modification).
+     * Every day starts with the default modifier of 1.0 (no modification).
      */
     public DatePriceModifier() {
-        // Initialize all days with a default modifier of 1.0 (no modification)
-        modifiers = new ArrayList<>();
-        for (int i = 0; i < 31; i++) {
-            modifiers.add(1.0);
-        }
+        modifiers = new TreeMap<>();
     }
 
     /**
-     * Adds or updates the price modifier for a specific day of the month.
-     * 
-     * @param day The day of the month to which the modifier should be applied (1-31).
+     * Adds or updates the price modifier for a specific day.
+     *
+     * @param day The day number to which the modifier should be applied (see {@link HotelCalendar}).
      * @param rate The price modifier rate (0.5 to 1.5). Rates outside this range are not allowed.
      * @return True if the modifier was successfully added; false otherwise.
      */
     public boolean addPriceModifier(int day, double rate) {
-        if (day >= 1 && day <= 31 && rate >= 0.5 && rate <= 1.5) {
-            modifiers.set(day - 1, rate);
+        if (HotelCalendar.isValidDay(day) && rate >= 0.5 && rate <= 1.5) {
+            NavigableMap<Integer, Double> updated = new TreeMap<>(modifiers);
+            if (rate == 1.0) {
+                updated.remove(day);
+            } else {
+                updated.put(day, rate);
+            }
+            modifiers = updated;
             return true;
         }
         return false;
     }
 
     /**
-     * Retrieves the price modifier for a specific day of the month.
-     * 
-     * @param day The day of the month (1-31) for which to retrieve the modifier.
-     * @return The price modifier for the specified day, or 1.0 if the day is out of range.
+     * Adds or updates the price modifiers of several days at once, replacing the map only once.
+     * Entries with an invalid day or rate are skipped.
+     *
+     * @param rates The price modifier rates by day number.
      */
-    public double getModifier(int day) {
-        if (day >= 1 && day <= 31) {
-            return modifiers.get(day - 1);
+    public void addPriceModifiers(Map<Integer, Double> rates) {
+        NavigableMap<Integer, Double> updated = new TreeMap<>(modifiers);
+        for (Map.Entry<Integer, Double> entry : rates.entrySet()) {
+            int day = entry.getKey();
+            double rate = entry.getValue();
+            if (!HotelCalendar.isValidDay(day) || rate < 0.5 || rate > 1.5) {
+                continue;
+            }
+            if (rate == 1.0) {
+                updated.remove(day);
+            } else {
+                updated.put(day, rate);
+            }
         }
-        return 1.0; // Default modifier if day is out of range
+        modifiers = updated;
     }
-}
 
+    /**
+     * Removes the modifiers of every day before a given day.
+     *
+     * @param day The first day to keep.
+     */
+    public void retireBefore(int day) {
+        NavigableMap<Integer, Double> current = modifiers;
+        if (!current.isEmpty() && current.firstKey() < day) {
+            modifiers = new TreeMap<>(current.tailMap(day, true));
+        }
+    }
+
+    /**
+     * Retrieves the price modifier for a specific day.
+     *
+     * @param day The day number for which to retrieve the modifier.
+     * @return The price modifier for the specified day, or 1.0 if the day has none.
+     */
+    public double getModifier(int day) {
+        Double rate = modifiers.get(day);
+        return rate == null ? 1.0 : rate;
+    }
+
+    /**
+     * Gets the modifiers of the days that have one.
+     *
+     * @return An unmodifiable view of the modifiers by day number, in day order.
+     */
+    public NavigableMap<Integer, Double> getModifiers() {
+        return Collections.unmodifiableNavigableMap(modifiers);
+    }
+}
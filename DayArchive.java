@@ -0,0 +1,23 @@
+/**
+ * Receives the figures of days that have passed and are dropped from a hotel's booking horizon.
+ * The in-memory calendar of a hotel only keeps the days of its horizon, so anything that needs
+ * past days, such as reports, reads them from the archive instead.
+ */
+public interface DayArchive {
+    /**
+     * Archives one past day of a hotel.
+     *
+     * @param hotelName The name of the hotel.
+     * @param day The day number (see {@link HotelCalendar}).
+     * @param bookedRooms The number of rooms that were occupied on the day.
+     * @param roomCount The number of rooms the hotel had when the day was retired.
+     * @param revenue The revenue earned for the night starting on the day.
+     * @param priceModifier The price modifier that applied to the day.
+     */
+    void archiveDay(String hotelName, int day, int bookedRooms, int roomCount, double revenue, double priceModifier);
+
+    /**
+     * Makes the archived days durable.
+     */
+    void flush();
+}
@@ -0,0 +1,197 @@
+/**
+ * A set of day numbers stored as a bitmap that only spans the days between the first and last
+ * day still held. Range checks and updates touch one 64-bit word per 64 days of the range, so
+ * their cost follows the queried range rather than how far ahead the calendar reaches.
+ * The words are kept in a ring buffer: {@link #retireBefore(int)} drops past days from the front
+ * and their words are reused for later days, so a set whose days move forward through a fixed
+ * booking horizon keeps a constant size.
+ */
+public class DaySet {
+    private static final long[] NO_WORDS = new long[0];
+
+    /**
+     * The bitmap words, used as a ring; bit {@code d % 64} of the word at {@link #slot(int)} of
+     * {@code d / 64} stands for day {@code d}. Words outside the covered range are always zero.
+     */
+    private long[] words = NO_WORDS;
+
+    /**
+     * The index of the first word covered by the bitmap.
+     */
+    private int firstWord;
+
+    /**
+     * The position of the first covered word in the ring.
+     */
+    private int head;
+
+    /**
+     * The number of words covered by the bitmap.
+     */
+    private int count;
+
+    /**
+     * Creates a copy of this set that can be changed without affecting this one.
+     *
+     * @return The copy.
+     */
+    public DaySet copy() {
+        DaySet copy = new DaySet();
+        copy.words = words.length == 0 ? NO_WORDS : words.clone();
+        copy.firstWord = firstWord;
+        copy.head = head;
+        copy.count = count;
+        return copy;
+    }
+
+    /**
+     * Checks if a day is in the set.
+     *
+     * @param day The day.
+     * @return True if the day is in the set; false otherwise.
+     */
+    public boolean contains(int day) {
+        int word = day >> 6;
+        return day >= 0 && word >= firstWord && word < firstWord + count && (words[slot(word)] & (1L << day)) != 0;
+    }
+
+    /**
+     * Checks if no day of an inclusive range is in the set.
+     *
+     * @param from The first day of the range.
+     * @param to The last day of the range.
+     * @return True if none of the days is in the set; false otherwise.
+     */
+    public boolean isClear(int from, int to) {
+        from = Math.max(from, firstWord << 6);
+        to = Math.min(to, ((firstWord + count) << 6) - 1);
+        for (int word = from >> 6; from <= to; word++) {
+            int last = Math.min(to, (word << 6) + 63);
+            if ((words[slot(word)] & mask(from, last)) != 0) {
+                return false;
+            }
+            from = last + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Adds every day of an inclusive range to the set.
+     *
+     * @param from The first day of the range; must not be negative.
+     * @param to The last day of the range.
+     */
+    public void add(int from, int to) {
+        if (from > to) {
+            return;
+        }
+        cover(from >> 6, to >> 6);
+        for (int word = from >> 6; from <= to; word++) {
+            int last = Math.min(to, (word << 6) + 63);
+            words[slot(word)] |= mask(from, last);
+            from = last + 1;
+        }
+    }
+
+    /**
+     * Removes every day of an inclusive range from the set.
+     *
+     * @param from The first day of the range.
+     * @param to The last day of the range.
+     */
+    public void remove(int from, int to) {
+        from = Math.max(from, firstWord << 6);
+        to = Math.min(to, ((firstWord + count) << 6) - 1);
+        for (int word = from >> 6; from <= to; word++) {
+            int last = Math.min(to, (word << 6) + 63);
+            words[slot(word)] &= ~mask(from, last);
+            from = last + 1;
+        }
+    }
+
+    /**
+     * Checks if the set may hold days before a given day.
+     *
+     * @param day The day.
+     * @return True if the bitmap covers any day before the given day; false otherwise.
+     */
+    public boolean coversBefore(int day) {
+        return count > 0 && (firstWord << 6) < day;
+    }
+
+    /**
+     * Removes every day before a given day and frees the words that only held such days for reuse.
+     *
+     * @param day The first day to keep.
+     */
+    public void retireBefore(int day) {
+        int word = day >> 6;
+        while (count > 0 && firstWord < word) {
+            words[head] = 0;
+            head = head + 1 == words.length ? 0 : head + 1;
+            firstWord++;
+            count--;
+        }
+        if (count == 0) {
+            head = 0;
+        } else if (firstWord == word) {
+            words[head] &= -1L << (day & 63);
+        }
+    }
+
+    /**
+     * Gets the position of a covered word in the ring.
+     *
+     * @param word The index of the word.
+     * @return The position of the word in the array.
+     */
+    private int slot(int word) {
+        int position = head + word - firstWord;
+        return position >= words.length ? position - words.length : position;
+    }
+
+    /**
+     * Builds the mask of the bits for a range of days within one word.
+     *
+     * @param from The first day.
+     * @param to The last day, in the same word as the first.
+     * @return The mask.
+     */
+    private static long mask(int from, int to) {
+        return (-1L >>> (63 - (to & 63))) & (-1L << (from & 63));
+    }
+
+    /**
+     * Extends the bitmap so it covers a range of words, growing the ring only if it is full.
+     *
+     * @param fromWord The first word to cover.
+     * @param toWord The last word to cover.
+     */
+    private void cover(int fromWord, int toWord) {
+        if (count == 0) {
+            int needed = toWord - fromWord + 1;
+            if (needed > words.length) {
+                words = new long[needed];
+            }
+            firstWord = fromWord;
+            head = 0;
+            count = needed;
+            return;
+        }
+        int newFirst = Math.min(firstWord, fromWord);
+        int newCount = Math.max(firstWord + count, toWord + 1) - newFirst;
+        if (newCount > words.length) {
+            long[] grown = new long[newCount];
+            for (int i = 0; i < count; i++) {
+                grown[firstWord - newFirst + i] = words[slot(firstWord + i)];
+            }
+            words = grown;
+            head = 0;
+        } else {
+            // Free slots are zero, so the ring can simply extend backwards over them
+            head = (head - (firstWord - newFirst) + words.length) % words.length;
+        }
+        firstWord = newFirst;
+        count = newCount;
+    }
+}
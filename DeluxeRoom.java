@@ -11,6 +11,29 @@ public class DeluxeRoom extends Room {
      * @param basePrice The base price of the room before applying the Deluxe modification.
      */
     public DeluxeRoom(String name, double basePrice) {
-        super(name, basePrice * 1.2);
+        this(name, basePrice, -1);
+    }
+
+    /**
+     * Constructs a DeluxeRoom in a slot of a hotel.
+     * The price for Deluxe Rooms is set to be 20% higher than the base price.
+     * 
+     * @param name The name or identifier for the Deluxe Room.
+     * @param basePrice The base price of the room before applying the Deluxe modification.
+     * @param slot The slot of the room within its hotel.
+     */
+    public DeluxeRoom(String name, double basePrice, int slot) {
+        super(name, basePrice * RoomPricing.multiplier(DELUXE), DELUXE, slot);
+    }
+
+    /**
+     * Constructs a DeluxeRoom in a slot of a hotel, priced by the hotel.
+     * 
+     * @param name The name or identifier for the Deluxe Room.
+     * @param pricing The pricing of the hotel.
+     * @param slot The slot of the room within its hotel.
+     */
+    public DeluxeRoom(String name, RoomPricing pricing, int slot) {
+        super(name, pricing, DELUXE, slot);
     }
 }
\ No newline at end of file
@@ -11,6 +11,29 @@ public class ExecutiveRoom extends Room {
      * @param basePrice The base price of the room before applying the Executive modification.
      */
     public ExecutiveRoom(String name, double basePrice) {
-        super(name, basePrice * 1.35);
+        this(name, basePrice, -1);
+    }
+
+    /**
+     * Constructs a ExecutiveRoom in a slot of a hotel.
+     * The price for Executive Rooms is set to be 35% higher than the base price.
+     * 
+     * @param name The name or identifier for the Executive Room.
+     * @param basePrice The base price of the room before applying the Executive modification.
+     * @param slot The slot of the room within its hotel.
+     */
+    public ExecutiveRoom(String name, double basePrice, int slot) {
+        super(name, basePrice * RoomPricing.multiplier(EXECUTIVE), EXECUTIVE, slot);
+    }
+
+    /**
+     * Constructs a ExecutiveRoom in a slot of a hotel, priced by the hotel.
+     * 
+     * @param name The name or identifier for the Executive Room.
+     * @param pricing The pricing of the hotel.
+     * @param slot The slot of the room within its hotel.
+     */
+    public ExecutiveRoom(String name, RoomPricing pricing, int slot) {
+        super(name, pricing, EXECUTIVE, slot);
     }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+/**
+ * Expires room holds using a hashed timer wheel.
+ * Holds are hashed into a fixed ring of buckets by the tick on which they expire, so scheduling and
+ * cancelling are constant-time and need no allocation beyond the hold itself. A single daemon thread
+ * advances the wheel one bucket per tick and expires the holds that are due.
+ */
+public class HoldTimerWheel {
+    /**
+     * The length of one tick in milliseconds.
+     */
+    private final long tickMillis;
+
+    /**
+     * The ring of buckets; each is the head of a doubly linked list of holds.
+     */
+    private final RoomHold[] buckets;
+
+    /**
+     * Mask that maps a tick to its bucket; the number of buckets is a power of two.
+     */
+    private final int mask;
+
+    /**
+     * The time the wheel started, in milliseconds.
+     */
+    private final long startMillis;
+
+    /**
+     * The last tick that has been processed.
+     */
+    private long currentTick;
+
+    /**
+     * The thread that advances the wheel, started on first use.
+     */
+    private Thread ticker;
+
+    /**
+     * Constructs a HoldTimerWheel.
+     * 
+     * @param tickMillis The length of one tick in milliseconds.
+     * @param bucketCount The number of buckets, rounded up to a power of two.
+     */
+    public HoldTimerWheel(long tickMillis, int bucketCount) {
+        int size = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.buckets = new RoomHold[size];
+        this.mask = size - 1;
+        this.startMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Schedules a hold to expire after a delay.
+     * The deadline counts from the current time rather than from the last processed tick, which
+     * lags behind until the ticker catches up, in particular before the ticker has first run.
+     * 
+     * @param hold The hold to schedule.
+     * @param delayMillis The time until the hold expires, in milliseconds.
+     */
+    public synchronized void schedule(RoomHold hold, long delayMillis) {
+        long ticks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        hold.deadlineTick = Math.max(currentTick, elapsedTicks()) + ticks;
+        int bucket = (int) (hold.deadlineTick & mask);
+        hold.wheelPrev = null;
+        hold.wheelNext = buckets[bucket];
+        if (buckets[bucket] != null) {
+            buckets[bucket].wheelPrev = hold;
+        }
+        buckets[bucket] = hold;
+        startTicker();
+    }
+
+    /**
+     * Removes a hold from the wheel so that it does not expire.
+     * 
+     * @param hold The hold to cancel.
+     */
+    public synchronized void cancel(RoomHold hold) {
+        int bucket = (int) (hold.deadlineTick & mask);
+        if (hold.wheelPrev != null) {
+            hold.wheelPrev.wheelNext = hold.wheelNext;
+        } else if (buckets[bucket] == hold) {
+            buckets[bucket] = hold.wheelNext;
+        } else {
+            return; // Not scheduled, or already expired
+        }
+        if (hold.wheelNext != null) {
+            hold.wheelNext.wheelPrev = hold.wheelPrev;
+        }
+        hold.wheelNext = null;
+        hold.wheelPrev = null;
+    }
+
+    /**
+     * Processes every tick that has elapsed and expires the holds that are due.
+     * Expired holds are handed to their hotels after the wheel's lock is released.
+     */
+    void advance() {
+        RoomHold expired = null;
+        synchronized (this) {
+            long targetTick = elapsedTicks();
+            while (currentTick < targetTick) {
+                currentTick++;
+                int bucket = (int) (currentTick & mask);
+                RoomHold hold = buckets[bucket];
+                while (hold != null) {
+                    RoomHold next = hold.wheelNext;
+                    if (hold.deadlineTick <= currentTick) {
+                        cancel(hold);
+                        hold.wheelNext = expired;
+                        expired = hold;
+                    }
+                    hold = next;
+                }
+            }
+        }
+        while (expired != null) {
+            RoomHold next = expired.wheelNext;
+            expired.wheelNext = null;
+            expired.getHotel().expireHold(expired);
+            expired = next;
+        }
+    }
+
+    /**
+     * Gets the number of whole ticks since the wheel started.
+     * 
+     * @return The elapsed ticks.
+     */
+    private long elapsedTicks() {
+        return (System.currentTimeMillis() - startMillis) / tickMillis;
+    }
+
+    /**
+     * Starts the daemon thread that advances the wheel, if it is not running yet.
+     */
+    private void startTicker() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(tickMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                advance();
+            }
+        }, "room-hold-timer");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+}
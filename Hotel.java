@@ -1,30 +1,102 @@
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * Represents a hotel with various rooms and reservations.
  * Manages room creation, reservation handling, price updates, and availability checks.
+ * Changes are serialized and each one publishes a new immutable {@link HotelSnapshot};
+ * queries read the latest snapshot and never block or wait for a booking in progress, except
+ * lookups of a guest's or a stay's reservations, which briefly take the lock to use the row indexes.
  */
 public class Hotel {
     /**
-     * The name of the hotel.
+     * Timer wheel shared by all hotels for expiring room holds (100 ms ticks, 512 buckets).
      */
-    private String name;
+    private static final HoldTimerWheel HOLD_TIMER = new HoldTimerWheel(100, 512);
+
+    /**
+     * Times {@link #addReservation(Reservation)}.
+     */
+    private static final MetricsRegistry.Timer ADD_RESERVATION_TIMER = MetricsRegistry.DEFAULT.timer("hotel.addReservation");
+
+    /**
+     * Times booking batches of requests.
+     */
+    private static final MetricsRegistry.Timer BOOK_TIMER = MetricsRegistry.DEFAULT.timer("hotel.book");
+
+    /**
+     * Times removing reservations.
+     */
+    private static final MetricsRegistry.Timer REMOVE_RESERVATION_TIMER = MetricsRegistry.DEFAULT.timer("hotel.removeReservation");
+
+    /**
+     * Times {@link #isRoomAvailable(Room, int, int)}.
+     */
+    private static final MetricsRegistry.Timer ROOM_AVAILABLE_TIMER = MetricsRegistry.DEFAULT.timer("hotel.isRoomAvailable", 16);
+
+    /**
+     * Times {@link #getAvailableRoomsCount(int)}.
+     */
+    private static final MetricsRegistry.Timer AVAILABLE_COUNT_TIMER = MetricsRegistry.DEFAULT.timer("hotel.getAvailableRoomsCount");
+
+    /**
+     * Times {@link #findAvailableRooms(int, int, String, double, int)}.
+     */
+    private static final MetricsRegistry.Timer FIND_AVAILABLE_TIMER = MetricsRegistry.DEFAULT.timer("hotel.findAvailableRooms");
+
+    /**
+     * Times {@link #estimatedEarnings()}.
+     */
+    private static final MetricsRegistry.Timer EARNINGS_TIMER = MetricsRegistry.DEFAULT.timer("hotel.estimatedEarnings");
+
+    /**
+     * Counts reservations booked, one at a time or in batches.
+     */
+    private static final MetricsRegistry.Counter BOOKED = MetricsRegistry.DEFAULT.counter("reservations.booked");
+
+    /**
+     * Counts booking requests that were not booked.
+     */
+    private static final MetricsRegistry.Counter NOT_BOOKED = MetricsRegistry.DEFAULT.counter("reservations.notBooked");
+
+    /**
+     * Counts reservations removed.
+     */
+    private static final MetricsRegistry.Counter REMOVED = MetricsRegistry.DEFAULT.counter("reservations.removed");
+
+    /**
+     * The maximum number of rooms a hotel can have.
+     */
+    public static final int MAX_ROOMS = 10000;
 
     /**
-     * List of rooms in the hotel.
+     * Orders rooms by type (standard, then deluxe, then executive) and then numerically within each type.
+     * Room numbers and slots are both handed out in increasing order, so the slot gives the numeric order.
+     */
+    private static final Comparator<Room> ROOM_ORDER = Comparator
+            .comparingInt(Room::getTypeCode)
+            .thenComparingInt(Room::getSlot);
+
+    /**
+     * The name of the hotel.
      */
-    private List<Room> rooms;
+    private String name;
 
     /**
-     * List of reservations made at the hotel.
+     * The latest published state of the hotel's rooms, reservations, and occupancy index.
      */
-    private List<Reservation> reservations;
+    private volatile HotelSnapshot snapshot;
 
     /**
-     * Base price for rooms in the hotel.
+     * The base price for rooms in the hotel, from which every room's price is derived.
      */
-    private double basePrice;
+    private RoomPricing pricing;
 
     /**
      * Number of standard rooms in the hotel.
@@ -46,6 +118,67 @@ public class Hotel {
      */
     private DatePriceModifier datePriceModifier;
 
+    /**
+     * Journal that records changes to the hotel, or null if changes are not persisted.
+     */
+    private volatile Journal journal;
+
+    /**
+     * Counts the changes made to the hotel, to tell whether it differs from its stored copy.
+     */
+    private long version = 1;
+
+    /**
+     * The version of the hotel that its stored copy reflects.
+     */
+    private long storedVersion;
+
+    /**
+     * The number of holds that have been placed and not yet ended.
+     */
+    private int activeHolds;
+
+    /**
+     * The number of active holds on each room, by slot; a held room cannot be removed.
+     */
+    private final IntIntMap holdsBySlot = new IntIntMap(16);
+
+    /**
+     * Set once the reservation system has unloaded the hotel to save memory; it must then be looked up again.
+     */
+    private volatile boolean unloaded;
+
+    /**
+     * The first day that has not been retired from the hotel's calendar; earlier days can no longer be booked.
+     */
+    private int firstOpenDay = 1;
+
+    /**
+     * The number of days from the first open day that can be booked, or 0 for no limit.
+     */
+    private int horizonDays;
+
+    /**
+     * The slot the next room added to the hotel gets; slots are never reused.
+     */
+    private int nextSlot;
+
+    /**
+     * The reservation store the row indexes describe, or null if they have not been built.
+     * The indexes are built on the first lookup and kept under the hotel's lock.
+     */
+    private ReservationStore indexedStore;
+
+    /**
+     * Rows of the indexed store by stay key, which combines the room slot and check-in day.
+     */
+    private LongIntMap rowsByStay;
+
+    /**
+     * Rows of the indexed store by guest key.
+     */
+    private IntIntListMap rowsByGuest;
+
     /**
      * Constructs a new Hotel with the specified name and number of each room type.
      * Initializes rooms with default prices and sets up the date price modifier.
@@ -56,34 +189,98 @@ public class Hotel {
      * @param numExecutive Number of executive rooms.
      */
     public Hotel(String name, int numStandard, int numDeluxe, int numExecutive) {
+        this(name, numStandard, numDeluxe, numExecutive, new SymbolTable());
+    }
+
+    /**
+     * Constructs a new Hotel that stores guest names and discount codes in a shared symbol table.
+     * 
+     * @param name The name of the hotel.
+     * @param numStandard Number of standard rooms.
+     * @param numDeluxe Number of deluxe rooms.
+     * @param numExecutive Number of executive rooms.
+     * @param symbols The symbol table of the reservation system.
+     */
+    public Hotel(String name, int numStandard, int numDeluxe, int numExecutive, SymbolTable symbols) {
         this.name = name;                                       // Initialize hotel name
-        this.rooms = new ArrayList<>();                         // Initialize list of rooms
-        this.reservations = new ArrayList<>();                  // Initialize list of reservations
-        this.basePrice = 1299.0;                                // Set base price for rooms
+        this.pricing = new RoomPricing(1299.0);                 // Set base price for rooms
         this.standardRoomCount = numStandard;                   // Set number of standard rooms
         this.deluxeRoomCount = numDeluxe;                       // Set number of deluxe rooms
         this.executiveRoomCount = numExecutive;                 // Set number of executive rooms
         this.datePriceModifier = new DatePriceModifier();       // Initialize date-based price modifier
+        // Rooms are described by how many there are of each type and only created when first used
+        RoomTable rooms = RoomTable.ranges(numStandard, numDeluxe, numExecutive, pricing);
+        this.nextSlot = rooms.slotLimit();
+        this.snapshot = new HotelSnapshot(rooms, symbols);      // Publish the initial state with no reservations
+    }
 
-        int standardCounter = 1;    // Counter for standard room names
-        int deluxeCounter = 1;      // Counter for deluxe room names
-        int executiveCounter = 1;   // Counter for executive room names
+    /**
+     * Recreates a hotel from the state captured in a snapshot.
+     * 
+     * @param image The captured state of the hotel.
+     * @return The restored hotel.
+     */
+    static Hotel restore(SnapshotFile.HotelImage image) {
+        Hotel hotel = new Hotel(image.name, 0, 0, 0);
+        hotel.pricing = image.pricing;
+        hotel.standardRoomCount = image.standardRoomCount;
+        hotel.deluxeRoomCount = image.deluxeRoomCount;
+        hotel.executiveRoomCount = image.executiveRoomCount;
+        hotel.datePriceModifier.addPriceModifiers(image.modifiers);
+        hotel.firstOpenDay = image.firstOpenDay;
+        hotel.snapshot = image.state;
+        hotel.nextSlot = image.state.getRoomTable().slotLimit();
+        hotel.storedVersion = hotel.version;
+        return hotel;
+    }
 
-        // Create and add standard rooms to the list
-        for (int i = 0; i < numStandard; i++) {
-            rooms.add(new StandardRoom("S" + standardCounter, basePrice));
-            standardCounter++;
+    /**
+     * Moves the hotel's occupancy into native memory, for hotels so large that the on-heap index
+     * lengthens garbage collection pauses. The off-heap store is rebuilt from the reservations, so
+     * no holds may be active.
+     * 
+     * @return True if the occupancy is kept off-heap; false if holds are active or the hotel was unloaded.
+     */
+    synchronized boolean useOffHeapOccupancy() {
+        HotelSnapshot current = snapshot;
+        if (current.getOccupancyIndex() instanceof OffHeapOccupancyStore) {
+            return true;
         }
-        // Create and add deluxe rooms to the list
-        for (int i = 0; i < numDeluxe; i++) {
-            rooms.add(new DeluxeRoom("D" + deluxeCounter, basePrice));
-            deluxeCounter++;
+        if (isUnloaded() || activeHolds > 0) {
+            return false;
+        }
+        OffHeapOccupancyStore occupancy = new OffHeapOccupancyStore(nextSlot, horizonDays > 0 ? horizonDays : 366);
+        ReservationStore store = current.getReservationStore();
+        for (int row = 0; row < store.rowCount(); row++) {
+            if (store.isRemoved(row)) {
+                continue;
+            }
+            occupancy.book(store.getRoom(row).getSlot(), store.getCheckInDay(row), store.getCheckOutDay(row));
         }
-        // Create and add executive rooms to the list
-        for (int i = 0; i < numExecutive; i++) {
-            rooms.add(new ExecutiveRoom("E" + executiveCounter, basePrice));
-            executiveCounter++;
+        occupancy.retireBefore(firstOpenDay);
+        snapshot = current.withOccupancyIndex(occupancy);
+        return true;
+    }
+
+    /**
+     * Captures the state of the hotel for a snapshot.
+     * Room prices and booked flags are copied because rooms change them in place.
+     * 
+     * @return The captured state.
+     */
+    synchronized SnapshotFile.HotelImage captureImage() {
+        HotelSnapshot current = snapshot;
+        RoomTable rooms = current.getRoomTable();
+        double[] roomPrices = new double[rooms.size()];
+        boolean[] roomBooked = new boolean[rooms.size()];
+        for (int i = 0; i < rooms.size(); i++) {
+            roomPrices[i] = rooms.priceAt(i);
+            roomBooked[i] = rooms.bookedAt(i);
         }
+
+        Map<Integer, Double> modifiers = new HashMap<>(datePriceModifier.getModifiers());
+        return new SnapshotFile.HotelImage(name, pricing, standardRoomCount, deluxeRoomCount, executiveRoomCount,
+                firstOpenDay, modifiers, current, roomPrices, roomBooked);
     }
 
     /**
@@ -99,97 +296,307 @@ public class Hotel {
      * Sets the name of the hotel.
      * 
      * @param name The new name of the hotel.
+     * @return True if the hotel was renamed; false if it was unloaded and must be looked up again.
      */
-    public void setName(String name) {
+    public synchronized boolean setName(String name) {
+        if (isUnloaded()) {
+            return false;
+        }
+        String oldName = this.name;
+        version++;
         this.name = name;
+        if (journal != null) {
+            journal.logHotelRenamed(oldName, name);
+        }
+        return true;
+    }
+
+    /**
+     * Attaches the journal that records changes to the hotel.
+     * 
+     * @param journal The journal, or null to stop recording changes.
+     */
+    void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Limits how far ahead the hotel can be booked. Stays must end within the given number of days
+     * from the first open day, which moves forward with every {@link #rollOver(int, DayArchive)}.
+     * 
+     * @param days The number of bookable days, or 0 for no limit.
+     */
+    public synchronized void setBookingHorizon(int days) {
+        this.horizonDays = Math.max(0, days);
+    }
+
+    /**
+     * Gets the first day that can still be booked.
+     * 
+     * @return The first open day.
+     */
+    public synchronized int getFirstOpenDay() {
+        return firstOpenDay;
+    }
+
+    /**
+     * Checks if a stay falls within the booking horizon.
+     * 
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     * @return True if the stay starts on or after the first open day and ends within the horizon; false otherwise.
+     */
+    private boolean isWithinHorizon(int checkInDay, int checkOutDay) {
+        return checkInDay >= firstOpenDay && (horizonDays == 0 || checkOutDay < firstOpenDay + horizonDays);
+    }
+
+    /**
+     * Retires the days before a new first open day. The figures of each retired day are handed
+     * to the archive, then the days are dropped from the occupancy index and price modifiers so
+     * the calendar only holds the booking horizon, and reservations that checked out before the
+     * new day move to the hotel's {@link ReservationArchive}. Does nothing if the day has not moved forward.
+     * 
+     * @param today The new first open day, normally the current day.
+     * @param archive The archive to hand the retired days to, or null to drop them without archiving.
+     */
+    public synchronized void rollOver(int today, DayArchive archive) {
+        if (unloaded || today <= firstOpenDay) {
+            return;
+        }
+        HotelSnapshot current = snapshot;
+        if (archive != null) {
+            archiveDays(current, today, archive);
+        }
+        OccupancyStore index = current.getOccupancyIndex().copy();
+        index.retireBefore(today);
+        datePriceModifier.retireBefore(today);
+        ReservationStore store = current.getReservationStore();
+        List<Reservation> completed = new ArrayList<>();
+        for (int row = 0; row < store.rowCount(); row++) {
+            if (store.isRemoved(row)) {
+                continue;
+            }
+            if (store.getCheckOutDay(row) < today) {
+                completed.add(store.get(row));
+            }
+        }
+        snapshot = completed.isEmpty() ? current.withOccupancyIndex(index) : current.withArchived(completed, index);
+        firstOpenDay = today;
+        version++;
+        if (journal != null) {
+            journal.logHorizonRolled(name, today);
+        }
+    }
+
+    /**
+     * Hands the figures of the days from the first open day up to a new one to an archive.
+     * Days before the earliest reservation or price modifier are skipped, since they hold nothing.
+     * 
+     * @param current The snapshot to read the reservations from.
+     * @param today The new first open day.
+     * @param archive The archive to hand the days to.
+     */
+    private void archiveDays(HotelSnapshot current, int today, DayArchive archive) {
+        ReservationStore store = current.getReservationStore();
+        int from = today;
+        for (int row = 0; row < store.rowCount(); row++) {
+            if (store.isRemoved(row)) {
+                continue;
+            }
+            from = Math.min(from, store.getCheckInDay(row));
+        }
+        if (!datePriceModifier.getModifiers().isEmpty()) {
+            from = Math.min(from, datePriceModifier.getModifiers().firstKey());
+        }
+        from = Math.max(from, firstOpenDay);
+        if (from >= today) {
+            return;
+        }
+
+        int[] bookedRooms = new int[today - from];
+        double[] revenue = new double[today - from];
+        for (int row = 0; row < store.rowCount(); row++) {
+            if (store.isRemoved(row)) {
+                continue;
+            }
+            int checkInDay = store.getCheckInDay(row);
+            int checkOutDay = store.getCheckOutDay(row);
+            if (checkInDay >= today || checkOutDay < from) {
+                continue;
+            }
+            double pricePerNight = store.getTotalPrice(row) / (checkOutDay - checkInDay);
+            for (int day = Math.max(checkInDay, from); day <= Math.min(checkOutDay, today - 1); day++) {
+                bookedRooms[day - from]++;
+                if (day < checkOutDay) {
+                    revenue[day - from] += pricePerNight;
+                }
+            }
+        }
+        int roomCount = current.getRooms().size();
+        for (int day = from; day < today; day++) {
+            archive.archiveDay(name, day, bookedRooms[day - from], roomCount, revenue[day - from], datePriceModifier.getModifier(day));
+        }
+    }
+
+    /**
+     * Checks if the hotel was unloaded, in which case it must be looked up again.
+     * Changes made to an unloaded hotel would be lost, so every change checks this first and
+     * reports the refusal to its caller.
+     * 
+     * @return True if the hotel was unloaded; false otherwise.
+     */
+    public boolean isUnloaded() {
+        return unloaded;
+    }
+
+    /**
+     * Gets the message that reports a change refused because the hotel was unloaded.
+     * 
+     * @return The message.
+     */
+    String unloadedMessage() {
+        return "Hotel " + name + " was unloaded; look it up again.";
+    }
+
+    /**
+     * Checks if the hotel can be unloaded, which is not the case while rooms are held.
+     * 
+     * @return True if the hotel can be unloaded; false otherwise.
+     */
+    synchronized boolean canUnload() {
+        return activeHolds == 0;
+    }
+
+    /**
+     * Gets the number of changes made to the hotel. Every change that is journaled increments it
+     * while holding the hotel's lock, in the same step that appends the journal record.
+     * 
+     * @return The version of the hotel.
+     */
+    synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks if the hotel has changed since it was last stored.
+     * 
+     * @return True if the stored copy is out of date or missing; false otherwise.
+     */
+    synchronized boolean isDirty() {
+        return version != storedVersion;
+    }
+
+    /**
+     * Marks the hotel as unloaded; later changes are refused.
+     * 
+     * @param stored Whether the current state was just written to the store.
+     */
+    synchronized void markUnloaded(boolean stored) {
+        if (stored) {
+            storedVersion = version;
+        }
+        unloaded = true;
+        indexedStore = null;
+        rowsByStay = null;
+        rowsByGuest = null;
+    }
+
+    /**
+     * Estimates how many bytes of heap the hotel occupies, from its room and reservation counts.
+     * The per-room figure covers the room object, its name, and its share of the occupancy index on a
+     * 64-bit JVM with compressed pointers; reservation rows, removed ones included until the store is compacted,
+     * take their store columns plus a share of the occupancy index and the guest name dictionary.
+     * 
+     * @return The estimated size in bytes.
+     */
+    long estimateBytes() {
+        HotelSnapshot current = snapshot;
+        return 1024 + current.getRoomTable().materializedCount() * 256L + current.getReservationStore().rowCount() * (ReservationStore.bytesPerRow() + 24L)
+                + current.getArchive().getCompressedBytes();
     }
 
     /**
      * Gets the list of rooms in the hotel.
      * 
-     * @return The list of rooms.
+     * @return An unmodifiable list of rooms as of the latest change.
      */
     public List<Room> getRooms() {
-        return rooms;
+        return snapshot.getRooms();
     }
 
     /**
      * Gets the list of reservations made at the hotel.
      * 
-     * @return The list of reservations.
+     * @return An unmodifiable list of reservations as of the latest change.
      */
     public List<Reservation> getReservations() {
-        return reservations;
+        return snapshot.getReservations();
+    }
+
+    /**
+     * Gets a consistent, immutable view of the hotel's rooms, reservations, and occupancy index.
+     * 
+     * @return The latest snapshot.
+     */
+    public HotelSnapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
      * Adds a new room of the specified type to the hotel.
      * 
      * @param roomType The type of the room to add (standard, deluxe, or executive).
+     * @return True if the room was added; false otherwise.
      */
-    public void addRoom(String roomType) {
-        if (rooms.size() < 50) {
-            switch (roomType.toLowerCase()) {
-                case "standard":
+    public boolean addRoom(String roomType) {
+        String error = tryAddRoom(roomType);
+        System.out.println(error == null ? roomType + " room added successfully." : error);
+        return error == null;
+    }
+
+    /**
+     * Adds a new room of the specified type to the hotel without reporting to the console.
+     * 
+     * @param roomType The type of the room to add (standard, deluxe, or executive).
+     * @return Null if the room was added; otherwise a message explaining why it was not.
+     */
+    synchronized String tryAddRoom(String roomType) {
+        if (isUnloaded()) {
+            return unloadedMessage();
+        }
+        HotelSnapshot current = snapshot;
+        List<Room> rooms = new ArrayList<>(current.getRooms());
+        if (rooms.size() < MAX_ROOMS) {
+            Room room;
+            switch (Room.typeCode(roomType)) {
+                case Room.STANDARD:
                     standardRoomCount++;
-                    rooms.add(new StandardRoom("S" + standardRoomCount, basePrice));
+                    room = new StandardRoom("S" + standardRoomCount, pricing, nextSlot++);
                     break;
-                case "deluxe":
+                case Room.DELUXE:
                     deluxeRoomCount++;
-                    rooms.add(new DeluxeRoom("D" + deluxeRoomCount, basePrice * 1.20));
+                    room = new DeluxeRoom("D" + deluxeRoomCount, pricing, nextSlot++);
                     break;
-                case "executive":
+                case Room.EXECUTIVE:
                     executiveRoomCount++;
-                    rooms.add(new ExecutiveRoom("E" + executiveRoomCount, basePrice * 1.35));
+                    room = new ExecutiveRoom("E" + executiveRoomCount, pricing, nextSlot++);
                     break;
                 default:
-                    System.out.println("Invalid room type.");
-                    return;
+                    return "Invalid room type.";
             }
 
-            // Sort rooms by type and then numerically within each type
-            int n = rooms.size();
-                for (int i = 0; i < n - 1; i++) {
-                    for (int j = 0; j < n - i - 1; j++) {
-                        Room room1 = rooms.get(j);
-                        Room room2 = rooms.get(j + 1);
-        
-                        // Extract room types
-                        char roomType1 = room1.getName().charAt(0);
-                        char roomType2 = room2.getName().charAt(0);
-        
-                        // Define the order of room types ('S' < 'D' < 'E')
-                        String order = "SDE";
-        
-                        // Compare based on predefined order
-                        if (order.indexOf(roomType1) > order.indexOf(roomType2)) {
-                            // Swap rooms
-                            Room temp = rooms.get(j);
-                            rooms.set(j, rooms.get(j + 1));
-                            rooms.set(j + 1, temp);
-                        } else if (roomType1 == roomType2) {
-                            // If same type, extract numeric parts and compare numerically
-                            String numPart1 = room1.getName().substring(1);
-                            String numPart2 = room2.getName().substring(1);
-            
-                            // Convert numeric parts to integers
-                            int num1 = Integer.parseInt(numPart1);
-                            int num2 = Integer.parseInt(numPart2);
-            
-                            // Compare numerically
-                            if (num1 > num2) {
-                                // Swap rooms
-                                Room temp = rooms.get(j);
-                                rooms.set(j, rooms.get(j + 1));
-                                rooms.set(j + 1, temp);
-                            }
-                        }
-                    }
-                }
+            // Keep rooms sorted by type and then numerically within each type
+            int position = Collections.binarySearch(rooms, room, ROOM_ORDER);
+            rooms.add(position < 0 ? -position - 1 : position, room);
 
-            System.out.println(roomType + " room added successfully.");
+            snapshot = current.withRooms(rooms, current.getOccupancyIndex());
+            version++;
+            if (journal != null) {
+                journal.logRoomAdded(name, roomType);
+            }
+            return null;
         } else {
-            System.out.println("Cannot add more rooms! Maximum limit reached.");
+            return "Cannot add more rooms! Maximum limit reached.";
         }
     }
 
@@ -200,35 +607,76 @@ public class Hotel {
      * @return True if the room exists; false otherwise.
      */
     public boolean roomExists(String roomName) {
-        for (Room room : rooms) {
-            if (room.getName().equalsIgnoreCase(roomName)) {
-                return true;
-            }
-        }
-        return false;
+        return snapshot.getRoom(roomName) != null;
     }
 
     /**
      * Removes a room with the specified name from the hotel.
-     * The room must not be booked to be removed.
+     * The room must not be booked or held to be removed.
      * 
      * @param roomName The name of the room to remove.
+     * @return True if the room was removed; false otherwise.
      */
-    public void removeRoom(String roomName) {
-        if (!roomExists(roomName)) {
-            System.out.println("Room " + roomName + " does not exist.");
-            return;
+    public boolean removeRoom(String roomName) {
+        String error = tryRemoveRoom(roomName);
+        System.out.println(error == null ? "Room " + roomName + " removed successfully." : error);
+        return error == null;
+    }
+
+    /**
+     * Removes a room with the specified name from the hotel without reporting to the console.
+     * The room must not be booked or held to be removed.
+     * 
+     * @param roomName The name of the room to remove.
+     * @return Null if the room was removed; otherwise a message explaining why it was not.
+     */
+    synchronized String tryRemoveRoom(String roomName) {
+        if (isUnloaded()) {
+            return unloadedMessage();
+        }
+        HotelSnapshot current = snapshot;
+        Room room = current.getRoom(roomName);
+        if (room == null) {
+            return "Room " + roomName + " does not exist.";
+        }
+        if (room.isBooked() || hasReservations(current, room)) {
+            return "Room " + roomName + " cannot be removed. It is currently booked.";
+        }
+        if (holdsBySlot.containsKey(room.getSlot())) {
+            return "Room " + roomName + " cannot be removed. It is currently held for a booking.";
         }
 
-        for (int i = 0; i < rooms.size(); i++) {
-            Room room = rooms.get(i);
-            if (room.getName().equalsIgnoreCase(roomName) && !room.isBooked()) {
-                rooms.remove(i);
-                System.out.println("Room " + roomName + " removed successfully.");
-                return;
+        List<Room> rooms = new ArrayList<>(current.getRooms());
+        rooms.remove(Collections.binarySearch(rooms, room, ROOM_ORDER));
+        OccupancyStore index = current.getOccupancyIndex().copy();
+        index.removeRoom(room.getSlot());
+        snapshot = current.withRooms(rooms, index);
+        version++;
+        if (journal != null) {
+            journal.logRoomRemoved(name, room.getName());
+        }
+        return null;
+    }
+
+    /**
+     * Checks if any reservation of a snapshot is for a room. The booked flag alone is not enough,
+     * since removing one of a room's reservations clears it.
+     *
+     * @param current The snapshot to look in.
+     * @param room The room.
+     * @return True if the room has a reservation; false otherwise.
+     */
+    private static boolean hasReservations(HotelSnapshot current, Room room) {
+        ReservationStore store = current.getReservationStore();
+        for (int row = 0; row < store.rowCount(); row++) {
+            if (store.isRemoved(row)) {
+                continue;
+            }
+            if (store.getRoom(row) == room) {
+                return true;
             }
         }
-        System.out.println("Room " + roomName + " cannot be removed. It is currently booked.");
+        return false;
     }
 
     /**
@@ -238,12 +686,8 @@ public class Hotel {
      * @return True if the room is booked; false otherwise.
      */
     public boolean isRoomBooked(String roomName) {
-        for (Room room : rooms) {
-            if (room.getName().equalsIgnoreCase(roomName) && room.isBooked()) {
-                return true;
-            }
-        }
-        return false;
+        Room room = snapshot.getRoom(roomName);
+        return room != null && room.isBooked();
     }
 
     /**
@@ -252,7 +696,7 @@ public class Hotel {
      * @return True if there are active reservations; false otherwise.
      */
     public boolean hasActiveReservations() {
-        return !reservations.isEmpty();
+        return !snapshot.getReservations().isEmpty();
     }
 
     /**
@@ -260,21 +704,12 @@ public class Hotel {
      * The price can only be updated if there are no active reservations.
      * 
      * @param newPrice The new price to set.
+     * @return True if the price was updated; false otherwise.
      */
-    public void updatePrice(double newPrice) {
-        if (newPrice >= 100.0) {
-            if (hasActiveReservations()) {
-                System.out.println("Cannot update price as there are active reservations.");
-            } else {
-                for (Room room : rooms) {
-                    room.setPrice(newPrice);
-                }
-                this.basePrice = newPrice;
-                System.out.println("Price updated successfully.");
-            }
-        } else {
-            System.out.println("Price per night must be greater or equal to 100.0!");
-        }
+    public boolean updatePrice(double newPrice) {
+        String error = tryUpdatePrice(newPrice);
+        System.out.println(error == null ? "Price updated successfully." : error);
+        return error == null;
     }
 
     /**
@@ -285,51 +720,536 @@ public class Hotel {
      * @return True if the price was updated successfully; false if there are active reservations.
      */
     public boolean updatePriceGUI(double newPrice) {
-        if (newPrice >= 100.0) {
-            if (hasActiveReservations()) {
-                return false; // Cannot update price if there are active reservations
-            } else {
-                for (Room room : rooms) {
-                    room.setPrice(newPrice);
-                }
-                this.basePrice = newPrice;
-                return true; // Price updated successfully
-            }
-        } else {
-            System.out.println("Price per night must be greater or equal to 100.0!");
-            return false;
+        String error = tryUpdatePrice(newPrice);
+        if (newPrice < 100.0) {
+            System.out.println(error);
         }
+        return error == null;
+    }
+
+    /**
+     * Updates the base price for rooms in the hotel without reporting to the console.
+     * The price can only be updated if there are no active reservations.
+     * 
+     * @param newPrice The new price to set.
+     * @return Null if the price was updated; otherwise a message explaining why it was not.
+     */
+    synchronized String tryUpdatePrice(double newPrice) {
+        if (isUnloaded()) {
+            return unloadedMessage();
+        }
+        if (newPrice < 100.0) {
+            return "Price per night must be greater or equal to 100.0!";
+        }
+        if (hasActiveReservations()) {
+            return "Cannot update price as there are active reservations.";
+        }
+        pricing.setBasePrice(newPrice);     // Every room derives its price from the base price, so one write reprices them all
+        version++;
+        if (journal != null) {
+            journal.logPriceUpdated(name, newPrice);
+        }
+        return null;
     }
 
     /**
      * Adds a reservation to the hotel.
-     * The reservation is added if it is valid.
+     * The reservation is added if it is valid, falls within the booking horizon, and its room is free for the whole stay.
+     * These are the checks {@link #bookBatch(List)} applies when the journal is replayed, so a replay rebuilds the same reservations.
      * 
      * @param reservation The reservation to add.
+     * @return True if the reservation was added; false otherwise, including if the hotel was unloaded.
+     */
+    public synchronized boolean addReservation(Reservation reservation) {
+        if (isUnloaded()) {
+            return false;
+        }
+        ReservationEvents.Booking event = new ReservationEvents.Booking();
+        event.begin();
+        long start = ADD_RESERVATION_TIMER.start();
+        String outcome;
+        int checkInDay = reservation.getCheckInDay();
+        int checkOutDay = reservation.getCheckOutDay();
+        if (!reservation.isValid() || !HotelCalendar.isValidDay(checkInDay) || !HotelCalendar.isValidDay(checkOutDay)) {
+            NOT_BOOKED.increment();
+            outcome = "invalid";
+            System.out.println("Invalid reservation details.");
+        } else if (!isOwnRoom(snapshot, reservation.getRoom())) {
+            NOT_BOOKED.increment();
+            outcome = "unknown room";
+            System.out.println("The room is not a room of hotel " + name + ".");
+        } else if (!isWithinHorizon(checkInDay, checkOutDay)) {
+            NOT_BOOKED.increment();
+            outcome = "outside horizon";
+            System.out.println("The stay is outside the booking horizon.");
+        } else if (!isRoomAvailable(reservation.getRoom(), checkInDay, checkOutDay)) {
+            NOT_BOOKED.increment();
+            outcome = "unavailable";
+            System.out.println("Room " + reservation.getRoom().getName() + " is not available for the selected dates.");
+        } else {
+            double totalPrice = reservation.getTotalPrice(this);
+            commitReservations(Collections.singletonList(reservation));
+            BOOKED.increment();
+            outcome = ReservationEvents.OK;
+            System.out.println("Room " + reservation.getRoom().getName() + " booked successfully. Total price: " + totalPrice);
+        }
+        ADD_RESERVATION_TIMER.stop(start);
+        if (event.shouldCommit()) {
+            Room room = reservation.getRoom();
+            event.hotel = name;
+            event.roomType = room == null ? "" : Room.typeName(room.getTypeCode());
+            event.stayLength = reservation.getCheckOutDay() - reservation.getCheckInDay();
+            event.requests = 1;
+            event.booked = outcome.equals(ReservationEvents.OK) ? 1 : 0;
+            event.outcome = outcome;
+            event.commit();
+        }
+        return outcome.equals(ReservationEvents.OK);
+    }
+
+    /**
+     * Books a batch of reservations as a single unit.
+     * Every request is validated against the occupancy index and the other requests in the batch
+     * in one pass. If all requests are valid they are all booked; otherwise none of them are.
+     * 
+     * @param requests The booking requests to apply.
+     * @return One result per request, in the same order as the requests.
+     */
+    public synchronized List<BookingResult> bookBatch(List<BookingRequest> requests) {
+        return book(requests, true);
+    }
+
+    /**
+     * Books every valid request of a batch, skipping the ones that are invalid or conflict with
+     * existing reservations or earlier requests of the batch. Used by bulk imports, where one bad
+     * row must not hold back the rest.
+     * 
+     * @param requests The booking requests to apply.
+     * @return One result per request, in the same order as the requests.
+     */
+    public synchronized List<BookingResult> importBatch(List<BookingRequest> requests) {
+        return book(requests, false);
+    }
+
+    /**
+     * Validates a batch of requests against the occupancy index in one pass and books them.
+     * 
+     * @param requests The booking requests to apply.
+     * @param allOrNothing Whether a single failed request stops the whole batch from being booked.
+     * @return One result per request, in the same order as the requests.
+     */
+    private List<BookingResult> book(List<BookingRequest> requests, boolean allOrNothing) {
+        if (unloaded) {
+            List<BookingResult> results = new ArrayList<>();
+            for (BookingRequest request : requests) {
+                results.add(new BookingResult(request, BookingResult.Status.REJECTED, null, unloadedMessage()));
+            }
+            return results;
+        }
+        ReservationEvents.Booking event = new ReservationEvents.Booking();
+        event.begin();
+        long start = BOOK_TIMER.start();
+        HotelSnapshot current = snapshot;
+
+        // Days claimed by earlier requests of this batch, so requests cannot overlap each other
+        OccupancyIndex claimed = new OccupancyIndex();
+        List<Reservation> pending = new ArrayList<>();
+        String[] errors = new String[requests.size()];
+        boolean[] conflicts = new boolean[requests.size()];
+        boolean allValid = true;
+
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            Room room = current.getRoom(request.getRoomName());
+            int checkInDay = request.getCheckInDay();
+            int checkOutDay = request.getCheckOutDay();
+
+            if (request.getGuestName() == null || request.getGuestName().isEmpty()) {
+                errors[i] = "Guest name cannot be empty.";
+            } else if (room == null) {
+                errors[i] = "Room " + request.getRoomName() + " does not exist.";
+            } else if (!HotelCalendar.isValidDay(checkInDay) || !HotelCalendar.isValidDay(checkOutDay) || checkInDay > checkOutDay) {
+                errors[i] = "Invalid reservation details.";
+            } else if (!isWithinHorizon(checkInDay, checkOutDay)) {
+                errors[i] = "The stay is outside the booking horizon.";
+            } else if (!current.getOccupancyIndex().isAvailable(room.getSlot(), checkInDay, checkOutDay)
+                    || !claimed.isAvailable(room.getSlot(), checkInDay, checkOutDay)) {
+                errors[i] = "Room " + room.getName() + " is not available for the selected dates.";
+                conflicts[i] = true;
+            } else {
+                claimed.book(room.getSlot(), checkInDay, checkOutDay);
+                pending.add(new Reservation(request.getGuestName(), checkInDay, checkOutDay, room, request.getDiscountCode()));
+                continue;
+            }
+            pending.add(null);
+            allValid = false;
+        }
+
+        List<BookingResult> results = new ArrayList<>();
+        List<Reservation> booked = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            Reservation reservation = pending.get(i);
+            if (errors[i] != null) {
+                BookingResult.Status status = conflicts[i] ? BookingResult.Status.CONFLICT : BookingResult.Status.REJECTED;
+                results.add(new BookingResult(request, status, null, errors[i]));
+            } else if (allOrNothing && !allValid) {
+                results.add(new BookingResult(request, BookingResult.Status.NOT_APPLIED, null, "Batch rejected."));
+            } else {
+                reservation.getTotalPrice(this);
+                booked.add(reservation);
+                results.add(new BookingResult(request, BookingResult.Status.BOOKED, reservation, "Booked."));
+            }
+        }
+        if (!booked.isEmpty()) {
+            commitReservations(booked);
+        }
+        BOOKED.add(booked.size());
+        NOT_BOOKED.add(requests.size() - booked.size());
+        BOOK_TIMER.stop(start);
+        if (event.shouldCommit()) {
+            fillBookingEvent(event, current, requests, booked.size());
+            event.commit();
+        }
+        return results;
+    }
+
+    /**
+     * Fills in a booking event for a batch of requests.
+     * 
+     * @param event The event.
+     * @param current The snapshot the batch was validated against.
+     * @param requests The booking requests.
+     * @param booked The number of requests that were booked.
+     */
+    private void fillBookingEvent(ReservationEvents.Booking event, HotelSnapshot current, List<BookingRequest> requests, int booked) {
+        String roomType = null;
+        long nights = 0;
+        for (BookingRequest request : requests) {
+            Room room = current.getRoom(request.getRoomName());
+            String type = room == null ? "unknown" : Room.typeName(room.getTypeCode());
+            roomType = roomType == null || roomType.equals(type) ? type : "mixed";
+            nights += Math.max(0, request.getCheckOutDay() - request.getCheckInDay());
+        }
+        event.hotel = name;
+        event.roomType = roomType == null ? "" : roomType;
+        event.stayLength = requests.isEmpty() ? 0 : (int) (nights / requests.size());
+        event.requests = requests.size();
+        event.booked = booked;
+        event.outcome = booked == requests.size() ? ReservationEvents.OK : booked == 0 ? "rejected" : "partly rejected";
+    }
+
+    /**
+     * Publishes a snapshot that includes validated, priced reservations in the reservation list and occupancy index.
+     * Must be called while holding the hotel's lock.
+     * 
+     * @param added The reservations to record.
      */
-    public void addReservation(Reservation reservation) {
-        if (reservation.isValid()) {
-            reservations.add(reservation);
+    private void commitReservations(List<Reservation> added) {
+        HotelSnapshot current = snapshot;
+        OccupancyStore index = current.getOccupancyIndex().copy();
+        for (Reservation reservation : added) {
+            index.book(reservation.getRoom().getSlot(), reservation.getCheckInDay(), reservation.getCheckOutDay());
             reservation.getRoom().bookRoom();
-            System.out.println("Room " + reservation.getRoom().getName() + " booked successfully. Total price: " + reservation.getTotalPrice(this));
+            version++;
+            if (journal != null) {
+                journal.logReservationAdded(name, reservation);
+            }
+        }
+        snapshot = current.withReservations(added, index);
+        if (indexedStore == current.getReservationStore()) {
+            ReservationStore store = snapshot.getReservationStore();
+            indexRows(store, indexedStore.rowCount());
+            indexedStore = store;
+        }
+    }
+
+    /**
+     * Places a temporary hold on a room for a range of days.
+     * The days are claimed in the occupancy index until the hold is confirmed, released, or expires.
+     * 
+     * @param room The room to hold.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     * @param holdMillis How long the hold lasts before it expires, in milliseconds.
+     * @return The hold, or null if the room is not free for the whole stay.
+     */
+    public synchronized RoomHold placeHold(Room room, int checkInDay, int checkOutDay, long holdMillis) {
+        HotelSnapshot current = snapshot;
+        if (isUnloaded() || !HotelCalendar.isValidDay(checkInDay) || !HotelCalendar.isValidDay(checkOutDay)
+                || checkInDay > checkOutDay || !isWithinHorizon(checkInDay, checkOutDay) || !isOwnRoom(current, room)
+                || !current.getOccupancyIndex().isAvailable(room.getSlot(), checkInDay, checkOutDay)) {
+            return null;
+        }
+
+        OccupancyStore index = current.getOccupancyIndex().copy();
+        index.book(room.getSlot(), checkInDay, checkOutDay);
+        snapshot = current.withOccupancyIndex(index);
+
+        RoomHold hold = new RoomHold(this, room, checkInDay, checkOutDay);
+        activeHolds++;
+        holdsBySlot.put(room.getSlot(), holdsBySlot.get(room.getSlot(), 0) + 1);
+        HOLD_TIMER.schedule(hold, holdMillis);
+        return hold;
+    }
+
+    /**
+     * Turns an active hold into a reservation.
+     * 
+     * @param hold The hold to confirm.
+     * @param guestName The name of the guest.
+     * @param discountCode The discount code to apply, if any.
+     * @return The new reservation, or null if the hold is no longer active or its room is gone.
+     */
+    public synchronized Reservation confirmHold(RoomHold hold, String guestName, String discountCode) {
+        if (hold.getHotel() != this || !hold.isActive()) {
+            return null;
+        }
+        HOLD_TIMER.cancel(hold);
+        if (!isOwnRoom(snapshot, hold.getRoom())) {
+            endHold(hold, RoomHold.Status.RELEASED);
+            return null;
+        }
+        hold.setStatus(RoomHold.Status.CONFIRMED);
+        forgetHold(hold);
+
+        // The days are already claimed by the hold, so the reservation can be committed directly
+        Reservation reservation = new Reservation(guestName, hold.getCheckInDay(), hold.getCheckOutDay(), hold.getRoom(), discountCode);
+        reservation.getTotalPrice(this);
+        commitReservations(Collections.singletonList(reservation));
+        return reservation;
+    }
+
+    /**
+     * Gives up an active hold and frees its days.
+     * 
+     * @param hold The hold to release.
+     */
+    public synchronized void releaseHold(RoomHold hold) {
+        if (hold.getHotel() == this && hold.isActive()) {
+            HOLD_TIMER.cancel(hold);
+            endHold(hold, RoomHold.Status.RELEASED);
+        }
+    }
+
+    /**
+     * Frees the days of a hold whose time has run out. Called by the hold timer.
+     * 
+     * @param hold The hold that expired.
+     */
+    synchronized void expireHold(RoomHold hold) {
+        if (hold.isActive()) {
+            endHold(hold, RoomHold.Status.EXPIRED);
+        }
+    }
+
+    /**
+     * Frees the days claimed by a hold and records how it ended.
+     * 
+     * @param hold The hold to end.
+     * @param status The final status of the hold.
+     */
+    private void endHold(RoomHold hold, RoomHold.Status status) {
+        HotelSnapshot current = snapshot;
+        OccupancyStore index = current.getOccupancyIndex().copy();
+        index.release(hold.getRoom().getSlot(), hold.getCheckInDay(), hold.getCheckOutDay());
+        snapshot = current.withOccupancyIndex(index);
+        hold.setStatus(status);
+        forgetHold(hold);
+    }
+
+    /**
+     * Stops counting a hold that ended as active on its room.
+     * 
+     * @param hold The hold that ended.
+     */
+    private void forgetHold(RoomHold hold) {
+        activeHolds--;
+        int slot = hold.getRoom().getSlot();
+        int held = holdsBySlot.get(slot, 0);
+        if (held > 1) {
+            holdsBySlot.put(slot, held - 1);
         } else {
-            System.out.println("Invalid reservation details.");
+            holdsBySlot.remove(slot);
+        }
+    }
+
+    /**
+     * Checks if a room is free for every day from check-in to check-out, inclusive.
+     * 
+     * @param room The room to check.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     * @return True if the room is free for the whole stay; false otherwise, or if the room is not one of the hotel's.
+     */
+    public boolean isRoomAvailable(Room room, int checkInDay, int checkOutDay) {
+        ReservationEvents.Availability event = new ReservationEvents.Availability();
+        event.begin();
+        long start = ROOM_AVAILABLE_TIMER.start();
+        HotelSnapshot current = snapshot;
+        boolean available = isOwnRoom(current, room) && current.getOccupancyIndex().isAvailable(room.getSlot(), checkInDay, checkOutDay);
+        ROOM_AVAILABLE_TIMER.stop(start);
+        if (event.shouldCommit()) {
+            event.hotel = name;
+            event.query = "room";
+            event.roomType = room == null ? "" : Room.typeName(room.getTypeCode());
+            event.stayLength = checkOutDay - checkInDay;
+            event.results = available ? 1 : 0;
+            event.commit();
         }
+        return available;
     }
 
     /**
-     * Calculates the estimated earnings from all reservations.
+     * Checks if a room is one of a snapshot's rooms. Slots are only unique within a hotel, so a
+     * room of another hotel, or one removed from this hotel, must not be looked up by its slot.
+     * 
+     * @param current The snapshot.
+     * @param room The room, or null.
+     * @return True if the room is in the snapshot; false otherwise.
+     */
+    private static boolean isOwnRoom(HotelSnapshot current, Room room) {
+        return room != null && current.getRoom(room.getSlot()) == room;
+    }
+
+    /**
+     * Calculates the estimated earnings from all reservations, including archived ones.
      * 
      * @return The estimated earnings.
      */
     public double estimatedEarnings() {
-        double totalEarnings = 0.0;
+        long start = EARNINGS_TIMER.start();
+        HotelSnapshot current = snapshot;
+        ReservationStore store = current.getReservationStore();
+        long totalCents = 0;
 
-        for (Reservation reservation : reservations) {
-            totalEarnings += reservation.getSumPrice();
+        for (int row = 0; row < store.rowCount(); row++) {
+            if (store.isRemoved(row)) {
+                continue;
+            }
+            totalCents += store.getTotalCents(row);
         }
 
-        return totalEarnings;
+        double earnings = current.getArchive().getTotalEarnings() + totalCents / 100.0;
+        EARNINGS_TIMER.stop(start);
+        return earnings;
+    }
+
+    /**
+     * Finds a reservation of a guest, looking at current and future stays before archived ones.
+     * 
+     * @param guestName The name of the guest, compared ignoring case.
+     * @return The reservation, or null if the guest has none.
+     */
+    public Reservation findReservation(String guestName) {
+        HotelSnapshot current;
+        Reservation found = null;
+        synchronized (this) {
+            current = snapshot;
+            int[] rows = guestRows(current, guestName);
+            if (rows.length > 0) {
+                found = current.getReservationStore().get(rows[0]);
+            }
+        }
+        if (found != null) {
+            return found;
+        }
+        List<Reservation> archived = current.getArchive().findByGuest(guestName);
+        return archived.isEmpty() ? null : archived.get(archived.size() - 1);
+    }
+
+    /**
+     * Gets every reservation of a guest, archived ones first.
+     * 
+     * @param guestName The name of the guest, compared ignoring case.
+     * @return The guest's reservations.
+     */
+    public List<Reservation> getGuestHistory(String guestName) {
+        HotelSnapshot current;
+        List<Reservation> hot = new ArrayList<>();
+        synchronized (this) {
+            current = snapshot;
+            ReservationStore store = current.getReservationStore();
+            for (int row : guestRows(current, guestName)) {
+                hot.add(store.get(row));
+            }
+        }
+        List<Reservation> history = current.getArchive().findByGuest(guestName);
+        history.addAll(hot);
+        return history;
+    }
+
+    /**
+     * Finds the store rows of a guest's reservations through the guest index.
+     * Must be called while holding the hotel's lock, with the latest snapshot.
+     * 
+     * @param current The latest snapshot.
+     * @param guestName The name of the guest, compared ignoring case.
+     * @return The rows in increasing order.
+     */
+    private int[] guestRows(HotelSnapshot current, String guestName) {
+        ReservationStore store = current.getReservationStore();
+        int guestKey = store.getSymbols().findKey(guestName);
+        if (guestKey < 0) {
+            return new int[0];
+        }
+        buildRowIndexes(store);
+        int[] rows = rowsByGuest.get(guestKey);
+        // The index lists the newest row first
+        for (int i = 0, j = rows.length - 1; i < j; i++, j--) {
+            int row = rows[i];
+            rows[i] = rows[j];
+            rows[j] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * Makes the row indexes describe a store, rebuilding them if they describe another one.
+     * Must be called while holding the hotel's lock, with the latest store.
+     * 
+     * @param store The latest reservation store.
+     */
+    private void buildRowIndexes(ReservationStore store) {
+        if (indexedStore != store) {
+            if (rowsByStay == null) {
+                rowsByStay = new LongIntMap(store.size());
+                rowsByGuest = new IntIntListMap(store.size());
+            } else {
+                rowsByStay.clear();
+                rowsByGuest.clear();
+            }
+            indexRows(store, 0);
+            indexedStore = store;
+        }
+    }
+
+    /**
+     * Adds rows of a store to the row indexes.
+     * 
+     * @param store The store.
+     * @param from The first row to add; every later row is added too.
+     */
+    private void indexRows(ReservationStore store, int from) {
+        for (int row = from; row < store.rowCount(); row++) {
+            if (store.isRemoved(row)) {
+                continue;
+            }
+            rowsByStay.put(stayKey(store.getRoom(row).getSlot(), store.getCheckInDay(row)), row);
+            rowsByGuest.add(store.getGuestKey(row), row);
+        }
+    }
+
+    /**
+     * Combines a room slot and check-in day into the key of the stay index.
+     * A room cannot have two reservations starting on the same day, so the key identifies one row.
+     * 
+     * @param slot The room slot.
+     * @param checkInDay The check-in day.
+     * @return The stay key.
+     */
+    private static long stayKey(int slot, int checkInDay) {
+        return ((long) slot << 32) | (checkInDay & 0xFFFFFFFFL);
     }
 
     /**
@@ -339,15 +1259,98 @@ public class Hotel {
      * @return The count of available rooms.
      */
     public int getAvailableRoomsCount(int day) {
+        ReservationEvents.Availability event = new ReservationEvents.Availability();
+        event.begin();
+        long start = AVAILABLE_COUNT_TIMER.start();
+        int count = countAvailableRooms(snapshot, day);
+        AVAILABLE_COUNT_TIMER.stop(start);
+        if (event.shouldCommit()) {
+            event.hotel = name;
+            event.query = "day";
+            event.roomType = "";
+            event.stayLength = 1;
+            event.results = count;
+            event.commit();
+        }
+        return count;
+    }
+
+    /**
+     * Counts the rooms of a snapshot that are free on a specific day.
+     * 
+     * @param current The snapshot to count in.
+     * @param day The day to check.
+     * @return The count of available rooms.
+     */
+    private static int countAvailableRooms(HotelSnapshot current, int day) {
+        RoomTable rooms = current.getRoomTable();
         int count = 0;
-        for (Room room : rooms) {
-            if (!room.isBookedOnDay(day, reservations)) {
+        for (int i = 0; i < rooms.size(); i++) {
+            if (!current.getOccupancyIndex().isBooked(rooms.slotAt(i), day)) {
                 count++;
             }
         }
         return count;
     }
 
+    /**
+     * Finds the cheapest rooms of a type that are free for a whole stay.
+     * Only the best {@code limit} rooms are kept while scanning, so the cost does not depend on
+     * how many rooms match.
+     * 
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     * @param roomType The room type to search for (standard, deluxe, or executive), or null for any type.
+     * @param maxPrice The highest acceptable price per night.
+     * @param limit The maximum number of rooms to return.
+     * @return Up to {@code limit} free rooms, cheapest first.
+     */
+    public List<RoomOffer> findAvailableRooms(int checkInDay, int checkOutDay, String roomType, double maxPrice, int limit) {
+        List<RoomOffer> offers = new ArrayList<>();
+        if (limit <= 0) {
+            return offers;
+        }
+        ReservationEvents.Availability event = new ReservationEvents.Availability();
+        event.begin();
+        long start = FIND_AVAILABLE_TIMER.start();
+
+        // Max-heap of the cheapest rooms found so far; the head is the first to be displaced
+        HotelSnapshot current = snapshot;
+        // Rooms are read by position, so the scan creates no rooms that were not created before
+        RoomTable rooms = current.getRoomTable();
+        int type = roomType == null || roomType.isEmpty() ? -1 : Room.typeCode(roomType);
+        PriorityQueue<RoomOffer> cheapest = new PriorityQueue<>(Comparator.comparingDouble(RoomOffer::getPricePerNight).reversed());
+        for (int i = 0; i < rooms.size(); i++) {
+            double price = rooms.priceAt(i);
+            if (price > maxPrice || (type >= 0 && rooms.typeAt(i) != type)) {
+                continue;
+            }
+            if (cheapest.size() == limit && price >= cheapest.peek().getPricePerNight()) {
+                continue;
+            }
+            if (current.getOccupancyIndex().isAvailable(rooms.slotAt(i), checkInDay, checkOutDay)) {
+                cheapest.add(new RoomOffer(name, rooms.nameAt(i), price));
+                if (cheapest.size() > limit) {
+                    cheapest.poll();
+                }
+            }
+        }
+
+        while (!cheapest.isEmpty()) {
+            offers.add(0, cheapest.poll());
+        }
+        FIND_AVAILABLE_TIMER.stop(start);
+        if (event.shouldCommit()) {
+            event.hotel = name;
+            event.query = "search";
+            event.roomType = roomType == null ? "" : roomType.toLowerCase();
+            event.stayLength = checkOutDay - checkInDay;
+            event.results = offers.size();
+            event.commit();
+        }
+        return offers;
+    }
+
     /**
      * Gets the count of booked rooms on a specific day.
      * 
@@ -355,7 +1358,8 @@ public class Hotel {
      * @return The count of booked rooms.
      */
     public int getBookedRoomsCount(int day) {
-        return rooms.size() - getAvailableRoomsCount(day);
+        HotelSnapshot current = snapshot;
+        return current.getRooms().size() - countAvailableRooms(current, day);
     }
 
     /**
@@ -365,43 +1369,54 @@ public class Hotel {
      * @return The room if found; null otherwise.
      */
     public Room getRoomByName(String roomName) {
-        for (Room room : rooms) {
-            if (room.getName().equalsIgnoreCase(roomName)) {
-                return room;
-            }
-        }
-        return null;
+        return snapshot.getRoom(roomName);
     }
 
     /**
-     * Gets the availability of a specific room for the month.
+     * Gets the availability of a specific room for January 2024 (days 1 to 31).
      * 
      * @param roomName The name of the room to check.
      * @return A string representing the room's availability for the month.
      */
     public String getAvailabilityForMonth(String roomName) {
-        String availabilityInfo = "Availability for the month:\n";
-        int numDaysInMonth = 31;
-
-        Room specifiedRoom = null;
-        for (Room room : rooms) {
-            if (room.getName().equalsIgnoreCase(roomName)) {
-                specifiedRoom = room;
-                break;
-            }
-        }
+        return getAvailabilityForMonth(roomName, YearMonth.of(2024, 1));
+    }
+
+    /**
+     * Gets the availability of a specific room for a month.
+     * 
+     * @param roomName The name of the room to check.
+     * @param month The month to show.
+     * @return A string representing the room's availability for the month.
+     */
+    public String getAvailabilityForMonth(String roomName, YearMonth month) {
+        return getAvailability(roomName, HotelCalendar.toDay(month.atDay(1)), HotelCalendar.toDay(month.atEndOfMonth()));
+    }
 
+    /**
+     * Gets the availability of a specific room for a range of days.
+     * Only the requested days are examined, however far ahead they are.
+     * 
+     * @param roomName The name of the room to check.
+     * @param fromDay The first day to show.
+     * @param toDay The last day to show.
+     * @return A string representing the room's availability for each day of the range.
+     */
+    public String getAvailability(String roomName, int fromDay, int toDay) {
+        HotelSnapshot current = snapshot;
+        Room specifiedRoom = current.getRoom(roomName);
         if (specifiedRoom == null) {
             return "Room not found.";
         }
 
-        availabilityInfo += "Room Name: " + specifiedRoom.getName() + "\n";
-
-        for (int day = 1; day <= numDaysInMonth; day++) {
-            boolean isBooked = specifiedRoom.isBookedOnDay(day, reservations);
-            availabilityInfo += "2024-01-" + String.format("%02d", day) + ": " + (isBooked ? "Booked" : "Available") + "\n";
+        StringBuilder availabilityInfo = new StringBuilder("Availability from " + HotelCalendar.format(fromDay)
+                + " to " + HotelCalendar.format(toDay) + ":\n");
+        availabilityInfo.append("Room Name: ").append(specifiedRoom.getName()).append("\n");
+        for (int day = fromDay; day <= toDay; day++) {
+            boolean isBooked = current.getOccupancyIndex().isBooked(specifiedRoom.getSlot(), day);
+            availabilityInfo.append(HotelCalendar.format(day)).append(": ").append(isBooked ? "Booked" : "Available").append("\n");
         }
-        return availabilityInfo;
+        return availabilityInfo.toString();
     }
 
     /**
@@ -411,8 +1426,9 @@ public class Hotel {
      */
     public List<String> displayRoomNames() {
         List<String> roomNames = new ArrayList<>();
-        for (Room room : rooms) {
-            roomNames.add(room.getName());
+        RoomTable rooms = snapshot.getRoomTable();
+        for (int i = 0; i < rooms.size(); i++) {
+            roomNames.add(rooms.nameAt(i));
         }
         return roomNames;
     }
@@ -424,27 +1440,67 @@ public class Hotel {
      * @param roomName The name of the room.
      * @param checkInDay The check-in day.
      * @param checkOutDay The check-out day.
+     * @return True if the reservation was found and removed; false otherwise.
      */
-    public void removeReservation(String guestName, String roomName, int checkInDay, int checkOutDay) {
-        Reservation reservationToRemove = null;
+    public boolean removeReservation(String guestName, String roomName, int checkInDay, int checkOutDay) {
+        if (tryRemoveReservation(guestName, roomName, checkInDay, checkOutDay)) {
+            System.out.println("Reservation removed successfully.");
+            return true;
+        }
+        System.out.println(unloaded ? unloadedMessage() : "Reservation not found.");
+        return false;
+    }
 
-        for (Reservation reservation : reservations) {
-            if (reservation.getGuestName().equalsIgnoreCase(guestName) &&
-                reservation.getRoom().getName().equalsIgnoreCase(roomName) &&
-                reservation.getCheckInDay() == checkInDay &&
-                reservation.getCheckOutDay() == checkOutDay) {
-                reservationToRemove = reservation;
-                break;
-            }
+    /**
+     * Removes a reservation with the specified details without reporting to the console.
+     * 
+     * @param guestName The name of the guest.
+     * @param roomName The name of the room.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     * @return True if the reservation was found and removed; false otherwise.
+     */
+    synchronized boolean tryRemoveReservation(String guestName, String roomName, int checkInDay, int checkOutDay) {
+        if (isUnloaded()) {
+            return false;
         }
+        ReservationEvents.Cancellation event = new ReservationEvents.Cancellation();
+        event.begin();
+        long start = REMOVE_RESERVATION_TIMER.start();
+        HotelSnapshot current = snapshot;
+        ReservationStore store = current.getReservationStore();
+        int rowToRemove = findRow(current, guestName, roomName, checkInDay, checkOutDay);
 
-        if (reservationToRemove != null) {
-            reservations.remove(reservationToRemove);
-            reservationToRemove.getRoom().releaseRoom();
-            System.out.println("Reservation removed successfully.");
-        } else {
-            System.out.println("Reservation not found.");
+        boolean removed = rowToRemove >= 0;
+        if (removed) {
+            Room room = store.getRoom(rowToRemove);
+            OccupancyStore index = current.getOccupancyIndex().copy();
+            index.release(room.getSlot(), checkInDay, checkOutDay);
+            snapshot = current.withoutReservation(rowToRemove, index);
+            ReservationStore newStore = snapshot.getReservationStore();
+            if (indexedStore == store && newStore.rowCount() == store.rowCount()) {
+                // The rows kept their numbers, so the row indexes only lose the removed one
+                rowsByStay.remove(stayKey(room.getSlot(), checkInDay));
+                rowsByGuest.remove(store.getGuestKey(rowToRemove), rowToRemove);
+                indexedStore = newStore;
+            }
+            room.releaseRoom();
+            version++;
+            if (journal != null) {
+                journal.logReservationRemoved(name, guestName, roomName, checkInDay, checkOutDay);
+            }
+            REMOVED.increment();
         }
+        REMOVE_RESERVATION_TIMER.stop(start);
+        if (event.shouldCommit()) {
+            Room room = current.getRoom(roomName);
+            event.hotel = name;
+            event.roomType = room == null ? "" : Room.typeName(room.getTypeCode());
+            event.stayLength = checkOutDay - checkInDay;
+            event.outcome = removed ? ReservationEvents.OK : "not found";
+            event.commit();
+        }
+        return removed;
     }
 
     /**
@@ -456,16 +1512,37 @@ public class Hotel {
      * @param checkOutDay The check-out day.
      * @return True if the reservation exists; false otherwise.
      */
-    public boolean checkReservationExists(String guestName, String roomName, int checkInDay, int checkOutDay) {
-        for (Reservation reservation : reservations) {
-            if (reservation.getGuestName().equalsIgnoreCase(guestName) &&
-                reservation.getRoom().getName().equalsIgnoreCase(roomName) &&
-                reservation.getCheckInDay() == checkInDay &&
-                reservation.getCheckOutDay() == checkOutDay) {
-                return true; // Reservation found
-            }
+    public synchronized boolean checkReservationExists(String guestName, String roomName, int checkInDay, int checkOutDay) {
+        return findRow(snapshot, guestName, roomName, checkInDay, checkOutDay) >= 0;
+    }
+
+    /**
+     * Finds the store row of a reservation with the specified details through the stay index.
+     * Must be called while holding the hotel's lock, with the latest snapshot.
+     * 
+     * @param current The latest snapshot.
+     * @param guestName The name of the guest.
+     * @param roomName The name of the room.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     * @return The row, or -1 if no reservation has the given details.
+     */
+    private int findRow(HotelSnapshot current, String guestName, String roomName, int checkInDay, int checkOutDay) {
+        ReservationStore store = current.getReservationStore();
+        int guestKey = store.getSymbols().findKey(guestName);
+        Room room = current.getRoom(roomName);
+        if (guestKey < 0 || room == null) {
+            return -1;
         }
-        return false; // No reservation found with given details
+        buildRowIndexes(store);
+        int row = rowsByStay.get(stayKey(room.getSlot(), checkInDay), -1);
+        if (row >= 0 &&
+            store.getCheckOutDay(row) == checkOutDay &&
+            store.getRoom(row) == room &&
+            store.getGuestKey(row) == guestKey) {
+            return row;
+        }
+        return -1;
     }
 
     /**
@@ -476,7 +1553,38 @@ public class Hotel {
      * @return True if the modifier was added successfully; false otherwise.
      */
     public boolean addDatePriceModifier(int day, double rate) {
-        return datePriceModifier.addPriceModifier(day, rate);
+        return tryAddDatePriceModifier(day, rate) == null;
+    }
+
+    /**
+     * Adds a date-based price modifier for the specified day without reporting to the console.
+     * Reservations keep the total price they were booked at; the modifier applies to stays priced afterwards.
+     * 
+     * @param day The day to modify.
+     * @param rate The new price rate for the day.
+     * @return Null if the modifier was added; otherwise a message explaining why it was not.
+     */
+    synchronized String tryAddDatePriceModifier(int day, double rate) {
+        if (isUnloaded()) {
+            return unloadedMessage();
+        }
+        if (!HotelCalendar.isValidDay(day)) {
+            return "Day " + day + " is not a day of the calendar.";
+        }
+        if (day < firstOpenDay) {
+            return "Day " + HotelCalendar.toDate(day) + " has already been retired.";
+        }
+        if (!isWithinHorizon(day, day)) {
+            return "Day " + HotelCalendar.toDate(day) + " is outside the booking horizon.";
+        }
+        if (!datePriceModifier.addPriceModifier(day, rate)) {
+            return "Invalid rate. Rate must be between 0.5 (50%) and 1.5 (150%).";
+        }
+        version++;
+        if (journal != null) {
+            journal.logDatePriceModifierAdded(name, day, rate);
+        }
+        return null;
     }
 
     /**
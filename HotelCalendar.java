@@ -0,0 +1,89 @@
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Converts between calendar dates and the day numbers used throughout the reservation system.
+ * Day numbers count days from an epoch of 2023-12-31, so day 1 is 2024-01-01 and the days 1 to 31
+ * used before multi-year calendars keep their meaning, while later days simply reach further ahead.
+ */
+public final class HotelCalendar {
+    /**
+     * The date of day 0.
+     */
+    public static final LocalDate EPOCH = LocalDate.of(2023, 12, 31);
+
+    /**
+     * The last day that can be booked or priced (2099-12-31).
+     */
+    public static final int MAX_DAY = toDay(LocalDate.of(2099, 12, 31));
+
+    private HotelCalendar() {
+    }
+
+    /**
+     * Gets the day number of a date.
+     *
+     * @param date The date.
+     * @return The day number.
+     */
+    public static int toDay(LocalDate date) {
+        return (int) (date.toEpochDay() - EPOCH.toEpochDay());
+    }
+
+    /**
+     * Gets the day number of the current date in the system time zone.
+     *
+     * @return Today's day number.
+     */
+    public static int today() {
+        return toDay(LocalDate.now());
+    }
+
+    /**
+     * Gets the date of a day number.
+     *
+     * @param day The day number.
+     * @return The date.
+     */
+    public static LocalDate toDate(int day) {
+        return EPOCH.plusDays(day);
+    }
+
+    /**
+     * Formats a day number as an ISO date, such as 2024-01-15.
+     *
+     * @param day The day number.
+     * @return The formatted date.
+     */
+    public static String format(int day) {
+        return toDate(day).toString();
+    }
+
+    /**
+     * Checks if a day number is within the bookable calendar.
+     *
+     * @param day The day number.
+     * @return True if the day is between 1 and {@link #MAX_DAY}; false otherwise.
+     */
+    public static boolean isValidDay(int day) {
+        return day >= 1 && day <= MAX_DAY;
+    }
+
+    /**
+     * Parses a day given either as a day number or as an ISO date.
+     *
+     * @param text The day number or date, such as "15" or "2025-03-01".
+     * @return The day number, or -1 if the text is neither.
+     */
+    public static int parseDay(String text) {
+        String trimmed = text == null ? "" : text.trim();
+        try {
+            if (trimmed.indexOf('-', 1) > 0) {
+                return toDay(LocalDate.parse(trimmed));
+            }
+            return Integer.parseInt(trimmed);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return -1;
+        }
+    }
+}
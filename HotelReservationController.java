@@ -30,6 +30,7 @@ public class HotelReservationController {
         this.view.addDisplayRoomAvailabilityListener(new DisplayRoomAvailabilityListener());
         this.view.addShowHotelEarningsListener(new ShowHotelEarningsListener());
         this.view.addDatePriceModifierListener(new DatePriceModifierListener());
+        this.view.addCancelQueryListener(new CancelQueryListener());
         this.view.addExitListener(new ExitListener());
     }
 
@@ -131,6 +132,20 @@ public class HotelReservationController {
         }
     }
 
+    /**
+     * ActionListener for cancelling the query that is running in the background.
+     */
+    class CancelQueryListener implements ActionListener {
+        /**
+         * Invoked when the user asks to cancel the running query.
+         *
+         * @param e The event to be processed.
+         */
+        public void actionPerformed(ActionEvent e) {
+            view.cancelActiveQuery();
+        }
+    }
+
     /**
      * ActionListener for Exit Button.
      */
@@ -141,6 +156,7 @@ public class HotelReservationController {
          * @param e The event to be processed.
          */
         public void actionPerformed(ActionEvent e) {
+            view.cancelActiveQuery();
             System.exit(0);
         }
     }
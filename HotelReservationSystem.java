@@ -1,15 +1,169 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Represents the hotel reservation system that manages a list of hotels and provides
  * functionalities for creating hotels, viewing and managing hotels, simulating bookings,
  * displaying room availability, showing hotel earnings, and applying date-based price modifiers.
+ *
+ * Hotels loaded from a snapshot stay encoded in the memory-mapped file until {@link #getHotel(String)}
+ * first asks for them. With a memory budget set, the least recently used hotels are unloaded again
+ * when the loaded hotels outgrow it; hotels that changed are first written back to a spill file.
  */
 public class HotelReservationSystem {
+    /**
+     * How long rooms offered during a simulated booking stay held for the guest, in milliseconds.
+     */
+    private static final long BOOKING_HOLD_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * How many of the cheapest free rooms a simulated booking offers and holds for the guest.
+     */
+    private static final int BOOKING_OFFERS = 5;
+
+    /**
+     * How many times the hotels are captured again for a snapshot while changes keep arriving, before the snapshot is given up.
+     */
+    private static final int MAX_CAPTURE_ROUNDS = 16;
+
+    /**
+     * Background thread that writes snapshot files.
+     */
+    private static final ExecutorService SNAPSHOT_WRITER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Background thread that rolls the booking horizon forward as days pass.
+     */
+    private static final ScheduledExecutorService DAY_ROLLER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "day-roller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The loaded hotels, least recently used first when a memory budget is set.
+     */
     private List<Hotel> hotels;
 
+    /**
+     * Hotels that are not loaded, by name, with the encoded copy they are loaded from.
+     */
+    private Map<String, StoredHotel> storedHotels = new HashMap<>();
+
+    /**
+     * The encoded copy each loaded hotel was loaded from, if any.
+     */
+    private Map<Hotel, StoredHotel> loadedFrom = new IdentityHashMap<>();
+
+    /**
+     * Whether hotels keep their occupancy in native memory instead of on the heap.
+     */
+    private boolean offHeapOccupancy;
+
+    /**
+     * The guest names and discount codes of every hotel's reservations, shared so that each is stored once.
+     */
+    private final SymbolTable symbols = new SymbolTable();
+
+    /**
+     * The estimated heap size above which loaded hotels are unloaded, in bytes.
+     */
+    private long memoryBudgetBytes = Long.MAX_VALUE;
+
+    /**
+     * The directory that changed hotels are written back to when they are unloaded, or null to never unload.
+     */
+    private Path spillDirectory;
+
+    /**
+     * Numbers the spill files so a file is never overwritten while a snapshot may still copy it.
+     */
+    private long spillSequence;
+
+    /**
+     * The number of hotels loaded from their encoded copy.
+     */
+    private long hotelLoads;
+
+    /**
+     * The number of hotels unloaded to stay within the memory budget.
+     */
+    private long hotelEvictions;
+
+    /**
+     * The number of unloaded hotels that had changed and were written back.
+     */
+    private long hotelWriteBacks;
+
+    /**
+     * Journal that records changes to the hotels, or null if changes are not persisted.
+     */
+    private Journal journal;
+
+    /**
+     * Snapshot file written by {@link #writeSnapshot()}, or null if snapshots are not kept.
+     */
+    private Path snapshotPath;
+
+    /**
+     * The number of days ahead that hotels can be booked, or 0 for no limit.
+     */
+    private int horizonDays;
+
+    /**
+     * The archive that days retired from the hotels' calendars are handed to, or null to drop them.
+     */
+    private DayArchive dayArchive;
+
+    /**
+     * The latest day the hotels were rolled over to, or 0 if they never were.
+     */
+    private int currentDay;
+
+    /**
+     * An encoded hotel that can be loaded again: a region of the snapshot or a spill file.
+     */
+    private static class StoredHotel {
+        final ByteBuffer encoded;
+        final Path spillFile;
+
+        /**
+         * Constructs a StoredHotel.
+         *
+         * @param encoded The encoded hotel.
+         * @param spillFile The spill file the hotel was written to, or null if it is part of the snapshot.
+         */
+        StoredHotel(ByteBuffer encoded, Path spillFile) {
+            this.encoded = encoded;
+            this.spillFile = spillFile;
+        }
+    }
+
     /**
      * Constructs a new HotelReservationSystem with an empty list of hotels.
      */
@@ -17,6 +171,121 @@ public class HotelReservationSystem {
         this.hotels = new ArrayList<>();
     }
 
+    /**
+     * Constructs a HotelReservationSystem from a journal.
+     * The journal is replayed to rebuild the hotels, and every later change is recorded in it.
+     * 
+     * @param journal The journal to replay and record changes in.
+     * @throws IOException If the journal cannot be read.
+     */
+    public HotelReservationSystem(Journal journal) throws IOException {
+        this(journal, null);
+    }
+
+    /**
+     * Constructs a HotelReservationSystem from a snapshot and a journal.
+     * The snapshot is loaded if it exists, then only the journal records written after it are replayed.
+     * A snapshot that cannot be read is ignored and the whole journal is replayed instead.
+     * 
+     * @param journal The journal to replay and record changes in.
+     * @param snapshotPath The snapshot file to load and later write, or null to replay the whole journal.
+     * @throws IOException If the journal cannot be read.
+     */
+    public HotelReservationSystem(Journal journal, Path snapshotPath) throws IOException {
+        this();
+        long position = 0;
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            try {
+                position = SnapshotFile.load(snapshotPath, this);
+            } catch (IOException e) {
+                System.out.println("Could not load snapshot " + snapshotPath + ": " + e.getMessage());
+                hotels.clear();
+                storedHotels.clear();
+                position = 0;
+            }
+        }
+        journal.replay(this, position);
+        this.journal = journal;
+        this.snapshotPath = snapshotPath;
+        for (Hotel hotel : hotels) {
+            hotel.setJournal(journal);
+        }
+    }
+
+    /**
+     * Opens the reservation system backed by the journal file named by the {@code hotel.journal}
+     * system property (default {@code hotels.journal}) and the snapshot file named by
+     * {@code hotel.snapshot} (default {@code hotels.snapshot}). Group commit is tuned with
+     * {@code hotel.journal.fsyncMillis} and {@code hotel.journal.fsyncBatch}.
+     * Journal segments roll over at {@code hotel.journal.segmentBytes}, and a background
+     * {@link Checkpointer} writes a snapshot every {@code hotel.checkpoint.intervalMillis} once at
+     * least {@code hotel.checkpoint.minBytes} of journal has accumulated, at no more than
+     * {@code hotel.checkpoint.bytesPerSecond}, then deletes the segments it covers. Loaded hotels
+     * are kept within {@code hotel.memoryBudgetBytes}, spilling changed ones next to the snapshot.
+     * If {@code hotel.horizonDays} is set, hotels can only be booked that many days ahead and the
+     * horizon rolls forward daily, appending the retired days to {@code hotel.dayArchive}
+     * (default {@code hotels.days.csv}). Setting {@code hotel.occupancy.offHeap} to true keeps the
+     * hotels' occupancy in native memory.
+     * A final checkpoint is taken on shutdown so the next start replays little or no journal.
+     * Falls back to an in-memory system if the journal cannot be opened.
+     * 
+     * @return The reservation system.
+     */
+    public static HotelReservationSystem open() {
+        String path = System.getProperty("hotel.journal", "hotels.journal");
+        String snapshot = System.getProperty("hotel.snapshot", "hotels.snapshot");
+        long fsyncMillis = Long.getLong("hotel.journal.fsyncMillis", 50);
+        int fsyncBatch = Integer.getInteger("hotel.journal.fsyncBatch", 256);
+        long segmentBytes = Long.getLong("hotel.journal.segmentBytes", 16L << 20);
+        long checkpointMillis = Long.getLong("hotel.checkpoint.intervalMillis", 60_000);
+        long checkpointMinBytes = Long.getLong("hotel.checkpoint.minBytes", 1L << 20);
+        long checkpointRate = Long.getLong("hotel.checkpoint.bytesPerSecond", 8L << 20);
+        long memoryBudget = Long.getLong("hotel.memoryBudgetBytes", 256L << 20);
+        int horizonDays = Integer.getInteger("hotel.horizonDays", 0);
+        String dayArchivePath = System.getProperty("hotel.dayArchive", "hotels.days.csv");
+        boolean offHeapOccupancy = Boolean.getBoolean("hotel.occupancy.offHeap");
+        try {
+            Journal journal = new Journal(Paths.get(path), fsyncMillis, fsyncBatch, segmentBytes);
+            HotelReservationSystem system = new HotelReservationSystem(journal, Paths.get(snapshot));
+            system.setMemoryBudget(memoryBudget, Paths.get(snapshot + ".spill"));
+            if (offHeapOccupancy) {
+                system.useOffHeapOccupancy();
+            }
+            System.out.println("Replayed " + journal.getReplayedRecords() + " journal records ("
+                    + journal.getReplayedBytes() + " bytes) in " + journal.getReplayMillis() + " ms.");
+            CsvDayArchive dayArchive = null;
+            if (horizonDays > 0) {
+                dayArchive = new CsvDayArchive(Paths.get(dayArchivePath));
+                system.setBookingHorizon(horizonDays, dayArchive);
+                // Checked hourly so the roll-over happens soon after midnight; checks on the same day do nothing
+                DAY_ROLLER.scheduleAtFixedRate(() -> system.rollOver(HotelCalendar.today()), 0, 1, TimeUnit.HOURS);
+            }
+            CsvDayArchive archive = dayArchive;
+            Checkpointer checkpointer = new Checkpointer(system, checkpointMillis, checkpointMinBytes, checkpointRate);
+            checkpointer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                checkpointer.close();
+                checkpointer.checkpoint(0, 0);
+                if (archive != null) {
+                    try {
+                        archive.close();
+                    } catch (IOException e) {
+                        System.err.println("Could not close day archive: " + e.getMessage());
+                    }
+                }
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    System.err.println("Could not close journal: " + e.getMessage());
+                }
+            }));
+            return system;
+        } catch (IOException e) {
+            System.out.println("Could not open journal " + path + ": " + e.getMessage());
+            return new HotelReservationSystem();
+        }
+    }
+
     /**
      * Creates a new hotel and adds it to the system.
      * 
@@ -25,34 +294,474 @@ public class HotelReservationSystem {
      * @param numDeluxe The number of Deluxe rooms.
      * @param numExecutive The number of Executive rooms.
      */
-    public void createHotel(String name, int numStandard, int numDeluxe, int numExecutive) {
+    public synchronized void createHotel(String name, int numStandard, int numDeluxe, int numExecutive) {
+        ReservationEvents.HotelCreation event = new ReservationEvents.HotelCreation();
+        event.begin();
         if (getHotel(name) != null) {
             System.out.println("Hotel name must be unique.");
+            commitHotelCreation(event, name, numStandard + numDeluxe + numExecutive, "duplicate name");
             return;
         }
 
         if ((numStandard + numDeluxe + numExecutive) < 1 || 
-            (numStandard + numDeluxe + numExecutive) > 50) {
-            System.out.println("Total number of rooms must be between 1 and 50.");
+            (numStandard + numDeluxe + numExecutive) > Hotel.MAX_ROOMS) {
+            System.out.println("Total number of rooms must be between 1 and " + Hotel.MAX_ROOMS + ".");
+            commitHotelCreation(event, name, numStandard + numDeluxe + numExecutive, "invalid room count");
             return;
         }
 
-        hotels.add(new Hotel(name, numStandard, numDeluxe, numExecutive));
+        Hotel hotel = new Hotel(name, numStandard, numDeluxe, numExecutive, symbols);
+        hotels.add(hotel);
+        if (journal != null) {
+            journal.logHotelCreated(name, numStandard, numDeluxe, numExecutive);
+            hotel.setJournal(journal);
+        }
+        joinHorizon(hotel);
+        joinOccupancy(hotel);
+        unloadOverBudget(hotel);
+        commitHotelCreation(event, name, numStandard + numDeluxe + numExecutive, ReservationEvents.OK);
     }
 
     /**
-     * Retrieves a hotel by its name.
+     * Records a hotel creation event if Flight Recorder is recording it.
      * 
+     * @param event The event, begun when the creation started.
      * @param name The name of the hotel.
-     * @return The hotel with the specified name, or null if not found.
+     * @param rooms The number of rooms asked for.
+     * @param outcome {@link ReservationEvents#OK}, or why the hotel was not created.
+     */
+    private static void commitHotelCreation(ReservationEvents.HotelCreation event, String name, int rooms, String outcome) {
+        if (event.shouldCommit()) {
+            event.hotel = name;
+            event.rooms = rooms;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds a hotel loaded from a snapshot.
+     * 
+     * @param hotel The restored hotel.
+     */
+    synchronized void restoreHotel(Hotel hotel) {
+        hotels.add(hotel);
+        if (journal != null) {
+            hotel.setJournal(journal);
+        }
+        joinHorizon(hotel);
+        joinOccupancy(hotel);
+    }
+
+    /**
+     * Limits how far ahead hotels can be booked and sets where the days they retire are archived.
+     * Hotels that are not loaded pick the horizon up, and catch up on the days that passed, when
+     * they are next loaded.
+     * 
+     * @param days The number of days ahead that can be booked, or 0 for no limit.
+     * @param archive The archive for retired days, or null to drop them.
+     */
+    public synchronized void setBookingHorizon(int days, DayArchive archive) {
+        this.horizonDays = Math.max(0, days);
+        this.dayArchive = archive;
+        for (Hotel hotel : hotels) {
+            hotel.setBookingHorizon(horizonDays);
+        }
+    }
+
+    /**
+     * Moves the booking horizon of every loaded hotel forward to a new day, retiring and archiving
+     * the days before it. Does nothing for days that have already been rolled over to.
+     * 
+     * @param today The new first open day, normally {@link HotelCalendar#today()}.
+     */
+    public synchronized void rollOver(int today) {
+        if (today <= currentDay) {
+            return;
+        }
+        currentDay = today;
+        for (Hotel hotel : hotels) {
+            hotel.rollOver(today, dayArchive);
+        }
+        if (dayArchive != null) {
+            dayArchive.flush();
+        }
+    }
+
+    /**
+     * Applies the booking horizon to a hotel that was just created or loaded, retiring the days
+     * that passed while it was not loaded.
+     * 
+     * @param hotel The hotel.
+     */
+    private void joinHorizon(Hotel hotel) {
+        hotel.setBookingHorizon(horizonDays);
+        if (currentDay > 0) {
+            hotel.rollOver(currentDay, dayArchive);
+            if (dayArchive != null) {
+                dayArchive.flush();
+            }
+        }
+    }
+
+    /**
+     * Keeps the occupancy of every hotel in native memory from now on, which shortens garbage
+     * collection pauses for portfolios with very many rooms. Loaded hotels are moved off-heap
+     * right away, unless they have active holds, and the others when they are next created or loaded.
+     */
+    public synchronized void useOffHeapOccupancy() {
+        offHeapOccupancy = true;
+        for (Hotel hotel : hotels) {
+            hotel.useOffHeapOccupancy();
+        }
+    }
+
+    /**
+     * Moves the occupancy of a hotel that was just created or loaded off-heap, if the system keeps it there.
+     * 
+     * @param hotel The hotel.
+     */
+    private void joinOccupancy(Hotel hotel) {
+        if (offHeapOccupancy) {
+            hotel.useOffHeapOccupancy();
+        }
+    }
+
+    /**
+     * Gets the symbol table the hotels of the system store guest names and discount codes in.
+     * 
+     * @return The symbol table.
+     */
+    SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Registers a hotel of a snapshot without loading it.
+     * 
+     * @param name The name of the hotel.
+     * @param encoded The encoded hotel, mapped from the snapshot.
+     */
+    synchronized void registerStoredHotel(String name, ByteBuffer encoded) {
+        storedHotels.put(name, new StoredHotel(encoded, null));
+    }
+
+    /**
+     * Limits the estimated heap size of the loaded hotels. When loading or creating a hotel takes
+     * the total over the budget, the least recently used hotels without active holds are unloaded
+     * and changed ones are written to the spill directory first. Spill files only live as long as the
+     * process, since the journal holds every change they contain; files left by an earlier run are deleted.
+     * 
+     * @param budgetBytes The estimated heap size above which hotels are unloaded, in bytes.
+     * @param directory The directory to write changed hotels to.
+     * @throws IOException If the directory cannot be created or cleaned.
+     */
+    public synchronized void setMemoryBudget(long budgetBytes, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.hotel")) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        this.memoryBudgetBytes = budgetBytes;
+        this.spillDirectory = directory;
+        unloadOverBudget(null);
+    }
+
+    /**
+     * Unloads least recently used hotels until the loaded ones fit the memory budget.
+     * 
+     * @param keep A hotel that must stay loaded, or null.
      */
-    public Hotel getHotel(String name) {
+    private void unloadOverBudget(Hotel keep) {
+        if (spillDirectory == null) {
+            return;
+        }
+        long total = 0;
         for (Hotel hotel : hotels) {
+            total += hotel.estimateBytes();
+        }
+
+        for (Iterator<Hotel> it = hotels.iterator(); total > memoryBudgetBytes && it.hasNext();) {
+            Hotel hotel = it.next();
+            if (hotel == keep) {
+                continue;
+            }
+            long size = hotel.estimateBytes();
+            StoredHotel stored = loadedFrom.get(hotel);
+            synchronized (hotel) {
+                if (!hotel.canUnload()) {
+                    continue;
+                }
+                boolean writeBack = stored == null || hotel.isDirty();
+                if (writeBack) {
+                    Path file = spillDirectory.resolve(spillSequence++ + ".hotel");
+                    try {
+                        stored = new StoredHotel(SnapshotFile.writeHotelFile(file, hotel.captureImage()), file);
+                    } catch (IOException e) {
+                        System.out.println("Could not write back hotel " + hotel.getName() + ": " + e.getMessage());
+                        continue;
+                    }
+                    hotelWriteBacks++;
+                    deleteSpillFile(loadedFrom.get(hotel));
+                }
+                hotel.markUnloaded(writeBack);
+            }
+            it.remove();
+            loadedFrom.remove(hotel);
+            storedHotels.put(hotel.getName(), stored);
+            hotelEvictions++;
+            total -= size;
+        }
+    }
+
+    /**
+     * Deletes the spill file of a stored hotel that is no longer needed.
+     * A snapshot being written may still copy from its mapping, which stays readable after deletion.
+     * 
+     * @param stored The stored hotel, or null.
+     */
+    private static void deleteSpillFile(StoredHotel stored) {
+        if (stored != null && stored.spillFile != null) {
+            try {
+                Files.deleteIfExists(stored.spillFile);
+            } catch (IOException e) {
+                // Left for the next start to clean up
+            }
+        }
+    }
+
+    /**
+     * Gets the number of hotels loaded from their encoded copy.
+     * 
+     * @return The number of loads.
+     */
+    public synchronized long getHotelLoads() {
+        return hotelLoads;
+    }
+
+    /**
+     * Gets the number of hotels unloaded to stay within the memory budget.
+     * 
+     * @return The number of evictions.
+     */
+    public synchronized long getHotelEvictions() {
+        return hotelEvictions;
+    }
+
+    /**
+     * Gets the number of unloaded hotels that had changed and were written back.
+     * 
+     * @return The number of write-backs.
+     */
+    public synchronized long getHotelWriteBacks() {
+        return hotelWriteBacks;
+    }
+
+    /**
+     * Gets the number of hotels currently loaded.
+     * 
+     * @return The number of loaded hotels.
+     */
+    public synchronized int getLoadedHotelCount() {
+        return hotels.size();
+    }
+
+    /**
+     * Adds the system's gauges to {@link MetricsRegistry#DEFAULT} and exports every metric as a platform MBean.
+     * The per-hotel gauges cover the loaded hotels, so reading them never loads one. Only one system
+     * per JVM should export its gauges; a later one replaces them.
+     * 
+     * @return True if the metrics were exported; false if they could not be.
+     */
+    public boolean exportMetrics() {
+        MetricsRegistry metrics = MetricsRegistry.DEFAULT;
+        metrics.gauge("hotels.loaded", this::getLoadedHotelCount);
+        metrics.gauge("hotels.loads", this::getHotelLoads);
+        metrics.gauge("hotels.evictions", this::getHotelEvictions);
+        metrics.gaugeSet("hotel.rooms", () -> perLoadedHotel(hotel -> hotel.getRooms().size()));
+        metrics.gaugeSet("hotel.reservations", () -> perLoadedHotel(hotel -> hotel.getReservations().size()));
+        return metrics.registerMBeans();
+    }
+
+    /**
+     * Computes a value for every loaded hotel.
+     * 
+     * @param value Computes the value for a hotel.
+     * @return The value of each loaded hotel, by hotel name.
+     */
+    private Map<String, Long> perLoadedHotel(ToLongFunction<Hotel> value) {
+        List<Hotel> loaded;
+        synchronized (this) {
+            loaded = new ArrayList<>(hotels);
+        }
+        Map<String, Long> values = new HashMap<>();
+        for (Hotel hotel : loaded) {
+            values.put(hotel.getName(), value.applyAsLong(hotel));
+        }
+        return values;
+    }
+
+    /**
+     * Writes a snapshot of every hotel in the background.
+     * Each hotel is captured under its own lock, which only takes as long as copying its room
+     * prices, and hotels that changed meanwhile are captured again, so the snapshot matches the
+     * journal position exactly without ever locking every hotel at once. Hotels that are not
+     * loaded are copied from their encoded form. The journal is flushed before the snapshot is
+     * renamed into place, so a snapshot never gets ahead of it.
+     * 
+     * @return A future that completes with the snapshot's journal position once the file is in place,
+     *         or with null if the system keeps no snapshots.
+     */
+    public CompletableFuture<Long> writeSnapshot() {
+        return writeSnapshot(0);
+    }
+
+    /**
+     * Writes a snapshot of every hotel in the background at a limited rate.
+     * 
+     * @param maxBytesPerSecond The write rate limit in bytes per second, or 0 for no limit.
+     * @return A future that completes with the snapshot's journal position once the file is in place,
+     *         or with null if the system keeps no snapshots. It fails if the hotels kept changing
+     *         while they were captured.
+     */
+    public CompletableFuture<Long> writeSnapshot(long maxBytesPerSecond) {
+        if (journal == null || snapshotPath == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<SnapshotFile.HotelImage> images = new ArrayList<>();
+        synchronized (this) {
+            long position = captureImages(hotels, images);
+            if (position < 0) {
+                return CompletableFuture.failedFuture(new IllegalStateException(
+                        "Hotels kept changing while they were captured; the snapshot was skipped."));
+            }
+            for (Map.Entry<String, StoredHotel> stored : storedHotels.entrySet()) {
+                images.add(new SnapshotFile.HotelImage(stored.getKey(), stored.getValue().encoded.duplicate()));
+            }
+            // Submitted under the lock so snapshots are written in the order they were captured
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    journal.flush();
+                    SnapshotFile.write(snapshotPath, position, images, maxBytesPerSecond);
+                    return position;
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not write snapshot " + snapshotPath, e);
+                }
+            }, SNAPSHOT_WRITER);
+        }
+    }
+
+    /**
+     * Gets the journal that records changes to the hotels.
+     * 
+     * @return The journal, or null if changes are not persisted.
+     */
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Captures every hotel, one lock at a time, at a single journal position.
+     * A hotel appends its journal records while holding its lock and bumps its version in the same
+     * step, so a hotel whose version did not move between its capture and a check made after the
+     * position was read has no record on either side of the position that its image disagrees with.
+     * Hotels that did change are captured again until none has. Must be called while holding the
+     * system's lock, so no hotel is created or removed meanwhile.
+     * 
+     * @param toCapture The hotels to capture.
+     * @param images The list receiving the captured hotels.
+     * @return The journal position matching the captured state, or -1 if hotels were still changing
+     *         after {@link #MAX_CAPTURE_ROUNDS} attempts.
+     */
+    private long captureImages(List<Hotel> toCapture, List<SnapshotFile.HotelImage> images) {
+        SnapshotFile.HotelImage[] captured = new SnapshotFile.HotelImage[toCapture.size()];
+        long[] versions = new long[toCapture.size()];
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < toCapture.size(); i++) {
+            changed.add(i);
+        }
+        for (int round = 0; round < MAX_CAPTURE_ROUNDS; round++) {
+            for (int i : changed) {
+                Hotel hotel = toCapture.get(i);
+                synchronized (hotel) {
+                    captured[i] = hotel.captureImage();
+                    versions[i] = hotel.getVersion();
+                }
+            }
+            long position = journal.getPosition();
+            changed.clear();
+            for (int i = 0; i < toCapture.size(); i++) {
+                if (toCapture.get(i).getVersion() != versions[i]) {
+                    changed.add(i);
+                }
+            }
+            if (changed.isEmpty()) {
+                images.addAll(Arrays.asList(captured));
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves a hotel by its name, loading it if it is not loaded yet.
+     * 
+     * @param name The name of the hotel.
+     * @return The hotel with the specified name, or null if not found.
+     */
+    public synchronized Hotel getHotel(String name) {
+        for (int i = 0; i < hotels.size(); i++) {
+            Hotel hotel = hotels.get(i);
             if (hotel.getName().equals(name)) {
+                if (spillDirectory != null && i < hotels.size() - 1) {
+                    hotels.remove(i);
+                    hotels.add(hotel); // Most recently used last
+                }
                 return hotel;
             }
         }
-        return null;
+
+        StoredHotel stored = storedHotels.get(name);
+        if (stored == null) {
+            return null;
+        }
+        Hotel hotel;
+        try {
+            hotel = Hotel.restore(SnapshotFile.readHotel(stored.encoded.duplicate(), symbols));
+        } catch (RuntimeException e) {
+            System.out.println("Could not load hotel " + name + ": " + e);
+            return null;
+        }
+        storedHotels.remove(name);
+        hotels.add(hotel);
+        loadedFrom.put(hotel, stored);
+        if (journal != null) {
+            hotel.setJournal(journal);
+        }
+        joinHorizon(hotel);
+        joinOccupancy(hotel);
+        hotelLoads++;
+        unloadOverBudget(hotel);
+        return hotel;
+    }
+
+    /**
+     * Gets all hotels in the system, loading the ones that are not loaded.
+     * With a memory budget, hotels loaded early in the call may already be unloaded again by the
+     * time it returns; they remain readable but must be looked up again before changing them.
+     * 
+     * @return A list of every hotel.
+     */
+    public synchronized List<Hotel> getHotels() {
+        List<Hotel> all = new ArrayList<>(hotels);
+        for (String name : new ArrayList<>(storedHotels.keySet())) {
+            Hotel hotel = getHotel(name);
+            if (hotel != null) {
+                all.add(hotel);
+            }
+        }
+        return all;
     }
 
     /**
@@ -90,7 +799,7 @@ public class HotelReservationSystem {
             
                     switch (ans) {
                         case 1:
-                            System.out.print("Enter day (1-31): ");
+                            System.out.print("Enter day number (1 = 2024-01-01): ");
                             int day = scanner.nextInt();
                             scanner.nextLine();
                             System.out.println("Available Rooms: " + hotel.getAvailableRoomsCount(day));
@@ -112,23 +821,16 @@ public class HotelReservationSystem {
                             System.out.println("Enter guest name: ");
                             String guestName = scanner.nextLine();
             
-                            boolean reservationFound = false;
-            
-                            for (Reservation reservation : hotel.getReservations()) {
-                                if (reservation.getGuestName().equalsIgnoreCase(guestName)) {
-                                    System.out.println("Reservation Details:");
-                                    System.out.println("Guest Name: " + reservation.getGuestName());
-                                    System.out.println("Room Name: " + reservation.getRoom().getName());
-                                    System.out.println("Check-in Date: " + reservation.getCheckInDay());
-                                    System.out.println("Check-out Date: " + reservation.getCheckOutDay());
-                                    System.out.println("Total Price: " + reservation.getSumPrice());
-                                    System.out.println("Price per Night: " + reservation.getPricePerNight());
-                                    reservationFound = true;
-                                    break;
-                                }
-                            }
-            
-                            if (!reservationFound) {
+                            Reservation reservation = hotel.findReservation(guestName);
+                            if (reservation != null) {
+                                System.out.println("Reservation Details:");
+                                System.out.println("Guest Name: " + reservation.getGuestName());
+                                System.out.println("Room Name: " + reservation.getRoom().getName());
+                                System.out.println("Check-in Date: " + reservation.getCheckInDay());
+                                System.out.println("Check-out Date: " + reservation.getCheckOutDay());
+                                System.out.println("Total Price: " + reservation.getSumPrice());
+                                System.out.println("Price per Night: " + reservation.getPricePerNight());
+                            } else {
                                 System.out.println("Reservation not found for guest: " + guestName);
                             }
                             break;
@@ -183,8 +885,11 @@ public class HotelReservationSystem {
                         } while (!confirmation.equalsIgnoreCase("yes") && !confirmation.equalsIgnoreCase("no"));
                         
                         if (confirmation.equalsIgnoreCase("yes")) {
-                            hotel.setName(newName);
-                            System.out.println("Hotel name changed successfully.\n");
+                            if (hotel.setName(newName)) {
+                                System.out.println("Hotel name changed successfully.\n");
+                            } else {
+                                System.out.println(hotel.unloadedMessage());
+                            }
                         } else {
                             System.out.println("Modification discarded.\n");
                         }
@@ -249,11 +954,11 @@ public class HotelReservationSystem {
                     System.out.println("Enter room name:");
                     String roomToRemove = scanner.nextLine();
 
-                    System.out.println("Enter check-in day (1-31):");
+                    System.out.println("Enter check-in day number (1 = 2024-01-01):");
                     int checkInDay = scanner.nextInt();
                     scanner.nextLine();
 
-                    System.out.println("Enter check-out day (1-31):");
+                    System.out.println("Enter check-out day number (1 = 2024-01-01):");
                     int checkOutDay = scanner.nextInt();
                     scanner.nextLine();
 
@@ -277,8 +982,11 @@ public class HotelReservationSystem {
                     } while (!confirmationRemoveHotel.equalsIgnoreCase("yes") && !confirmationRemoveHotel.equalsIgnoreCase("no"));
                 
                     if (confirmationRemoveHotel.equalsIgnoreCase("yes")) {
-                        hotels.remove(hotel);
-                        System.out.println("Hotel " + name + " removed successfully.");
+                        if (removeHotel(hotel)) {
+                            System.out.println("Hotel " + name + " removed successfully.");
+                        } else {
+                            System.out.println(hotel.unloadedMessage());
+                        }
                     } else {
                         System.out.println("Modification discarded.");
                     }
@@ -294,11 +1002,14 @@ public class HotelReservationSystem {
 
     /**
      * Simulates a booking for a specified hotel.
+     * The cheapest free rooms are offered and held while the guest decides, so the offered rooms
+     * cannot be taken in the meantime; every other room stays bookable. A room that was not offered
+     * can still be chosen and is booked if it is free.
      * 
      * @param hotelName The name of the hotel.
      * @param guestName The name of the guest.
-     * @param checkInDay The check-in day (1-31).
-     * @param checkOutDay The check-out day (1-31).
+     * @param checkInDay The check-in day number (see {@link HotelCalendar}).
+     * @param checkOutDay The check-out day number (see {@link HotelCalendar}).
      * @param discountCode The discount code to apply.
      */
     public void simulateBooking(String hotelName, String guestName, int checkInDay, int checkOutDay, String discountCode) {
@@ -311,22 +1022,17 @@ public class HotelReservationSystem {
             Hotel hotel = getHotel(hotelName);
             if (hotel != null) {
                 System.out.println("Available rooms for booking:");
-            List<Room> availableRooms = new ArrayList<>();
-            for (Room room : hotel.getRooms()) {
-                boolean isAvailable = true;
-                for (int day = checkInDay; day <= checkOutDay; day++) {
-                    if (room.isBookedOnDay(day, hotel.getReservations())) {
-                        isAvailable = false;
-                        break;
-                    }
-                }
-                if (isAvailable) {
-                    availableRooms.add(room);
-                    System.out.println("Room Name: " + room.getName() + ", Price per Night: " + room.getPrice());
+            // Hold only the few rooms offered, so the guest's choice cannot be taken while they decide
+            List<RoomHold> holds = new ArrayList<>();
+            for (RoomOffer offer : hotel.findAvailableRooms(checkInDay, checkOutDay, null, Double.MAX_VALUE, BOOKING_OFFERS)) {
+                RoomHold hold = hotel.placeHold(hotel.getRoomByName(offer.getRoomName()), checkInDay, checkOutDay, BOOKING_HOLD_MILLIS);
+                if (hold != null) {
+                    holds.add(hold);
+                    System.out.println("Room Name: " + offer.getRoomName() + ", Price per Night: " + offer.getPricePerNight());
                 }
             }
 
-            if (availableRooms.isEmpty()) {
+            if (holds.isEmpty()) {
                 System.out.println("No available rooms for the selected dates.");
                 return;
             }
@@ -335,12 +1041,25 @@ public class HotelReservationSystem {
             Scanner scanner = new Scanner(System.in);
             String roomName = scanner.nextLine();
 
-            Room roomToBook = hotel.getRoomByName(roomName);
-            if (roomToBook != null && availableRooms.contains(roomToBook)) {
-                Reservation reservation = new Reservation(guestName, checkInDay, checkOutDay, roomToBook, discountCode);
-                hotel.addReservation(reservation);
-                roomToBook.bookRoom();
-                System.out.println("Room " + roomToBook.getName() + " booked successfully. Total price: " + reservation.getSumPrice());
+            Room chosen = hotel.getSnapshot().getRoom(roomName);
+            Reservation reservation = null;
+            boolean offered = false;
+            for (RoomHold hold : holds) {
+                if (!offered && hold.getRoom() == chosen) {
+                    offered = true;
+                    reservation = hotel.confirmHold(hold, guestName, discountCode);
+                } else {
+                    hotel.releaseHold(hold);
+                }
+            }
+            if (!offered && chosen != null) {
+                List<BookingRequest> request = new ArrayList<>();
+                request.add(new BookingRequest(guestName, chosen.getName(), checkInDay, checkOutDay, discountCode));
+                reservation = hotel.bookBatch(request).get(0).getReservation();
+            }
+
+            if (reservation != null) {
+                System.out.println("Room " + reservation.getRoom().getName() + " booked successfully. Total price: " + reservation.getSumPrice());
             } else {
                 System.out.println("Room is not available for the selected dates.");
             }
@@ -349,6 +1068,81 @@ public class HotelReservationSystem {
         }
     }
 
+    /**
+     * Searches every hotel for free rooms of a type for a whole stay.
+     * Hotels are searched in parallel on the common fork/join pool. Each hotel contributes at most
+     * {@code limit} of its cheapest rooms, and the merged results are cut to the cheapest {@code limit}.
+     * Loaded hotels are searched in their latest snapshot. Hotels that are not loaded are decoded
+     * into a throwaway copy for the search and stay unloaded, so a search neither takes the memory
+     * budget nor holds the system's lock while it runs.
+     * 
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     * @param roomType The room type to search for (standard, deluxe, or executive), or null for any type.
+     * @param maxPrice The highest acceptable price per night.
+     * @param limit The maximum number of rooms to return.
+     * @return Up to {@code limit} free rooms across all hotels, cheapest first.
+     */
+    public List<RoomOffer> searchAvailability(int checkInDay, int checkOutDay, String roomType, double maxPrice, int limit) {
+        if (checkInDay > checkOutDay || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<Hotel> loaded;
+        List<ByteBuffer> stored = new ArrayList<>();
+        int day;
+        int horizon;
+        synchronized (this) {
+            loaded = new ArrayList<>(hotels);
+            for (StoredHotel hotel : storedHotels.values()) {
+                stored.add(hotel.encoded.duplicate());
+            }
+            day = currentDay;
+            horizon = horizonDays;
+        }
+
+        Stream<List<RoomOffer>> fromLoaded = loaded.parallelStream()
+                .map(hotel -> hotel.findAvailableRooms(checkInDay, checkOutDay, roomType, maxPrice, limit));
+        Stream<List<RoomOffer>> fromStored = stored.parallelStream()
+                .map(encoded -> searchStoredHotel(encoded, day, horizon, checkInDay, checkOutDay, roomType, maxPrice, limit));
+        return Stream.concat(fromLoaded, fromStored)
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingDouble(RoomOffer::getPricePerNight))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Searches a hotel that is not loaded, without loading it into the system.
+     * The copy is decoded with its own symbol table and brought up to the current day and booking
+     * horizon, as it would be if it were loaded, then dropped.
+     * 
+     * @param encoded The encoded hotel.
+     * @param day The day the loaded hotels were last rolled over to, or 0 if they never were.
+     * @param horizon The number of days ahead that can be booked, or 0 for no limit.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     * @param roomType The room type to search for, or null for any type.
+     * @param maxPrice The highest acceptable price per night.
+     * @param limit The maximum number of rooms to return.
+     * @return Up to {@code limit} free rooms of the hotel, cheapest first, or none if it cannot be decoded.
+     */
+    private static List<RoomOffer> searchStoredHotel(ByteBuffer encoded, int day, int horizon, int checkInDay, int checkOutDay,
+            String roomType, double maxPrice, int limit) {
+        Hotel hotel;
+        try {
+            hotel = Hotel.restore(SnapshotFile.readHotel(encoded, new SymbolTable()));
+        } catch (RuntimeException e) {
+            System.out.println("Could not search a stored hotel: " + e);
+            return new ArrayList<>();
+        }
+        hotel.setBookingHorizon(horizon);
+        if (day > 0) {
+            hotel.rollOver(day, null);
+        }
+        return hotel.findAvailableRooms(checkInDay, checkOutDay, roomType, maxPrice, limit);
+    }
+
     /**
      * Displays room availability for a specific hotel and room name.
      * 
@@ -385,31 +1179,17 @@ public class HotelReservationSystem {
      * Applies a date-based price modifier to a specific hotel.
      * 
      * @param hotelName The name of the hotel.
-     * @param day The day (1-31) for the price modifier.
+     * @param day The day number (see {@link HotelCalendar}) for the price modifier.
      * @param rate The percentage to adjust the price (50-150).
      */
     public void addDatePriceModifier(String hotelName, int day, double rate) {
         Hotel hotel = getHotel(hotelName);
         if (hotel != null) {
-            if (rate >= 0.5 && rate <= 1.5) {
-                boolean success = hotel.addDatePriceModifier(day, rate);
-                if (success) {
-                    // Update each room's price based on the new base price and date price modifier
-                    for (Room room : hotel.getRooms()) {
-                        double newPrice = room.getPrice() * rate; // Calculate new price based on the modifier
-                    }
-    
-                    // Recalculate the total price for all reservations
-                    for (Reservation reservation : hotel.getReservations()) {
-                        reservation.getSumPrice(); // Update the total price with the new rates
-                    }
-    
-                    System.out.println("Date price modifier applied and reservations updated successfully.");
-                } else {
-                    System.out.println("Invalid rate. Rate must be between 0.5 (50%) and 1.5 (150%).");
-                }
+            String error = hotel.tryAddDatePriceModifier(day, rate);
+            if (error == null) {
+                System.out.println("Date price modifier applied successfully.");
             } else {
-                System.out.println("Rate must be between 0.5 and 1.5.");
+                System.out.println(error);
             }
         } else {
             System.out.println("Hotel not found.");
@@ -418,11 +1198,21 @@ public class HotelReservationSystem {
 
     /**
     * Removes the specified hotel from the system.
+    * A hotel that was unloaded since it was looked up is not removed; it must be looked up again.
     * 
     * @param hotel The hotel to be removed.
+    * @return True if the hotel was removed; false if it is not a loaded hotel of the system.
     */
-    public void removeHotel(Hotel hotel) {
-        hotels.remove(hotel);
+    public synchronized boolean removeHotel(Hotel hotel) {
+        if (!hotels.remove(hotel)) {
+            return false;
+        }
+        deleteSpillFile(loadedFrom.remove(hotel));
+        if (journal != null) {
+            hotel.setJournal(null);
+            journal.logHotelRemoved(hotel.getName());
+        }
+        return true;
     }
 
     /**
@@ -431,7 +1221,8 @@ public class HotelReservationSystem {
      * @param args Command line arguments.
      */
     public static void main(String[] args) {
-        HotelReservationSystem system = new HotelReservationSystem();
+        HotelReservationSystem system = HotelReservationSystem.open();
+        system.exportMetrics();
         Scanner scanner = new Scanner(System.in);
 
         while (true) {
@@ -477,10 +1268,10 @@ public class HotelReservationSystem {
                     String hotelName = scanner.nextLine();
                     System.out.print("Enter guest name: ");
                     String guestName = scanner.nextLine();
-                    System.out.print("Enter check-in day (1-31): ");
+                    System.out.print("Enter check-in day number (1 = 2024-01-01): ");
                     int checkInDay = scanner.nextInt();
                     scanner.nextLine();
-                    System.out.print("Enter check-out day (1-31): ");
+                    System.out.print("Enter check-out day number (1 = 2024-01-01): ");
                     int checkOutDay = scanner.nextInt();
                     scanner.nextLine();
                     System.out.print("Enter discount code (leave blank if none): ");
@@ -502,7 +1293,7 @@ public class HotelReservationSystem {
                 case 7:
                     System.out.print("Enter hotel name: ");
                     hotelName = scanner.nextLine();
-                    System.out.print("Enter day (1-31) to modify: ");
+                    System.out.print("Enter day number (1 = 2024-01-01) to modify: ");
                     int day = scanner.nextInt();
                     System.out.print("Enter rate (50% to 150% of base price): ");
                     double rate = scanner.nextDouble();
@@ -4,6 +4,10 @@ import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 /**
  * The view class for the Hotel Reservation System.
@@ -20,6 +24,11 @@ public class HotelReservationView {
     private JButton datePriceModifierButton;
     private JButton exitButton;
 
+    /**
+     * The model query currently running in the background, if any.
+     */
+    private SwingWorker<?, ?> activeQuery;
+
     /**
      * Constructs a HotelReservationView and initializes the GUI components.
      */
@@ -169,6 +178,21 @@ public class HotelReservationView {
         datePriceModifierButton.addActionListener(listenForDatePriceModifierButton);
     }
 
+    /**
+     * Adds an ActionListener that is invoked when the user presses Escape to cancel a running query.
+     *
+     * @param listenForCancelQuery The ActionListener to add.
+     */
+    public void addCancelQueryListener(ActionListener listenForCancelQuery) {
+        JComponent contentPane = (JComponent) frame.getContentPane();
+        contentPane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("ESCAPE"), "cancelQuery");
+        contentPane.getActionMap().put("cancelQuery", new AbstractAction() {
+            public void actionPerformed(ActionEvent e) {
+                listenForCancelQuery.actionPerformed(e);
+            }
+        });
+    }
+
     /**
      * Adds an ActionListener to the Exit button.
      *
@@ -178,6 +202,88 @@ public class HotelReservationView {
         exitButton.addActionListener(listenForExitButton);
     }
 
+    /**
+     * Runs a model query on a background worker and passes its result to a callback on the event dispatch thread.
+     * Starting a new query cancels the one still in flight, whose result is then discarded.
+     *
+     * @param query The model query to run off the event dispatch thread.
+     * @param onResult The callback that receives the result on the event dispatch thread.
+     * @param <T> The type of the query result.
+     */
+    private <T> void runQuery(Callable<T> query, Consumer<T> onResult) {
+        cancelActiveQuery();
+
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return query.call();
+            }
+
+            @Override
+            protected void done() {
+                if (activeQuery == this) {
+                    activeQuery = null;
+                    frame.setCursor(Cursor.getDefaultCursor());
+                }
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    onResult.accept(get());
+                } catch (InterruptedException | CancellationException e) {
+                    // The query was abandoned; there is nothing to show
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(frame, "Operation failed: " + e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+
+        activeQuery = worker;
+        frame.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        worker.execute();
+    }
+
+    /**
+     * Runs a model change on a background worker and passes its result to a callback on the event dispatch thread.
+     * Unlike a query, a change is not tracked as the active query, so neither Escape nor a new query cancels it:
+     * once confirmed, a change always completes and its outcome is always shown.
+     *
+     * @param update The model change to run off the event dispatch thread.
+     * @param onResult The callback that receives the result on the event dispatch thread.
+     * @param <T> The type of the change result.
+     */
+    private <T> void runUpdate(Callable<T> update, Consumer<T> onResult) {
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return update.call();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    onResult.accept(get());
+                } catch (InterruptedException | CancellationException e) {
+                    // The worker was interrupted; there is nothing to show
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(frame, "Operation failed: " + e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    /**
+     * Cancels the model query that is currently running in the background, if any.
+     */
+    public void cancelActiveQuery() {
+        if (activeQuery != null) {
+            activeQuery.cancel(true);
+            activeQuery = null;
+            frame.setCursor(Cursor.getDefaultCursor());
+        }
+    }
+
     /**
      * Returns the main frame.
      *
@@ -250,21 +356,31 @@ public class HotelReservationView {
                 showCustomMessageDialog(frame, "Hotel name cannot be empty.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
-            if (model.getHotel(name) != null) {
-                showCustomMessageDialog(frame, "Hotel name must be unique.", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
             if (numStandard < 0 || numDeluxe < 0 || numExecutive < 0) {
                 showCustomMessageDialog(frame, "Number of rooms cannot be negative.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
-            if ((numStandard + numDeluxe + numExecutive) < 1 || (numStandard + numDeluxe + numExecutive) > 50) {
-                showCustomMessageDialog(frame, "Total number of rooms must be between 1 and 50.", "Error", JOptionPane.ERROR_MESSAGE);
+            if ((numStandard + numDeluxe + numExecutive) < 1 || (numStandard + numDeluxe + numExecutive) > Hotel.MAX_ROOMS) {
+                showCustomMessageDialog(frame, "Total number of rooms must be between 1 and " + Hotel.MAX_ROOMS + ".", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
     
-            model.createHotel(name, numStandard, numDeluxe, numExecutive);
-            showCustomMessageDialog(frame, "Hotel created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            runUpdate(() -> {
+                // Check and create under the model's lock, so a hotel of the same name cannot be created in between
+                synchronized (model) {
+                    if (model.getHotel(name) != null) {
+                        return false;
+                    }
+                    model.createHotel(name, numStandard, numDeluxe, numExecutive);
+                    return true;
+                }
+            }, created -> {
+                if (created) {
+                    showCustomMessageDialog(frame, "Hotel created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    showCustomMessageDialog(frame, "Hotel name must be unique.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
@@ -364,27 +480,27 @@ public class HotelReservationView {
 
         if (result == JOptionPane.OK_OPTION) {
             String hotelName = hotelNameField.getText();
-            Hotel hotel = model.getHotel(hotelName);
-            
-            if (hotel == null) {
-                JOptionPane.showMessageDialog(frame, "Hotel not found.", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
+            runQuery(() -> model.getHotel(hotelName), hotel -> {
+                if (hotel == null) {
+                    JOptionPane.showMessageDialog(frame, "Hotel not found.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
 
-            String[] options = {"High-level information", "Low-level information", "Exit"};
-            int choice = JOptionPane.showOptionDialog(frame, "Select an option:", "View Hotel",
-                    JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, options, options[0]);
-
-            switch (choice) {
-                case 0:
-                    showHighLevelInfo(hotel);
-                    break;
-                case 1:
-                    showLowLevelInfo(hotel);
-                    break;
-                default:
-                    break;
-            }
+                String[] options = {"High-level information", "Low-level information", "Exit"};
+                int choice = JOptionPane.showOptionDialog(frame, "Select an option:", "View Hotel",
+                        JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, options, options[0]);
+
+                switch (choice) {
+                    case 0:
+                        showHighLevelInfo(hotel);
+                        break;
+                    case 1:
+                        showLowLevelInfo(hotel);
+                        break;
+                    default:
+                        break;
+                }
+            });
         }
     }
 
@@ -394,11 +510,10 @@ public class HotelReservationView {
      * @param hotel The hotel to display information about.
      */
     private void showHighLevelInfo(Hotel hotel) {
-        JOptionPane.showMessageDialog(frame,
-                "Hotel Name: " + hotel.getName() + "\n" +
+        runQuery(() -> "Hotel Name: " + hotel.getName() + "\n" +
                 "Total Rooms: " + hotel.getRooms().size() + "\n" +
                 "Estimated Earnings: " + hotel.estimatedEarnings(),
-                "High-level Information", JOptionPane.INFORMATION_MESSAGE);
+                info -> JOptionPane.showMessageDialog(frame, info, "High-level Information", JOptionPane.INFORMATION_MESSAGE));
     }
 
     /**
@@ -437,16 +552,15 @@ public class HotelReservationView {
      * @param hotel The hotel object containing room information.
      */
     private void handleAvailableAndBookedRooms(Hotel hotel) {
-        String dayStr = JOptionPane.showInputDialog(frame, "Enter day (1-31):");
-        int day = parseInt(dayStr);
-        if (day < 1 || day > 31) {
-            JOptionPane.showMessageDialog(frame, "Invalid day. Please enter a value between 1 and 31.", "Error", JOptionPane.ERROR_MESSAGE);
+        String dayStr = JOptionPane.showInputDialog(frame, "Enter day (day number or yyyy-mm-dd):");
+        int day = HotelCalendar.parseDay(dayStr);
+        if (!HotelCalendar.isValidDay(day)) {
+            JOptionPane.showMessageDialog(frame, "Invalid day. Please enter a day number or a date from 2024-01-01 to 2099-12-31.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
-        JOptionPane.showMessageDialog(frame,
-                "Available Rooms: " + hotel.getAvailableRoomsCount(day) + "\n" +
+        runQuery(() -> "Available Rooms: " + hotel.getAvailableRoomsCount(day) + "\n" +
                 "Booked Rooms: " + hotel.getBookedRoomsCount(day),
-                "Room Availability", JOptionPane.INFORMATION_MESSAGE);
+                info -> JOptionPane.showMessageDialog(frame, info, "Room Availability", JOptionPane.INFORMATION_MESSAGE));
     }
 
     /**
@@ -456,16 +570,21 @@ public class HotelReservationView {
      */
     private void handleRoomInformation(Hotel hotel) {
         String roomName = JOptionPane.showInputDialog(frame, "Enter room name:");
-        Room room = hotel.getRoomByName(roomName);
-        if (room == null) {
-            JOptionPane.showMessageDialog(frame, "Room not found.", "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-        JOptionPane.showMessageDialog(frame,
-                "Room Name: " + room.getName() + "\n" +
-                "Price per Night: " + room.getPrice() + "\n" +
-                hotel.getAvailabilityForMonth(roomName),
-                "Room Information", JOptionPane.INFORMATION_MESSAGE);
+        runQuery(() -> {
+            Room room = hotel.getRoomByName(roomName);
+            if (room == null) {
+                return null;
+            }
+            return "Room Name: " + room.getName() + "\n" +
+                    "Price per Night: " + room.getPrice() + "\n" +
+                    hotel.getAvailabilityForMonth(roomName);
+        }, info -> {
+            if (info == null) {
+                JOptionPane.showMessageDialog(frame, "Room not found.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            JOptionPane.showMessageDialog(frame, info, "Room Information", JOptionPane.INFORMATION_MESSAGE);
+        });
     }
 
     /**
@@ -475,22 +594,25 @@ public class HotelReservationView {
      */
     private void handleReservationInformation(Hotel hotel) {
         String guestName = JOptionPane.showInputDialog(frame, "Enter guest name:");
-        List<Reservation> reservations = hotel.getReservations();
-        for (Reservation reservation : reservations) {
-            if (reservation.getGuestName().equalsIgnoreCase(guestName)) {
-                JOptionPane.showMessageDialog(frame,
-                        "Reservation Details:\n" +
-                        "Guest Name: " + reservation.getGuestName() + "\n" +
-                        "Room Name: " + reservation.getRoom().getName() + "\n" +
-                        "Check-in Date: " + reservation.getCheckInDay() + "\n" +
-                        "Check-out Date: " + reservation.getCheckOutDay() + "\n" +
-                        "Total Price: " + reservation.getSumPrice() + "\n" +
-                        "Price per Night: " + reservation.getPricePerNight(),
-                        "Reservation Information", JOptionPane.INFORMATION_MESSAGE);
+        runQuery(() -> {
+            Reservation reservation = hotel.findReservation(guestName);
+            if (reservation == null) {
+                return null;
+            }
+            return "Reservation Details:\n" +
+                    "Guest Name: " + reservation.getGuestName() + "\n" +
+                    "Room Name: " + reservation.getRoom().getName() + "\n" +
+                    "Check-in Date: " + reservation.getCheckInDay() + "\n" +
+                    "Check-out Date: " + reservation.getCheckOutDay() + "\n" +
+                    "Total Price: " + reservation.getSumPrice() + "\n" +
+                    "Price per Night: " + reservation.getPricePerNight();
+        }, details -> {
+            if (details == null) {
+                JOptionPane.showMessageDialog(frame, "Reservation not found for guest: " + guestName, "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
-        }
-        JOptionPane.showMessageDialog(frame, "Reservation not found for guest: " + guestName, "Error", JOptionPane.ERROR_MESSAGE);
+            JOptionPane.showMessageDialog(frame, details, "Reservation Information", JOptionPane.INFORMATION_MESSAGE);
+        });
     }
 
     /**
@@ -518,41 +640,41 @@ public class HotelReservationView {
 
         if (result == JOptionPane.OK_OPTION) {
             String hotelName = hotelNameField.getText();
-            Hotel hotel = model.getHotel(hotelName);
+            runQuery(() -> model.getHotel(hotelName), hotel -> {
+                if (hotel == null) {
+                    JOptionPane.showMessageDialog(frame, "Hotel not found.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
 
-            if (hotel == null) {
-                JOptionPane.showMessageDialog(frame, "Hotel not found.", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
+                String[] options = {
+                    "Change name", "Add room", "Remove room", "Update price per night", "Remove reservation", "Remove hotel"
+                };
+                int choice = JOptionPane.showOptionDialog(frame, "Select an option:", "Manage Hotel",
+                        JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, options, options[0]);
 
-            String[] options = {
-                "Change name", "Add room", "Remove room", "Update price per night", "Remove reservation", "Remove hotel"
-            };
-            int choice = JOptionPane.showOptionDialog(frame, "Select an option:", "Manage Hotel",
-                    JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, options, options[0]);
-
-            switch (choice) {
-                case 0:
-                    changeHotelName(model, hotel);
-                    break;
-                case 1:
-                    addRoom(hotel);
-                    break;
-                case 2:
-                    removeRoom(hotel);
-                    break;
-                case 3:
-                    updatePricePerNight(hotel);
-                    break;
-                case 4:
-                    removeReservation(hotel);
-                    break;
-                case 5:
-                    removeHotel(model, hotel);
-                    break;
-                default:
-                    break;
-            }
+                switch (choice) {
+                    case 0:
+                        changeHotelName(model, hotel);
+                        break;
+                    case 1:
+                        addRoom(hotel);
+                        break;
+                    case 2:
+                        removeRoom(hotel);
+                        break;
+                    case 3:
+                        updatePricePerNight(hotel);
+                        break;
+                    case 4:
+                        removeReservation(hotel);
+                        break;
+                    case 5:
+                        removeHotel(model, hotel);
+                        break;
+                    default:
+                        break;
+                }
+            });
         }
     }
 
@@ -565,15 +687,30 @@ public class HotelReservationView {
     private void changeHotelName(HotelReservationSystem model, Hotel hotel) {
         String newName = JOptionPane.showInputDialog(frame, "Enter new name:");
         if (newName != null && !newName.trim().isEmpty()) {
-            if (model.getHotel(newName) != null) {
-                JOptionPane.showMessageDialog(frame, "Hotel name must be unique.", "Error", JOptionPane.ERROR_MESSAGE);
-            } else {
+            runQuery(() -> model.getHotel(newName) == null, unique -> {
+                if (!unique) {
+                    JOptionPane.showMessageDialog(frame, "Hotel name must be unique.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
                 int confirmation = JOptionPane.showConfirmDialog(frame, "Confirm change of hotel name to " + newName + "?", "Confirmation", JOptionPane.YES_NO_OPTION);
                 if (confirmation == JOptionPane.YES_OPTION) {
-                    hotel.setName(newName);
-                    JOptionPane.showMessageDialog(frame, "Hotel name changed successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    runUpdate(() -> {
+                        // Check again under the model's lock, since another hotel may have taken the name while the user confirmed
+                        synchronized (model) {
+                            if (model.getHotel(newName) != null) {
+                                return "Hotel name must be unique.";
+                            }
+                            return hotel.setName(newName) ? null : "The hotel was unloaded. Please look it up again.";
+                        }
+                    }, error -> {
+                        if (error == null) {
+                            JOptionPane.showMessageDialog(frame, "Hotel name changed successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(frame, error, "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
                 }
-            }
+            });
         }
     }
 
@@ -585,12 +722,17 @@ public class HotelReservationView {
     private void addRoom(Hotel hotel) {
         String roomType = JOptionPane.showInputDialog(frame, "Enter room type (standard/deluxe/executive):");
         if (roomType != null && !roomType.trim().isEmpty()) {
-            roomType = roomType.trim().toLowerCase();
-            if (roomType.equals("standard") || roomType.equals("deluxe") || roomType.equals("executive")) {
+            String type = roomType.trim().toLowerCase();
+            if (type.equals("standard") || type.equals("deluxe") || type.equals("executive")) {
                 int confirmation = JOptionPane.showConfirmDialog(frame, "Confirm addition of a new room?", "Confirmation", JOptionPane.YES_NO_OPTION);
                 if (confirmation == JOptionPane.YES_OPTION) {
-                    hotel.addRoom(roomType);
-                    JOptionPane.showMessageDialog(frame, "Room added successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    runUpdate(() -> hotel.tryAddRoom(type), error -> {
+                        if (error == null) {
+                            JOptionPane.showMessageDialog(frame, "Room added successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(frame, error, "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
                 }
             } else {
                 JOptionPane.showMessageDialog(frame, "Invalid room type. Please enter 'standard', 'deluxe', or 'executive'.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -606,25 +748,34 @@ public class HotelReservationView {
      * @param hotel The hotel object from which a room will be removed.
      */
     private void removeRoom(Hotel hotel) {
-        List<String> roomNames = hotel.displayRoomNames();
-        if (roomNames.isEmpty()) {
-            JOptionPane.showMessageDialog(frame, "No rooms available to remove.", "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-        String roomName = (String) JOptionPane.showInputDialog(frame, "Select room to remove:", "Remove Room", JOptionPane.PLAIN_MESSAGE, null, roomNames.toArray(), roomNames.get(0));
-        if (roomName != null && !roomName.trim().isEmpty()) {
-            // Check if the room is booked
-            if (hotel.isRoomBooked(roomName)) {
-                JOptionPane.showMessageDialog(frame, "Room " + roomName + " cannot be removed. It is currently booked.", "Error", JOptionPane.ERROR_MESSAGE);
+        runQuery(hotel::displayRoomNames, roomNames -> {
+            if (roomNames.isEmpty()) {
+                JOptionPane.showMessageDialog(frame, "No rooms available to remove.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
-    
-            int confirmation = JOptionPane.showConfirmDialog(frame, "Confirm removal of room " + roomName + "?", "Confirmation", JOptionPane.YES_NO_OPTION);
-            if (confirmation == JOptionPane.YES_OPTION) {
-                hotel.removeRoom(roomName);
-                JOptionPane.showMessageDialog(frame, "Room removed successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+            String roomName = (String) JOptionPane.showInputDialog(frame, "Select room to remove:", "Remove Room", JOptionPane.PLAIN_MESSAGE, null, roomNames.toArray(), roomNames.get(0));
+            if (roomName == null || roomName.trim().isEmpty()) {
+                return;
             }
-        }
+            // Check if the room is booked
+            runQuery(() -> hotel.isRoomBooked(roomName), booked -> {
+                if (booked) {
+                    JOptionPane.showMessageDialog(frame, "Room " + roomName + " cannot be removed. It is currently booked.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                int confirmation = JOptionPane.showConfirmDialog(frame, "Confirm removal of room " + roomName + "?", "Confirmation", JOptionPane.YES_NO_OPTION);
+                if (confirmation == JOptionPane.YES_OPTION) {
+                    runUpdate(() -> hotel.tryRemoveRoom(roomName), error -> {
+                        if (error == null) {
+                            JOptionPane.showMessageDialog(frame, "Room removed successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(frame, error, "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
+                }
+            });
+        });
     }
 
     /**
@@ -639,12 +790,13 @@ public class HotelReservationView {
                 double newPrice = Double.parseDouble(newPriceStr);
                 int confirmation = JOptionPane.showConfirmDialog(frame, "Confirm update of price per night to " + newPrice + "?", "Confirmation", JOptionPane.YES_NO_OPTION);
                 if (confirmation == JOptionPane.YES_OPTION) {
-                    boolean success = hotel.updatePriceGUI(newPrice);
-                    if (success) {
-                        JOptionPane.showMessageDialog(frame, "Price updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    } else {
-                        JOptionPane.showMessageDialog(frame, "Cannot update price as there are active reservations.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    runUpdate(() -> hotel.tryUpdatePrice(newPrice), error -> {
+                        if (error == null) {
+                            JOptionPane.showMessageDialog(frame, "Price updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(frame, error, "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
                 }
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(frame, "Invalid price. Please enter a valid number.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -685,13 +837,13 @@ public class HotelReservationView {
     
         gbc.gridx = 0;
         gbc.gridy = 2;
-        inputPanel.add(createStyledLabel("Check-in Day (1-31):"), gbc);
+        inputPanel.add(createStyledLabel("Check-in Day (day number or yyyy-mm-dd):"), gbc);
         gbc.gridx = 1;
         inputPanel.add(checkInDayField, gbc);
     
         gbc.gridx = 0;
         gbc.gridy = 3;
-        inputPanel.add(createStyledLabel("Check-out Day (1-31):"), gbc);
+        inputPanel.add(createStyledLabel("Check-out Day (day number or yyyy-mm-dd):"), gbc);
         gbc.gridx = 1;
         inputPanel.add(checkOutDayField, gbc);
     
@@ -700,37 +852,37 @@ public class HotelReservationView {
         if (result == JOptionPane.OK_OPTION) {
             String guestName = guestNameField.getText();
             String roomName = roomNameField.getText();
-            int checkInDay;
-            int checkOutDay;
-    
-            // Try parsing the integers, handle exceptions if they occur
-            try {
-                checkInDay = Integer.parseInt(checkInDayField.getText());
-                checkOutDay = Integer.parseInt(checkOutDayField.getText());
-            } catch (NumberFormatException e) {
+            int checkInDay = HotelCalendar.parseDay(checkInDayField.getText());
+            int checkOutDay = HotelCalendar.parseDay(checkOutDayField.getText());
+            if (checkInDay < 0 || checkOutDay < 0) {
                 JOptionPane.showMessageDialog(frame, "Invalid input. Please enter valid days.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
     
             // Check for valid inputs
-            if (guestName.isEmpty() || roomName.isEmpty() || checkInDay < 1 || checkInDay > 31 || checkOutDay < 1 || checkOutDay > 31) {
+            if (guestName.isEmpty() || roomName.isEmpty() || !HotelCalendar.isValidDay(checkInDay) || !HotelCalendar.isValidDay(checkOutDay)) {
                 JOptionPane.showMessageDialog(frame, "Invalid input. Please enter valid details.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
     
             // Check if the reservation exists
-            boolean reservationExists = hotel.checkReservationExists(guestName, roomName, checkInDay, checkOutDay);
-    
-            if (!reservationExists) {
-                JOptionPane.showMessageDialog(frame, "Reservation not found.", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-    
-            int confirmation = JOptionPane.showConfirmDialog(frame, "Confirm removal of reservation for " + guestName + " in room " + roomName + " from day " + checkInDay + " to day " + checkOutDay + "?", "Confirmation", JOptionPane.YES_NO_OPTION);
-            if (confirmation == JOptionPane.YES_OPTION) {
-                hotel.removeReservation(guestName, roomName, checkInDay, checkOutDay);
-                JOptionPane.showMessageDialog(frame, "Reservation removed successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-            }
+            runQuery(() -> hotel.checkReservationExists(guestName, roomName, checkInDay, checkOutDay), reservationExists -> {
+                if (!reservationExists) {
+                    JOptionPane.showMessageDialog(frame, "Reservation not found.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                int confirmation = JOptionPane.showConfirmDialog(frame, "Confirm removal of reservation for " + guestName + " in room " + roomName + " from day " + checkInDay + " to day " + checkOutDay + "?", "Confirmation", JOptionPane.YES_NO_OPTION);
+                if (confirmation == JOptionPane.YES_OPTION) {
+                    runUpdate(() -> hotel.tryRemoveReservation(guestName, roomName, checkInDay, checkOutDay), removed -> {
+                        if (removed) {
+                            JOptionPane.showMessageDialog(frame, "Reservation removed successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(frame, "The reservation could not be removed.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
+                }
+            });
         }
     }
 
@@ -743,8 +895,13 @@ public class HotelReservationView {
     private void removeHotel(HotelReservationSystem model, Hotel hotel) {
         int confirmation = JOptionPane.showConfirmDialog(frame, "Confirm removal of hotel " + hotel.getName() + "?", "Confirmation", JOptionPane.YES_NO_OPTION);
         if (confirmation == JOptionPane.YES_OPTION) {
-            model.removeHotel(hotel);
-            JOptionPane.showMessageDialog(frame, "Hotel removed successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+            runUpdate(() -> model.removeHotel(hotel), removed -> {
+                if (removed) {
+                    JOptionPane.showMessageDialog(frame, "Hotel removed successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(frame, "The hotel was unloaded. Please look it up again.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
@@ -790,14 +947,14 @@ public class HotelReservationView {
         JTextField checkInDayField = new JTextField(20);
         gbc.gridx = 0;
         gbc.gridy = 2;
-        inputPanel.add(createStyledLabel("Check-in Day (1-31):"), gbc);
+        inputPanel.add(createStyledLabel("Check-in Day (day number or yyyy-mm-dd):"), gbc);
         gbc.gridx = 1;
         inputPanel.add(checkInDayField, gbc);
     
         JTextField checkOutDayField = new JTextField(20);
         gbc.gridx = 0;
         gbc.gridy = 3;
-        inputPanel.add(createStyledLabel("Check-out Day (1-31):"), gbc);
+        inputPanel.add(createStyledLabel("Check-out Day (day number or yyyy-mm-dd):"), gbc);
         gbc.gridx = 1;
         inputPanel.add(checkOutDayField, gbc);
     
@@ -824,16 +981,16 @@ public class HotelReservationView {
             }
     
             String checkInDayStr = checkInDayField.getText();
-            int checkInDay = parseInt(checkInDayStr);
-            if (checkInDay < 1 || checkInDay > 31) {
-                JOptionPane.showMessageDialog(null, "Please enter a valid check-in day (1-31).", "Error", JOptionPane.ERROR_MESSAGE);
+            int checkInDay = HotelCalendar.parseDay(checkInDayStr);
+            if (!HotelCalendar.isValidDay(checkInDay)) {
+                JOptionPane.showMessageDialog(null, "Please enter a valid check-in day (day number or yyyy-mm-dd).", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
     
             String checkOutDayStr = checkOutDayField.getText();
-            int checkOutDay = parseInt(checkOutDayStr);
-            if (checkOutDay < 1 || checkOutDay > 31) {
-                JOptionPane.showMessageDialog(null, "Please enter a valid check-out day (1-31).", "Error", JOptionPane.ERROR_MESSAGE);
+            int checkOutDay = HotelCalendar.parseDay(checkOutDayStr);
+            if (!HotelCalendar.isValidDay(checkOutDay)) {
+                JOptionPane.showMessageDialog(null, "Please enter a valid check-out day (day number or yyyy-mm-dd).", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
     
@@ -844,52 +1001,53 @@ public class HotelReservationView {
     
             String discountCode = discountCodeField.getText();
     
-            // Retrieve available rooms
-            List<Room> availableRooms = getAvailableRooms(model, hotelName, checkInDay, checkOutDay);
-            if (availableRooms.isEmpty()) {
-                JOptionPane.showMessageDialog(null, "No available rooms for the selected dates.", "Information", JOptionPane.INFORMATION_MESSAGE);
-                return;
-            }
-    
-            // Prepare room list for display
-            StringBuilder roomList = new StringBuilder("Available rooms for booking:\n");
-            for (Room room : availableRooms) {
-                roomList.append("Room Name: ").append(room.getName())
-                        .append(", Price per Night: ").append(room.getPrice())
-                        .append("\n");
-            }
-    
-            // Add room selection to the input panel
-            JTextArea roomListArea = new JTextArea(roomList.toString());
-            roomListArea.setEditable(false);
-            gbc.gridx = 0;
-            gbc.gridy = 5;
-            gbc.gridwidth = 2;
-            inputPanel.add(new JScrollPane(roomListArea), gbc);
-    
-            JTextField roomNameField = new JTextField(20);
-            gbc.gridy = 6;
-            inputPanel.add(createStyledLabel("Room Name to Book:"), gbc);
-            gbc.gridy = 7;
-            inputPanel.add(roomNameField, gbc);
-    
-            result = JOptionPane.showConfirmDialog(null, inputPanel, "Select Room", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
-    
-            if (result == JOptionPane.OK_OPTION) {
-                String roomName = roomNameField.getText();
-                if (roomName.isEmpty()) {
-                    JOptionPane.showMessageDialog(null, "Room name cannot be empty.", "Error", JOptionPane.ERROR_MESSAGE);
+            // Retrieve available rooms in the background, then let the user pick one
+            runQuery(() -> getAvailableRooms(model, hotelName, checkInDay, checkOutDay), availableRooms -> {
+                if (availableRooms.isEmpty()) {
+                    JOptionPane.showMessageDialog(null, "No available rooms for the selected dates.", "Information", JOptionPane.INFORMATION_MESSAGE);
                     return;
                 }
     
-                boolean success = bookRoom(model, hotelName, guestName, checkInDay, checkOutDay, roomName, discountCode);
-                if (success) {
-                    double totalPrice = getTotalPrice(model, hotelName, guestName, checkInDay, checkOutDay, roomName, discountCode);
-                    JOptionPane.showMessageDialog(null, "Room booked successfully. Total price: " + totalPrice, "Success", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(null, "Room booking failed. Please check the details and try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                // Prepare room list for display
+                StringBuilder roomList = new StringBuilder("Available rooms for booking:\n");
+                for (Room room : availableRooms) {
+                    roomList.append("Room Name: ").append(room.getName())
+                            .append(", Price per Night: ").append(room.getPrice())
+                            .append("\n");
                 }
-            }
+    
+                // Add room selection to the input panel
+                JTextArea roomListArea = new JTextArea(roomList.toString());
+                roomListArea.setEditable(false);
+                gbc.gridx = 0;
+                gbc.gridy = 5;
+                gbc.gridwidth = 2;
+                inputPanel.add(new JScrollPane(roomListArea), gbc);
+    
+                JTextField roomNameField = new JTextField(20);
+                gbc.gridy = 6;
+                inputPanel.add(createStyledLabel("Room Name to Book:"), gbc);
+                gbc.gridy = 7;
+                inputPanel.add(roomNameField, gbc);
+    
+                int selection = JOptionPane.showConfirmDialog(null, inputPanel, "Select Room", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+    
+                if (selection == JOptionPane.OK_OPTION) {
+                    String roomName = roomNameField.getText();
+                    if (roomName.isEmpty()) {
+                        JOptionPane.showMessageDialog(null, "Room name cannot be empty.", "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+    
+                    runUpdate(() -> bookRoom(model, hotelName, guestName, checkInDay, checkOutDay, roomName, discountCode), reservation -> {
+                        if (reservation != null) {
+                            JOptionPane.showMessageDialog(null, "Room booked successfully. Total price: " + reservation.getSumPrice(), "Success", JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Room booking failed. Please check the details and try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
+                }
+            });
         }
     }
     
@@ -909,23 +1067,17 @@ public class HotelReservationView {
         }
 
         List<Room> availableRooms = new ArrayList<>();
-            for (Room room : hotel.getRooms()) {
-                boolean isAvailable = true;
-                for (int day = checkInDay; day <= checkOutDay; day++) {
-                    if (room.isBookedOnDay(day, hotel.getReservations())) {
-                        isAvailable = false;
-                        break;
-                    }
-                }
-                if (isAvailable) {
-                    availableRooms.add(room);
-                }
+        for (Room room : hotel.getRooms()) {
+            if (hotel.isRoomAvailable(room, checkInDay, checkOutDay)) {
+                availableRooms.add(room);
             }
+        }
         return availableRooms;
     }
 
     /**
      * Books a room for the specified hotel and guest.
+     * The room is checked and booked atomically, so a room taken since the list was shown is rejected.
      *
      * @param model The hotel reservation system model.
      * @param hotelName The name of the hotel.
@@ -934,71 +1086,18 @@ public class HotelReservationView {
      * @param checkOutDay The check-out day.
      * @param roomName The name of the room to book.
      * @param discountCode The discount code for the booking.
-     * @return True if the booking is successful, false otherwise.
-     */
-    private boolean bookRoom(HotelReservationSystem model, String hotelName, String guestName, int checkInDay, int checkOutDay, String roomName, String discountCode) {
-        Hotel hotel = model.getHotel(hotelName);
-        if (hotel == null) {
-            return false; // Return false if hotel is not found
-        }
-    
-        Room room = hotel.getRoomByName(roomName);
-        if (room == null) {
-            return false; // Return false if room is not found
-        }
-    
-        // Check if the room is available
-        boolean isAvailable = true;
-        for (int day = checkInDay; day <= checkOutDay; day++) {
-            if (room.isBookedOnDay(day, hotel.getReservations())) {
-                isAvailable = false;
-                break;
-            }
-        }
-    
-        if (!isAvailable) {
-            return false; // Return false if room is not available
-        }
-    
-        // Create a new reservation and book the room
-        Reservation reservation = new Reservation(guestName, checkInDay, checkOutDay, room, discountCode);
-        hotel.addReservation(reservation);
-        room.bookRoom(); // Mark room as booked
-        return true; // Return true if booking is successful
-    }
-
-    /**
-     * Gets the total price for a booking.
-     *
-     * @param model The hotel reservation system model.
-     * @param hotelName The name of the hotel.
-     * @param guestName The name of the guest.
-     * @param checkInDay The check-in day.
-     * @param checkOutDay The check-out day.
-     * @param roomName The name of the room.
-     * @param discountCode The discount code for the booking.
-     * @return The total price for the booking.
+     * @return The new reservation if the booking is successful, null otherwise.
      */
-    private double getTotalPrice(HotelReservationSystem model, String hotelName, String guestName, int checkInDay, int checkOutDay, String roomName, String discountCode) {
-        // Retrieve the Hotel object
+    private Reservation bookRoom(HotelReservationSystem model, String hotelName, String guestName, int checkInDay, int checkOutDay, String roomName, String discountCode) {
         Hotel hotel = model.getHotel(hotelName);
         if (hotel == null) {
-            return 0; // Hotel not found
+            return null; // Return null if hotel is not found
         }
     
-        // Retrieve the Room object based on the provided room name
-        Room room = hotel.getRoomByName(roomName);
-        if (room == null) {
-            return 0; // Room not found or not available
-        }
-    
-        // Create a Reservation object
-        Reservation reservation = new Reservation(guestName, checkInDay, checkOutDay, room, discountCode);
-    
-        double totalPrice = reservation.getTotalPrice(hotel);
-    
-        // Return the total price of the reservation
-        return totalPrice;
+        List<BookingRequest> request = new ArrayList<>();
+        request.add(new BookingRequest(guestName, roomName, checkInDay, checkOutDay, discountCode));
+        BookingResult result = hotel.bookBatch(request).get(0);
+        return result.getReservation(); // Null unless the room was free and the booking was applied
     }
 
     /**
@@ -1032,62 +1131,78 @@ public class HotelReservationView {
                 return;
             }
     
-            // Retrieve and display room names
-            Hotel hotel = model.getHotel(hotelName);
-            if (hotel == null) {
-                JOptionPane.showMessageDialog(null, "Hotel not found.", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-    
-            List<String> roomNames = hotel.displayRoomNames();
-            if (roomNames.isEmpty()) {
-                JOptionPane.showMessageDialog(null, "No rooms available in the hotel.", "Information", JOptionPane.INFORMATION_MESSAGE);
+            // Retrieve room names in the background, then display them
+            runQuery(() -> {
+                Hotel hotel = model.getHotel(hotelName);
+                return hotel == null ? null : hotel.displayRoomNames();
+            }, roomNames -> showRoomAvailabilityPrompt(model, hotelName, roomNames));
+        }
+    }
+
+    /**
+     * Displays the room names of a hotel and prompts for the room whose availability to show.
+     *
+     * @param model The hotel reservation system model.
+     * @param hotelName The name of the hotel.
+     * @param roomNames The names of the rooms in the hotel, or null if the hotel was not found.
+     */
+    private void showRoomAvailabilityPrompt(HotelReservationSystem model, String hotelName, List<String> roomNames) {
+        if (roomNames == null) {
+            JOptionPane.showMessageDialog(null, "Hotel not found.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        if (roomNames.isEmpty()) {
+            JOptionPane.showMessageDialog(null, "No rooms available in the hotel.", "Information", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        // Create and set up the panel for room names and input
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(10, 10, 10, 10);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+
+        JPanel displayPanel = new JPanel(new GridBagLayout());
+        displayPanel.setBackground(new Color(112, 9, 30));
+        displayPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JTextArea roomListArea = new JTextArea();
+        roomListArea.setText("Available rooms:\n");
+        for (String roomName : roomNames) {
+            roomListArea.append(roomName + "\n");
+        }
+        roomListArea.setEditable(false);
+        roomListArea.setBackground(new Color(112, 9, 30));
+        roomListArea.setForeground(new Color(0, 128, 128));
+        
+        Font font = new Font("Monospaced", Font.BOLD, 14); // Change "Arial" to your desired font family, Font.PLAIN to Font.BOLD or Font.ITALIC if needed, and 14 to your desired font size
+        roomListArea.setFont(font);
+
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.gridwidth = 2;
+        displayPanel.add(new JScrollPane(roomListArea), gbc);
+
+        JTextField roomNameField = new JTextField(20);
+        gbc.gridy = 1;
+        gbc.gridwidth = 1;
+        displayPanel.add(createStyledLabel("Room Name:"), gbc);
+        gbc.gridx = 1;
+        displayPanel.add(roomNameField, gbc);
+
+        // Show room list and prompt for room name
+        int result = JOptionPane.showConfirmDialog(null, displayPanel, "Display Room Availability", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+
+        if (result == JOptionPane.OK_OPTION) {
+            String roomName = roomNameField.getText().trim();
+            if (roomName.isEmpty()) {
+                JOptionPane.showMessageDialog(null, "Room name cannot be empty.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
-    
-            // Create and set up the panel for room names and input
-            JPanel displayPanel = new JPanel(new GridBagLayout());
-            displayPanel.setBackground(new Color(112, 9, 30));
-            displayPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-    
-            JTextArea roomListArea = new JTextArea();
-            roomListArea.setText("Available rooms:\n");
-            for (String roomName : roomNames) {
-                roomListArea.append(roomName + "\n");
-            }
-            roomListArea.setEditable(false);
-            roomListArea.setBackground(new Color(112, 9, 30));
-            roomListArea.setForeground(new Color(0, 128, 128));
-            
-            Font font = new Font("Monospaced", Font.BOLD, 14); // Change "Arial" to your desired font family, Font.PLAIN to Font.BOLD or Font.ITALIC if needed, and 14 to your desired font size
-            roomListArea.setFont(font);
-    
-            gbc.gridx = 0;
-            gbc.gridy = 0;
-            gbc.gridwidth = 2;
-            displayPanel.add(new JScrollPane(roomListArea), gbc);
-    
-            JTextField roomNameField = new JTextField(20);
-            gbc.gridy = 1;
-            gbc.gridwidth = 1;
-            displayPanel.add(createStyledLabel("Room Name:"), gbc);
-            gbc.gridx = 1;
-            displayPanel.add(roomNameField, gbc);
-    
-            // Show room list and prompt for room name
-            result = JOptionPane.showConfirmDialog(null, displayPanel, "Display Room Availability", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
-    
-            if (result == JOptionPane.OK_OPTION) {
-                String roomName = roomNameField.getText().trim();
-                if (roomName.isEmpty()) {
-                    JOptionPane.showMessageDialog(null, "Room name cannot be empty.", "Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-    
-                // Retrieve and display availability information using the method
-                String availability = displayRoomAvailability(model, hotelName, roomName);
-                JOptionPane.showMessageDialog(null, availability, "Room Availability", JOptionPane.INFORMATION_MESSAGE);
-            }
+
+            // Retrieve availability information in the background and display it
+            runQuery(() -> displayRoomAvailability(model, hotelName, roomName),
+                    availability -> JOptionPane.showMessageDialog(null, availability, "Room Availability", JOptionPane.INFORMATION_MESSAGE));
         }
     }
     
@@ -1141,11 +1256,14 @@ public class HotelReservationView {
                 return;
             }
     
-            // Retrieve earnings information
-            double earnings = getHotelEarnings(model, hotelName);
-    
-            // Show earnings in a message dialog
-            JOptionPane.showMessageDialog(null, "Estimated Earnings: " + earnings, "Hotel Earnings", JOptionPane.INFORMATION_MESSAGE);
+            // Retrieve earnings information in the background and show it in a message dialog
+            runQuery(() -> getHotelEarnings(model, hotelName), earnings -> {
+                if (earnings == null) {
+                    JOptionPane.showMessageDialog(null, "Hotel not found.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                JOptionPane.showMessageDialog(null, "Estimated Earnings: " + earnings, "Hotel Earnings", JOptionPane.INFORMATION_MESSAGE);
+            });
         }
     }
 
@@ -1154,13 +1272,12 @@ public class HotelReservationView {
      *
      * @param model The hotel reservation system model.
      * @param hotelName The name of the hotel.
-     * @return The estimated earnings of the hotel.
+     * @return The estimated earnings of the hotel, or null if the hotel was not found.
      */
-    private double getHotelEarnings(HotelReservationSystem model, String hotelName) {
+    private Double getHotelEarnings(HotelReservationSystem model, String hotelName) {
         Hotel hotel = model.getHotel(hotelName);
         if (hotel == null) {
-            JOptionPane.showMessageDialog(null, "Hotel not found.", "Error", JOptionPane.ERROR_MESSAGE);
-            return 0;
+            return null;
         }
 
         return hotel.estimatedEarnings();
@@ -1193,7 +1310,7 @@ public class HotelReservationView {
         JTextField dayField = new JTextField(20);
         gbc.gridx = 0;
         gbc.gridy = 1;
-        inputPanel.add(createStyledLabel("Day (1-31):"), gbc);
+        inputPanel.add(createStyledLabel("Day (day number or yyyy-mm-dd):"), gbc);
         gbc.gridx = 1;
         inputPanel.add(dayField, gbc);
     
@@ -1217,10 +1334,10 @@ public class HotelReservationView {
     
             String dayStr = dayField.getText().trim();
             if (dayStr.isEmpty() || !isValidDay(dayStr)) {
-                JOptionPane.showMessageDialog(null, "Please enter a valid day (1-31).", "Error", JOptionPane.ERROR_MESSAGE);
+                JOptionPane.showMessageDialog(null, "Please enter a valid day (day number or yyyy-mm-dd).", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
-            int day = Integer.parseInt(dayStr);
+            int day = HotelCalendar.parseDay(dayStr);
     
             String rateStr = rateField.getText().trim();
             if (rateStr.isEmpty() || !isValidRate(rateStr)) {
@@ -1229,29 +1346,25 @@ public class HotelReservationView {
             }
             double rate = Double.parseDouble(rateStr);
     
-            // Add date price modifier
-            boolean success = addDatePriceModifier(model, hotelName, day, rate);
-            if (success) {
-                JOptionPane.showMessageDialog(null, "Date price modifier applied and reservations updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(null, "Failed to apply date price modifier. Check the details and try again.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            // Add date price modifier in the background
+            runUpdate(() -> addDatePriceModifier(model, hotelName, day, rate), error -> {
+                if (error == null) {
+                    JOptionPane.showMessageDialog(null, "Date price modifier applied successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(null, error, "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
     
     /**
-     * Validates if the provided day is within the acceptable range (1-31).
+     * Validates if the provided day is a day number or date within the calendar.
      *
-     * @param dayStr The string representation of the day.
+     * @param dayStr The day number or date, such as "15" or "2025-03-01".
      * @return True if the day is valid; false otherwise.
      */
     private boolean isValidDay(String dayStr) {
-        try {
-            int day = Integer.parseInt(dayStr);
-            return day >= 1 && day <= 31;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        return HotelCalendar.isValidDay(HotelCalendar.parseDay(dayStr));
     }
 
     /**
@@ -1270,40 +1383,19 @@ public class HotelReservationView {
     }
 
     /**
-     * Adds a date price modifier for a specific hotel and updates room prices and reservations.
+     * Adds a date price modifier for a specific hotel.
      *
      * @param model The hotel reservation system model.
      * @param hotelName The name of the hotel.
-     * @param day The day of the month to apply the modifier.
+     * @param day The day number to apply the modifier to.
      * @param rate The modifier rate (0.5 to 1.5).
-     * @return True if the modifier was successfully applied; false otherwise.
+     * @return Null if the modifier was applied; otherwise a message explaining why it was not.
      */
-    private boolean addDatePriceModifier(HotelReservationSystem model, String hotelName, int day, double rate) {
+    private String addDatePriceModifier(HotelReservationSystem model, String hotelName, int day, double rate) {
         Hotel hotel = model.getHotel(hotelName);
-        if (hotel != null) {
-            if (rate >= 0.5 && rate <= 1.5) {
-                boolean success = hotel.addDatePriceModifier(day, rate);
-                if (success) {
-                    // Update each room's price based on the new base price and date price modifier
-                    for (Room room : hotel.getRooms()) {
-                        double newPrice = room.getPrice() * rate; // Calculate new price based on the modifier
-                        room.setPrice(newPrice); // Update room's price
-                    }
-
-                    // Recalculate the total price for all reservations
-                    for (Reservation reservation : hotel.getReservations()) {
-                        reservation.getSumPrice(); // Update the total price with the new rates
-                    }
-
-                    return true;
-                } else {
-                    return false;
-                }
-            } else {
-                return false;
-            }
-        } else {
-            return false;
+        if (hotel == null) {
+            return "Hotel not found.";
         }
+        return hotel.tryAddDatePriceModifier(day, rate);
     }
 }
@@ -0,0 +1,224 @@
+import java.util.List;
+
+/**
+ * An immutable, consistent view of a hotel's rooms, reservations, and occupancy index.
+ * A hotel publishes a new snapshot on every change, so readers can query a snapshot from any
+ * thread without locking while bookings continue.
+ * Snapshots share structure with their predecessors: reservations live in an append-only columnar
+ * {@link ReservationStore} that successive snapshots extend, and the occupancy index only copies the
+ * rooms that changed.
+ * Completed reservations move out of the reservation list into the snapshot's {@link ReservationArchive}.
+ */
+public class HotelSnapshot {
+    /**
+     * The rooms of the hotel at the time of the snapshot, shared by snapshots with the same rooms.
+     */
+    private final RoomTable rooms;
+
+    /**
+     * The reservations of this snapshot, in columns possibly shared with other snapshots.
+     */
+    private final ReservationStore store;
+
+    /**
+     * The occupancy index matching the reservations of this snapshot.
+     */
+    private final OccupancyStore occupancyIndex;
+
+    /**
+     * The completed reservations moved out of the reservation list.
+     */
+    private final ReservationArchive archive;
+
+    /**
+     * Constructs a snapshot of a hotel with the given rooms and no reservations.
+     *
+     * @param rooms The rooms of the hotel.
+     */
+    public HotelSnapshot(List<Room> rooms) {
+        this(rooms, new SymbolTable());
+    }
+
+    /**
+     * Constructs a snapshot of a hotel with the given rooms and no reservations.
+     *
+     * @param rooms The rooms of the hotel.
+     * @param symbols The table to store the guest names and discount codes of reservations in.
+     */
+    public HotelSnapshot(List<Room> rooms, SymbolTable symbols) {
+        this(RoomTable.of(rooms), symbols);
+    }
+
+    /**
+     * Constructs a snapshot of a hotel with the rooms of a table and no reservations.
+     *
+     * @param rooms The rooms of the hotel.
+     * @param symbols The table to store the guest names and discount codes of reservations in.
+     */
+    public HotelSnapshot(RoomTable rooms, SymbolTable symbols) {
+        this(rooms, new ReservationStore(symbols), new OccupancyIndex(), ReservationArchive.EMPTY);
+    }
+
+    /**
+     * Constructs a snapshot from its parts.
+     *
+     * @param rooms The rooms of the hotel.
+     * @param store The reservations of the snapshot.
+     * @param occupancyIndex The occupancy index matching the reservations.
+     * @param archive The completed reservations moved out of the reservation list.
+     */
+    private HotelSnapshot(RoomTable rooms, ReservationStore store, OccupancyStore occupancyIndex, ReservationArchive archive) {
+        this.rooms = rooms;
+        this.store = store;
+        this.occupancyIndex = occupancyIndex;
+        this.archive = archive;
+    }
+
+    /**
+     * Gets the rooms of the hotel.
+     *
+     * @return An unmodifiable list of rooms.
+     */
+    public List<Room> getRooms() {
+        return rooms.asList();
+    }
+
+    /**
+     * Gets the table of the hotel's rooms, for scans that read rooms by position without creating them.
+     *
+     * @return The room table.
+     */
+    public RoomTable getRoomTable() {
+        return rooms;
+    }
+
+    /**
+     * Finds a room by its name, ignoring case.
+     *
+     * @param roomName The name of the room.
+     * @return The room, or null if the hotel has no room with that name.
+     */
+    public Room getRoom(String roomName) {
+        return rooms.find(roomName);
+    }
+
+    /**
+     * Finds a room by its slot.
+     *
+     * @param slot The slot of the room.
+     * @return The room, or null if the hotel has no room in that slot.
+     */
+    public Room getRoom(int slot) {
+        return rooms.bySlot(slot);
+    }
+
+    /**
+     * Gets the reservations of the hotel.
+     * Each element read from the list is a new view of a store row.
+     *
+     * @return An unmodifiable list of reservations.
+     */
+    public List<Reservation> getReservations() {
+        return store.asList();
+    }
+
+    /**
+     * Gets the columnar store holding the reservations of the hotel, for scans that only need some columns.
+     *
+     * @return The reservation store.
+     */
+    public ReservationStore getReservationStore() {
+        return store;
+    }
+
+    /**
+     * Gets the archive of the hotel's completed reservations.
+     *
+     * @return The reservation archive.
+     */
+    public ReservationArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Gets the occupancy index of the hotel.
+     * The returned index must not be modified; use {@link OccupancyStore#copy()} to derive a new one.
+     *
+     * @return The occupancy index.
+     */
+    public OccupancyStore getOccupancyIndex() {
+        return occupancyIndex;
+    }
+
+    /**
+     * Creates a snapshot with a different set of rooms and occupancy index, keeping the reservations.
+     *
+     * @param newRooms The new list of rooms.
+     * @param newIndex The new occupancy index.
+     * @return The new snapshot.
+     */
+    public HotelSnapshot withRooms(List<Room> newRooms, OccupancyStore newIndex) {
+        return new HotelSnapshot(RoomTable.of(newRooms), store, newIndex, archive);
+    }
+
+    /**
+     * Creates a snapshot with a different occupancy index, keeping the rooms and reservations.
+     *
+     * @param newIndex The new occupancy index.
+     * @return The new snapshot.
+     */
+    public HotelSnapshot withOccupancyIndex(OccupancyStore newIndex) {
+        return new HotelSnapshot(rooms, store, newIndex, archive);
+    }
+
+    /**
+     * Creates a snapshot with reservations appended.
+     * Must only be called on the latest snapshot of a hotel, by the thread holding the hotel's lock.
+     *
+     * @param added The reservations to append.
+     * @param newIndex The occupancy index including the new reservations.
+     * @return The new snapshot.
+     */
+    public HotelSnapshot withReservations(List<Reservation> added, OccupancyStore newIndex) {
+        return new HotelSnapshot(rooms, store.append(added), newIndex, archive);
+    }
+
+    /**
+     * Creates a snapshot without the given reservation.
+     * The row is marked as removed rather than copied out, see {@link ReservationStore#remove(int)}.
+     * Must only be called on the latest snapshot of a hotel, by the thread holding the hotel's lock.
+     *
+     * @param row The store row of the reservation to remove.
+     * @param newIndex The occupancy index without the reservation.
+     * @return The new snapshot.
+     */
+    public HotelSnapshot withoutReservation(int row, OccupancyStore newIndex) {
+        return new HotelSnapshot(rooms, store.remove(row), newIndex, archive);
+    }
+
+    /**
+     * Creates a snapshot that moves reservations from the reservation list into the archive.
+     * The reservation columns are copied so that older snapshots are unaffected.
+     *
+     * @param completed The reservations to archive, read from this snapshot's store, in row order.
+     * @param newIndex The occupancy index to use.
+     * @return The new snapshot.
+     */
+    public HotelSnapshot withArchived(List<Reservation> completed, OccupancyStore newIndex) {
+        boolean[] moved = new boolean[store.rowCount()];
+        for (Reservation reservation : completed) {
+            moved[reservation.getRow()] = true;
+        }
+        return new HotelSnapshot(rooms, store.remove(moved), newIndex, archive.append(completed));
+    }
+
+    /**
+     * Creates a snapshot with a different archive, keeping everything else.
+     *
+     * @param newArchive The new archive.
+     * @return The new snapshot.
+     */
+    public HotelSnapshot withArchive(ReservationArchive newArchive) {
+        return new HotelSnapshot(rooms, store, occupancyIndex, newArchive);
+    }
+}
@@ -0,0 +1,171 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summarizes a bulk import of reservations: how many rows were read, booked, rejected, or in
+ * conflict with existing reservations, and how fast they were applied.
+ * Only the first few problems are kept in detail so the report stays small for large imports.
+ */
+public class ImportReport {
+    /**
+     * The most problems kept in detail.
+     */
+    private static final int MAX_PROBLEMS = 100;
+
+    /**
+     * The number of rows read.
+     */
+    private long rows;
+
+    /**
+     * The number of rows booked.
+     */
+    private long booked;
+
+    /**
+     * The number of rows rejected as malformed or invalid.
+     */
+    private long rejects;
+
+    /**
+     * The number of rows whose room was already booked for the requested days.
+     */
+    private long conflicts;
+
+    /**
+     * The time the import took, in milliseconds.
+     */
+    private long elapsedMillis;
+
+    /**
+     * Descriptions of the first problems found, with their line numbers.
+     */
+    private List<String> problems = new ArrayList<>();
+
+    /**
+     * Counts a row that was read.
+     */
+    void addRow() {
+        rows++;
+    }
+
+    /**
+     * Counts a row that was booked.
+     */
+    void addBooked() {
+        booked++;
+    }
+
+    /**
+     * Counts a rejected row.
+     *
+     * @param line The line number of the row.
+     * @param message The reason the row was rejected.
+     */
+    void addReject(long line, String message) {
+        rejects++;
+        addProblem(line, message);
+    }
+
+    /**
+     * Counts a row in conflict with an existing reservation.
+     *
+     * @param line The line number of the row.
+     * @param message A description of the conflict.
+     */
+    void addConflict(long line, String message) {
+        conflicts++;
+        addProblem(line, message);
+    }
+
+    /**
+     * Keeps a problem in detail unless enough have been kept already.
+     *
+     * @param line The line number of the row.
+     * @param message A description of the problem.
+     */
+    private void addProblem(long line, String message) {
+        if (problems.size() < MAX_PROBLEMS) {
+            problems.add("Line " + line + ": " + message);
+        }
+    }
+
+    /**
+     * Sets the time the import took.
+     *
+     * @param elapsedMillis The elapsed time in milliseconds.
+     */
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets the number of rows read.
+     *
+     * @return The number of rows.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of rows booked.
+     *
+     * @return The number of booked rows.
+     */
+    public long getBooked() {
+        return booked;
+    }
+
+    /**
+     * Gets the number of rows rejected as malformed or invalid.
+     *
+     * @return The number of rejects.
+     */
+    public long getRejects() {
+        return rejects;
+    }
+
+    /**
+     * Gets the number of rows whose room was already booked for the requested days.
+     *
+     * @return The number of conflicts.
+     */
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Gets the time the import took.
+     *
+     * @return The elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Gets the import throughput.
+     *
+     * @return The number of rows processed per second.
+     */
+    public double getRowsPerSecond() {
+        return rows * 1000.0 / Math.max(1, elapsedMillis);
+    }
+
+    /**
+     * Gets descriptions of the first problems found.
+     *
+     * @return An unmodifiable list of problems, each with its line number.
+     */
+    public List<String> getProblems() {
+        return Collections.unmodifiableList(problems);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows in %d ms (%.0f rows/s): %d booked, %d rejected, %d conflicts",
+                rows, elapsedMillis, getRowsPerSecond(), booked, rejects, conflicts);
+    }
+}
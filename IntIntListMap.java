@@ -0,0 +1,178 @@
+import java.util.Arrays;
+
+/**
+ * A multimap from int keys to lists of int values that stores everything in flat arrays.
+ * An {@link IntIntMap} maps each key to the first entry of its list, and the entries are linked
+ * through an index array, with removed entries reused through a free list, so adding a value
+ * allocates nothing once the arrays have grown.
+ * Values of a key are listed newest first. Not thread-safe.
+ */
+public class IntIntListMap {
+    /**
+     * Marks the end of a list.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * The first entry of each key's list.
+     */
+    private final IntIntMap heads;
+
+    /**
+     * The value of each entry.
+     */
+    private int[] values;
+
+    /**
+     * The entry after each entry in its list, or in the free list.
+     */
+    private int[] next;
+
+    /**
+     * The number of entries ever handed out, in use or free.
+     */
+    private int used;
+
+    /**
+     * The first free entry.
+     */
+    private int free = NONE;
+
+    /**
+     * The number of values in the map.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty multimap.
+     *
+     * @param expectedSize The number of values to make room for without growing.
+     */
+    public IntIntListMap(int expectedSize) {
+        int capacity = Math.max(4, expectedSize);
+        this.heads = new IntIntMap(capacity);
+        this.values = new int[capacity];
+        this.next = new int[capacity];
+    }
+
+    /**
+     * Adds a value to a key's list.
+     *
+     * @param key The key.
+     * @param value The value.
+     */
+    public void add(int key, int value) {
+        int entry;
+        if (free != NONE) {
+            entry = free;
+            free = next[entry];
+        } else {
+            if (used == values.length) {
+                int capacity = values.length * 2;
+                values = Arrays.copyOf(values, capacity);
+                next = Arrays.copyOf(next, capacity);
+            }
+            entry = used++;
+        }
+        values[entry] = value;
+        next[entry] = heads.get(key, NONE);
+        heads.put(key, entry);
+        size++;
+    }
+
+    /**
+     * Removes one occurrence of a value from a key's list.
+     *
+     * @param key The key.
+     * @param value The value.
+     * @return True if the value was in the key's list; false otherwise.
+     */
+    public boolean remove(int key, int value) {
+        int previous = NONE;
+        for (int entry = heads.get(key, NONE); entry != NONE; previous = entry, entry = next[entry]) {
+            if (values[entry] == value) {
+                if (previous != NONE) {
+                    next[previous] = next[entry];
+                } else if (next[entry] != NONE) {
+                    heads.put(key, next[entry]);
+                } else {
+                    heads.remove(key);
+                }
+                next[entry] = free;
+                free = entry;
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the first entry of a key's list, for walking it with {@link #nextEntry(int)} and
+     * {@link #valueAt(int)} without copying.
+     *
+     * @param key The key.
+     * @return The first entry, or -1 if the key has no values.
+     */
+    public int firstEntry(int key) {
+        return heads.get(key, NONE);
+    }
+
+    /**
+     * Gets the entry after an entry in its list.
+     *
+     * @param entry The entry.
+     * @return The next entry, or -1 at the end of the list.
+     */
+    public int nextEntry(int entry) {
+        return next[entry];
+    }
+
+    /**
+     * Gets the value of an entry.
+     *
+     * @param entry The entry.
+     * @return The value.
+     */
+    public int valueAt(int entry) {
+        return values[entry];
+    }
+
+    /**
+     * Gets the values of a key.
+     *
+     * @param key The key.
+     * @return A new array of the key's values, newest first.
+     */
+    public int[] get(int key) {
+        int count = 0;
+        for (int entry = heads.get(key, NONE); entry != NONE; entry = next[entry]) {
+            count++;
+        }
+        int[] result = new int[count];
+        int i = 0;
+        for (int entry = heads.get(key, NONE); entry != NONE; entry = next[entry]) {
+            result[i++] = values[entry];
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of values in the map.
+     *
+     * @return The number of values.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every key, keeping the arrays' capacity.
+     */
+    public void clear() {
+        heads.clear();
+        used = 0;
+        free = NONE;
+        size = 0;
+    }
+}
@@ -0,0 +1,230 @@
+import java.util.Arrays;
+
+/**
+ * A map from int keys to int values that stores both in flat arrays, so it neither boxes keys
+ * nor allocates an entry per mapping.
+ * Entries are placed by linear probing, and removal shifts the following entries of the probe run
+ * back instead of leaving tombstones, so lookups never slow down as entries come and go. Key 0
+ * marks free slots in the table and is kept aside in its own field.
+ * Not thread-safe.
+ */
+public class IntIntMap {
+    /**
+     * The keys, with 0 for a free slot; the length is a power of two.
+     */
+    private int[] keys;
+
+    /**
+     * The value of the key in the same slot.
+     */
+    private int[] values;
+
+    /**
+     * The number of keys in the table, not counting key 0.
+     */
+    private int size;
+
+    /**
+     * Whether key 0 is in the map.
+     */
+    private boolean hasZeroKey;
+
+    /**
+     * The value of key 0.
+     */
+    private int zeroValue;
+
+    /**
+     * Constructs an empty map.
+     *
+     * @param expectedSize The number of keys to make room for without growing.
+     */
+    public IntIntMap(int expectedSize) {
+        int capacity = tableSize(expectedSize);
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key The key.
+     * @param missing The value to return if the key is not in the map.
+     * @return The key's value, or the missing value.
+     */
+    public int get(int key, int missing) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : missing;
+        }
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == 0) {
+                return missing;
+            }
+        }
+    }
+
+    /**
+     * Checks if a key is in the map.
+     *
+     * @param key The key.
+     * @return True if the key has a value; false otherwise.
+     */
+    public boolean containsKey(int key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return true;
+            }
+            if (k == 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key The key.
+     * @param value The value.
+     */
+    public void put(int key, int value) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == 0) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size * 2 > keys.length) {
+                    rehash(keys.length * 2);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key The key.
+     * @return True if the key was in the map; false otherwise.
+     */
+    public boolean remove(int key) {
+        if (key == 0) {
+            boolean had = hasZeroKey;
+            hasZeroKey = false;
+            return had;
+        }
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                shiftBack(i);
+                size--;
+                return true;
+            }
+            if (k == 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of keys in the map.
+     *
+     * @return The number of keys.
+     */
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    /**
+     * Removes every key, keeping the table's capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    /**
+     * Fills a freed slot by moving later entries of its probe run back, so no tombstone is needed.
+     *
+     * @param free The slot that was emptied.
+     */
+    private void shiftBack(int free) {
+        int mask = keys.length - 1;
+        for (int i = (free + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            int home = hash(keys[i]) & mask;
+            // The entry may move back if its home slot is not between the free slot and its current slot
+            if (((i - home) & mask) >= ((i - free) & mask)) {
+                keys[free] = keys[i];
+                values[free] = values[i];
+                free = i;
+            }
+        }
+        keys[free] = 0;
+    }
+
+    /**
+     * Moves every entry into a table of a new size.
+     *
+     * @param capacity The new number of slots, a power of two.
+     */
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            int key = oldKeys[j];
+            if (key != 0) {
+                int i = hash(key) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of a key so that sequential keys do not form long probe runs.
+     *
+     * @param key The key.
+     * @return The hash.
+     */
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Gets the table size for a number of keys, keeping the table at most half full.
+     *
+     * @param expectedSize The number of keys.
+     * @return A power of two of at least 4.
+     */
+    static int tableSize(int expectedSize) {
+        return Math.max(4, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1);
+    }
+}
@@ -0,0 +1,729 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only write-ahead journal of every change made to the hotels of a reservation system.
+ * Changes are encoded as compact binary records and written with group commit: callers only append
+ * to an in-memory batch, and a background thread writes and fsyncs the batch once it is large enough
+ * or old enough. On startup the journal is replayed to rebuild the in-memory model.
+ *
+ * Each record is framed as its payload length, the CRC-32 of the payload, and the payload itself,
+ * which starts with a one-byte record type. Replay stops at the first torn or corrupt record and
+ * truncates the journal there.
+ *
+ * The journal is stored as a sequence of segment files named after the journal path plus the
+ * position of their first record in hex, e.g. {@code hotels.journal.0000000000400000}. Positions
+ * count bytes across all segments, so they stay valid when old segments are deleted. A new segment
+ * is started once the active one grows past the segment size, and {@link #compact(long)} deletes
+ * segments that a snapshot has made redundant.
+ */
+public class Journal implements AutoCloseable {
+    static final byte HOTEL_CREATED = 1;
+    static final byte HOTEL_RENAMED = 2;
+    static final byte HOTEL_REMOVED = 3;
+    static final byte ROOM_ADDED = 4;
+    static final byte ROOM_REMOVED = 5;
+    static final byte RESERVATION_ADDED = 6;
+    static final byte RESERVATION_REMOVED = 7;
+    static final byte PRICE_UPDATED = 8;
+    static final byte DATE_PRICE_MODIFIER_ADDED = 9;
+    static final byte HORIZON_ROLLED = 10;
+
+    /**
+     * The journal path that segment file names are derived from.
+     */
+    private final Path path;
+
+    /**
+     * The size past which the active segment is closed and a new one started, in bytes.
+     */
+    private final long segmentBytes;
+
+    /**
+     * The segment files by the position of their first record.
+     */
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+
+    /**
+     * The segment that records are written to.
+     */
+    private FileChannel channel;
+
+    /**
+     * The position of the first record of the active segment.
+     */
+    private long channelBase;
+
+    /**
+     * The longest time an appended record waits before it is written and fsynced, in milliseconds.
+     */
+    private final long fsyncIntervalMillis;
+
+    /**
+     * The number of pending records that triggers an immediate write and fsync.
+     */
+    private final int fsyncBatchSize;
+
+    /**
+     * Records appended since the last write.
+     */
+    private ByteArrayOutputStream pending;
+
+    /**
+     * The number of records in the pending batch.
+     */
+    private int pendingRecords;
+
+    /**
+     * The position just past the last appended record, counting records still in the pending batch.
+     */
+    private long appendedPosition;
+
+    /**
+     * Serializes writes to the file between the flusher thread and explicit flushes.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * The background thread that performs group commits.
+     */
+    private final Thread flusher;
+
+    /**
+     * Set once the journal has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The number of records applied by the last replay.
+     */
+    private volatile int replayedRecords;
+
+    /**
+     * The number of journal bytes read by the last replay.
+     */
+    private volatile long replayedBytes;
+
+    /**
+     * How long the last replay took, in milliseconds.
+     */
+    private volatile long replayMillis;
+
+    /**
+     * Opens a journal with 16 MB segments.
+     *
+     * @param path The path that segment file names are derived from.
+     * @param fsyncIntervalMillis The longest time a record may wait before it is fsynced, in milliseconds.
+     * @param fsyncBatchSize The number of pending records that triggers an immediate fsync.
+     * @throws IOException If the journal directory cannot be read.
+     */
+    public Journal(Path path, long fsyncIntervalMillis, int fsyncBatchSize) throws IOException {
+        this(path, fsyncIntervalMillis, fsyncBatchSize, 16L << 20);
+    }
+
+    /**
+     * Opens a journal, finding its existing segments.
+     * A single journal file left at the path by an older version becomes the first segment.
+     *
+     * @param path The path that segment file names are derived from.
+     * @param fsyncIntervalMillis The longest time a record may wait before it is fsynced, in milliseconds.
+     * @param fsyncBatchSize The number of pending records that triggers an immediate fsync.
+     * @param segmentBytes The size past which a new segment is started, in bytes.
+     * @throws IOException If the journal directory cannot be read.
+     */
+    public Journal(Path path, long fsyncIntervalMillis, int fsyncBatchSize, long segmentBytes) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.segmentBytes = Math.max(1, segmentBytes);
+        String prefix = this.path.getFileName() + ".";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.path.getParent(), prefix + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (suffix.matches("[0-9a-f]{16}")) {
+                    segments.put(Long.parseUnsignedLong(suffix, 16), file);
+                }
+            }
+        }
+        if (segments.isEmpty() && Files.isRegularFile(this.path)) {
+            segments.put(0L, Files.move(this.path, segmentPath(0)));
+        }
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.fsyncBatchSize = Math.max(1, fsyncBatchSize);
+        this.pending = new ByteArrayOutputStream();
+        this.flusher = new Thread(this::runFlusher, "journal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Replays every intact record of the journal into a reservation system and starts group commit.
+     * Must be called once, before any new records are appended.
+     *
+     * @param system The reservation system to rebuild; it should not have a journal attached yet.
+     * @return The number of records replayed.
+     * @throws IOException If the file cannot be read.
+     */
+    public int replay(HotelReservationSystem system) throws IOException {
+        return replay(system, 0);
+    }
+
+    /**
+     * Replays the intact records from a given position on into a reservation system and starts group commit.
+     * Used after loading a snapshot, which already reflects every record before its journal position.
+     * Must be called once, before any new records are appended.
+     *
+     * @param system The reservation system to rebuild; it should not have a journal attached yet.
+     * @param fromPosition The position of the first record to replay.
+     * @return The number of records replayed.
+     * @throws IOException If the journal cannot be read.
+     */
+    public int replay(HotelReservationSystem system, long fromPosition) throws IOException {
+        long start = System.nanoTime();
+        int count = 0;
+        long position = fromPosition;
+        if (!segments.isEmpty() && position < segments.firstKey()) {
+            System.out.println("Journal before position " + segments.firstKey() + " was compacted; replaying from there.");
+            position = segments.firstKey();
+        }
+
+        List<Map.Entry<Long, Path>> toRead = new ArrayList<>();
+        Long first = segments.floorKey(position);
+        if (first != null) {
+            toRead.addAll(segments.tailMap(first, true).entrySet());
+        }
+        for (Map.Entry<Long, Path> segment : toRead) {
+            long base = segment.getKey();
+            if (position > base + Files.size(segment.getValue())) {
+                break; // The snapshot is ahead of the journal; continue in a fresh segment
+            }
+            try (FileChannel in = FileChannel.open(segment.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long offset = position - base;
+                long size = in.size();
+                ByteBuffer header = ByteBuffer.allocate(8);
+
+                while (offset + 8 <= size) {
+                    header.clear();
+                    in.read(header, offset);
+                    header.flip();
+                    int length = header.getInt();
+                    int checksum = header.getInt();
+                    if (length <= 0 || offset + 8 + length > size) {
+                        break; // Torn record at the tail
+                    }
+
+                    ByteBuffer payload = ByteBuffer.allocate(length);
+                    in.read(payload, offset + 8);
+                    CRC32 crc = new CRC32();
+                    crc.update(payload.array(), 0, length);
+                    if ((int) crc.getValue() != checksum) {
+                        break; // Corrupt record; nothing after it can be trusted
+                    }
+
+                    apply(system, new DataInputStream(new ByteArrayInputStream(payload.array())));
+                    offset += 8 + length;
+                    count++;
+                }
+
+                position = base + offset;
+                if (offset < size) {
+                    System.out.println("Journal truncated after " + count + " records.");
+                    in.truncate(offset);
+                    for (Path later : segments.tailMap(base, false).values()) {
+                        Files.delete(later);
+                    }
+                    segments.tailMap(base, false).clear();
+                    break;
+                }
+            }
+        }
+
+        Map.Entry<Long, Path> last = segments.lastEntry();
+        if (last != null && last.getKey() + Files.size(last.getValue()) == position) {
+            channel = FileChannel.open(last.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channelBase = last.getKey();
+            channel.position(position - channelBase);
+        } else {
+            openSegment(position);
+        }
+        synchronized (this) {
+            appendedPosition = position;
+        }
+        replayedRecords = count;
+        replayedBytes = position - fromPosition;
+        replayMillis = (System.nanoTime() - start) / 1_000_000;
+        flusher.start();
+        return count;
+    }
+
+    /**
+     * Gets the file a segment starting at a given position is stored in.
+     *
+     * @param base The position of the segment's first record.
+     * @return The segment file.
+     */
+    private Path segmentPath(long base) {
+        return path.resolveSibling(String.format("%s.%016x", path.getFileName(), base));
+    }
+
+    /**
+     * Closes the active segment and starts a new one.
+     *
+     * @param base The position of the new segment's first record.
+     * @throws IOException If the segment cannot be created.
+     */
+    private void openSegment(long base) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        Path file = segmentPath(base);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        channelBase = base;
+        segments.put(base, file);
+    }
+
+    /**
+     * Deletes the segments whose records all come before a checkpoint.
+     * Must only be called once a snapshot reflecting every record before the checkpoint is durable.
+     *
+     * @param checkpointPosition The journal position of the snapshot.
+     * @return The number of segments deleted.
+     * @throws IOException If a segment cannot be deleted.
+     */
+    public int compact(long checkpointPosition) throws IOException {
+        synchronized (writeLock) {
+            int deleted = 0;
+            while (segments.size() > 1) {
+                Map.Entry<Long, Path> oldest = segments.firstEntry();
+                long nextBase = segments.higherKey(oldest.getKey());
+                if (nextBase > checkpointPosition) {
+                    break;
+                }
+                Files.delete(oldest.getValue());
+                segments.remove(oldest.getKey());
+                deleted++;
+            }
+            return deleted;
+        }
+    }
+
+    /**
+     * Gets the number of records applied by the last replay.
+     *
+     * @return The number of records.
+     */
+    public int getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    /**
+     * Gets the number of journal bytes read by the last replay.
+     *
+     * @return The number of bytes.
+     */
+    public long getReplayedBytes() {
+        return replayedBytes;
+    }
+
+    /**
+     * Gets how long the last replay took.
+     *
+     * @return The replay time in milliseconds.
+     */
+    public long getReplayMillis() {
+        return replayMillis;
+    }
+
+    /**
+     * Gets the number of segment files the journal is stored in.
+     *
+     * @return The number of segments.
+     */
+    public int getSegmentCount() {
+        synchronized (writeLock) {
+            return segments.size();
+        }
+    }
+
+    /**
+     * Applies one decoded record to the reservation system.
+     *
+     * @param system The reservation system being rebuilt.
+     * @param in The record payload.
+     * @throws IOException If the payload cannot be decoded.
+     */
+    private void apply(HotelReservationSystem system, DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        String hotelName = in.readUTF();
+        if (type == HOTEL_CREATED) {
+            system.createHotel(hotelName, in.readInt(), in.readInt(), in.readInt());
+            return;
+        }
+
+        Hotel hotel = system.getHotel(hotelName);
+        if (hotel == null) {
+            System.out.println("Journal refers to unknown hotel " + hotelName + ".");
+            return;
+        }
+
+        switch (type) {
+            case HOTEL_RENAMED:
+                hotel.setName(in.readUTF());
+                break;
+            case HOTEL_REMOVED:
+                system.removeHotel(hotel);
+                break;
+            case ROOM_ADDED:
+                hotel.tryAddRoom(in.readUTF());
+                break;
+            case ROOM_REMOVED:
+                hotel.tryRemoveRoom(in.readUTF());
+                break;
+            case RESERVATION_ADDED: {
+                String guestName = in.readUTF();
+                String roomName = in.readUTF();
+                int checkInDay = in.readInt();
+                int checkOutDay = in.readInt();
+                String discountCode = in.readBoolean() ? in.readUTF() : null;
+                hotel.bookBatch(Collections.singletonList(new BookingRequest(guestName, roomName, checkInDay, checkOutDay, discountCode)));
+                break;
+            }
+            case RESERVATION_REMOVED:
+                hotel.tryRemoveReservation(in.readUTF(), in.readUTF(), in.readInt(), in.readInt());
+                break;
+            case PRICE_UPDATED:
+                hotel.tryUpdatePrice(in.readDouble());
+                break;
+            case DATE_PRICE_MODIFIER_ADDED:
+                hotel.addDatePriceModifier(in.readInt(), in.readDouble());
+                break;
+            case HORIZON_ROLLED:
+                hotel.rollOver(in.readInt(), null);
+                break;
+            default:
+                throw new IOException("Unknown journal record type " + type);
+        }
+    }
+
+    /**
+     * Records the creation of a hotel.
+     *
+     * @param hotelName The name of the hotel.
+     * @param numStandard Number of standard rooms.
+     * @param numDeluxe Number of deluxe rooms.
+     * @param numExecutive Number of executive rooms.
+     */
+    public void logHotelCreated(String hotelName, int numStandard, int numDeluxe, int numExecutive) {
+        append(out -> {
+            out.writeByte(HOTEL_CREATED);
+            out.writeUTF(hotelName);
+            out.writeInt(numStandard);
+            out.writeInt(numDeluxe);
+            out.writeInt(numExecutive);
+        });
+    }
+
+    /**
+     * Records a change of hotel name.
+     *
+     * @param oldName The previous name of the hotel.
+     * @param newName The new name of the hotel.
+     */
+    public void logHotelRenamed(String oldName, String newName) {
+        append(out -> {
+            out.writeByte(HOTEL_RENAMED);
+            out.writeUTF(oldName);
+            out.writeUTF(newName);
+        });
+    }
+
+    /**
+     * Records the removal of a hotel.
+     *
+     * @param hotelName The name of the hotel.
+     */
+    public void logHotelRemoved(String hotelName) {
+        append(out -> {
+            out.writeByte(HOTEL_REMOVED);
+            out.writeUTF(hotelName);
+        });
+    }
+
+    /**
+     * Records the addition of a room.
+     *
+     * @param hotelName The name of the hotel.
+     * @param roomType The type of the room added.
+     */
+    public void logRoomAdded(String hotelName, String roomType) {
+        append(out -> {
+            out.writeByte(ROOM_ADDED);
+            out.writeUTF(hotelName);
+            out.writeUTF(roomType);
+        });
+    }
+
+    /**
+     * Records the removal of a room.
+     *
+     * @param hotelName The name of the hotel.
+     * @param roomName The name of the room removed.
+     */
+    public void logRoomRemoved(String hotelName, String roomName) {
+        append(out -> {
+            out.writeByte(ROOM_REMOVED);
+            out.writeUTF(hotelName);
+            out.writeUTF(roomName);
+        });
+    }
+
+    /**
+     * Records a new reservation.
+     *
+     * @param hotelName The name of the hotel.
+     * @param reservation The reservation added.
+     */
+    public void logReservationAdded(String hotelName, Reservation reservation) {
+        append(out -> {
+            out.writeByte(RESERVATION_ADDED);
+            out.writeUTF(hotelName);
+            out.writeUTF(reservation.getGuestName());
+            out.writeUTF(reservation.getRoom().getName());
+            out.writeInt(reservation.getCheckInDay());
+            out.writeInt(reservation.getCheckOutDay());
+            out.writeBoolean(reservation.getDiscountCode() != null);
+            if (reservation.getDiscountCode() != null) {
+                out.writeUTF(reservation.getDiscountCode());
+            }
+        });
+    }
+
+    /**
+     * Records the removal of a reservation.
+     *
+     * @param hotelName The name of the hotel.
+     * @param guestName The name of the guest.
+     * @param roomName The name of the room.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     */
+    public void logReservationRemoved(String hotelName, String guestName, String roomName, int checkInDay, int checkOutDay) {
+        append(out -> {
+            out.writeByte(RESERVATION_REMOVED);
+            out.writeUTF(hotelName);
+            out.writeUTF(guestName);
+            out.writeUTF(roomName);
+            out.writeInt(checkInDay);
+            out.writeInt(checkOutDay);
+        });
+    }
+
+    /**
+     * Records a change of base price.
+     *
+     * @param hotelName The name of the hotel.
+     * @param newPrice The new base price.
+     */
+    public void logPriceUpdated(String hotelName, double newPrice) {
+        append(out -> {
+            out.writeByte(PRICE_UPDATED);
+            out.writeUTF(hotelName);
+            out.writeDouble(newPrice);
+        });
+    }
+
+    /**
+     * Records a date-based price modifier.
+     *
+     * @param hotelName The name of the hotel.
+     * @param day The day modified.
+     * @param rate The price rate for the day.
+     */
+    public void logDatePriceModifierAdded(String hotelName, int day, double rate) {
+        append(out -> {
+            out.writeByte(DATE_PRICE_MODIFIER_ADDED);
+            out.writeUTF(hotelName);
+            out.writeInt(day);
+            out.writeDouble(rate);
+        });
+    }
+
+    /**
+     * Records that a hotel retired the days before a new first open day.
+     *
+     * @param hotelName The name of the hotel.
+     * @param firstOpenDay The new first open day.
+     */
+    public void logHorizonRolled(String hotelName, int firstOpenDay) {
+        append(out -> {
+            out.writeByte(HORIZON_ROLLED);
+            out.writeUTF(hotelName);
+            out.writeInt(firstOpenDay);
+        });
+    }
+
+    /**
+     * Writes the fields of one record.
+     */
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Encodes a record and adds it to the pending batch, waking the flusher if the batch is full.
+     *
+     * @param writer Writes the record payload.
+     */
+    private void append(RecordWriter writer) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+        try {
+            writer.write(new DataOutputStream(payload));
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Cannot happen for an in-memory stream
+        }
+        byte[] bytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+
+        synchronized (this) {
+            if (closed) {
+                System.out.println("Journal is closed; change not recorded.");
+                return;
+            }
+            writeInt(pending, bytes.length);
+            writeInt(pending, (int) crc.getValue());
+            pending.write(bytes, 0, bytes.length);
+            pendingRecords++;
+            appendedPosition += 8 + bytes.length;
+            if (pendingRecords >= fsyncBatchSize) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Gets the position just past the last appended record, including records not yet written.
+     * A snapshot taken while no change is in progress reflects exactly the records before this position.
+     *
+     * @return The journal position.
+     */
+    public synchronized long getPosition() {
+        return appendedPosition;
+    }
+
+    /**
+     * Writes a big-endian int to a byte stream.
+     *
+     * @param out The stream to write to.
+     * @param value The value to write.
+     */
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    /**
+     * Writes the pending batch to the file and fsyncs it.
+     * The records stay pending until the write succeeds, so a failed write loses nothing: whatever
+     * part of the batch reached the file is truncated away and the next flush writes it again.
+     *
+     * @throws IOException If the write fails.
+     */
+    public void flush() throws IOException {
+        synchronized (writeLock) {
+            byte[] batch;
+            int records;
+            synchronized (this) {
+                if (pendingRecords == 0) {
+                    return;
+                }
+                batch = pending.toByteArray();
+                records = pendingRecords;
+            }
+            long start = channel.position();
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                try {
+                    channel.truncate(start);
+                    channel.position(start);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                }
+                throw e;
+            }
+            synchronized (this) {
+                // Keep the records appended while the batch was being written
+                byte[] appended = pending.toByteArray();
+                ByteArrayOutputStream rest = new ByteArrayOutputStream(Math.max(32, appended.length - batch.length));
+                rest.write(appended, batch.length, appended.length - batch.length);
+                pending = rest;
+                pendingRecords -= records;
+            }
+            if (channel.position() >= segmentBytes) {
+                openSegment(channelBase + channel.position());
+            }
+        }
+    }
+
+    /**
+     * Performs group commits until the journal is closed.
+     */
+    private void runFlusher() {
+        while (!closed) {
+            synchronized (this) {
+                if (pendingRecords < fsyncBatchSize) {
+                    try {
+                        wait(fsyncIntervalMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                System.err.println("Journal write failed; the records stay pending and are retried: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Flushes any pending records and closes the journal file.
+     *
+     * @throws IOException If the final write fails.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        flush();
+        synchronized (writeLock) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Records latencies in nanoseconds with a fixed relative precision, the way HdrHistogram does.
+ *
+ * Values below 128 get a bucket each. Above that, every power of two is split into 64 equal
+ * buckets, so a value is reported as the highest value of its bucket, at most 1/64 (about 1.6%)
+ * above the value recorded. The histogram covers every positive long in 3712 counters, recording
+ * is a few shifts and an increment, and histograms recorded separately can be added together.
+ * A histogram is not thread-safe: record into one per thread and add them up afterwards.
+ */
+public class LatencyHistogram {
+    /**
+     * The number of bits of a value kept in the bucket index.
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+
+    /**
+     * The number of buckets per power of two above the linear range.
+     */
+    private static final int HALF_SUB_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+
+    /**
+     * The number of buckets: the linear range and then one group for each remaining power of two.
+     */
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKETS;
+
+    /**
+     * The number of values recorded in each bucket.
+     */
+    private final long[] counts = new long[BUCKETS];
+
+    /**
+     * The number of values recorded.
+     */
+    private long count;
+
+    /**
+     * The sum of the values recorded.
+     */
+    private long sum;
+
+    /**
+     * The largest value recorded.
+     */
+    private long max;
+
+    /**
+     * Records a value.
+     *
+     * @param nanos The latency in nanoseconds; negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[indexOf(value)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values recorded by another histogram to this one.
+     *
+     * @param other The other histogram.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Gets the number of values recorded.
+     *
+     * @return The number of values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the mean of the values recorded.
+     *
+     * @return The mean in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Gets the largest value recorded.
+     *
+     * @return The largest value in nanoseconds, exactly.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the value at a percentile: the smallest value that at least that share of the values do not exceed.
+     *
+     * @param percentile The percentile, such as 99.9.
+     * @return The value in nanoseconds, to the histogram's precision, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Gets the bucket of a value.
+     *
+     * @param value A value that is not negative.
+     * @return The index of its bucket.
+     */
+    private static int indexOf(long value) {
+        if (value < 2 * HALF_SUB_BUCKETS) {
+            return (int) value;
+        }
+        // Shift the value until it has SUB_BUCKET_BITS - 1 bits after its leading one
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return (shift + 1) * HALF_SUB_BUCKETS + (int) (value >>> shift) - HALF_SUB_BUCKETS;
+    }
+
+    /**
+     * Gets the highest value that falls in a bucket.
+     *
+     * @param index The index of the bucket.
+     * @return The highest value of the bucket.
+     */
+    private static long highestValueOf(int index) {
+        if (index < 2 * HALF_SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF_SUB_BUCKETS - 1;
+        long subBucket = index % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        long next = (subBucket + 1) << shift;
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
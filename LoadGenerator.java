@@ -0,0 +1,528 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link HotelReservationSystem} with synthetic booking traffic and reports latencies.
+ *
+ * Worker threads issue a weighted mix of searches across all hotels, price quotes, bookings,
+ * cancellations of earlier bookings, and earnings reports against many hotels. Each worker sends
+ * operations at exponentially distributed intervals, so together they form an open-loop Poisson
+ * stream at the target rate: the schedule never waits for a slow operation, and latency is measured
+ * from when an operation was due rather than when it started, so queueing behind a stall counts
+ * against the operations that waited instead of being hidden (coordinated omission).
+ *
+ * Stays follow the seasons: check-in days are drawn over the next year with a summer peak, and
+ * stays are longer in high season. The hotels are prefilled with the same kind of stays.
+ *
+ * Usage: {@code java LoadGenerator [--hotels 50] [--rooms 200] [--rate 2000] [--seconds 30]
+ * [--threads 8] [--prefill 0.3] [--seed 42] [--mix search=30,quote=30,book=25,cancel=10,earnings=5]}.
+ * The report gives the throughput and, per operation, the count, the share that succeeded, and the
+ * p50/p99/p999/max latency, with the service time at p99 for comparison.
+ */
+public class LoadGenerator {
+    /**
+     * The operations in the traffic mix.
+     */
+    private enum Operation {
+        SEARCH, QUOTE, BOOK, CANCEL, EARNINGS
+    }
+
+    /**
+     * The room types, by type code.
+     */
+    private static final String[] ROOM_TYPES = {"standard", "deluxe", "executive"};
+
+    /**
+     * The discount codes guests use now and then.
+     */
+    private static final String[] DISCOUNT_CODES = {"I_WORK_HERE", "STAY4_GET1", "PAYDAY"};
+
+    /**
+     * The number of days ahead that stays are drawn from.
+     */
+    private static final int BOOKING_WINDOW = 365;
+
+    /**
+     * The day of the year with the most demand (mid July).
+     */
+    private static final int PEAK_DAY_OF_YEAR = 196;
+
+    /**
+     * How far demand rises above and falls below its average over the year.
+     */
+    private static final double SEASON_AMPLITUDE = 0.6;
+
+    /**
+     * How long after the end of the run operations that are still due are abandoned, as a multiple of its length.
+     */
+    private static final double DRAIN_FACTOR = 1.0;
+
+    /**
+     * The system to drive.
+     */
+    private final HotelReservationSystem system;
+
+    /**
+     * The names of the hotels to send operations to.
+     */
+    private final String[] hotelNames;
+
+    /**
+     * The operations in the mix.
+     */
+    private final Operation[] operations;
+
+    /**
+     * The share of traffic of each operation in the mix and all before it, ending at 1.
+     */
+    private final double[] cumulativeWeights;
+
+    /**
+     * The day before the first check-in day.
+     */
+    private final int firstDay;
+
+    /**
+     * Constructs a LoadGenerator.
+     *
+     * @param system The system to drive.
+     * @param hotelNames The names of the hotels to send operations to.
+     * @param mix The traffic mix, such as "search=30,book=70".
+     * @param firstDay The day before the first check-in day.
+     */
+    LoadGenerator(HotelReservationSystem system, String[] hotelNames, String mix, int firstDay) {
+        this.system = system;
+        this.hotelNames = hotelNames;
+        this.firstDay = firstDay;
+        List<Operation> parsedOperations = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        double total = 0;
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            double weight = Double.parseDouble(parts[1]);
+            if (weight > 0) {
+                parsedOperations.add(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)));
+                total += weight;
+                weights.add(total);
+            }
+        }
+        if (parsedOperations.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no operations.");
+        }
+        this.operations = parsedOperations.toArray(new Operation[0]);
+        this.cumulativeWeights = new double[weights.size()];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            cumulativeWeights[i] = weights.get(i) / total;
+        }
+    }
+
+    /**
+     * Runs the load generator.
+     *
+     * @param args The options described in the class comment.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int hotels = 50;
+        int rooms = 200;
+        double rate = 2000;
+        double seconds = 30;
+        int threads = 8;
+        double prefill = 0.3;
+        long seed = 42;
+        String mix = "search=30,quote=30,book=25,cancel=10,earnings=5";
+        try {
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                switch (args[i]) {
+                    case "--hotels":
+                        hotels = Integer.parseInt(args[i + 1]);
+                        break;
+                    case "--rooms":
+                        rooms = Integer.parseInt(args[i + 1]);
+                        break;
+                    case "--rate":
+                        rate = Double.parseDouble(args[i + 1]);
+                        break;
+                    case "--seconds":
+                        seconds = Double.parseDouble(args[i + 1]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[i + 1]);
+                        break;
+                    case "--prefill":
+                        prefill = Double.parseDouble(args[i + 1]);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[i + 1]);
+                        break;
+                    case "--mix":
+                        mix = args[i + 1];
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (args.length % 2 != 0 || hotels <= 0 || rooms <= 0 || rooms > Hotel.MAX_ROOMS || rate <= 0
+                    || seconds <= 0 || threads <= 0) {
+                throw new IllegalArgumentException("Invalid options.");
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println("Usage: java LoadGenerator [--hotels 50] [--rooms 200] [--rate 2000] [--seconds 30]"
+                    + " [--threads 8] [--prefill 0.3] [--seed 42] [--mix search=30,quote=30,book=25,cancel=10,earnings=5]");
+            return;
+        }
+
+        HotelReservationSystem system = new HotelReservationSystem();
+        String[] hotelNames = new String[hotels];
+        int deluxe = rooms * 3 / 10;
+        int executive = rooms / 10;
+        for (int i = 0; i < hotels; i++) {
+            hotelNames[i] = "Hotel " + (i + 1);
+            system.createHotel(hotelNames[i], rooms - deluxe - executive, deluxe, executive);
+        }
+        LoadGenerator generator;
+        try {
+            generator = new LoadGenerator(system, hotelNames, mix, HotelCalendar.today());
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+
+        long start = System.nanoTime();
+        int prefilled = generator.prefill(prefill, new Random(seed));
+        System.out.println(String.format(Locale.ROOT, "Prefilled %d hotels of %d rooms with %d reservations in %.1f s.",
+                hotels, rooms, prefilled, (System.nanoTime() - start) / 1e9));
+        System.out.println(String.format(Locale.ROOT, "Running %s at %.0f ops/s for %.0f s on %d threads.",
+                mix, rate, seconds, threads));
+        generator.run(rate, (long) (seconds * 1e9), threads, seed);
+    }
+
+    /**
+     * Books seasonal stays into every hotel until about a share of its room nights are taken.
+     *
+     * @param occupancy The share of room nights over the booking window to fill, from 0 to 1.
+     * @param random The source of randomness.
+     * @return The number of reservations booked.
+     */
+    int prefill(double occupancy, Random random) {
+        int booked = 0;
+        for (String hotelName : hotelNames) {
+            Hotel hotel = system.getHotel(hotelName);
+            List<Room> rooms = hotel.getRooms();
+            long nights = (long) (occupancy * rooms.size() * BOOKING_WINDOW);
+            List<BookingRequest> requests = new ArrayList<>();
+            for (long taken = 0; taken < nights; ) {
+                int checkInDay = drawCheckInDay(random);
+                int checkOutDay = checkInDay + drawStayLength(checkInDay, random);
+                requests.add(new BookingRequest(guestName(random), rooms.get(random.nextInt(rooms.size())).getName(),
+                        checkInDay, checkOutDay, null));
+                taken += checkOutDay - checkInDay;
+            }
+            for (BookingResult result : hotel.importBatch(requests)) {
+                if (result.isBooked()) {
+                    booked++;
+                }
+            }
+        }
+        return booked;
+    }
+
+    /**
+     * Sends traffic for a while and prints the report.
+     *
+     * @param rate The target rate over all threads, in operations per second.
+     * @param durationNanos How long to send operations for.
+     * @param threads The number of worker threads.
+     * @param seed The seed of the workers' randomness.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    void run(double rate, long durationNanos, int threads, long seed) throws InterruptedException {
+        long start = System.nanoTime() + 10_000_000;   // Give every worker time to start before the first operation is due
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(rate / threads, start, durationNanos, new Random(seed + i + 1));
+            running[i] = new Thread(workers[i], "load-" + i);
+            running[i].start();
+        }
+        for (Thread thread : running) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
+        LatencyHistogram[] serviceTimes = new LatencyHistogram[latencies.length];
+        long[] successes = new long[latencies.length];
+        long abandoned = 0;
+        for (int op = 0; op < latencies.length; op++) {
+            latencies[op] = new LatencyHistogram();
+            serviceTimes[op] = new LatencyHistogram();
+            for (Worker worker : workers) {
+                latencies[op].add(worker.latencies[op]);
+                serviceTimes[op].add(worker.serviceTimes[op]);
+                successes[op] += worker.successes[op];
+            }
+        }
+        LatencyHistogram all = new LatencyHistogram();
+        for (int op = 0; op < latencies.length; op++) {
+            all.add(latencies[op]);
+        }
+        for (Worker worker : workers) {
+            abandoned += worker.abandoned;
+        }
+
+        System.out.println(String.format(Locale.ROOT, "Completed %d operations in %.1f s: %.0f ops/s (target %.0f).",
+                all.getCount(), elapsed / 1e9, all.getCount() / (elapsed / 1e9), rate));
+        if (abandoned > 0) {
+            System.out.println("Abandoned " + abandoned + " operations that were still due when the drain time ran out.");
+        }
+        System.out.println(String.format(Locale.ROOT, "%-9s %9s %6s %10s %10s %10s %10s %12s",
+                "operation", "count", "ok%", "p50 us", "p99 us", "p999 us", "max us", "svc p99 us"));
+        for (int op = 0; op < latencies.length; op++) {
+            if (latencies[op].getCount() > 0) {
+                printRow(Operation.values()[op].name().toLowerCase(Locale.ROOT), latencies[op],
+                        100.0 * successes[op] / latencies[op].getCount(), serviceTimes[op]);
+            }
+        }
+        printRow("all", all, Double.NaN, null);
+    }
+
+    /**
+     * Prints one line of the latency report.
+     *
+     * @param label The operation.
+     * @param latencies The latencies from when each operation was due.
+     * @param successRate The percentage of operations that succeeded, or NaN to leave it out.
+     * @param serviceTimes The latencies from when each operation started, or null to leave them out.
+     */
+    private static void printRow(String label, LatencyHistogram latencies, double successRate, LatencyHistogram serviceTimes) {
+        System.out.println(String.format(Locale.ROOT, "%-9s %9d %6s %10.1f %10.1f %10.1f %10.1f %12s",
+                label, latencies.getCount(), Double.isNaN(successRate) ? "" : String.format(Locale.ROOT, "%.1f", successRate),
+                latencies.getValueAtPercentile(50) / 1e3, latencies.getValueAtPercentile(99) / 1e3,
+                latencies.getValueAtPercentile(99.9) / 1e3, latencies.getMax() / 1e3,
+                serviceTimes == null ? "" : String.format(Locale.ROOT, "%.1f", serviceTimes.getValueAtPercentile(99) / 1e3)));
+    }
+
+    /**
+     * Gets how strongly stays are in demand on a day, relative to the average over the year.
+     *
+     * @param day The day.
+     * @return A factor between 1 - {@link #SEASON_AMPLITUDE} and 1 + {@link #SEASON_AMPLITUDE}.
+     */
+    static double seasonalDemand(int day) {
+        LocalDate date = HotelCalendar.toDate(day);
+        return 1 + SEASON_AMPLITUDE * Math.cos(2 * Math.PI * (date.getDayOfYear() - PEAK_DAY_OF_YEAR) / 365.25);
+    }
+
+    /**
+     * Draws a check-in day in the booking window, more likely in high season.
+     *
+     * @param random The source of randomness.
+     * @return The check-in day.
+     */
+    int drawCheckInDay(Random random) {
+        while (true) {
+            int day = firstDay + 1 + random.nextInt(BOOKING_WINDOW);
+            if (random.nextDouble() * (1 + SEASON_AMPLITUDE) < seasonalDemand(day)) {
+                return day;
+            }
+        }
+    }
+
+    /**
+     * Draws the length of a stay, geometrically distributed with a mean from 2 nights in low season to 5 in high season.
+     *
+     * @param checkInDay The check-in day.
+     * @param random The source of randomness.
+     * @return The number of nights, at least 1.
+     */
+    static int drawStayLength(int checkInDay, Random random) {
+        double season = (seasonalDemand(checkInDay) - (1 - SEASON_AMPLITUDE)) / (2 * SEASON_AMPLITUDE);
+        double mean = 2 + 3 * season;
+        int nights = 1 + (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - 1 / mean));
+        return Math.min(nights, 28);
+    }
+
+    /**
+     * Draws a guest name from a large pool of returning guests.
+     *
+     * @param random The source of randomness.
+     * @return The guest name.
+     */
+    private static String guestName(Random random) {
+        return "Guest " + random.nextInt(100_000);
+    }
+
+    /**
+     * A worker thread that sends its share of the traffic and records its latencies.
+     */
+    private class Worker implements Runnable {
+        private final double meanGapNanos;
+        private final long start;
+        private final long durationNanos;
+        private final Random random;
+        private final LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
+        private final LatencyHistogram[] serviceTimes = new LatencyHistogram[Operation.values().length];
+        private final long[] successes = new long[Operation.values().length];
+        private long abandoned;
+
+        /**
+         * The hotel and request of every booking this worker made that it has not cancelled yet.
+         */
+        private final List<Booking> bookings = new ArrayList<>();
+
+        /**
+         * Constructs a Worker.
+         *
+         * @param rate The rate of this worker, in operations per second.
+         * @param start When the first interval starts, in {@link System#nanoTime()} time.
+         * @param durationNanos How long to send operations for.
+         * @param random The source of randomness.
+         */
+        Worker(double rate, long start, long durationNanos, Random random) {
+            this.meanGapNanos = 1e9 / rate;
+            this.start = start;
+            this.durationNanos = durationNanos;
+            this.random = random;
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyHistogram();
+                serviceTimes[i] = new LatencyHistogram();
+            }
+        }
+
+        @Override
+        public void run() {
+            long drainDeadline = start + durationNanos + (long) (durationNanos * DRAIN_FACTOR);
+            double due = start;
+            while (true) {
+                due += -Math.log(1 - random.nextDouble()) * meanGapNanos;
+                long dueNanos = (long) due;
+                if (dueNanos - start >= durationNanos) {
+                    return;
+                }
+                long now;
+                while ((now = System.nanoTime()) < dueNanos) {
+                    LockSupport.parkNanos(dueNanos - now);
+                }
+                if (now > drainDeadline) {
+                    abandoned++;
+                    continue;
+                }
+                int op = pickOperation();
+                boolean succeeded = perform(Operation.values()[op]);
+                long end = System.nanoTime();
+                latencies[op].record(end - dueNanos);
+                serviceTimes[op].record(end - now);
+                if (succeeded) {
+                    successes[op]++;
+                }
+            }
+        }
+
+        /**
+         * Picks the next operation from the mix.
+         *
+         * @return The ordinal of the operation.
+         */
+        private int pickOperation() {
+            double draw = random.nextDouble();
+            int i = 0;
+            while (i < cumulativeWeights.length - 1 && draw >= cumulativeWeights[i]) {
+                i++;
+            }
+            return operations[i].ordinal();
+        }
+
+        /**
+         * Performs one operation.
+         *
+         * @param operation The operation.
+         * @return True if the operation found what it looked for or changed what it meant to; false otherwise.
+         */
+        private boolean perform(Operation operation) {
+            int checkInDay = drawCheckInDay(random);
+            int checkOutDay = checkInDay + drawStayLength(checkInDay, random);
+            String roomType = random.nextInt(4) == 0 ? null : ROOM_TYPES[random.nextInt(10) / 4];
+            switch (operation) {
+                case SEARCH:
+                    return !system.searchAvailability(checkInDay, checkOutDay, roomType, Double.MAX_VALUE, 10).isEmpty();
+                case QUOTE: {
+                    Hotel hotel = system.getHotel(hotelNames[random.nextInt(hotelNames.length)]);
+                    List<RoomOffer> offers = hotel.findAvailableRooms(checkInDay, checkOutDay, roomType, Double.MAX_VALUE, 1);
+                    if (offers.isEmpty()) {
+                        return false;
+                    }
+                    Room room = hotel.getRoomByName(offers.get(0).getRoomName());
+                    return new Reservation(guestName(random), checkInDay, checkOutDay, room, discountCode()).getTotalPrice(hotel) > 0;
+                }
+                case BOOK: {
+                    String hotelName = hotelNames[random.nextInt(hotelNames.length)];
+                    Hotel hotel = system.getHotel(hotelName);
+                    List<RoomOffer> offers = hotel.findAvailableRooms(checkInDay, checkOutDay, roomType, Double.MAX_VALUE, 1);
+                    if (offers.isEmpty()) {
+                        return false;
+                    }
+                    BookingRequest request = new BookingRequest(guestName(random), offers.get(0).getRoomName(),
+                            checkInDay, checkOutDay, discountCode());
+                    if (!hotel.bookBatch(Collections.singletonList(request)).get(0).isBooked()) {
+                        return false;   // Another worker took the room between the search and the booking
+                    }
+                    bookings.add(new Booking(hotelName, request));
+                    return true;
+                }
+                case CANCEL: {
+                    if (bookings.isEmpty()) {
+                        return false;
+                    }
+                    // Swap a random booking to the end and cancel it
+                    int index = random.nextInt(bookings.size());
+                    Booking booking = bookings.get(index);
+                    bookings.set(index, bookings.get(bookings.size() - 1));
+                    bookings.remove(bookings.size() - 1);
+                    BookingRequest request = booking.request;
+                    return system.getHotel(booking.hotelName).tryRemoveReservation(request.getGuestName(),
+                            request.getRoomName(), request.getCheckInDay(), request.getCheckOutDay());
+                }
+                default:
+                    return system.getHotel(hotelNames[random.nextInt(hotelNames.length)]).estimatedEarnings() >= 0;
+            }
+        }
+
+        /**
+         * Draws the discount code of a guest, who mostly have none.
+         *
+         * @return A discount code, or null.
+         */
+        private String discountCode() {
+            return random.nextInt(10) == 0 ? DISCOUNT_CODES[random.nextInt(DISCOUNT_CODES.length)] : null;
+        }
+    }
+
+    /**
+     * A booking made by a worker, kept so it can cancel it later.
+     */
+    private static class Booking {
+        final String hotelName;
+        final BookingRequest request;
+
+        /**
+         * Constructs a Booking.
+         *
+         * @param hotelName The name of the hotel.
+         * @param request The request the booking was made from.
+         */
+        Booking(String hotelName, BookingRequest request) {
+            this.hotelName = hotelName;
+            this.request = request;
+        }
+    }
+}
@@ -11,7 +11,7 @@ public class MVC {
      */
     public static void main(String[] args) {
         // Create instances of the model, view, and controller
-        HotelReservationSystem model = new HotelReservationSystem();
+        HotelReservationSystem model = HotelReservationSystem.open();
         HotelReservationView view = new HotelReservationView();
         HotelReservationController controller = new HotelReservationController(model, view);
 
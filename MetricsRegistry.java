@@ -0,0 +1,511 @@
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters, latency timers, and gauges for the reservation engine, exported as platform MBeans.
+ *
+ * Counters and timers are looked up once, typically into static final fields, and updated on hot
+ * paths without locks: they add to {@link LongAdder}s, which spread contended updates over cells.
+ * A timer reads the clock at the start and end of what it times, which costs a few tens of
+ * nanoseconds; operations that take about that long get a sampled timer, which counts every call
+ * but only reads the clock for a random one in N. With the registry disabled, counters and timers
+ * cost a volatile read. Gauges are read only when
+ * someone looks at them. A gauge set reports one value per key, such as one per hotel, computed
+ * when read, so it follows hotels as they come and go without registering anything per hotel.
+ *
+ * After {@link #registerMBeans()}, every metric, including ones created later, is an MXBean named
+ * {@code HotelReservationSystem:type=<Counter|Timer|Gauge|GaugeSet>,name=<name>}, visible in
+ * JConsole or any JMX client.
+ */
+public class MetricsRegistry {
+    /**
+     * The registry the model records into.
+     */
+    public static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    /**
+     * The JMX domain of the exported metrics.
+     */
+    private static final String DOMAIN = "HotelReservationSystem";
+
+    /**
+     * The value {@link Timer#start()} returns when the registry is disabled.
+     */
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    /**
+     * The value {@link Timer#start()} returns for a call a sampled timer only counts.
+     */
+    private static final long NOT_SAMPLED = Long.MIN_VALUE + 1;
+
+    /**
+     * The metrics by name, each a Counter, Timer, Gauge, or GaugeSet.
+     */
+    private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Whether counters and timers record; gauges are always read.
+     */
+    private volatile boolean enabled = true;
+
+    /**
+     * The server metrics are registered with, or null if they are not exported.
+     */
+    private MBeanServer server;
+
+    /**
+     * Gets a counter, creating it if it does not exist.
+     *
+     * @param name The name of the counter, such as "reservations.booked".
+     * @return The counter.
+     */
+    public Counter counter(String name) {
+        return (Counter) getOrCreate(name, () -> new Counter(this));
+    }
+
+    /**
+     * Gets a timer, creating it if it does not exist.
+     *
+     * @param name The name of the timer, such as "hotel.addReservation".
+     * @return The timer.
+     */
+    public Timer timer(String name) {
+        return timer(name, 1);
+    }
+
+    /**
+     * Gets a timer that times a random one in a number of calls and counts the rest, creating it if it does not exist.
+     *
+     * @param name The name of the timer, such as "reservation.getTotalPrice".
+     * @param sampleInterval Times one in about this many calls, rounded up to a power of two.
+     * @return The timer, with the interval it was created with if it already existed.
+     */
+    public Timer timer(String name, int sampleInterval) {
+        int mask = sampleInterval <= 1 ? 0 : Integer.highestOneBit(sampleInterval - 1) * 2 - 1;
+        return (Timer) getOrCreate(name, () -> new Timer(this, mask));
+    }
+
+    /**
+     * Adds a gauge, replacing any metric with the same name.
+     *
+     * @param name The name of the gauge.
+     * @param value Computes the value of the gauge when it is read.
+     */
+    public void gauge(String name, LongSupplier value) {
+        replace(name, new Gauge(value));
+    }
+
+    /**
+     * Adds a gauge set, replacing any metric with the same name.
+     *
+     * @param name The name of the gauge set, such as "hotel.reservations".
+     * @param values Computes the value for each key when the set is read.
+     */
+    public void gaugeSet(String name, Supplier<Map<String, Long>> values) {
+        replace(name, new GaugeSet(values));
+    }
+
+    /**
+     * Removes a metric.
+     *
+     * @param name The name of the metric.
+     */
+    public synchronized void remove(String name) {
+        Object removed = metrics.remove(name);
+        if (removed != null) {
+            unregister(name, removed);
+        }
+    }
+
+    /**
+     * Turns recording by counters and timers on or off.
+     *
+     * @param enabled Whether counters and timers record.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Checks if counters and timers record.
+     *
+     * @return True if they record; false otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reads every metric.
+     *
+     * @return The value of each counter and gauge, the count, mean, and maximum of each timer, and
+     *         each value of each gauge set, by name and then key, in name order.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> values = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+            Object metric = entry.getValue();
+            if (metric instanceof Counter) {
+                values.put(entry.getKey(), ((Counter) metric).getCount());
+            } else if (metric instanceof Timer) {
+                Timer timer = (Timer) metric;
+                values.put(entry.getKey(), String.format(Locale.ROOT, "count=%d sampled=%d meanUs=%.2f maxUs=%.2f",
+                        timer.getCount(), timer.getSampledCount(), timer.getMeanMicros(), timer.getMaxMicros()));
+            } else if (metric instanceof Gauge) {
+                values.put(entry.getKey(), ((Gauge) metric).getValue());
+            } else {
+                values.put(entry.getKey(), new TreeMap<>(((GaugeSet) metric).getValues()));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Exports every metric, and every metric created later, to the platform MBean server.
+     *
+     * @return True if the metrics were exported; false if they could not be.
+     */
+    public synchronized boolean registerMBeans() {
+        if (server != null) {
+            return true;
+        }
+        server = ManagementFactory.getPlatformMBeanServer();
+        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+            if (!register(entry.getKey(), entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets a metric, creating and exporting it if it does not exist.
+     *
+     * @param name The name of the metric.
+     * @param factory Creates the metric.
+     * @return The metric.
+     */
+    private Object getOrCreate(String name, Supplier<Object> factory) {
+        Object metric = metrics.get(name);
+        if (metric != null) {
+            return metric;
+        }
+        synchronized (this) {
+            metric = metrics.get(name);
+            if (metric == null) {
+                metric = factory.get();
+                metrics.put(name, metric);
+                register(name, metric);
+            }
+            return metric;
+        }
+    }
+
+    /**
+     * Adds a metric, replacing and unexporting any metric with the same name.
+     *
+     * @param name The name of the metric.
+     * @param metric The metric.
+     */
+    private synchronized void replace(String name, Object metric) {
+        Object replaced = metrics.put(name, metric);
+        if (replaced != null) {
+            unregister(name, replaced);
+        }
+        register(name, metric);
+    }
+
+    /**
+     * Exports a metric if metrics are exported.
+     *
+     * @param name The name of the metric.
+     * @param metric The metric.
+     * @return True if the metric was exported or metrics are not exported; false if it could not be exported.
+     */
+    private boolean register(String name, Object metric) {
+        if (server == null) {
+            return true;
+        }
+        try {
+            server.registerMBean(metric, objectName(name, metric));
+            return true;
+        } catch (JMException e) {
+            System.out.println("Could not export metric " + name + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Unexports a metric if metrics are exported.
+     *
+     * @param name The name of the metric.
+     * @param metric The metric.
+     */
+    private void unregister(String name, Object metric) {
+        if (server == null) {
+            return;
+        }
+        try {
+            server.unregisterMBean(objectName(name, metric));
+        } catch (JMException e) {
+            System.out.println("Could not remove metric " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the JMX name of a metric.
+     *
+     * @param name The name of the metric.
+     * @param metric The metric.
+     * @return The object name.
+     * @throws JMException If the name cannot be used in an object name.
+     */
+    private static ObjectName objectName(String name, Object metric) throws JMException {
+        String type = metric.getClass().getSimpleName();
+        return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * The JMX view of a counter.
+     */
+    public interface CounterMXBean {
+        /**
+         * Gets the count.
+         *
+         * @return The number of events counted.
+         */
+        long getCount();
+    }
+
+    /**
+     * The JMX view of a timer.
+     */
+    public interface TimerMXBean {
+        /**
+         * Gets the number of operations.
+         *
+         * @return The count, including operations that were not sampled.
+         */
+        long getCount();
+
+        /**
+         * Gets the number of operations whose time was measured.
+         *
+         * @return The count of sampled operations.
+         */
+        long getSampledCount();
+
+        /**
+         * Gets the mean time of the sampled operations.
+         *
+         * @return The mean in microseconds, or 0 if nothing was sampled.
+         */
+        double getMeanMicros();
+
+        /**
+         * Gets the longest time of a sampled operation.
+         *
+         * @return The maximum in microseconds.
+         */
+        double getMaxMicros();
+    }
+
+    /**
+     * The JMX view of a gauge.
+     */
+    public interface GaugeMXBean {
+        /**
+         * Reads the gauge.
+         *
+         * @return The current value.
+         */
+        long getValue();
+    }
+
+    /**
+     * The JMX view of a gauge set.
+     */
+    public interface GaugeSetMXBean {
+        /**
+         * Reads the gauge set.
+         *
+         * @return The current value for each key.
+         */
+        Map<String, Long> getValues();
+    }
+
+    /**
+     * Counts events.
+     */
+    public static class Counter implements CounterMXBean {
+        private final MetricsRegistry registry;
+        private final LongAdder count = new LongAdder();
+
+        /**
+         * Constructs a Counter.
+         *
+         * @param registry The registry the counter belongs to.
+         */
+        Counter(MetricsRegistry registry) {
+            this.registry = registry;
+        }
+
+        /**
+         * Counts one event.
+         */
+        public void increment() {
+            if (registry.enabled) {
+                count.increment();
+            }
+        }
+
+        /**
+         * Counts a number of events.
+         *
+         * @param events The number of events.
+         */
+        public void add(long events) {
+            if (registry.enabled) {
+                count.add(events);
+            }
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * Times operations. Call {@link #start()} before the operation and pass what it returned to
+     * {@link #stop(long)} after it.
+     */
+    public static class Timer implements TimerMXBean {
+        private final MetricsRegistry registry;
+        private final int sampleMask;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sampled = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        /**
+         * Constructs a Timer.
+         *
+         * @param registry The registry the timer belongs to.
+         * @param sampleMask Times a call when a random int has none of these bits set; 0 times every call.
+         */
+        Timer(MetricsRegistry registry, int sampleMask) {
+            this.registry = registry;
+            this.sampleMask = sampleMask;
+        }
+
+        /**
+         * Starts timing an operation.
+         *
+         * @return The start time, or a marker for a call that is not timed, to pass to {@link #stop(long)}.
+         */
+        public long start() {
+            if (!registry.enabled) {
+                return NOT_TIMED;
+            }
+            if (sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+                return NOT_SAMPLED;
+            }
+            return System.nanoTime();
+        }
+
+        /**
+         * Stops timing an operation and records it.
+         *
+         * @param start The value {@link #start()} returned.
+         */
+        public void stop(long start) {
+            if (start == NOT_TIMED) {
+                return;
+            }
+            count.increment();
+            if (start != NOT_SAMPLED) {
+                long nanos = System.nanoTime() - start;
+                sampled.increment();
+                totalNanos.add(nanos);
+                if (nanos > maxNanos.get()) {
+                    maxNanos.accumulate(nanos);
+                }
+            }
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public long getSampledCount() {
+            return sampled.sum();
+        }
+
+        @Override
+        public double getMeanMicros() {
+            long operations = sampled.sum();
+            return operations == 0 ? 0 : totalNanos.sum() / 1e3 / operations;
+        }
+
+        @Override
+        public double getMaxMicros() {
+            return maxNanos.get() / 1e3;
+        }
+    }
+
+    /**
+     * A value computed when read.
+     */
+    private static class Gauge implements GaugeMXBean {
+        private final LongSupplier value;
+
+        /**
+         * Constructs a Gauge.
+         *
+         * @param value Computes the value.
+         */
+        Gauge(LongSupplier value) {
+            this.value = value;
+        }
+
+        @Override
+        public long getValue() {
+            return value.getAsLong();
+        }
+    }
+
+    /**
+     * Values by key computed when read.
+     */
+    private static class GaugeSet implements GaugeSetMXBean {
+        private final Supplier<Map<String, Long>> values;
+
+        /**
+         * Constructs a GaugeSet.
+         *
+         * @param values Computes the values.
+         */
+        GaugeSet(Supplier<Map<String, Long>> values) {
+            this.values = values;
+        }
+
+        @Override
+        public Map<String, Long> getValues() {
+            return values.get();
+        }
+    }
+}
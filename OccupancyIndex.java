@@ -0,0 +1,218 @@
+import java.util.Arrays;
+
+/**
+ * Tracks the days on which each room of a hotel is occupied, on the heap.
+ * Answers day and date-range availability checks without scanning the reservation list.
+ * Rooms are addressed by their slot ({@link Room#getSlot()}) and grouped into segments of 64
+ * consecutive slots. Copies made with {@link #copy()} share the segments and per-room day sets with
+ * the original and only clone a segment, and then a room's days, the first time the copy changes
+ * them, so copying an index and booking one room cost little even for hotels with thousands of rooms.
+ */
+public class OccupancyIndex implements OccupancyStore {
+    private static final Segment[] NO_SEGMENTS = new Segment[0];
+
+    /**
+     * The number of slots per segment; ownership within a segment is tracked in one 64-bit word.
+     */
+    private static final int SEGMENT_SLOTS = 64;
+
+    /**
+     * Occupied days for each room, by slot, in segments of {@link #SEGMENT_SLOTS} slots.
+     */
+    private Segment[] segments;
+
+    /**
+     * Constructs an empty OccupancyIndex.
+     */
+    public OccupancyIndex() {
+        this.segments = NO_SEGMENTS;
+    }
+
+    /**
+     * Constructs an index that shares the segments of another.
+     *
+     * @param segments The segments to share.
+     */
+    private OccupancyIndex(Segment[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Creates a copy of this index that can be changed without affecting this one.
+     *
+     * @return The copy.
+     */
+    @Override
+    public OccupancyIndex copy() {
+        Segment[] shared = segments.length == 0 ? NO_SEGMENTS : segments.clone();
+        for (int i = 0; i < shared.length; i++) {
+            if (shared[i] != null) {
+                shared[i].shared = true;
+            }
+        }
+        return new OccupancyIndex(shared);
+    }
+
+    /**
+     * Gets the occupied days of a room.
+     *
+     * @param slot The slot of the room.
+     * @return The room's day set, or null if it has none.
+     */
+    private DaySet days(int slot) {
+        int i = slot / SEGMENT_SLOTS;
+        Segment segment = slot >= 0 && i < segments.length ? segments[i] : null;
+        return segment == null ? null : segment.days[slot % SEGMENT_SLOTS];
+    }
+
+    /**
+     * Gets the day set of a room that this index may change, cloning a shared segment or day set first.
+     *
+     * @param slot The slot of the room.
+     * @return The room's own day set.
+     */
+    private DaySet ownedDays(int slot) {
+        int i = slot / SEGMENT_SLOTS;
+        if (i >= segments.length) {
+            segments = Arrays.copyOf(segments, Math.max(i + 1, segments.length * 2));
+        }
+        Segment segment = segments[i];
+        if (segment == null) {
+            segment = new Segment(new DaySet[SEGMENT_SLOTS]);
+            segments[i] = segment;
+        } else if (segment.shared) {
+            segment = new Segment(segment.days.clone());
+            segments[i] = segment;
+        }
+        int position = slot % SEGMENT_SLOTS;
+        DaySet days = segment.days[position];
+        if (days == null) {
+            days = new DaySet();
+        } else if ((segment.owned & (1L << position)) == 0) {
+            days = days.copy();
+        } else {
+            return days;
+        }
+        segment.days[position] = days;
+        segment.owned |= 1L << position;
+        return days;
+    }
+
+    /**
+     * Checks if the room is occupied on a specific day.
+     *
+     * @param slot The slot of the room to check.
+     * @param day The day to check.
+     * @return True if the room is occupied on the day; false otherwise.
+     */
+    @Override
+    public boolean isBooked(int slot, int day) {
+        DaySet days = days(slot);
+        return days != null && days.contains(day);
+    }
+
+    /**
+     * Checks if the room is free for every day from check-in to check-out, inclusive.
+     *
+     * @param slot The slot of the room to check.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     * @return True if the room is free for the whole range; false otherwise.
+     */
+    @Override
+    public boolean isAvailable(int slot, int checkInDay, int checkOutDay) {
+        DaySet days = days(slot);
+        return days == null || days.isClear(checkInDay, checkOutDay);
+    }
+
+    /**
+     * Marks the room as occupied from check-in to check-out, inclusive.
+     *
+     * @param slot The slot of the room being booked.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     */
+    @Override
+    public void book(int slot, int checkInDay, int checkOutDay) {
+        ownedDays(slot).add(checkInDay, checkOutDay);
+    }
+
+    /**
+     * Marks the room as free from check-in to check-out, inclusive.
+     *
+     * @param slot The slot of the room being released.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     */
+    @Override
+    public void release(int slot, int checkInDay, int checkOutDay) {
+        if (days(slot) != null) {
+            ownedDays(slot).remove(checkInDay, checkOutDay);
+        }
+    }
+
+    /**
+     * Forgets the occupancy of every room before a given day, freeing the space it took.
+     *
+     * @param day The first day to keep.
+     */
+    @Override
+    public void retireBefore(int day) {
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i] == null) {
+                continue;
+            }
+            for (int position = 0; position < SEGMENT_SLOTS; position++) {
+                DaySet days = segments[i].days[position];
+                if (days != null && days.coversBefore(day)) {
+                    ownedDays(i * SEGMENT_SLOTS + position).retireBefore(day);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops all occupancy information for a room.
+     *
+     * @param slot The slot of the room being removed.
+     */
+    @Override
+    public void removeRoom(int slot) {
+        if (days(slot) != null) {
+            ownedDays(slot);
+            Segment segment = segments[slot / SEGMENT_SLOTS];
+            int position = slot % SEGMENT_SLOTS;
+            segment.days[position] = null;
+            segment.owned &= ~(1L << position);
+        }
+    }
+
+    /**
+     * The day sets of the rooms in one segment.
+     */
+    private static class Segment {
+        /**
+         * Occupied days for each slot of the segment.
+         */
+        final DaySet[] days;
+
+        /**
+         * Bit set of the slots whose day sets belong to this segment alone and may be changed in place.
+         */
+        long owned;
+
+        /**
+         * Set once an index copy refers to the segment, after which it must be copied before it is changed.
+         */
+        boolean shared;
+
+        /**
+         * Constructs a Segment.
+         *
+         * @param days The day sets of the slots.
+         */
+        Segment(DaySet[] days) {
+            this.days = days;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Records the days on which each room of a hotel is occupied and answers availability queries.
+ * Rooms are addressed by their slot ({@link Room#getSlot()}) and days by day number; every range
+ * is inclusive of both ends.
+ *
+ * A hotel changes occupancy by taking a {@link #copy()} of the store of its current snapshot,
+ * changing it, and publishing it in a new snapshot. {@link OccupancyIndex} keeps its bits on the
+ * heap and gives every snapshot its own consistent view; {@link OffHeapOccupancyStore} keeps them
+ * in native memory for very large hotels, at the cost of sharing one view between snapshots.
+ */
+public interface OccupancyStore {
+    /**
+     * Creates a store to make the next change in.
+     *
+     * @return The store to change and publish.
+     */
+    OccupancyStore copy();
+
+    /**
+     * Checks if the room is occupied on a specific day.
+     *
+     * @param slot The slot of the room to check.
+     * @param day The day to check.
+     * @return True if the room is occupied on the day; false otherwise.
+     */
+    boolean isBooked(int slot, int day);
+
+    /**
+     * Checks if the room is free for every day from check-in to check-out, inclusive.
+     *
+     * @param slot The slot of the room to check.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     * @return True if the room is free for the whole range; false otherwise.
+     */
+    boolean isAvailable(int slot, int checkInDay, int checkOutDay);
+
+    /**
+     * Marks the room as occupied from check-in to check-out, inclusive.
+     *
+     * @param slot The slot of the room being booked.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     */
+    void book(int slot, int checkInDay, int checkOutDay);
+
+    /**
+     * Marks the room as free from check-in to check-out, inclusive.
+     *
+     * @param slot The slot of the room being released.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     */
+    void release(int slot, int checkInDay, int checkOutDay);
+
+    /**
+     * Forgets the occupancy of every room before a given day, freeing the space it took.
+     *
+     * @param day The first day to keep.
+     */
+    void retireBefore(int day);
+
+    /**
+     * Drops all occupancy information for a room.
+     *
+     * @param slot The slot of the room being removed.
+     */
+    void removeRoom(int slot);
+}
@@ -0,0 +1,436 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An occupancy store that keeps its bits in native memory rather than on the heap, so that hotels
+ * with many rooms over long horizons add almost nothing for the garbage collector to trace or copy.
+ *
+ * The bits form a matrix with one row per room slot and one 64-bit word per 64 days. Each row is a
+ * ring of words: day {@code d} lives in word {@code d / 64} at position {@code (d / 64) % words},
+ * and the words covered by the store are a window of at most {@code words} consecutive words that
+ * {@link #retireBefore(int)} moves forward, so a fixed booking horizon needs a fixed amount of memory.
+ * The matrix is reallocated with more rows or a wider window when a booking does not fit.
+ *
+ * The matrix lives in a direct buffer, or in a memory-mapped file when the store is created with
+ * {@link #open(Path, int, int)}; a file-backed store picks up its bits again when the file is reopened,
+ * without rebuilding them from the reservations.
+ *
+ * Unlike {@link OccupancyIndex}, copies share the matrix and changes are made in place, so older
+ * snapshots of a hotel see the latest occupancy rather than the occupancy when they were taken.
+ * Changes must be made by one thread at a time, which hotels ensure by holding their lock.
+ */
+public class OffHeapOccupancyStore implements OccupancyStore, AutoCloseable {
+    private static final int MAGIC = 0x48524f43;
+    private static final int VERSION = 1;
+
+    /**
+     * The bytes before the first row: magic, version, words, rows, first word, and covered words.
+     */
+    private static final int HEADER_BYTES = 64;
+
+    private static final int WORDS_AT = 8;
+    private static final int ROWS_AT = 12;
+    private static final int FIRST_WORD_AT = 16;
+    private static final int COUNT_AT = 20;
+
+    /**
+     * The file the matrix is mapped from, or null if it is held in a direct buffer.
+     */
+    private final Path file;
+
+    /**
+     * The buffer and its geometry; replaced as a whole when the matrix is reallocated.
+     */
+    private volatile Matrix matrix;
+
+    /**
+     * The index of the first word covered by the matrix.
+     */
+    private volatile int firstWord;
+
+    /**
+     * The number of words covered by the matrix, at most the number of words per row.
+     */
+    private volatile int count;
+
+    /**
+     * Constructs an empty store in a direct buffer.
+     *
+     * @param rows The number of room slots to make room for.
+     * @param days The number of days to make room for in each row.
+     */
+    public OffHeapOccupancyStore(int rows, int days) {
+        this.file = null;
+        try {
+            this.matrix = Matrix.allocate(null, Math.max(1, rows), wordsFor(days));
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Cannot happen without a file
+        }
+        writeHeader();
+    }
+
+    /**
+     * Constructs a store over a mapped file.
+     *
+     * @param file The file.
+     * @param matrix The mapping of the whole file.
+     * @param firstWord The index of the first covered word.
+     * @param count The number of covered words.
+     */
+    private OffHeapOccupancyStore(Path file, Matrix matrix, int firstWord, int count) {
+        this.file = file;
+        this.matrix = matrix;
+        this.firstWord = firstWord;
+        this.count = count;
+        writeHeader();
+    }
+
+    /**
+     * Opens a file-backed store, picking up the bits already in the file or creating it empty.
+     *
+     * @param file The file to map.
+     * @param rows The number of room slots to make room for if the file is new.
+     * @param days The number of days to make room for in each row if the file is new.
+     * @return The store.
+     * @throws IOException If the file cannot be mapped or is not an occupancy file.
+     */
+    public static OffHeapOccupancyStore open(Path file, int rows, int days) throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return new OffHeapOccupancyStore(file, Matrix.allocate(file, Math.max(1, rows), wordsFor(days)), 0, 0);
+        }
+        ByteBuffer buffer = map(file, Files.size(file));
+        int words = buffer.getInt(WORDS_AT);
+        int rowCount = buffer.getInt(ROWS_AT);
+        int count = buffer.getInt(COUNT_AT);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || words < 1 || rowCount < 1 || count < 0 || count > words
+                || (long) HEADER_BYTES + (long) rowCount * words * 8 > buffer.capacity()) {
+            throw new IOException(file + " is not an occupancy file.");
+        }
+        return new OffHeapOccupancyStore(file, new Matrix(buffer, rowCount, words), buffer.getInt(FIRST_WORD_AT), count);
+    }
+
+    /**
+     * Returns this store, since changes are made in place.
+     *
+     * @return This store.
+     */
+    @Override
+    public OccupancyStore copy() {
+        return this;
+    }
+
+    /**
+     * Checks if the room is occupied on a specific day.
+     *
+     * @param slot The slot of the room to check.
+     * @param day The day to check.
+     * @return True if the room is occupied on the day; false otherwise.
+     */
+    @Override
+    public boolean isBooked(int slot, int day) {
+        Matrix m = matrix;
+        int word = day >> 6;
+        return slot >= 0 && slot < m.rows && day >= 0 && word >= firstWord && word < firstWord + count
+                && (m.buffer.getLong(m.offset(slot, word)) & (1L << day)) != 0;
+    }
+
+    /**
+     * Checks if the room is free for every day from check-in to check-out, inclusive.
+     *
+     * @param slot The slot of the room to check.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     * @return True if the room is free for the whole range; false otherwise.
+     */
+    @Override
+    public boolean isAvailable(int slot, int checkInDay, int checkOutDay) {
+        Matrix m = matrix;
+        if (slot < 0 || slot >= m.rows) {
+            return true;
+        }
+        int from = Math.max(checkInDay, firstWord << 6);
+        int to = Math.min(checkOutDay, ((firstWord + count) << 6) - 1);
+        for (int word = from >> 6; from <= to; word++) {
+            int last = Math.min(to, (word << 6) + 63);
+            if ((m.buffer.getLong(m.offset(slot, word)) & mask(from, last)) != 0) {
+                return false;
+            }
+            from = last + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Marks the room as occupied from check-in to check-out, inclusive.
+     *
+     * @param slot The slot of the room being booked.
+     * @param checkInDay The check-in day; must not be negative.
+     * @param checkOutDay The check-out day.
+     */
+    @Override
+    public void book(int slot, int checkInDay, int checkOutDay) {
+        if (checkInDay > checkOutDay) {
+            return;
+        }
+        cover(slot, checkInDay >> 6, checkOutDay >> 6);
+        Matrix m = matrix;
+        for (int word = checkInDay >> 6; checkInDay <= checkOutDay; word++) {
+            int last = Math.min(checkOutDay, (word << 6) + 63);
+            int at = m.offset(slot, word);
+            m.buffer.putLong(at, m.buffer.getLong(at) | mask(checkInDay, last));
+            checkInDay = last + 1;
+        }
+    }
+
+    /**
+     * Marks the room as free from check-in to check-out, inclusive.
+     *
+     * @param slot The slot of the room being released.
+     * @param checkInDay The check-in day.
+     * @param checkOutDay The check-out day.
+     */
+    @Override
+    public void release(int slot, int checkInDay, int checkOutDay) {
+        Matrix m = matrix;
+        if (slot < 0 || slot >= m.rows) {
+            return;
+        }
+        int from = Math.max(checkInDay, firstWord << 6);
+        int to = Math.min(checkOutDay, ((firstWord + count) << 6) - 1);
+        for (int word = from >> 6; from <= to; word++) {
+            int last = Math.min(to, (word << 6) + 63);
+            int at = m.offset(slot, word);
+            m.buffer.putLong(at, m.buffer.getLong(at) & ~mask(from, last));
+            from = last + 1;
+        }
+    }
+
+    /**
+     * Forgets the occupancy of every room before a given day; the freed words are reused for later days.
+     *
+     * @param day The first day to keep.
+     */
+    @Override
+    public void retireBefore(int day) {
+        Matrix m = matrix;
+        int word = day >> 6;
+        while (count > 0 && firstWord < word) {
+            for (int slot = 0; slot < m.rows; slot++) {
+                m.buffer.putLong(m.offset(slot, firstWord), 0L);
+            }
+            firstWord++;
+            count--;
+        }
+        if (count > 0 && firstWord == word) {
+            long keep = -1L << (day & 63);
+            for (int slot = 0; slot < m.rows; slot++) {
+                int at = m.offset(slot, word);
+                m.buffer.putLong(at, m.buffer.getLong(at) & keep);
+            }
+        }
+        writeHeader();
+    }
+
+    /**
+     * Drops all occupancy information for a room.
+     *
+     * @param slot The slot of the room being removed.
+     */
+    @Override
+    public void removeRoom(int slot) {
+        Matrix m = matrix;
+        if (slot < 0 || slot >= m.rows) {
+            return;
+        }
+        int start = HEADER_BYTES + slot * m.words * 8;
+        for (int i = 0; i < m.words; i++) {
+            m.buffer.putLong(start + i * 8, 0L);
+        }
+    }
+
+    /**
+     * Gets the number of bytes of native memory or file the matrix takes.
+     *
+     * @return The size of the matrix in bytes.
+     */
+    public long getBytes() {
+        return matrix.buffer.capacity();
+    }
+
+    /**
+     * Writes the bits of a file-backed store to disk.
+     */
+    public void flush() {
+        ByteBuffer buffer = matrix.buffer;
+        if (buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+
+    /**
+     * Writes the bits of a file-backed store to disk; the memory is freed once the store is unreachable.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Gets the number of words a row needs to hold a number of days starting at any day.
+     *
+     * @param days The number of days.
+     * @return The number of words.
+     */
+    private static int wordsFor(int days) {
+        return Math.max(1, (days + 63) / 64 + 1);
+    }
+
+    /**
+     * Builds the mask of the bits for a range of days within one word.
+     *
+     * @param from The first day.
+     * @param to The last day, in the same word as the first.
+     * @return The mask.
+     */
+    private static long mask(int from, int to) {
+        return (-1L >>> (63 - (to & 63))) & (-1L << (from & 63));
+    }
+
+    /**
+     * Extends the window so it covers a range of words and the matrix so it holds a slot,
+     * reallocating the matrix if either does not fit.
+     *
+     * @param slot The slot to hold.
+     * @param fromWord The first word to cover.
+     * @param toWord The last word to cover.
+     */
+    private void cover(int slot, int fromWord, int toWord) {
+        Matrix m = matrix;
+        int newFirst = count == 0 ? fromWord : Math.min(firstWord, fromWord);
+        int newCount = (count == 0 ? toWord + 1 : Math.max(firstWord + count, toWord + 1)) - newFirst;
+        if (newCount > m.words || slot >= m.rows) {
+            resize(slot >= m.rows ? Math.max(slot + 1, m.rows * 2) : m.rows,
+                    newCount > m.words ? Math.max(newCount, m.words * 2) : m.words);
+        }
+        // Positions outside the old window are zero, so the window can simply grow over them
+        firstWord = newFirst;
+        count = newCount;
+        writeHeader();
+    }
+
+    /**
+     * Reallocates the matrix with more rows or a wider ring, moving every covered word to its new position.
+     *
+     * @param newRows The new number of rows.
+     * @param newWords The new number of words per row.
+     */
+    private void resize(int newRows, int newWords) {
+        if ((long) HEADER_BYTES + (long) newRows * newWords * 8 > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Occupancy matrix of " + newRows + " rooms by " + newWords * 64 + " days is too large.");
+        }
+        Matrix old = matrix;
+        Path target = file == null ? null : file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Matrix grown = Matrix.allocate(target, newRows, newWords);
+            for (int slot = 0; slot < old.rows; slot++) {
+                for (int word = firstWord; word < firstWord + count; word++) {
+                    grown.buffer.putLong(grown.offset(slot, word), old.buffer.getLong(old.offset(slot, word)));
+                }
+            }
+            matrix = grown;
+            writeHeader();
+            if (target != null) {
+                flush();
+                Files.move(target, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not grow " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the geometry of the matrix to the header, so a file-backed store can be reopened.
+     */
+    private void writeHeader() {
+        Matrix m = matrix;
+        m.buffer.putInt(0, MAGIC);
+        m.buffer.putInt(4, VERSION);
+        m.buffer.putInt(WORDS_AT, m.words);
+        m.buffer.putInt(ROWS_AT, m.rows);
+        m.buffer.putInt(FIRST_WORD_AT, firstWord);
+        m.buffer.putInt(COUNT_AT, count);
+    }
+
+    /**
+     * Maps a file for reading and writing, extending it with zeros to the given size.
+     *
+     * @param file The file.
+     * @param bytes The size of the mapping.
+     * @return The mapping.
+     * @throws IOException If the file cannot be mapped.
+     */
+    private static ByteBuffer map(Path file, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * A buffer holding the header and bit matrix, with the geometry it was allocated for.
+     */
+    private static class Matrix {
+        final ByteBuffer buffer;
+        final int rows;
+        final int words;
+
+        /**
+         * Constructs a Matrix.
+         *
+         * @param buffer The header and bits.
+         * @param rows The number of rows.
+         * @param words The number of words per row.
+         */
+        Matrix(ByteBuffer buffer, int rows, int words) {
+            this.buffer = buffer;
+            this.rows = rows;
+            this.words = words;
+        }
+
+        /**
+         * Allocates a zeroed matrix.
+         *
+         * @param file The file to map it from, or null for a direct buffer.
+         * @param rows The number of rows.
+         * @param words The number of words per row.
+         * @return The matrix.
+         * @throws IOException If the file cannot be mapped.
+         */
+        static Matrix allocate(Path file, int rows, int words) throws IOException {
+            long bytes = HEADER_BYTES + (long) rows * words * 8;
+            if (file == null) {
+                return new Matrix(ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder()), rows, words);
+            }
+            Files.deleteIfExists(file);
+            return new Matrix(map(file, bytes), rows, words);
+        }
+
+        /**
+         * Gets the byte offset of a word of a row.
+         *
+         * @param slot The slot of the row.
+         * @param word The index of the word, within the covered window.
+         * @return The offset in the buffer.
+         */
+        int offset(int slot, int word) {
+            return HEADER_BYTES + (slot * words + Math.floorMod(word, words)) * 8;
+        }
+    }
+}
@@ -1,8 +1,15 @@
 /**
  * Represents a reservation made by a guest for a specific room in a hotel.
  * Manages reservation details, including guest name, check-in and check-out dates, room, price calculation, and discount application.
+ * Hotels keep their reservations in a {@link ReservationStore}; the Reservation objects read from it
+ * are short-lived views of a row rather than the stored data itself.
  */
 public class Reservation {
+    /**
+     * Times {@link #getTotalPrice(Hotel)}.
+     */
+    private static final MetricsRegistry.Timer TOTAL_PRICE_TIMER = MetricsRegistry.DEFAULT.timer("reservation.getTotalPrice", 16);
+
     /**
      * The name of the guest making the reservation.
      */
@@ -38,6 +45,11 @@ public class Reservation {
      */
     private String discountCode;
 
+    /**
+     * The row of the reservation store this reservation was read from, or -1 if it was not read from one.
+     */
+    private int row = -1;
+
 
     /**
      * Constructs a new Reservation with the specified details.
@@ -54,7 +66,7 @@ public class Reservation {
         this.checkInDay = checkInDay;
         this.checkOutDay = checkOutDay;
         this.room = room;
-        this.discountCode = discountCode;
+        this.discountCode = blankToNull(discountCode);
         
         // Check if the reservation period is valid
         if (checkInDay <= checkOutDay) {
@@ -65,6 +77,32 @@ public class Reservation {
         }
     }
 
+    /**
+     * Constructs a Reservation whose total price is already known, such as one loaded from a snapshot.
+     * 
+     * @param guestName The name of the guest making the reservation.
+     * @param checkInDay The day of check-in for the reservation.
+     * @param checkOutDay The day of check-out for the reservation.
+     * @param room The room being reserved.
+     * @param discountCode The discount code applied to the reservation, if any.
+     * @param totalPrice The total price of the reservation after discounts.
+     */
+    Reservation(String guestName, int checkInDay, int checkOutDay, Room room, String discountCode, double totalPrice) {
+        this(guestName, checkInDay, checkOutDay, room, discountCode);
+        this.totalPrice = totalPrice;
+    }
+
+    /**
+     * Treats a blank discount code, as left by an empty input field, as no code, so blank codes are
+     * neither stored nor journaled as codes of their own.
+     * 
+     * @param discountCode The discount code as given.
+     * @return The trimmed discount code, or null if it was null or blank.
+     */
+    private static String blankToNull(String discountCode) {
+        return discountCode == null || discountCode.trim().isEmpty() ? null : discountCode.trim();
+    }
+
     /**
      * Applies the discount code to the total price of the reservation.
      * 
@@ -87,7 +125,7 @@ public class Reservation {
                 }
                 return totalPrice;
             case "PAYDAY":
-                if (coversDay(15) || coversDay(30)) {
+                if (coversDayOfMonth(15) || coversDayOfMonth(30)) {
                     return totalPrice * 0.93; // 7% discount
                 }
                 return totalPrice;
@@ -98,13 +136,21 @@ public class Reservation {
     }
     
     /**
-     * Checks if the reservation covers a specific day.
+     * Checks if any night of the reservation falls on a specific day of the month, in any month.
      * 
-     * @param day The day to check.
-     * @return True if the day is within the reservation period; false otherwise.
+     * @param dayOfMonth The day of the month to check.
+     * @return True if a night of the reservation falls on that day of the month; false otherwise.
      */
-    private boolean coversDay(int day) {
-        return (day >= checkInDay && day < checkOutDay);
+    private boolean coversDayOfMonth(int dayOfMonth) {
+        if (checkOutDay - checkInDay > 31) {
+            return true;
+        }
+        for (int day = checkInDay; day < checkOutDay; day++) {
+            if (HotelCalendar.toDate(day).getDayOfMonth() == dayOfMonth) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -143,6 +189,15 @@ public class Reservation {
         return room;
     }
 
+    /**
+     * Gets the discount code applied to the reservation.
+     * 
+     * @return The discount code, or null if none was given.
+     */
+    public String getDiscountCode() {
+        return discountCode;
+    }
+
     /**
      * Gets the total price of the reservation, including any applicable discounts.
      * 
@@ -160,25 +215,32 @@ public class Reservation {
      * @return The total price after applying date-based modifiers and discount codes.
      */
     public double getTotalPrice(Hotel hotel) {
+        ReservationEvents.Pricing event = new ReservationEvents.Pricing();
+        event.begin();
+        long start = TOTAL_PRICE_TIMER.start();
         double totalPrice = 0.0;
         Room room = this.getRoom();
         double basePrice = room.getPrice();
 
-        System.err.println(basePrice);
-
         for (int day = checkInDay; day <= checkOutDay - 1; day++) {
             // Get the modifier for the current day
             double modifier = hotel.getDatePriceModifier(day);
-            System.out.println(modifier);
 
             double dailyPrice = basePrice * modifier;
-            System.out.println(dailyPrice);
             totalPrice += dailyPrice;
-            System.out.println(totalPrice);
         }
         
         double discountedPrice = applyDiscountCode(totalPrice);
         this.totalPrice = discountedPrice;
+        TOTAL_PRICE_TIMER.stop(start);
+        if (event.shouldCommit()) {
+            event.hotel = hotel.getName();
+            event.roomType = Room.typeName(room.getTypeCode());
+            event.stayLength = checkOutDay - checkInDay;
+            event.discountCode = discountCode;
+            event.totalPrice = discountedPrice;
+            event.commit();
+        }
         
         return discountedPrice;
     }
@@ -211,4 +273,22 @@ public class Reservation {
     public boolean isValid() {
         return isValid;
     }
+
+    /**
+     * Gets the row of the reservation store this reservation was read from.
+     * 
+     * @return The row, or -1 if the reservation was not read from a store.
+     */
+    int getRow() {
+        return row;
+    }
+
+    /**
+     * Sets the row of the reservation store this reservation was read from.
+     * 
+     * @param row The row.
+     */
+    void setRow(int row) {
+        this.row = row;
+    }
 }
@@ -0,0 +1,268 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * An immutable, append-only archive of a hotel's completed reservations.
+ * Stays that have ended can never conflict with a booking again, so they are moved out of the
+ * hotel's reservation list into deflate-compressed blocks, keeping the structures that bookings and
+ * availability checks scan limited to current and future stays. Archived reservations remain
+ * available for reports and guest history by decompressing the blocks, and the total earnings are
+ * kept as a running figure so they need no decompression at all.
+ * Appending returns a new archive that shares the existing blocks, so archives can be published
+ * in hotel snapshots like the rest of a hotel's state.
+ */
+public class ReservationArchive {
+    /**
+     * The archive with no reservations.
+     */
+    public static final ReservationArchive EMPTY = new ReservationArchive(new Block[0], 0, 0.0);
+
+    /**
+     * The largest number of reservations compressed into one block.
+     */
+    private static final int BLOCK_ROWS = 4096;
+
+    /**
+     * The compressed blocks, oldest first.
+     */
+    private final Block[] blocks;
+
+    /**
+     * The number of archived reservations.
+     */
+    private final int size;
+
+    /**
+     * The sum of the total prices of the archived reservations.
+     */
+    private final double totalEarnings;
+
+    /**
+     * A group of reservations compressed together.
+     */
+    static class Block {
+        final int rows;
+        final byte[] data;
+
+        /**
+         * Constructs a Block.
+         *
+         * @param rows The number of reservations in the block.
+         * @param data The deflated reservation records.
+         */
+        Block(int rows, byte[] data) {
+            this.rows = rows;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Constructs an archive from its parts.
+     *
+     * @param blocks The compressed blocks.
+     * @param size The number of archived reservations.
+     * @param totalEarnings The sum of the total prices of the archived reservations.
+     */
+    private ReservationArchive(Block[] blocks, int size, double totalEarnings) {
+        this.blocks = blocks;
+        this.size = size;
+        this.totalEarnings = totalEarnings;
+    }
+
+    /**
+     * Creates an archive that also holds the given reservations.
+     *
+     * @param completed The completed reservations to add.
+     * @return The new archive, or this one if there is nothing to add.
+     */
+    public ReservationArchive append(List<Reservation> completed) {
+        if (completed.isEmpty()) {
+            return this;
+        }
+        List<Block> added = new ArrayList<>();
+        double earnings = totalEarnings;
+        for (int first = 0; first < completed.size(); first += BLOCK_ROWS) {
+            List<Reservation> rows = completed.subList(first, Math.min(completed.size(), first + BLOCK_ROWS));
+            added.add(compress(rows));
+            for (Reservation reservation : rows) {
+                earnings += reservation.getSumPrice();
+            }
+        }
+        Block[] grown = Arrays.copyOf(blocks, blocks.length + added.size());
+        for (int i = 0; i < added.size(); i++) {
+            grown[blocks.length + i] = added.get(i);
+        }
+        return new ReservationArchive(grown, size + completed.size(), earnings);
+    }
+
+    /**
+     * Gets the number of archived reservations.
+     *
+     * @return The number of reservations.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the sum of the total prices of the archived reservations.
+     *
+     * @return The archived earnings.
+     */
+    public double getTotalEarnings() {
+        return totalEarnings;
+    }
+
+    /**
+     * Gets the number of bytes the compressed blocks take.
+     *
+     * @return The compressed size in bytes.
+     */
+    public long getCompressedBytes() {
+        long bytes = 0;
+        for (Block block : blocks) {
+            bytes += block.data.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Gets the number of compressed blocks.
+     *
+     * @return The number of blocks.
+     */
+    public int getBlockCount() {
+        return blocks.length;
+    }
+
+    /**
+     * Decompresses one block of archived reservations.
+     * The rooms of the returned reservations are detached copies carrying the room's name and type.
+     *
+     * @param index The index of the block, oldest first.
+     * @return The reservations of the block, in the order they were archived.
+     */
+    public List<Reservation> readBlock(int index) {
+        Block block = blocks[index];
+        List<Reservation> reservations = new ArrayList<>(block.rows);
+        Map<String, Room> rooms = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(block.data)))) {
+            for (int i = 0; i < block.rows; i++) {
+                String guestName = in.readUTF();
+                byte type = in.readByte();
+                String roomName = in.readUTF();
+                int checkInDay = in.readInt();
+                int checkOutDay = in.readInt();
+                double totalPrice = in.readDouble();
+                String discountCode = in.readBoolean() ? in.readUTF() : null;
+                Room room = rooms.get(roomName);
+                if (room == null) {
+                    double price = checkOutDay > checkInDay ? totalPrice / (checkOutDay - checkInDay) : 0.0;
+                    room = Room.restore(type, roomName, price, -1);
+                    rooms.put(roomName, room);
+                }
+                reservations.add(new Reservation(guestName, checkInDay, checkOutDay, room, discountCode, totalPrice));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Archive block " + index + " is corrupt.", e);
+        }
+        return reservations;
+    }
+
+    /**
+     * Finds the archived reservations of a guest.
+     *
+     * @param guestName The name of the guest, compared ignoring case.
+     * @return The guest's archived reservations, oldest first.
+     */
+    public List<Reservation> findByGuest(String guestName) {
+        List<Reservation> found = new ArrayList<>();
+        for (int i = 0; i < blocks.length; i++) {
+            for (Reservation reservation : readBlock(i)) {
+                if (reservation.getGuestName().equalsIgnoreCase(guestName)) {
+                    found.add(reservation);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Compresses reservations into a block.
+     *
+     * @param rows The reservations.
+     * @return The block.
+     */
+    private static Block compress(List<Reservation> rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows.size() * 16);
+        Deflater deflater = new Deflater();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            for (Reservation reservation : rows) {
+                Room room = reservation.getRoom();
+                out.writeUTF(reservation.getGuestName());
+                out.writeByte(room.getTypeCode());
+                out.writeUTF(room.getName());
+                out.writeInt(reservation.getCheckInDay());
+                out.writeInt(reservation.getCheckOutDay());
+                out.writeDouble(reservation.getSumPrice());
+                out.writeBoolean(reservation.getDiscountCode() != null);
+                if (reservation.getDiscountCode() != null) {
+                    out.writeUTF(reservation.getDiscountCode());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Cannot happen for an in-memory stream
+        } finally {
+            deflater.end();
+        }
+        return new Block(rows.size(), bytes.toByteArray());
+    }
+
+    /**
+     * Writes the archive for a snapshot, copying the compressed blocks as they are.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If the write fails.
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        out.writeDouble(totalEarnings);
+        out.writeInt(blocks.length);
+        for (Block block : blocks) {
+            out.writeInt(block.rows);
+            out.writeInt(block.data.length);
+            out.write(block.data);
+        }
+    }
+
+    /**
+     * Reads an archive written by {@link #write(DataOutputStream)}.
+     *
+     * @param in The buffer, positioned at the archive.
+     * @return The archive.
+     */
+    static ReservationArchive read(ByteBuffer in) {
+        int size = in.getInt();
+        double totalEarnings = in.getDouble();
+        Block[] blocks = new Block[in.getInt()];
+        for (int i = 0; i < blocks.length; i++) {
+            int rows = in.getInt();
+            byte[] data = new byte[in.getInt()];
+            in.get(data);
+            blocks[i] = new Block(rows, data);
+        }
+        return blocks.length == 0 ? EMPTY : new ReservationArchive(blocks, size, totalEarnings);
+    }
+}
@@ -0,0 +1,161 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder events for the reservation engine's business operations, so a recording shows
+ * bookings, cancellations, pricing, availability queries, and hotel creation on the same timeline
+ * as garbage collections, lock contention, and safepoints.
+ *
+ * Callers follow the usual pattern: create the event and call {@code begin()} before the
+ * operation, and after it fill in the fields and call {@code commit()} only if
+ * {@code shouldCommit()} returns true. When Flight Recorder is not recording the event, the JIT
+ * compiler removes the allocation and the checks cost next to nothing, and no field is computed.
+ *
+ * The events are in the "Hotel Reservation System" category. Pricing and availability queries
+ * run far more often than the rest, so by default they are only recorded when they take 20 us or
+ * longer and without stack traces; set their threshold to 0 ms in the recording settings to see
+ * every one.
+ */
+public class ReservationEvents {
+    /**
+     * The outcome of an operation that succeeded.
+     */
+    static final String OK = "ok";
+
+    /**
+     * A booking of one reservation or a batch of them.
+     */
+    @Name("hotel.Booking")
+    @Label("Booking")
+    @Category({"Hotel Reservation System", "Reservations"})
+    @Description("Booking of one reservation or a batch of reservations")
+    static class Booking extends Event {
+        @Label("Hotel")
+        String hotel;
+
+        @Label("Room Type")
+        @Description("The room type of the requests, or \"mixed\" for a batch of several types")
+        String roomType;
+
+        @Label("Stay Length")
+        @Description("The nights of the stay, or the mean nights of the stays of a batch")
+        int stayLength;
+
+        @Label("Requests")
+        int requests;
+
+        @Label("Booked")
+        int booked;
+
+        @Label("Outcome")
+        @Description("ok, or why the booking was not made")
+        String outcome;
+    }
+
+    /**
+     * The removal of a reservation.
+     */
+    @Name("hotel.Cancellation")
+    @Label("Cancellation")
+    @Category({"Hotel Reservation System", "Reservations"})
+    @Description("Removal of a reservation")
+    static class Cancellation extends Event {
+        @Label("Hotel")
+        String hotel;
+
+        @Label("Room Type")
+        String roomType;
+
+        @Label("Stay Length")
+        int stayLength;
+
+        @Label("Outcome")
+        @Description("ok, or why nothing was removed")
+        String outcome;
+    }
+
+    /**
+     * The pricing of a stay.
+     */
+    @Name("hotel.Pricing")
+    @Label("Pricing")
+    @Category({"Hotel Reservation System", "Pricing"})
+    @Description("Calculation of the total price of a stay")
+    @Threshold("20 us")
+    @StackTrace(false)
+    static class Pricing extends Event {
+        @Label("Hotel")
+        String hotel;
+
+        @Label("Room Type")
+        String roomType;
+
+        @Label("Stay Length")
+        int stayLength;
+
+        @Label("Discount Code")
+        String discountCode;
+
+        @Label("Total Price")
+        double totalPrice;
+    }
+
+    /**
+     * An availability query.
+     */
+    @Name("hotel.Availability")
+    @Label("Availability Query")
+    @Category({"Hotel Reservation System", "Availability"})
+    @Description("Check of a room, count of free rooms on a day, or search for free rooms")
+    @Threshold("20 us")
+    @StackTrace(false)
+    static class Availability extends Event {
+        @Label("Hotel")
+        String hotel;
+
+        @Label("Query")
+        @Description("room, day, or search")
+        String query;
+
+        @Label("Room Type")
+        @Description("The room type asked for, or empty for any type")
+        String roomType;
+
+        @Label("Stay Length")
+        int stayLength;
+
+        @Label("Results")
+        @Description("The number of free rooms found")
+        int results;
+    }
+
+    /**
+     * The creation of a hotel.
+     */
+    @Name("hotel.HotelCreation")
+    @Label("Hotel Creation")
+    @Category({"Hotel Reservation System", "Hotels"})
+    @Description("Creation of a hotel")
+    static class HotelCreation extends Event {
+        @Label("Hotel")
+        String hotel;
+
+        @Label("Rooms")
+        int rooms;
+
+        @Label("Outcome")
+        @Description("ok, or why the hotel was not created")
+        String outcome;
+    }
+
+    /**
+     * Prevents instantiation; the class only groups the events.
+     */
+    private ReservationEvents() {
+    }
+}
@@ -0,0 +1,522 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Streams reservations from CSV or JSON Lines files into a reservation system.
+ * Rows are parsed one line at a time and grouped into per-hotel batches that a separate thread
+ * validates against each hotel's occupancy index and books with {@link Hotel#importBatch(List)}.
+ * Batches pass through a bounded queue, so parsing waits whenever booking falls behind and memory
+ * stays bounded by the batch size and queue capacity no matter how large the file is.
+ *
+ * CSV files start with a header naming the columns {@code hotel}, {@code guest}, {@code room},
+ * {@code checkIn}, {@code checkOut} and optionally {@code discountCode}, in any order. JSON Lines
+ * files hold one flat object per line with the same keys.
+ */
+public class ReservationImporter {
+    /**
+     * How many times a batch is retried when its hotel is unloaded between the lookup and the booking.
+     */
+    private static final int MAX_LOOKUPS = 3;
+
+    /**
+     * The reservation system to import into.
+     */
+    private final HotelReservationSystem system;
+
+    /**
+     * The number of rows booked together in one hotel batch.
+     */
+    private final int batchSize;
+
+    /**
+     * The number of batches that may wait to be booked before parsing pauses.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Constructs a ReservationImporter.
+     *
+     * @param system The reservation system to import into.
+     * @param batchSize The number of rows booked together in one hotel batch.
+     * @param queueCapacity The number of batches that may wait to be booked before parsing pauses.
+     */
+    public ReservationImporter(HotelReservationSystem system, int batchSize, int queueCapacity) {
+        this.system = system;
+        this.batchSize = Math.max(1, batchSize);
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * Rows of one hotel that are booked together.
+     */
+    private static class Batch {
+        final String hotelName;
+        final List<BookingRequest> requests = new ArrayList<>();
+        final List<Long> lines = new ArrayList<>();
+
+        /**
+         * Constructs an empty batch.
+         *
+         * @param hotelName The hotel the rows belong to, or null for the batch that ends the import.
+         */
+        Batch(String hotelName) {
+            this.hotelName = hotelName;
+        }
+    }
+
+    /**
+     * Imports a file, choosing the format from its extension ({@code .jsonl} or {@code .ndjson}
+     * for JSON Lines, anything else for CSV).
+     *
+     * @param path The file to import.
+     * @return The import report.
+     * @throws IOException If the file cannot be read.
+     */
+    public ImportReport importFile(Path path) throws IOException {
+        String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean jsonLines = fileName.endsWith(".jsonl") || fileName.endsWith(".ndjson");
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return jsonLines ? importJsonLines(reader) : importCsv(reader);
+        }
+    }
+
+    /**
+     * Imports reservations from CSV with a header row.
+     *
+     * @param reader The CSV text.
+     * @return The import report.
+     * @throws IOException If the text cannot be read.
+     */
+    public ImportReport importCsv(Reader reader) throws IOException {
+        return run(reader, false);
+    }
+
+    /**
+     * Imports reservations from JSON Lines.
+     *
+     * @param reader The JSON Lines text.
+     * @return The import report.
+     * @throws IOException If the text cannot be read.
+     */
+    public ImportReport importJsonLines(Reader reader) throws IOException {
+        return run(reader, true);
+    }
+
+    /**
+     * Parses rows on the calling thread while a booking thread applies the batches.
+     *
+     * @param reader The text to import.
+     * @param jsonLines Whether the text is JSON Lines rather than CSV.
+     * @return The import report.
+     * @throws IOException If the text cannot be read.
+     */
+    private ImportReport run(Reader reader, boolean jsonLines) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Thread booker = new Thread(() -> bookBatches(queue, report), "reservation-import");
+        booker.setDaemon(true);
+        booker.start();
+
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Map<String, Batch> open = new LinkedHashMap<>();
+        int openRows = 0;
+        String[] header = null;
+        long lineNumber = 0;
+        try {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                if (!jsonLines && header == null) {
+                    header = parseCsvLine(line).toArray(new String[0]);
+                    continue;
+                }
+
+                Map<String, String> fields;
+                try {
+                    fields = jsonLines ? parseJsonObject(line) : toFields(header, parseCsvLine(line));
+                } catch (IllegalArgumentException e) {
+                    synchronized (report) {
+                        report.addRow();
+                        report.addReject(lineNumber, e.getMessage());
+                    }
+                    continue;
+                }
+
+                String hotelName = fields.get("hotel");
+                BookingRequest request;
+                try {
+                    request = new BookingRequest(fields.get("guest"), fields.get("room"),
+                            Integer.parseInt(fields.getOrDefault("checkin", "").trim()),
+                            Integer.parseInt(fields.getOrDefault("checkout", "").trim()),
+                            emptyToNull(fields.get("discountcode")));
+                } catch (NumberFormatException e) {
+                    synchronized (report) {
+                        report.addRow();
+                        report.addReject(lineNumber, "Check-in and check-out must be whole days.");
+                    }
+                    continue;
+                }
+                if (hotelName == null || hotelName.isEmpty()) {
+                    synchronized (report) {
+                        report.addRow();
+                        report.addReject(lineNumber, "Hotel name is missing.");
+                    }
+                    continue;
+                }
+
+                Batch batch = open.computeIfAbsent(hotelName, Batch::new);
+                batch.requests.add(request);
+                batch.lines.add(lineNumber);
+                openRows++;
+                if (batch.requests.size() >= batchSize) {
+                    open.remove(hotelName);
+                    openRows -= batch.requests.size();
+                    queue.put(batch);
+                }
+                // Rows spread over many hotels: hand everything over rather than buffer without bound
+                if (openRows >= batchSize * queueCapacity) {
+                    for (Batch partial : open.values()) {
+                        queue.put(partial);
+                    }
+                    open.clear();
+                    openRows = 0;
+                }
+            }
+            for (Batch partial : open.values()) {
+                queue.put(partial);
+            }
+            queue.put(new Batch(null));
+            booker.join();
+        } catch (InterruptedException e) {
+            booker.interrupt();
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        }
+
+        synchronized (report) {
+            report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            return report;
+        }
+    }
+
+    /**
+     * Books batches from the queue until the batch that ends the import arrives.
+     * The hotel is looked up for every batch rather than cached, since with a memory budget the
+     * system may unload a hotel between batches and an unloaded hotel refuses every booking.
+     *
+     * @param queue The queue of parsed batches.
+     * @param report The report to record the outcome of every row in.
+     */
+    private void bookBatches(BlockingQueue<Batch> queue, ImportReport report) {
+        try {
+            while (true) {
+                Batch batch = queue.take();
+                if (batch.hotelName == null) {
+                    return;
+                }
+                List<BookingResult> results = null;
+                String failure = "Hotel " + batch.hotelName + " not found.";
+                try {
+                    for (int attempt = 0; attempt < MAX_LOOKUPS; attempt++) {
+                        Hotel hotel = system.getHotel(batch.hotelName);
+                        if (hotel == null) {
+                            break;
+                        }
+                        results = hotel.importBatch(batch.requests);
+                        if (!isRefusedAsUnloaded(hotel, results)) {
+                            break;
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    results = null;
+                    failure = "Batch failed: " + e; // Keep consuming so the parser never blocks forever
+                }
+                synchronized (report) {
+                    for (int i = 0; i < batch.requests.size(); i++) {
+                        long line = batch.lines.get(i);
+                        report.addRow();
+                        if (results == null) {
+                            report.addReject(line, failure);
+                        } else if (results.get(i).isBooked()) {
+                            report.addBooked();
+                        } else if (results.get(i).getStatus() == BookingResult.Status.CONFLICT) {
+                            report.addConflict(line, results.get(i).getMessage());
+                        } else {
+                            report.addReject(line, results.get(i).getMessage());
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks if a batch was refused because its hotel was unloaded before it could be booked.
+     * An unloaded hotel refuses the whole batch, so a batch with any booked row was applied.
+     *
+     * @param hotel The hotel the batch was given to.
+     * @param results The results of the batch.
+     * @return True if the hotel is unloaded and no row was booked; false otherwise.
+     */
+    private static boolean isRefusedAsUnloaded(Hotel hotel, List<BookingResult> results) {
+        if (!hotel.isUnloaded()) {
+            return false;
+        }
+        for (BookingResult result : results) {
+            if (result.isBooked()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Pairs CSV values with the header, using lower-case column names.
+     *
+     * @param header The column names.
+     * @param values The values of one row.
+     * @return The values by column name.
+     */
+    private static Map<String, String> toFields(String[] header, List<String> values) {
+        if (values.size() > header.length) {
+            throw new IllegalArgumentException("Row has more values than the header has columns.");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(header[i].trim().toLowerCase(Locale.ROOT), values.get(i));
+        }
+        return fields;
+    }
+
+    /**
+     * Splits one CSV line into values, honouring double-quoted values with doubled quotes inside.
+     *
+     * @param line The CSV line.
+     * @return The values.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value.");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * Parses one flat JSON object whose values are strings, numbers, booleans or null.
+     *
+     * @param line The JSON text.
+     * @return The values as text by lower-case key; null values are left out.
+     */
+    static Map<String, String> parseJsonObject(String line) {
+        Map<String, String> fields = new HashMap<>();
+        int[] pos = {skipSpace(line, 0)};
+        expect(line, pos, '{');
+        if (peek(line, pos) == '}') {
+            pos[0]++;
+            return fields;
+        }
+        while (true) {
+            String key = parseJsonString(line, pos);
+            expect(line, pos, ':');
+            String value;
+            if (peek(line, pos) == '"') {
+                value = parseJsonString(line, pos);
+            } else {
+                int start = pos[0];
+                while (pos[0] < line.length() && ",} \t".indexOf(line.charAt(pos[0])) < 0) {
+                    pos[0]++;
+                }
+                value = line.substring(start, pos[0]);
+                if (value.isEmpty()) {
+                    throw new IllegalArgumentException("Missing value for " + key + ".");
+                }
+                if (value.equals("null")) {
+                    value = null;
+                }
+            }
+            if (value != null) {
+                fields.put(key.toLowerCase(Locale.ROOT), value);
+            }
+            char next = peek(line, pos);
+            pos[0]++;
+            if (next == '}') {
+                return fields;
+            }
+            if (next != ',') {
+                throw new IllegalArgumentException("Malformed JSON object.");
+            }
+        }
+    }
+
+    /**
+     * Parses a JSON string starting at the current position.
+     *
+     * @param text The JSON text.
+     * @param pos The current position, advanced past the string.
+     * @return The unescaped string.
+     */
+    private static String parseJsonString(String text, int[] pos) {
+        expect(text, pos, '"');
+        StringBuilder value = new StringBuilder();
+        while (pos[0] < text.length()) {
+            char c = text.charAt(pos[0]++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (pos[0] >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(pos[0]++);
+            switch (escaped) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    if (pos[0] + 4 > text.length()) {
+                        throw new IllegalArgumentException("Malformed unicode escape.");
+                    }
+                    value.append((char) Integer.parseInt(text.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                    break;
+                default:
+                    value.append(escaped);
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string.");
+    }
+
+    /**
+     * Skips whitespace and checks for an expected character.
+     *
+     * @param text The JSON text.
+     * @param pos The current position, advanced past the character.
+     * @param expected The expected character.
+     */
+    private static void expect(String text, int[] pos, char expected) {
+        if (peek(text, pos) != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "' at column " + (pos[0] + 1) + ".");
+        }
+        pos[0]++;
+    }
+
+    /**
+     * Skips whitespace and returns the next character without consuming it.
+     *
+     * @param text The JSON text.
+     * @param pos The current position, advanced past any whitespace.
+     * @return The next character, or 0 at the end of the text.
+     */
+    private static char peek(String text, int[] pos) {
+        pos[0] = skipSpace(text, pos[0]);
+        return pos[0] < text.length() ? text.charAt(pos[0]) : 0;
+    }
+
+    /**
+     * Finds the first non-whitespace character.
+     *
+     * @param text The text.
+     * @param from The position to start at.
+     * @return The position of the first non-whitespace character, or the text length.
+     */
+    private static int skipSpace(String text, int from) {
+        while (from < text.length() && Character.isWhitespace(text.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Treats an empty value as missing.
+     *
+     * @param value The value.
+     * @return The value, or null if it was null or empty.
+     */
+    private static String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    /**
+     * Imports a CSV or JSON Lines file into the journaled reservation system.
+     * Batch size and queue capacity are set with {@code hotel.import.batchSize} and
+     * {@code hotel.import.queueCapacity}.
+     *
+     * @param args The path of the file to import.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.out.println("Usage: java ReservationImporter <reservations.csv|reservations.jsonl>");
+            return;
+        }
+        HotelReservationSystem system = HotelReservationSystem.open();
+        ReservationImporter importer = new ReservationImporter(system,
+                Integer.getInteger("hotel.import.batchSize", 1000), Integer.getInteger("hotel.import.queueCapacity", 16));
+        try {
+            ImportReport report = importer.importFile(Paths.get(args[0]));
+            System.out.println(report);
+            for (String problem : report.getProblems()) {
+                System.out.println(problem);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not import " + args[0] + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,485 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Columnar storage for a hotel's reservations.
+ * Each reservation is a row across primitive columns: room id, check-in day, check-out day, total
+ * price in cents, guest id, and discount code id. Rooms are referenced by slot through a table shared
+ * by every store of a hotel, and guest names and discount codes once in the {@link SymbolTable} of the
+ * reservation system, so a reservation takes 28 bytes instead of a full object with its own
+ * strings. {@link Reservation} objects are only created when a row is read, as short-lived views of it.
+ *
+ * Stores are immutable like the snapshots that hold them: appending writes past the end of the
+ * columns, which no existing store can see, and returns a new store that shares them. Removing a
+ * single reservation shares the columns too and only marks its row in a copy of a removed-row bitmap,
+ * so a cancellation copies an eighth of a byte per row instead of all 28. Removed rows keep their
+ * place, and row numbers stay valid, until enough of them pile up for the store to compact itself.
+ */
+public class ReservationStore {
+    /**
+     * The discount code id of a row without a discount code.
+     */
+    private static final int NO_DISCOUNT = -1;
+
+    /**
+     * The fewest removed rows that make a removal compact the store.
+     */
+    private static final int MIN_COMPACTION_ROWS = 64;
+
+    private final int[] roomIds;
+    private final int[] checkInDays;
+    private final int[] checkOutDays;
+    private final long[] totalCents;
+    private final int[] guestIds;
+    private final int[] discountIds;
+
+    /**
+     * The number of rows that belong to this store, including removed ones.
+     */
+    private final int rowCount;
+
+    /**
+     * The removed rows, one bit per row, or null if no row is removed.
+     * Never modified once the store is created; rows past its length are not removed.
+     */
+    private final long[] removed;
+
+    /**
+     * The number of removed rows.
+     */
+    private final int removedCount;
+
+    /**
+     * The table of guest names and discount codes the ids refer to.
+     */
+    private final SymbolTable symbols;
+
+    /**
+     * The rooms referenced by the rows of the hotel's stores.
+     */
+    private final Codes codes;
+
+    /**
+     * Read-only view of the rows as reservations.
+     */
+    private final List<Reservation> reservations = new RowList();
+
+    /**
+     * Constructs an empty store with its own symbol table.
+     */
+    public ReservationStore() {
+        this(new SymbolTable());
+    }
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param symbols The table to store guest names and discount codes in.
+     */
+    public ReservationStore(SymbolTable symbols) {
+        this(new int[16], new int[16], new int[16], new long[16], new int[16], new int[16], 0, null, 0, symbols, new Codes());
+    }
+
+    /**
+     * Constructs a store from its parts.
+     *
+     * @param roomIds The room id column.
+     * @param checkInDays The check-in day column.
+     * @param checkOutDays The check-out day column.
+     * @param totalCents The total price column, in cents.
+     * @param guestIds The guest id column.
+     * @param discountIds The discount code id column.
+     * @param rowCount The number of rows that belong to the store, including removed ones.
+     * @param removed The removed rows, one bit per row, or null if no row is removed.
+     * @param removedCount The number of removed rows.
+     * @param symbols The table the guest and discount code ids refer to.
+     * @param codes The table the room ids refer to.
+     */
+    private ReservationStore(int[] roomIds, int[] checkInDays, int[] checkOutDays, long[] totalCents, int[] guestIds,
+            int[] discountIds, int rowCount, long[] removed, int removedCount, SymbolTable symbols, Codes codes) {
+        this.roomIds = roomIds;
+        this.checkInDays = checkInDays;
+        this.checkOutDays = checkOutDays;
+        this.totalCents = totalCents;
+        this.guestIds = guestIds;
+        this.discountIds = discountIds;
+        this.rowCount = rowCount;
+        this.removed = removed;
+        this.removedCount = removedCount;
+        this.symbols = symbols;
+        this.codes = codes;
+    }
+
+    /**
+     * Gets the number of reservations in the store.
+     *
+     * @return The number of rows that are not removed.
+     */
+    public int size() {
+        return rowCount - removedCount;
+    }
+
+    /**
+     * Gets the number of rows of the store, including removed ones. Scans over the columns go up to
+     * this row and skip the rows that {@link #isRemoved(int)}.
+     *
+     * @return The number of rows.
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Checks if a row was removed. The columns of a removed row still hold its values.
+     *
+     * @param row The row.
+     * @return True if the row was removed; false otherwise.
+     */
+    public boolean isRemoved(int row) {
+        return removed != null && (row >> 6) < removed.length && (removed[row >> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Gets the reservations of the store as a list, skipping removed rows. Each element read is a new
+     * view of its row.
+     *
+     * @return An unmodifiable list of the reservations.
+     */
+    public List<Reservation> asList() {
+        return reservations;
+    }
+
+    /**
+     * Gets the symbol table holding the guest names and discount codes of the store.
+     *
+     * @return The symbol table.
+     */
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Reads a row as a reservation.
+     *
+     * @param row The row.
+     * @return A new reservation holding the row's values.
+     */
+    public Reservation get(int row) {
+        checkRow(row);
+        Reservation reservation = new Reservation(getGuestName(row), checkInDays[row], checkOutDays[row], getRoom(row),
+                getDiscountCode(row), getTotalPrice(row));
+        reservation.setRow(row);
+        return reservation;
+    }
+
+    /**
+     * Gets the room of a row.
+     *
+     * @param row The row.
+     * @return The reserved room.
+     */
+    public Room getRoom(int row) {
+        return codes.rooms[roomIds[row]];
+    }
+
+    /**
+     * Gets the check-in day of a row.
+     *
+     * @param row The row.
+     * @return The check-in day.
+     */
+    public int getCheckInDay(int row) {
+        return checkInDays[row];
+    }
+
+    /**
+     * Gets the check-out day of a row.
+     *
+     * @param row The row.
+     * @return The check-out day.
+     */
+    public int getCheckOutDay(int row) {
+        return checkOutDays[row];
+    }
+
+    /**
+     * Gets the total price of a row.
+     *
+     * @param row The row.
+     * @return The total price after discounts.
+     */
+    public double getTotalPrice(int row) {
+        return totalCents[row] / 100.0;
+    }
+
+    /**
+     * Gets the total price of a row in cents.
+     *
+     * @param row The row.
+     * @return The total price after discounts, in cents.
+     */
+    public long getTotalCents(int row) {
+        return totalCents[row];
+    }
+
+    /**
+     * Gets the guest name of a row.
+     *
+     * @param row The row.
+     * @return The guest name.
+     */
+    public String getGuestName(int row) {
+        return symbols.get(guestIds[row]);
+    }
+
+    /**
+     * Gets the key of the guest name of a row, which is equal for names that only differ in case.
+     *
+     * @param row The row.
+     * @return The guest name's key in the symbol table.
+     */
+    public int getGuestKey(int row) {
+        return symbols.keyOf(guestIds[row]);
+    }
+
+    /**
+     * Gets the discount code of a row.
+     *
+     * @param row The row.
+     * @return The discount code, or null if none was given.
+     */
+    public String getDiscountCode(int row) {
+        int id = discountIds[row];
+        return id == NO_DISCOUNT ? null : symbols.get(id);
+    }
+
+    /**
+     * Creates a store with reservations appended.
+     * Appends reuse this store's columns when they have room, since no other store can see the rows past its size.
+     * Must only be called on the latest store of a hotel, by the thread holding the hotel's lock.
+     *
+     * @param added The reservations to append.
+     * @return The new store.
+     */
+    public ReservationStore append(List<Reservation> added) {
+        int newSize = rowCount + added.size();
+        int[] rooms = roomIds;
+        int[] checkIns = checkInDays;
+        int[] checkOuts = checkOutDays;
+        long[] cents = totalCents;
+        int[] guests = guestIds;
+        int[] discounts = discountIds;
+        if (newSize > rooms.length) {
+            int capacity = Math.max(newSize, rooms.length * 2);
+            rooms = Arrays.copyOf(rooms, capacity);
+            checkIns = Arrays.copyOf(checkIns, capacity);
+            checkOuts = Arrays.copyOf(checkOuts, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+            guests = Arrays.copyOf(guests, capacity);
+            discounts = Arrays.copyOf(discounts, capacity);
+        }
+        for (int i = 0; i < added.size(); i++) {
+            Reservation reservation = added.get(i);
+            int row = rowCount + i;
+            rooms[row] = codes.roomId(reservation.getRoom());
+            checkIns[row] = reservation.getCheckInDay();
+            checkOuts[row] = reservation.getCheckOutDay();
+            cents[row] = Math.round(reservation.getSumPrice() * 100);
+            guests[row] = symbols.id(reservation.getGuestName());
+            String discountCode = reservation.getDiscountCode();
+            discounts[row] = discountCode == null ? NO_DISCOUNT : symbols.id(discountCode);
+        }
+        return new ReservationStore(rooms, checkIns, checkOuts, cents, guests, discounts, newSize, removed, removedCount,
+                symbols, codes);
+    }
+
+    /**
+     * Creates a store without the given row.
+     * The row is only marked as removed, in a copy of the removed-row bitmap, and the new store shares
+     * the columns. Once at least a quarter of the rows, and no fewer than {@value #MIN_COMPACTION_ROWS},
+     * are removed, the store is compacted instead, which renumbers the rows.
+     * Must only be called on the latest store of a hotel, by the thread holding the hotel's lock.
+     *
+     * @param row The row to remove.
+     * @return The new store.
+     */
+    public ReservationStore remove(int row) {
+        checkRow(row);
+        if (removedCount + 1 >= MIN_COMPACTION_ROWS && (removedCount + 1) * 4 >= rowCount) {
+            boolean[] compacted = new boolean[row + 1];
+            compacted[row] = true;
+            return remove(compacted);
+        }
+        long[] newRemoved = removed == null ? new long[(rowCount + 63) >> 6]
+                : Arrays.copyOf(removed, Math.max(removed.length, (rowCount + 63) >> 6));
+        newRemoved[row >> 6] |= 1L << row;
+        return new ReservationStore(roomIds, checkInDays, checkOutDays, totalCents, guestIds, discountIds, rowCount,
+                newRemoved, removedCount + 1, symbols, codes);
+    }
+
+    /**
+     * Creates a store without the given rows, or rows removed before.
+     * The remaining rows are copied into new columns, so that older stores are unaffected, and renumbered.
+     *
+     * @param removed Whether each row is removed, indexed by row; rows past its length are kept.
+     * @return The new store.
+     */
+    public ReservationStore remove(boolean[] removed) {
+        int capacity = Math.max(16, rowCount);
+        int[] rooms = new int[capacity];
+        int[] checkIns = new int[capacity];
+        int[] checkOuts = new int[capacity];
+        long[] cents = new long[capacity];
+        int[] guests = new int[capacity];
+        int[] discounts = new int[capacity];
+        int count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (row < removed.length && removed[row] || isRemoved(row)) {
+                continue;
+            }
+            rooms[count] = roomIds[row];
+            checkIns[count] = checkInDays[row];
+            checkOuts[count] = checkOutDays[row];
+            cents[count] = totalCents[row];
+            guests[count] = guestIds[row];
+            discounts[count] = discountIds[row];
+            count++;
+        }
+        return new ReservationStore(rooms, checkIns, checkOuts, cents, guests, discounts, count, null, 0, symbols, codes);
+    }
+
+    /**
+     * Estimates how many bytes of heap the store's columns take per reservation.
+     *
+     * @return The bytes per row of the columns.
+     */
+    public static int bytesPerRow() {
+        return 4 + 4 + 4 + 8 + 4 + 4;
+    }
+
+    /**
+     * Checks that a row belongs to the store and is not removed.
+     *
+     * @param row The row.
+     */
+    private void checkRow(int row) {
+        if (row < 0 || row >= rowCount || isRemoved(row)) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Rows: " + rowCount);
+        }
+    }
+
+    /**
+     * Finds the row of the reservation at a position of the list of reservations.
+     *
+     * @param index The position among the rows that are not removed.
+     * @return The row.
+     */
+    private int rowAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        if (removed == null) {
+            return index;
+        }
+        // Skip whole words of the bitmap, then the rows of the word holding the position
+        int word = 0;
+        int remaining = index;
+        while (word < removed.length) {
+            int kept = Math.min(64, rowCount - (word << 6)) - Long.bitCount(removed[word]);
+            if (remaining < kept) {
+                break;
+            }
+            remaining -= kept;
+            word++;
+        }
+        int row = word << 6;
+        while (isRemoved(row) || remaining-- > 0) {
+            row++;
+        }
+        return row;
+    }
+
+    /**
+     * The rooms referenced by the rows of a hotel's stores, kept by slot.
+     * Entries are only ever added, by the thread holding the hotel's lock, and the table array is
+     * republished through a volatile field when it grows, so readers of any store can resolve its ids.
+     */
+    private static class Codes {
+        volatile Room[] rooms = new Room[16];
+
+        /**
+         * Gets the id of a room, which is its slot, adding the room to the table if it is new.
+         * Slots are never reused within a hotel, so each slot only ever holds one room.
+         *
+         * @param room The room.
+         * @return The room's id.
+         */
+        int roomId(Room room) {
+            int slot = room.getSlot();
+            Room[] table = rooms;
+            if (slot >= table.length || table[slot] != room) {
+                if (slot >= table.length) {
+                    table = Arrays.copyOf(table, Math.max(slot + 1, table.length * 2));
+                }
+                table[slot] = room;
+                rooms = table;
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * Read-only list over the rows of the store that are not removed.
+     * Reading by position has to count past removed rows, so iteration walks the rows directly.
+     */
+    private class RowList extends AbstractList<Reservation> {
+        @Override
+        public Reservation get(int index) {
+            return ReservationStore.this.get(rowAt(index));
+        }
+
+        @Override
+        public int size() {
+            return ReservationStore.this.size();
+        }
+
+        @Override
+        public Iterator<Reservation> iterator() {
+            return new Iterator<Reservation>() {
+                private int row = nextRow(0);
+
+                @Override
+                public boolean hasNext() {
+                    return row < rowCount;
+                }
+
+                @Override
+                public Reservation next() {
+                    if (row >= rowCount) {
+                        throw new NoSuchElementException();
+                    }
+                    Reservation reservation = ReservationStore.this.get(row);
+                    row = nextRow(row + 1);
+                    return reservation;
+                }
+            };
+        }
+
+        /**
+         * Finds the first row at or after a row that is not removed.
+         *
+         * @param from The row to start at.
+         * @return The row, or the row count if every later row is removed.
+         */
+        private int nextRow(int from) {
+            int row = from;
+            while (row < rowCount && isRemoved(row)) {
+                row++;
+            }
+            return row;
+        }
+    }
+}
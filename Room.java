@@ -3,23 +3,68 @@ import java.util.List;
 /**
  * Represents a room in a hotel.
  * Contains information about the room's name, price, and booking status.
+ * Each room also carries a type code and, once it belongs to a hotel, a slot: a small int that is
+ * unique within the hotel and never reused, by which the hotel's internal structures address it.
+ * Names are only used to find rooms at the edge of the API.
+ * The price of a room that belongs to a hotel is derived from the hotel's {@link RoomPricing}
+ * when read, unless the room overrides it.
  */
 public class Room {
+    /**
+     * The type code of standard rooms.
+     */
+    public static final byte STANDARD = 0;
+
+    /**
+     * The type code of deluxe rooms.
+     */
+    public static final byte DELUXE = 1;
+
+    /**
+     * The type code of executive rooms.
+     */
+    public static final byte EXECUTIVE = 2;
+
+    /**
+     * The first letter of the names of each room type, indexed by type code.
+     */
+    private static final String TYPE_PREFIXES = "SDE";
+
     /**
      * The name of the room.
      */
     protected String name;
 
     /**
-     * The price of the room.
+     * The price of the room if it does not belong to a hotel, otherwise its price override.
      */
     protected double price;
 
+    /**
+     * The pricing of the room's hotel, or null if the room has a fixed price.
+     */
+    protected final RoomPricing pricing;
+
+    /**
+     * The version of the hotel's base price the override was set under, or -1 if the room has no override.
+     */
+    protected long priceVersion = -1;
+
     /**
      * Flag indicating if the room is currently booked.
      */
     protected boolean isBooked;
 
+    /**
+     * The type code of the room.
+     */
+    protected final byte typeCode;
+
+    /**
+     * The slot of the room within its hotel, or -1 if it does not belong to one.
+     */
+    protected final int slot;
+
     /**
      * Constructs a new Room with the specified name and price.
      * The room is initially not booked.
@@ -28,9 +73,130 @@ public class Room {
      * @param price The price of the room.
      */
     public Room(String name, double price) {
+        this(name, price, STANDARD, -1);
+    }
+
+    /**
+     * Constructs a new Room of a given type in a given slot.
+     * The room is initially not booked.
+     * 
+     * @param name The name of the room.
+     * @param price The price of the room.
+     * @param typeCode The type code of the room.
+     * @param slot The slot of the room within its hotel, or -1 if it does not belong to one.
+     */
+    protected Room(String name, double price, byte typeCode, int slot) {
         this.name = name;           // Initialize the room's name.
         this.price = price;         // Initialize the room's price.
         this.isBooked = false;      // Room is not booked by default.
+        this.typeCode = typeCode;
+        this.slot = slot;
+        this.pricing = null;
+    }
+
+    /**
+     * Constructs a new Room of a given type in a given slot, priced by its hotel.
+     * The room is initially not booked.
+     * 
+     * @param name The name of the room.
+     * @param pricing The pricing of the room's hotel.
+     * @param typeCode The type code of the room.
+     * @param slot The slot of the room within its hotel.
+     */
+    protected Room(String name, RoomPricing pricing, byte typeCode, int slot) {
+        this.name = name;
+        this.isBooked = false;
+        this.typeCode = typeCode;
+        this.slot = slot;
+        this.pricing = pricing;
+    }
+
+    /**
+     * Recreates a room of a given type with its exact price, as stored in a snapshot or archive.
+     * 
+     * @param typeCode The type code of the room.
+     * @param name The name of the room.
+     * @param price The price of the room.
+     * @param slot The slot of the room within its hotel, or -1 if it does not belong to one.
+     * @return The room.
+     */
+    static Room restore(byte typeCode, String name, double price, int slot) {
+        return new Room(name, price, typeCode, slot);
+    }
+
+    /**
+     * Recreates a room of a hotel with its exact price, as stored in a snapshot.
+     * The price only becomes an override if it differs from the one the hotel's pricing derives.
+     * 
+     * @param typeCode The type code of the room.
+     * @param name The name of the room.
+     * @param price The price of the room.
+     * @param slot The slot of the room within its hotel.
+     * @param pricing The pricing of the room's hotel.
+     * @return The room.
+     */
+    static Room restore(byte typeCode, String name, double price, int slot, RoomPricing pricing) {
+        Room room = new Room(name, pricing, typeCode, slot);
+        if (price != pricing.priceOf(typeCode)) {
+            room.setPrice(price);
+        }
+        return room;
+    }
+
+    /**
+     * Gets the type code for a room type name.
+     * 
+     * @param roomType The room type (standard, deluxe, or executive), in any case.
+     * @return The type code, or -1 if the name is not a room type.
+     */
+    public static byte typeCode(String roomType) {
+        switch (roomType.toLowerCase()) {
+            case "standard":
+                return STANDARD;
+            case "deluxe":
+                return DELUXE;
+            case "executive":
+                return EXECUTIVE;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Gets the type code for the first letter of a room name.
+     *
+     * @param prefix The first letter of the name, in any case.
+     * @return The type code, or -1 if no room type's names start with the letter.
+     */
+    public static byte typeCode(char prefix) {
+        return (byte) TYPE_PREFIXES.indexOf(Character.toUpperCase(prefix));
+    }
+
+    /**
+     * Gets the first letter of the names of rooms of a type.
+     * 
+     * @param typeCode The type code.
+     * @return The letter that room names of the type start with.
+     */
+    public static char typePrefix(byte typeCode) {
+        return TYPE_PREFIXES.charAt(typeCode);
+    }
+
+    /**
+     * Gets the name of a room type.
+     *
+     * @param typeCode The type code.
+     * @return "standard", "deluxe", or "executive".
+     */
+    public static String typeName(byte typeCode) {
+        switch (typeCode) {
+            case STANDARD:
+                return "standard";
+            case DELUXE:
+                return "deluxe";
+            default:
+                return "executive";
+        }
     }
 
     /**
@@ -42,22 +208,44 @@ public class Room {
         return name;
     }
 
+    /**
+     * Gets the type code of the room.
+     * 
+     * @return {@link #STANDARD}, {@link #DELUXE}, or {@link #EXECUTIVE}.
+     */
+    public byte getTypeCode() {
+        return typeCode;
+    }
+
+    /**
+     * Gets the slot of the room within its hotel.
+     * 
+     * @return The slot, or -1 if the room does not belong to a hotel.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
     /**
      * Gets the price of the room.
      * 
      * @return The price of the room.
      */
     public double getPrice() {
-        return price;
+        return pricing == null ? price : pricing.priceOf(typeCode, price, priceVersion);
     }
 
     /**
      * Sets a new price for the room.
+     * For a room of a hotel this overrides the derived price until the hotel's base price next changes.
      * 
      * @param newPrice The new price to set for the room.
      */
     public void setPrice(double newPrice) {
         this.price = newPrice;
+        if (pricing != null) {
+            this.priceVersion = pricing.getVersion();
+        }
     }
 
     /**
@@ -0,0 +1,139 @@
+/**
+ * Represents a short-lived claim on a room for a range of days.
+ * While a hold is active the days are marked as occupied, so nobody else can book them.
+ * A hold is either confirmed into a reservation, released, or expires on its own.
+ */
+public class RoomHold {
+    /**
+     * The possible states of a hold.
+     */
+    public enum Status {
+        /** The days are claimed and the hold can still be confirmed. */
+        ACTIVE,
+        /** The hold was turned into a reservation. */
+        CONFIRMED,
+        /** The hold was given up before it expired. */
+        RELEASED,
+        /** The hold ran out of time. */
+        EXPIRED
+    }
+
+    /**
+     * The hotel the hold belongs to.
+     */
+    private final Hotel hotel;
+
+    /**
+     * The room being held.
+     */
+    private final Room room;
+
+    /**
+     * The first day being held.
+     */
+    private final int checkInDay;
+
+    /**
+     * The last day being held.
+     */
+    private final int checkOutDay;
+
+    /**
+     * The current state of the hold; only changed while holding the hotel's lock.
+     */
+    private volatile Status status;
+
+    /**
+     * The timer tick on which the hold expires; maintained by the timer wheel.
+     */
+    long deadlineTick;
+
+    /**
+     * The next hold in the same timer wheel bucket; maintained by the timer wheel.
+     */
+    RoomHold wheelNext;
+
+    /**
+     * The previous hold in the same timer wheel bucket; maintained by the timer wheel.
+     */
+    RoomHold wheelPrev;
+
+    /**
+     * Constructs a new active RoomHold.
+     * 
+     * @param hotel The hotel the hold belongs to.
+     * @param room The room being held.
+     * @param checkInDay The first day being held.
+     * @param checkOutDay The last day being held.
+     */
+    public RoomHold(Hotel hotel, Room room, int checkInDay, int checkOutDay) {
+        this.hotel = hotel;
+        this.room = room;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
+        this.status = Status.ACTIVE;
+    }
+
+    /**
+     * Gets the hotel the hold belongs to.
+     * 
+     * @return The hotel.
+     */
+    public Hotel getHotel() {
+        return hotel;
+    }
+
+    /**
+     * Gets the room being held.
+     * 
+     * @return The room.
+     */
+    public Room getRoom() {
+        return room;
+    }
+
+    /**
+     * Gets the first day being held.
+     * 
+     * @return The check-in day.
+     */
+    public int getCheckInDay() {
+        return checkInDay;
+    }
+
+    /**
+     * Gets the last day being held.
+     * 
+     * @return The check-out day.
+     */
+    public int getCheckOutDay() {
+        return checkOutDay;
+    }
+
+    /**
+     * Gets the current state of the hold.
+     * 
+     * @return The status.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks if the hold still claims its days.
+     * 
+     * @return True if the hold is active; false otherwise.
+     */
+    public boolean isActive() {
+        return status == Status.ACTIVE;
+    }
+
+    /**
+     * Moves the hold out of the active state.
+     * 
+     * @param status The new status.
+     */
+    void setStatus(Status status) {
+        this.status = status;
+    }
+}
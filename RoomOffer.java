@@ -0,0 +1,60 @@
+/**
+ * Represents a room that is free for a searched stay.
+ * Returned by availability searches across one or more hotels.
+ */
+public class RoomOffer {
+    /**
+     * The name of the hotel the room belongs to.
+     */
+    private String hotelName;
+
+    /**
+     * The name of the room.
+     */
+    private String roomName;
+
+    /**
+     * The price per night of the room.
+     */
+    private double pricePerNight;
+
+    /**
+     * Constructs a new RoomOffer.
+     * 
+     * @param hotelName The name of the hotel the room belongs to.
+     * @param roomName The name of the room.
+     * @param pricePerNight The price per night of the room.
+     */
+    public RoomOffer(String hotelName, String roomName, double pricePerNight) {
+        this.hotelName = hotelName;
+        this.roomName = roomName;
+        this.pricePerNight = pricePerNight;
+    }
+
+    /**
+     * Gets the name of the hotel the room belongs to.
+     * 
+     * @return The hotel name.
+     */
+    public String getHotelName() {
+        return hotelName;
+    }
+
+    /**
+     * Gets the name of the room.
+     * 
+     * @return The room name.
+     */
+    public String getRoomName() {
+        return roomName;
+    }
+
+    /**
+     * Gets the price per night of the room.
+     * 
+     * @return The price per night.
+     */
+    public double getPricePerNight() {
+        return pricePerNight;
+    }
+}
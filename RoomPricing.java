@@ -0,0 +1,107 @@
+/**
+ * The nightly prices of a hotel's rooms, derived when read from the hotel's base price and each room's type.
+ * Standard rooms cost the base price, deluxe rooms 20% more, and executive rooms 35% more.
+ * A room may override its derived price, but an override only holds for the version of the base
+ * price it was set under, so changing the base price is a single write however many rooms the
+ * hotel has, and every room follows it with its type premium intact.
+ */
+public class RoomPricing {
+    /**
+     * The price multiplier of each room type, indexed by type code.
+     */
+    private static final double[] TYPE_MULTIPLIERS = {1.0, 1.20, 1.35};
+
+    /**
+     * The current base price and its version, replaced as a whole so readers never see one without the other.
+     */
+    private volatile Rate rate;
+
+    /**
+     * Constructs the pricing of a hotel.
+     *
+     * @param basePrice The price of a standard room per night.
+     */
+    public RoomPricing(double basePrice) {
+        this.rate = new Rate(basePrice, 0);
+    }
+
+    /**
+     * Gets the price multiplier of a room type.
+     *
+     * @param typeCode The type code.
+     * @return The multiplier applied to the base price.
+     */
+    public static double multiplier(byte typeCode) {
+        return TYPE_MULTIPLIERS[typeCode];
+    }
+
+    /**
+     * Gets the base price.
+     *
+     * @return The price of a standard room per night.
+     */
+    public double getBasePrice() {
+        return rate.basePrice;
+    }
+
+    /**
+     * Gets the version of the base price, which increases every time it changes.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return rate.version;
+    }
+
+    /**
+     * Sets the base price, which also drops every room's price override.
+     * Must be called by the thread holding the hotel's lock.
+     *
+     * @param basePrice The new price of a standard room per night.
+     */
+    public void setBasePrice(double basePrice) {
+        rate = new Rate(basePrice, rate.version + 1);
+    }
+
+    /**
+     * Gets the derived price of a room type.
+     *
+     * @param typeCode The type code.
+     * @return The base price with the type's premium.
+     */
+    public double priceOf(byte typeCode) {
+        return rate.basePrice * TYPE_MULTIPLIERS[typeCode];
+    }
+
+    /**
+     * Gets the price of a room, which is its override if it was set under the current version and its derived price otherwise.
+     *
+     * @param typeCode The type code of the room.
+     * @param override The room's price override.
+     * @param overrideVersion The version the override was set under, or -1 if the room has none.
+     * @return The price of the room per night.
+     */
+    double priceOf(byte typeCode, double override, long overrideVersion) {
+        Rate current = rate;
+        return overrideVersion == current.version ? override : current.basePrice * TYPE_MULTIPLIERS[typeCode];
+    }
+
+    /**
+     * A base price and its version.
+     */
+    private static class Rate {
+        final double basePrice;
+        final long version;
+
+        /**
+         * Constructs a Rate.
+         *
+         * @param basePrice The base price.
+         * @param version The version of the base price.
+         */
+        Rate(double basePrice, long version) {
+            this.basePrice = basePrice;
+            this.version = version;
+        }
+    }
+}
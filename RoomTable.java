@@ -0,0 +1,419 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The rooms of a hotel in type order (standard, then deluxe, then executive) and then by slot,
+ * with lookups by name and by slot.
+ * The rooms of a hotel that has not added or removed any are described by how many it has of each
+ * type: room i of a type is named after the type's letter and i, and the rooms take consecutive
+ * slots in list order, so a table of such ranges holds no room until one is read and only creates
+ * that one. A room is created at most once, so rooms can still be compared by identity. Scans that
+ * only need a room's slot, type, name, or price read them by index, which does not create it.
+ * Other hotels keep an explicit list of rooms.
+ * Tables are immutable, like the snapshots that hold them.
+ */
+public abstract class RoomTable {
+    /**
+     * Creates a table of explicit rooms.
+     *
+     * @param rooms The rooms, in type order and then by slot.
+     * @return The table.
+     */
+    public static RoomTable of(List<Room> rooms) {
+        return new Listed(new ArrayList<>(rooms));
+    }
+
+    /**
+     * Creates a table of rooms described by how many there are of each type, priced by their hotel.
+     *
+     * @param standard The number of standard rooms.
+     * @param deluxe The number of deluxe rooms.
+     * @param executive The number of executive rooms.
+     * @param pricing The pricing of the hotel.
+     * @return The table.
+     */
+    public static RoomTable ranges(int standard, int deluxe, int executive, RoomPricing pricing) {
+        return new Ranged(standard, deluxe, executive, pricing);
+    }
+
+    /**
+     * Gets the rooms as a list. Reading an element of a table of ranges creates that room if it does not exist yet.
+     *
+     * @return An unmodifiable list of the rooms.
+     */
+    public abstract List<Room> asList();
+
+    /**
+     * Gets the number of rooms.
+     *
+     * @return The number of rooms.
+     */
+    public abstract int size();
+
+    /**
+     * Gets a room by its position in the table.
+     *
+     * @param index The position.
+     * @return The room.
+     */
+    public abstract Room get(int index);
+
+    /**
+     * Finds a room by its name, ignoring case.
+     *
+     * @param roomName The name of the room.
+     * @return The room, or null if the table has no room with that name.
+     */
+    public abstract Room find(String roomName);
+
+    /**
+     * Finds a room by its slot.
+     *
+     * @param slot The slot of the room.
+     * @return The room, or null if the table has no room in that slot.
+     */
+    public abstract Room bySlot(int slot);
+
+    /**
+     * Gets one more than the highest slot of the rooms.
+     *
+     * @return The slot limit, or 0 if the table is empty.
+     */
+    public abstract int slotLimit();
+
+    /**
+     * Gets the slot of the room at a position.
+     *
+     * @param index The position.
+     * @return The room's slot.
+     */
+    public abstract int slotAt(int index);
+
+    /**
+     * Gets the type code of the room at a position.
+     *
+     * @param index The position.
+     * @return The room's type code.
+     */
+    public abstract byte typeAt(int index);
+
+    /**
+     * Gets the name of the room at a position.
+     *
+     * @param index The position.
+     * @return The room's name.
+     */
+    public abstract String nameAt(int index);
+
+    /**
+     * Gets the price of the room at a position.
+     *
+     * @param index The position.
+     * @return The room's price per night.
+     */
+    public abstract double priceAt(int index);
+
+    /**
+     * Gets the booked flag of the room at a position.
+     *
+     * @param index The position.
+     * @return True if the room is flagged as booked; false otherwise.
+     */
+    public abstract boolean bookedAt(int index);
+
+    /**
+     * Gets the number of room objects the table holds.
+     *
+     * @return The number of rooms created so far.
+     */
+    public abstract int materializedCount();
+
+    /**
+     * A table that holds every room.
+     */
+    private static class Listed extends RoomTable {
+        private final List<Room> rooms;
+        private final Map<String, Room> roomsByName;
+        private final Room[] roomsBySlot;
+
+        /**
+         * Constructs a Listed table.
+         *
+         * @param rooms The rooms, in type order and then by slot; the list is not copied.
+         */
+        Listed(List<Room> rooms) {
+            this.rooms = Collections.unmodifiableList(rooms);
+            Map<String, Room> byName = new HashMap<>(rooms.size() * 2);
+            int slots = 0;
+            for (Room room : rooms) {
+                byName.put(room.getName().toLowerCase(), room);
+                slots = Math.max(slots, room.getSlot() + 1);
+            }
+            this.roomsByName = byName;
+            this.roomsBySlot = new Room[slots];
+            for (Room room : rooms) {
+                roomsBySlot[room.getSlot()] = room;
+            }
+        }
+
+        @Override
+        public List<Room> asList() {
+            return rooms;
+        }
+
+        @Override
+        public int size() {
+            return rooms.size();
+        }
+
+        @Override
+        public Room get(int index) {
+            return rooms.get(index);
+        }
+
+        @Override
+        public Room find(String roomName) {
+            return roomName == null ? null : roomsByName.get(roomName.toLowerCase());
+        }
+
+        @Override
+        public Room bySlot(int slot) {
+            return slot >= 0 && slot < roomsBySlot.length ? roomsBySlot[slot] : null;
+        }
+
+        @Override
+        public int slotLimit() {
+            return roomsBySlot.length;
+        }
+
+        @Override
+        public int slotAt(int index) {
+            return rooms.get(index).getSlot();
+        }
+
+        @Override
+        public byte typeAt(int index) {
+            return rooms.get(index).getTypeCode();
+        }
+
+        @Override
+        public String nameAt(int index) {
+            return rooms.get(index).getName();
+        }
+
+        @Override
+        public double priceAt(int index) {
+            return rooms.get(index).getPrice();
+        }
+
+        @Override
+        public boolean bookedAt(int index) {
+            return rooms.get(index).isBooked();
+        }
+
+        @Override
+        public int materializedCount() {
+            return rooms.size();
+        }
+    }
+
+    /**
+     * A table of rooms described by how many there are of each type, whose rooms are created when first read.
+     * The room at position i has slot i.
+     */
+    private static class Ranged extends RoomTable {
+        /**
+         * The number of rooms in each chunk of created rooms.
+         */
+        private static final int CHUNK = 64;
+
+        /**
+         * The first position of each type, indexed by type code, followed by the number of rooms.
+         */
+        private final int[] starts;
+
+        /**
+         * The pricing of the hotel.
+         */
+        private final RoomPricing pricing;
+
+        /**
+         * The rooms created so far, in chunks that are only allocated when one of their rooms is first read.
+         */
+        private final AtomicReferenceArray<AtomicReferenceArray<Room>> chunks;
+
+        /**
+         * The number of rooms created so far.
+         */
+        private final AtomicInteger materialized = new AtomicInteger();
+
+        /**
+         * Read-only view of the rooms as a list.
+         */
+        private final List<Room> list = new RoomList();
+
+        /**
+         * Constructs a Ranged table.
+         *
+         * @param standard The number of standard rooms.
+         * @param deluxe The number of deluxe rooms.
+         * @param executive The number of executive rooms.
+         * @param pricing The pricing of the hotel.
+         */
+        Ranged(int standard, int deluxe, int executive, RoomPricing pricing) {
+            this.starts = new int[] {0, standard, standard + deluxe, standard + deluxe + executive};
+            this.pricing = pricing;
+            this.chunks = new AtomicReferenceArray<>((starts[3] + CHUNK - 1) / CHUNK);
+        }
+
+        @Override
+        public List<Room> asList() {
+            return list;
+        }
+
+        @Override
+        public int size() {
+            return starts[3];
+        }
+
+        @Override
+        public Room get(int index) {
+            if (index < 0 || index >= starts[3]) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + starts[3]);
+            }
+            AtomicReferenceArray<Room> chunk = chunks.get(index / CHUNK);
+            if (chunk == null) {
+                chunks.compareAndSet(index / CHUNK, null, new AtomicReferenceArray<>(CHUNK));
+                chunk = chunks.get(index / CHUNK);
+            }
+            Room room = chunk.get(index % CHUNK);
+            if (room == null) {
+                room = create(index);
+                if (chunk.compareAndSet(index % CHUNK, null, room)) {
+                    materialized.incrementAndGet();
+                } else {
+                    room = chunk.get(index % CHUNK);   // Another thread created it first
+                }
+            }
+            return room;
+        }
+
+        @Override
+        public Room find(String roomName) {
+            if (roomName == null || roomName.length() < 2 || roomName.length() > 10) {
+                return null;
+            }
+            int type = Room.typeCode(roomName.charAt(0));
+            if (type < 0 || roomName.charAt(1) == '0') {
+                return null;
+            }
+            long number = 0;
+            for (int i = 1; i < roomName.length(); i++) {
+                char c = roomName.charAt(i);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+                number = number * 10 + (c - '0');
+            }
+            return number <= starts[type + 1] - starts[type] ? get(starts[type] + (int) number - 1) : null;
+        }
+
+        @Override
+        public Room bySlot(int slot) {
+            return slot >= 0 && slot < starts[3] ? get(slot) : null;
+        }
+
+        @Override
+        public int slotLimit() {
+            return starts[3];
+        }
+
+        @Override
+        public int slotAt(int index) {
+            return index;
+        }
+
+        @Override
+        public byte typeAt(int index) {
+            return index < starts[Room.DELUXE] ? Room.STANDARD : index < starts[Room.EXECUTIVE] ? Room.DELUXE : Room.EXECUTIVE;
+        }
+
+        @Override
+        public String nameAt(int index) {
+            Room room = peek(index);
+            if (room != null) {
+                return room.getName();
+            }
+            byte type = typeAt(index);
+            return Room.typePrefix(type) + Integer.toString(index - starts[type] + 1);
+        }
+
+        @Override
+        public double priceAt(int index) {
+            Room room = peek(index);
+            return room != null ? room.getPrice() : pricing.priceOf(typeAt(index));
+        }
+
+        @Override
+        public boolean bookedAt(int index) {
+            Room room = peek(index);
+            return room != null && room.isBooked();
+        }
+
+        @Override
+        public int materializedCount() {
+            return materialized.get();
+        }
+
+        /**
+         * Gets the room at a position if it has been created.
+         *
+         * @param index The position.
+         * @return The room, or null if it has not been created yet.
+         */
+        private Room peek(int index) {
+            AtomicReferenceArray<Room> chunk = chunks.get(index / CHUNK);
+            return chunk == null ? null : chunk.get(index % CHUNK);
+        }
+
+        /**
+         * Creates the room at a position.
+         *
+         * @param index The position.
+         * @return A new room.
+         */
+        private Room create(int index) {
+            String name = nameAt(index);
+            switch (typeAt(index)) {
+                case Room.STANDARD:
+                    return new StandardRoom(name, pricing, index);
+                case Room.DELUXE:
+                    return new DeluxeRoom(name, pricing, index);
+                default:
+                    return new ExecutiveRoom(name, pricing, index);
+            }
+        }
+
+        /**
+         * Read-only list over the rooms of the table.
+         */
+        private class RoomList extends AbstractList<Room> implements RandomAccess {
+            @Override
+            public Room get(int index) {
+                return Ranged.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return starts[3];
+            }
+        }
+    }
+}
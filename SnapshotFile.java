@@ -0,0 +1,476 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes binary snapshots of a reservation system for fast cold start.
+ * A snapshot records every hotel's settings, rooms, reservations, and date price modifiers, together
+ * with the journal position it reflects, so startup only replays the journal from that point on.
+ *
+ * Layout (big-endian, version 4):
+ * <pre>
+ * file      := MAGIC version:int journalPosition:long hotelCount:int (length:int hotel)*
+ * hotel     := name:str basePrice:double standard:int deluxe:int executive:int firstOpenDay:int
+ *              modifierCount:int (day:int rate:double)*
+ *              roomCount:int (type:byte booked:byte price:double name:str)*
+ *              stringCount:int str*
+ *              reservationCount:int reservation*
+ *              archive
+ * reservation := room:int checkIn:int checkOut:int total:double guest:int discount:int   (fixed 28 bytes)
+ * archive   := archivedCount:int archivedEarnings:double blockCount:int (rows:int length:int deflated-bytes)*
+ * str       := length:int utf8-bytes
+ * </pre>
+ * Guest names and discount codes are stored once per hotel in a string table and referenced by
+ * index, so every reservation record has the same width. A discount index of -1 means no code.
+ * Snapshots are written to a temporary file and atomically renamed into place, and are loaded
+ * through a read-only memory mapping. Each hotel is prefixed with its length, so loading only
+ * indexes the hotels and each one is decoded from the mapping the first time it is used.
+ * The reservation archive's compressed blocks are copied as they are. Only this layout is read;
+ * a file of another version is rejected.
+ */
+public class SnapshotFile {
+    /**
+     * Identifies a snapshot file ("HRSS").
+     */
+    private static final int MAGIC = 0x48525353;
+
+    /**
+     * The current version of the layout.
+     */
+    private static final int VERSION = 4;
+
+    /**
+     * The state of one hotel captured for a snapshot.
+     */
+    static class HotelImage {
+        final String name;
+        final double basePrice;
+        final RoomPricing pricing;
+        final int standardRoomCount;
+        final int deluxeRoomCount;
+        final int executiveRoomCount;
+        final int firstOpenDay;
+        final Map<Integer, Double> modifiers;
+        final HotelSnapshot state;
+        final double[] roomPrices;
+        final boolean[] roomBooked;
+        final ByteBuffer encoded;
+
+        /**
+         * Constructs a HotelImage.
+         *
+         * @param name The name of the hotel.
+         * @param pricing The pricing of the hotel's rooms.
+         * @param standardRoomCount The standard room counter.
+         * @param deluxeRoomCount The deluxe room counter.
+         * @param executiveRoomCount The executive room counter.
+         * @param firstOpenDay The first day not yet retired from the hotel's calendar.
+         * @param modifiers The date price modifiers that differ from the default, by day.
+         * @param state The rooms, reservations, and occupancy of the hotel.
+         * @param roomPrices The price of each room of the state, since room prices change in place.
+         * @param roomBooked The booked flag of each room of the state.
+         */
+        HotelImage(String name, RoomPricing pricing, int standardRoomCount, int deluxeRoomCount, int executiveRoomCount,
+                int firstOpenDay, Map<Integer, Double> modifiers, HotelSnapshot state, double[] roomPrices, boolean[] roomBooked) {
+            this.name = name;
+            this.basePrice = pricing.getBasePrice();
+            this.pricing = pricing;
+            this.standardRoomCount = standardRoomCount;
+            this.deluxeRoomCount = deluxeRoomCount;
+            this.executiveRoomCount = executiveRoomCount;
+            this.firstOpenDay = firstOpenDay;
+            this.modifiers = modifiers;
+            this.state = state;
+            this.roomPrices = roomPrices;
+            this.roomBooked = roomBooked;
+            this.encoded = null;
+        }
+
+        /**
+         * Constructs a HotelImage for a hotel that is not loaded and is copied as already encoded.
+         *
+         * @param name The name of the hotel.
+         * @param encoded The encoded hotel, from its first to its last byte.
+         */
+        HotelImage(String name, ByteBuffer encoded) {
+            this.name = name;
+            this.basePrice = 0;
+            this.pricing = null;
+            this.standardRoomCount = 0;
+            this.deluxeRoomCount = 0;
+            this.executiveRoomCount = 0;
+            this.firstOpenDay = 1;
+            this.modifiers = null;
+            this.state = null;
+            this.roomPrices = null;
+            this.roomBooked = null;
+            this.encoded = encoded;
+        }
+    }
+
+    /**
+     * Writes a snapshot atomically: the data goes to a temporary file that is fsynced and then
+     * renamed over the target.
+     *
+     * @param path The snapshot file to write.
+     * @param journalPosition The journal position the snapshot reflects.
+     * @param hotels The captured hotels.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public static void write(Path path, long journalPosition, List<HotelImage> hotels) throws IOException {
+        write(path, journalPosition, hotels, 0);
+    }
+
+    /**
+     * Writes a snapshot atomically, limiting how fast it is written so background checkpoints
+     * leave disk bandwidth for the journal.
+     *
+     * @param path The snapshot file to write.
+     * @param journalPosition The journal position the snapshot reflects.
+     * @param hotels The captured hotels.
+     * @param maxBytesPerSecond The write rate limit in bytes per second, or 0 for no limit.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public static void write(Path path, long journalPosition, List<HotelImage> hotels, long maxBytesPerSecond) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     maxBytesPerSecond > 0 ? new ThrottledOutputStream(file, maxBytesPerSecond) : file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(journalPosition);
+            out.writeInt(hotels.size());
+            ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 16);
+            byte[] chunk = new byte[1 << 16];
+            for (HotelImage hotel : hotels) {
+                if (hotel.encoded != null) {
+                    ByteBuffer encoded = hotel.encoded.duplicate();
+                    out.writeInt(encoded.remaining());
+                    while (encoded.hasRemaining()) {
+                        int length = Math.min(chunk.length, encoded.remaining());
+                        encoded.get(chunk, 0, length);
+                        out.write(chunk, 0, length);
+                    }
+                } else {
+                    body.reset();
+                    writeHotel(new DataOutputStream(body), hotel);
+                    out.writeInt(body.size());
+                    body.writeTo(out);
+                }
+            }
+            out.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes one hotel to a file of its own and maps it back, so an unloaded hotel can be kept
+     * off the heap and decoded again later.
+     *
+     * @param path The file to write.
+     * @param hotel The captured hotel.
+     * @return The encoded hotel, mapped from the file.
+     * @throws IOException If the file cannot be written.
+     */
+    static ByteBuffer writeHotelFile(Path path, HotelImage hotel) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path.toFile()), 1 << 16))) {
+            writeHotel(out, hotel);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Writes one hotel.
+     *
+     * @param out The stream to write to.
+     * @param hotel The captured hotel.
+     * @throws IOException If the write fails.
+     */
+    private static void writeHotel(DataOutputStream out, HotelImage hotel) throws IOException {
+        writeString(out, hotel.name);
+        out.writeDouble(hotel.basePrice);
+        out.writeInt(hotel.standardRoomCount);
+        out.writeInt(hotel.deluxeRoomCount);
+        out.writeInt(hotel.executiveRoomCount);
+        out.writeInt(hotel.firstOpenDay);
+
+        out.writeInt(hotel.modifiers.size());
+        for (Map.Entry<Integer, Double> modifier : hotel.modifiers.entrySet()) {
+            out.writeInt(modifier.getKey());
+            out.writeDouble(modifier.getValue());
+        }
+
+        RoomTable rooms = hotel.state.getRoomTable();
+        int[] roomIndexes = new int[rooms.slotLimit()];
+        out.writeInt(rooms.size());
+        for (int i = 0; i < rooms.size(); i++) {
+            roomIndexes[rooms.slotAt(i)] = i;
+            out.writeByte(rooms.typeAt(i));
+            out.writeByte(hotel.roomBooked[i] ? 1 : 0);
+            out.writeDouble(hotel.roomPrices[i]);
+            writeString(out, rooms.nameAt(i));
+        }
+
+        List<Reservation> reservations = hotel.state.getReservations();
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            intern(reservation.getGuestName(), stringIndexes, strings);
+            intern(reservation.getDiscountCode(), stringIndexes, strings);
+        }
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            writeString(out, string);
+        }
+
+        out.writeInt(reservations.size());
+        for (Reservation reservation : reservations) {
+            out.writeInt(roomIndexes[reservation.getRoom().getSlot()]);
+            out.writeInt(reservation.getCheckInDay());
+            out.writeInt(reservation.getCheckOutDay());
+            out.writeDouble(reservation.getSumPrice());
+            out.writeInt(stringIndexes.get(reservation.getGuestName()));
+            String discountCode = reservation.getDiscountCode();
+            out.writeInt(discountCode == null ? -1 : stringIndexes.get(discountCode));
+        }
+        hotel.state.getArchive().write(out);
+    }
+
+    /**
+     * Adds a string to a string table if it is not there yet.
+     *
+     * @param value The string, or null to skip.
+     * @param indexes The index of each string already in the table.
+     * @param strings The string table.
+     */
+    private static void intern(String value, Map<String, Integer> indexes, List<String> strings) {
+        if (value != null && !indexes.containsKey(value)) {
+            indexes.put(value, strings.size());
+            strings.add(value);
+        }
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string.
+     *
+     * @param out The stream to write to.
+     * @param value The string to write.
+     * @throws IOException If the write fails.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Loads a snapshot into a reservation system that has no hotels yet.
+     * The hotels are only indexed; the system decodes each one when it is first used.
+     *
+     * @param path The snapshot file to read.
+     * @param system The reservation system to fill.
+     * @return The journal position the snapshot reflects.
+     * @throws IOException If the file cannot be read or is not a valid snapshot.
+     */
+    public static long load(Path path, HotelReservationSystem system) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(path + " is not a snapshot file.");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ".");
+            }
+
+            long journalPosition = buffer.getLong();
+            int hotelCount = buffer.getInt();
+            for (int i = 0; i < hotelCount; i++) {
+                int length = buffer.getInt();
+                ByteBuffer encoded = buffer.slice();
+                encoded.limit(length);
+                system.registerStoredHotel(readString(encoded.duplicate()), encoded);
+                buffer.position(buffer.position() + length);
+            }
+            return journalPosition;
+        } catch (RuntimeException e) {
+            throw new IOException("Snapshot " + path + " is corrupt.", e);
+        }
+    }
+
+    /**
+     * Reads one hotel.
+     *
+     * @param in The mapped snapshot or spill file, positioned at the hotel.
+     * @param symbols The symbol table of the system the hotel is loaded into.
+     * @return The captured hotel.
+     */
+    static HotelImage readHotel(ByteBuffer in, SymbolTable symbols) {
+        String name = readString(in);
+        RoomPricing pricing = new RoomPricing(in.getDouble());
+        int standardRoomCount = in.getInt();
+        int deluxeRoomCount = in.getInt();
+        int executiveRoomCount = in.getInt();
+        int firstOpenDay = in.getInt();
+
+        int modifierCount = in.getInt();
+        Map<Integer, Double> modifiers = new HashMap<>();
+        for (int i = 0; i < modifierCount; i++) {
+            modifiers.put(in.getInt(), in.getDouble());
+        }
+
+        int roomCount = in.getInt();
+        byte[] roomTypes = new byte[roomCount];
+        String[] roomNames = new String[roomCount];
+        double[] roomPrices = new double[roomCount];
+        boolean[] roomBooked = new boolean[roomCount];
+        for (int i = 0; i < roomCount; i++) {
+            roomTypes[i] = in.get();
+            roomBooked[i] = in.get() != 0;
+            roomPrices[i] = in.getDouble();
+            roomNames[i] = readString(in);
+        }
+        RoomTable rooms = readRooms(roomTypes, roomNames, roomPrices, roomBooked, pricing);
+
+        int stringCount = in.getInt();
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            strings[i] = readString(in);
+        }
+
+        int reservationCount = in.getInt();
+        List<Reservation> reservations = new ArrayList<>(reservationCount);
+        OccupancyIndex index = new OccupancyIndex();
+        for (int i = 0; i < reservationCount; i++) {
+            Room room = rooms.get(in.getInt());
+            int checkInDay = in.getInt();
+            int checkOutDay = in.getInt();
+            double totalPrice = in.getDouble();
+            String guestName = strings[in.getInt()];
+            int discount = in.getInt();
+            reservations.add(new Reservation(guestName, checkInDay, checkOutDay, room, discount < 0 ? null : strings[discount], totalPrice));
+            index.book(room.getSlot(), checkInDay, checkOutDay);
+        }
+
+        index.retireBefore(firstOpenDay);
+        ReservationArchive archive = ReservationArchive.read(in);
+        HotelSnapshot state = new HotelSnapshot(rooms, symbols).withReservations(reservations, index).withArchive(archive);
+        return new HotelImage(name, pricing, standardRoomCount, deluxeRoomCount, executiveRoomCount, firstOpenDay,
+                modifiers, state, roomPrices, roomBooked);
+    }
+
+    /**
+     * Rebuilds the rooms of a hotel.
+     * Rooms still laid out the way a new hotel creates them are restored as ranges, so only the
+     * rooms that are booked or have their own price are created; other hotels get every room.
+     *
+     * @param types The type code of each room.
+     * @param names The name of each room.
+     * @param prices The price of each room.
+     * @param booked The booked flag of each room.
+     * @param pricing The pricing of the hotel.
+     * @return The rooms, each in the slot of its position.
+     */
+    private static RoomTable readRooms(byte[] types, String[] names, double[] prices, boolean[] booked, RoomPricing pricing) {
+        int[] counts = new int[3];
+        boolean ranged = true;
+        for (int i = 0; i < types.length && ranged; i++) {
+            byte type = types[i];
+            ranged = type >= 0 && type < counts.length && (i == 0 || type >= types[i - 1])
+                    && names[i].equals(Room.typePrefix(type) + Integer.toString(++counts[type]));
+        }
+        if (ranged) {
+            RoomTable rooms = RoomTable.ranges(counts[Room.STANDARD], counts[Room.DELUXE], counts[Room.EXECUTIVE], pricing);
+            for (int i = 0; i < types.length; i++) {
+                if (prices[i] != pricing.priceOf(types[i])) {
+                    rooms.get(i).setPrice(prices[i]);
+                }
+                if (booked[i]) {
+                    rooms.get(i).bookRoom();
+                }
+            }
+            return rooms;
+        }
+        List<Room> rooms = new ArrayList<>(types.length);
+        for (int i = 0; i < types.length; i++) {
+            Room room = Room.restore(types[i], names[i], prices[i], i, pricing);
+            if (booked[i]) {
+                room.bookRoom();
+            }
+            rooms.add(room);
+        }
+        return RoomTable.of(rooms);
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string.
+     *
+     * @param in The buffer to read from.
+     * @return The string.
+     */
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Output stream that sleeps as needed to keep its average write rate under a limit.
+     */
+    private static class ThrottledOutputStream extends FilterOutputStream {
+        private final long maxBytesPerSecond;
+        private final long startNanos = System.nanoTime();
+        private long written;
+
+        /**
+         * Constructs a ThrottledOutputStream.
+         *
+         * @param out The stream to write to.
+         * @param maxBytesPerSecond The write rate limit in bytes per second.
+         */
+        ThrottledOutputStream(OutputStream out, long maxBytesPerSecond) {
+            super(out);
+            this.maxBytesPerSecond = maxBytesPerSecond;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            written += len;
+            long dueNanos = written * 1_000_000_000L / maxBytesPerSecond;
+            long aheadMillis = (dueNanos - (System.nanoTime() - startNanos)) / 1_000_000;
+            if (aheadMillis > 0) {
+                try {
+                    Thread.sleep(aheadMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Snapshot write interrupted", e);
+                }
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+    }
+}
@@ -11,6 +11,29 @@ public class StandardRoom extends Room {
      * @param basePrice The base price of the room.
      */
     public StandardRoom(String name, double basePrice) {
-        super(name, basePrice);
+        this(name, basePrice, -1);
+    }
+
+    /**
+     * Constructs a StandardRoom in a slot of a hotel.
+     * The price for Standard Rooms is set to be equal to the base price without any modification.
+     * 
+     * @param name The name or identifier for the Standard Room.
+     * @param basePrice The base price of the room.
+     * @param slot The slot of the room within its hotel.
+     */
+    public StandardRoom(String name, double basePrice, int slot) {
+        super(name, basePrice, STANDARD, slot);
+    }
+
+    /**
+     * Constructs a StandardRoom in a slot of a hotel, priced by the hotel.
+     * 
+     * @param name The name or identifier for the Standard Room.
+     * @param pricing The pricing of the hotel.
+     * @param slot The slot of the room within its hotel.
+     */
+    public StandardRoom(String name, RoomPricing pricing, int slot) {
+        super(name, pricing, STANDARD, slot);
     }
 }
\ No newline at end of file
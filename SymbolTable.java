@@ -0,0 +1,163 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the guest names and discount codes of a reservation system to dense int ids.
+ * Every distinct spelling is stored once and gets its own id, so reservations keep the names exactly
+ * as they were entered. Each id also has a key: the id of its case-folded spelling, which is the same
+ * for every spelling that differs only in case. Comparing keys is therefore the integer equivalent of
+ * {@code equalsIgnoreCase}, and a name that has no key yet cannot match any reservation.
+ *
+ * One table is shared by all hotels of a system, each of which adds to it under its own lock, so
+ * additions are synchronized and the tables are republished through volatile fields for readers.
+ * Entries are never removed.
+ */
+public class SymbolTable {
+    /**
+     * The spelling of each id.
+     */
+    private volatile String[] strings = new String[64];
+
+    /**
+     * The key of each id.
+     */
+    private volatile int[] keys = new int[64];
+
+    /**
+     * The number of ids handed out.
+     */
+    private int count;
+
+    /**
+     * The id of each spelling.
+     */
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the id of a string, adding it if it is new.
+     *
+     * @param string The string.
+     * @return The string's id.
+     */
+    public int id(String string) {
+        Integer id = ids.get(string);
+        return id != null ? id : add(string);
+    }
+
+    /**
+     * Gets the key of a string, adding it if it is new.
+     *
+     * @param string The string.
+     * @return The id of the string's case-folded spelling.
+     */
+    public int key(String string) {
+        return keyOf(id(string));
+    }
+
+    /**
+     * Gets the key of a string without adding it.
+     *
+     * @param string The string, or null.
+     * @return The id of the string's case-folded spelling, or -1 if no string with that spelling was added.
+     */
+    public int findKey(String string) {
+        if (string == null) {
+            return -1;
+        }
+        Integer id = ids.get(string);
+        if (id != null) {
+            return keyOf(id);
+        }
+        Integer key = ids.get(fold(string));
+        return key == null ? -1 : key;
+    }
+
+    /**
+     * Gets the key of an id.
+     *
+     * @param id The id.
+     * @return The id of the case-folded spelling.
+     */
+    public int keyOf(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Gets the spelling of an id.
+     *
+     * @param id The id.
+     * @return The string.
+     */
+    public String get(int id) {
+        return strings[id];
+    }
+
+    /**
+     * Gets the number of ids handed out.
+     *
+     * @return The number of distinct strings.
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Adds a string and, if needed, its case-folded spelling.
+     *
+     * @param string The string.
+     * @return The string's id.
+     */
+    private synchronized int add(String string) {
+        Integer existing = ids.get(string);
+        if (existing != null) {
+            return existing;
+        }
+        String folded = fold(string);
+        if (folded.equals(string)) {
+            return put(string, count);
+        }
+        Integer key = ids.get(folded);
+        return put(string, key != null ? key : put(folded, count));
+    }
+
+    /**
+     * Stores a new string under the next id.
+     *
+     * @param string The string.
+     * @param key The id of its case-folded spelling, which is the next id if the string is already folded.
+     * @return The string's id.
+     */
+    private int put(String string, int key) {
+        int id = count++;
+        String[] stringTable = strings;
+        int[] keyTable = keys;
+        if (id >= stringTable.length) {
+            stringTable = Arrays.copyOf(stringTable, stringTable.length * 2);
+            keyTable = Arrays.copyOf(keyTable, keyTable.length * 2);
+        }
+        stringTable[id] = string;
+        keyTable[id] = key;
+        keys = keyTable;
+        strings = stringTable;
+        ids.put(string, id);
+        return id;
+    }
+
+    /**
+     * Folds the case of a string the way {@code equalsIgnoreCase} compares it: one char at a time,
+     * as the lower case of the upper case of each char. Two strings fold to the same spelling exactly
+     * when {@code equalsIgnoreCase} considers them equal, and folding never changes the length, unlike
+     * converting the whole string, which turns a sharp s into "SS".
+     *
+     * @param string The string.
+     * @return The case-folded string.
+     */
+    private static String fold(String string) {
+        char[] chars = string.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
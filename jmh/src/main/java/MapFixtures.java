@@ -0,0 +1,316 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * Builds the operations {@code benchmarks.PrimitiveMapBenchmark} times to compare the primitive maps
+ * behind the hotel's indexes with the boxed {@link HashMap}s they replace.
+ *
+ * Every map gets the same random keys, the way the row indexes of a hotel are rebuilt, probed, and
+ * maintained: int keys for {@link IntIntMap}, room slot and day pairs for {@link LongIntMap}, and
+ * for {@link IntIntListMap} int keys reduced to an eighth as many, like guests with several stays.
+ */
+public class MapFixtures {
+    /**
+     * A map under test, filled and emptied with the keys it was built with.
+     */
+    private interface TestMap {
+        /**
+         * Puts every key.
+         */
+        void fill();
+
+        /**
+         * Looks up one of the keys, the first half of which were put and the second half were not.
+         *
+         * @param i The index of the key.
+         * @return The value found, or -1.
+         */
+        long get(int i);
+
+        /**
+         * Removes every key that was put.
+         *
+         * @return The size left, which is 0.
+         */
+        long empty();
+    }
+
+    /**
+     * Creates an operation on a map.
+     *
+     * @param map IntIntMap, HashMap<Integer,Integer>, LongIntMap, HashMap<Long,Integer>, IntIntListMap, or HashMap<Integer,List>.
+     * @param operation get, which looks up one key of a filled map, hits and misses in turn, or
+     *        fillAndEmpty, which puts every key into an empty map and removes them again.
+     * @param keys The number of keys put.
+     * @return The operation.
+     */
+    public static LongSupplier mapOperation(String map, String operation, int keys) {
+        TestMap testMap = create(map, keys);
+        switch (operation) {
+            case "get":
+                testMap.fill();
+                int[] counter = new int[1];
+                // Alternate between the keys that were put and those that were not
+                return () -> {
+                    int i = counter[0]++;
+                    return testMap.get((i & 1) * keys + (i >>> 1) % keys);
+                };
+            case "fillAndEmpty":
+                return () -> {
+                    testMap.fill();
+                    return testMap.empty();
+                };
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    /**
+     * Creates a map under test with twice as many keys as are put, the second half as misses.
+     *
+     * @param map The name of the map.
+     * @param count The number of keys put.
+     * @return The map.
+     */
+    private static TestMap create(String map, int count) {
+        Random random = new Random(42);
+        int[] intKeys = new int[count * 2];
+        long[] longKeys = new long[count * 2];
+        for (int i = 0; i < intKeys.length; i++) {
+            intKeys[i] = random.nextInt();
+            longKeys[i] = ((long) random.nextInt(Hotel.MAX_ROOMS) << 32) | random.nextInt(3 * 366);
+        }
+        int distinct = Math.max(1, count / 8);
+        int[] listKeys = new int[count * 2];
+        for (int i = 0; i < listKeys.length; i++) {
+            listKeys[i] = i < count ? Math.floorMod(intKeys[i], distinct) : -1 - i;
+        }
+        switch (map) {
+            case "IntIntMap":
+                return intIntMap(intKeys, count);
+            case "HashMap<Integer,Integer>":
+                return intHashMap(intKeys, count);
+            case "LongIntMap":
+                return longIntMap(longKeys, count);
+            case "HashMap<Long,Integer>":
+                return longHashMap(longKeys, count);
+            case "IntIntListMap":
+                return intIntListMap(listKeys, count);
+            case "HashMap<Integer,List>":
+                return listHashMap(listKeys, count);
+            default:
+                throw new IllegalArgumentException("Unknown map: " + map);
+        }
+    }
+
+    /**
+     * Creates an {@link IntIntMap} under test.
+     *
+     * @param keys The keys; the first half are put.
+     * @param count The number of keys put.
+     * @return The map under test.
+     */
+    private static TestMap intIntMap(int[] keys, int count) {
+        IntIntMap map = new IntIntMap(16);
+        return new TestMap() {
+            @Override
+            public void fill() {
+                for (int i = 0; i < count; i++) {
+                    map.put(keys[i], i);
+                }
+            }
+
+            @Override
+            public long get(int i) {
+                return map.get(keys[i], -1);
+            }
+
+            @Override
+            public long empty() {
+                for (int i = 0; i < count; i++) {
+                    map.remove(keys[i]);
+                }
+                return map.size();
+            }
+        };
+    }
+
+    /**
+     * Creates a {@link HashMap} of boxed int keys and values under test.
+     *
+     * @param keys The keys; the first half are put.
+     * @param count The number of keys put.
+     * @return The map under test.
+     */
+    private static TestMap intHashMap(int[] keys, int count) {
+        Map<Integer, Integer> map = new HashMap<>();
+        return new TestMap() {
+            @Override
+            public void fill() {
+                for (int i = 0; i < count; i++) {
+                    map.put(keys[i], i);
+                }
+            }
+
+            @Override
+            public long get(int i) {
+                return map.getOrDefault(keys[i], -1);
+            }
+
+            @Override
+            public long empty() {
+                for (int i = 0; i < count; i++) {
+                    map.remove(keys[i]);
+                }
+                return map.size();
+            }
+        };
+    }
+
+    /**
+     * Creates a {@link LongIntMap} under test.
+     *
+     * @param keys The keys; the first half are put.
+     * @param count The number of keys put.
+     * @return The map under test.
+     */
+    private static TestMap longIntMap(long[] keys, int count) {
+        LongIntMap map = new LongIntMap(16);
+        return new TestMap() {
+            @Override
+            public void fill() {
+                for (int i = 0; i < count; i++) {
+                    map.put(keys[i], i);
+                }
+            }
+
+            @Override
+            public long get(int i) {
+                return map.get(keys[i], -1);
+            }
+
+            @Override
+            public long empty() {
+                for (int i = 0; i < count; i++) {
+                    map.remove(keys[i]);
+                }
+                return map.size();
+            }
+        };
+    }
+
+    /**
+     * Creates a {@link HashMap} of boxed long keys and int values under test.
+     *
+     * @param keys The keys; the first half are put.
+     * @param count The number of keys put.
+     * @return The map under test.
+     */
+    private static TestMap longHashMap(long[] keys, int count) {
+        Map<Long, Integer> map = new HashMap<>();
+        return new TestMap() {
+            @Override
+            public void fill() {
+                for (int i = 0; i < count; i++) {
+                    map.put(keys[i], i);
+                }
+            }
+
+            @Override
+            public long get(int i) {
+                return map.getOrDefault(keys[i], -1);
+            }
+
+            @Override
+            public long empty() {
+                for (int i = 0; i < count; i++) {
+                    map.remove(keys[i]);
+                }
+                return map.size();
+            }
+        };
+    }
+
+    /**
+     * Creates an {@link IntIntListMap} under test, which adds the index of each key as a value.
+     *
+     * @param keys The keys; the first half are added, about eight values per key.
+     * @param count The number of values added.
+     * @return The map under test.
+     */
+    private static TestMap intIntListMap(int[] keys, int count) {
+        IntIntListMap map = new IntIntListMap(16);
+        return new TestMap() {
+            @Override
+            public void fill() {
+                for (int i = 0; i < count; i++) {
+                    map.add(keys[i], i);
+                }
+            }
+
+            @Override
+            public long get(int i) {
+                long sum = -1;
+                for (int entry = map.firstEntry(keys[i]); entry >= 0; entry = map.nextEntry(entry)) {
+                    sum += map.valueAt(entry);
+                }
+                return sum;
+            }
+
+            @Override
+            public long empty() {
+                for (int i = 0; i < count; i++) {
+                    map.remove(keys[i], i);
+                }
+                return map.size();
+            }
+        };
+    }
+
+    /**
+     * Creates a {@link HashMap} of boxed int keys to lists of boxed values under test.
+     *
+     * @param keys The keys; the first half are added, about eight values per key.
+     * @param count The number of values added.
+     * @return The map under test.
+     */
+    private static TestMap listHashMap(int[] keys, int count) {
+        Map<Integer, List<Integer>> map = new HashMap<>();
+        return new TestMap() {
+            @Override
+            public void fill() {
+                for (int i = 0; i < count; i++) {
+                    map.computeIfAbsent(keys[i], k -> new ArrayList<>()).add(i);
+                }
+            }
+
+            @Override
+            public long get(int i) {
+                long sum = -1;
+                List<Integer> values = map.get(keys[i]);
+                if (values != null) {
+                    for (int value : values) {
+                        sum += value;
+                    }
+                }
+                return sum;
+            }
+
+            @Override
+            public long empty() {
+                for (int i = 0; i < count; i++) {
+                    List<Integer> values = map.get(keys[i]);
+                    values.remove((Integer) i);
+                    if (values.isEmpty()) {
+                        map.remove(keys[i]);
+                    }
+                }
+                return map.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Builds the operations {@code benchmarks.MetricsBenchmark} times to measure what
+ * {@link MetricsRegistry} adds to the hot paths it instruments.
+ *
+ * The counter and timer primitives run against a registry of their own, and the instrumented hotel
+ * and reservation operations against {@link MetricsRegistry#DEFAULT}, which is switched on or off
+ * for the whole JVM; JMH forks a JVM per parameter combination, so runs do not affect each other.
+ */
+public class MetricsFixtures {
+    /**
+     * Creates an operation with metrics switched on or off.
+     *
+     * @param operation counter.increment, timer.start+stop, sampledTimer.start+stop, System.nanoTime,
+     *        isRoomAvailable, getAvailableRoomsCount, Reservation.getTotalPrice, or estimatedEarnings.
+     * @param enabled Whether metrics are recorded.
+     * @param rooms The number of rooms of the hotel the hotel operations run against.
+     * @param reservations The number of reservations of that hotel.
+     * @return The operation.
+     */
+    public static LongSupplier metricsOperation(String operation, boolean enabled, int rooms, int reservations) {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.setEnabled(enabled);
+        MetricsRegistry.DEFAULT.setEnabled(enabled);
+        switch (operation) {
+            case "counter.increment": {
+                MetricsRegistry.Counter counter = registry.counter("benchmark.counter");
+                return () -> {
+                    counter.increment();
+                    return 0;
+                };
+            }
+            case "timer.start+stop": {
+                MetricsRegistry.Timer timer = registry.timer("benchmark.timer");
+                return () -> {
+                    timer.stop(timer.start());
+                    return 0;
+                };
+            }
+            case "sampledTimer.start+stop": {
+                MetricsRegistry.Timer timer = registry.timer("benchmark.sampledTimer", 16);
+                return () -> {
+                    timer.stop(timer.start());
+                    return 0;
+                };
+            }
+            case "System.nanoTime":
+                return System::nanoTime;
+            default:
+                return hotelOperation(operation, rooms, reservations);
+        }
+    }
+
+    /**
+     * Creates an instrumented operation of a filled hotel whose stays last two nights, back to back
+     * with a free day between them.
+     *
+     * @param operation isRoomAvailable, getAvailableRoomsCount, Reservation.getTotalPrice, or estimatedEarnings.
+     * @param rooms The number of rooms.
+     * @param reservations The number of reservations.
+     * @return The operation.
+     */
+    private static LongSupplier hotelOperation(String operation, int rooms, int reservations) {
+        Hotel hotel = ReservationFixtures.newHotel("Bench", rooms);
+        ReservationFixtures.fill(hotel, rooms, reservations, 2, 0);
+        int lastDay = ReservationFixtures.lastDay(rooms, reservations, 2);
+        List<Room> roomList = hotel.getRooms();
+        int[] next = new int[1];
+        switch (operation) {
+            case "isRoomAvailable":
+                return () -> {
+                    int i = next[0]++;
+                    return hotel.isRoomAvailable(roomList.get(i % rooms), 1 + i % lastDay, 2 + i % lastDay) ? 1 : 0;
+                };
+            case "getAvailableRoomsCount":
+                return () -> hotel.getAvailableRoomsCount(1 + next[0]++ % lastDay);
+            case "Reservation.getTotalPrice":
+                Reservation[] sample = hotel.getReservations().subList(0, Math.min(1024, reservations))
+                        .toArray(new Reservation[0]);
+                return () -> (long) sample[next[0]++ % sample.length].getTotalPrice(hotel);
+            case "estimatedEarnings":
+                return () -> (long) hotel.estimatedEarnings();
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * Builds the operations {@code benchmarks.OccupancyChurnBenchmark} times to compare the on-heap
+ * {@link OccupancyIndex} with the {@link OffHeapOccupancyStore} for a large portfolio.
+ *
+ * Each store is filled with a calendar of stays for every room and then churned the way hotels use
+ * it: every change takes a {@link OccupancyStore#copy()}, releases one stay, and books another,
+ * with an availability query after it.
+ */
+public class OccupancyFixtures {
+    /**
+     * Creates an operation that makes one change to a filled store.
+     *
+     * @param store on-heap, off-heap, or file-backed.
+     * @param rooms The number of rooms.
+     * @param days The number of days.
+     * @return The operation.
+     * @throws IOException If the file of a file-backed store cannot be created.
+     */
+    public static LongSupplier churn(String store, int rooms, int days) throws IOException {
+        OccupancyStore[] current = {create(store, rooms, days)};
+        fill(current[0], rooms, days);
+        Random random = new Random(42);
+        return () -> {
+            int slot = random.nextInt(rooms);
+            int day = 1 + random.nextInt(days - 7);
+            OccupancyStore changed = current[0].copy();
+            changed.release(slot, day, day + 6);
+            changed.book(slot, day, day + random.nextInt(7));
+            current[0] = changed;
+            return changed.isAvailable(random.nextInt(rooms), day, day + 2) ? 1 : 0;
+        };
+    }
+
+    /**
+     * Creates an empty store.
+     *
+     * @param store on-heap, off-heap, or file-backed.
+     * @param rooms The number of rooms.
+     * @param days The number of days.
+     * @return The store.
+     * @throws IOException If the file of a file-backed store cannot be created.
+     */
+    private static OccupancyStore create(String store, int rooms, int days) throws IOException {
+        switch (store) {
+            case "on-heap":
+                return new OccupancyIndex();
+            case "off-heap":
+                return new OffHeapOccupancyStore(rooms, days);
+            case "file-backed":
+                Path file = Files.createTempFile("occupancy", ".bin");
+                file.toFile().deleteOnExit();
+                return OffHeapOccupancyStore.open(file, rooms, days);
+            default:
+                throw new IllegalArgumentException("Unknown store: " + store);
+        }
+    }
+
+    /**
+     * Books every room with back-to-back stays of one to seven nights, leaving a free night between stays.
+     *
+     * @param store The store to fill.
+     * @param rooms The number of rooms.
+     * @param days The number of days.
+     */
+    private static void fill(OccupancyStore store, int rooms, int days) {
+        Random random = new Random(7);
+        for (int slot = 0; slot < rooms; slot++) {
+            for (int day = 1; day < days; ) {
+                int nights = 1 + random.nextInt(7);
+                store.book(slot, day, Math.min(days, day + nights));
+                day += nights + 2;
+            }
+        }
+    }
+}
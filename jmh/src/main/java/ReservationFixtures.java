@@ -0,0 +1,235 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Builds the operations the JMH benchmarks time.
+ *
+ * JMH only accepts benchmark classes in a named package, and code in a named package cannot refer
+ * to the engine's classes, which are in the unnamed package. The benchmarks in {@code benchmarks}
+ * therefore look this class up by name and time the {@link LongSupplier}s it returns.
+ *
+ * Hotels get about 60% standard, 30% deluxe, and 10% executive rooms, and their reservations are
+ * spread evenly over the rooms, each room's stays back to back with a free day between them.
+ */
+public class ReservationFixtures {
+    /**
+     * The number of bookings or cancellations each call of an update operation makes.
+     */
+    public static final int BATCH = 500;
+
+    /**
+     * An operation that changes a hotel, and undoes its changes when run as a {@link Runnable}, so
+     * that every timed call starts from the same hotel.
+     */
+    public interface Update extends LongSupplier, Runnable {
+    }
+
+    /**
+     * Creates an operation that runs against one filled hotel.
+     *
+     * @param operation getAvailableRoomsCount, findAvailableRooms, Room.isBookedOnDay, getTotalPrice, or estimatedEarnings.
+     * @param rooms The number of rooms.
+     * @param reservations The number of reservations.
+     * @param stay The length of each stay, in nights.
+     * @return The operation.
+     */
+    public static LongSupplier hotelOperation(String operation, int rooms, int reservations, int stay) {
+        Hotel hotel = newHotel("Bench", rooms);
+        fill(hotel, rooms, reservations, stay, 0);
+        int lastDay = lastDay(rooms, reservations, stay);
+        int[] counter = new int[1];
+        switch (operation) {
+            case "getAvailableRoomsCount":
+                return () -> hotel.getAvailableRoomsCount(1 + counter[0]++ % lastDay);
+            case "findAvailableRooms":
+                return () -> {
+                    int day = 1 + counter[0]++ % lastDay;
+                    return hotel.findAvailableRooms(day, day + stay, null, Double.MAX_VALUE, 10).size();
+                };
+            case "Room.isBookedOnDay":
+                List<Room> roomList = hotel.getRooms();
+                List<Reservation> booked = hotel.getReservations();
+                return () -> {
+                    int i = counter[0]++;
+                    return roomList.get(i % rooms).isBookedOnDay(1 + i % lastDay, booked) ? 1 : 0;
+                };
+            case "getTotalPrice":
+                List<Reservation> reservationList = hotel.getReservations();
+                Reservation[] sample = new Reservation[Math.min(1024, reservationList.size())];
+                for (int i = 0; i < sample.length; i++) {
+                    sample[i] = reservationList.get(i * (reservationList.size() / sample.length));
+                }
+                return () -> (long) sample[counter[0]++ % sample.length].getTotalPrice(hotel);
+            case "estimatedEarnings":
+                return () -> (long) hotel.estimatedEarnings();
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    /**
+     * Creates an operation that looks hotels up by name in a system with a number of hotels.
+     *
+     * @param hotels The number of hotels.
+     * @return The operation.
+     */
+    public static LongSupplier getHotel(int hotels) {
+        HotelReservationSystem system = new HotelReservationSystem();
+        for (int i = 0; i < hotels; i++) {
+            system.createHotel("Hotel " + i, 10, 5, 5);
+        }
+        String[] names = new String[hotels];
+        for (int i = 0; i < hotels; i++) {
+            names[i] = "Hotel " + (i * 7919L % hotels);
+        }
+        int[] counter = new int[1];
+        return () -> system.getHotel(names[counter[0]++ % hotels]).getRooms().size();
+    }
+
+    /**
+     * Creates an operation that books or cancels a batch of {@link #BATCH} reservations after the
+     * filled days of a hotel. Running the operation as a {@link Runnable} cancels the batch before
+     * booking, or books it before cancelling, so each call finds the hotel as the last one did.
+     *
+     * @param operation book or cancel.
+     * @param rooms The number of rooms.
+     * @param reservations The number of reservations the hotel is filled with.
+     * @param stay The length of each stay, in nights.
+     * @return The operation.
+     */
+    public static Update hotelUpdate(String operation, int rooms, int reservations, int stay) {
+        Hotel hotel = newHotel("Bench", rooms);
+        fill(hotel, rooms, reservations, stay, 0);
+        List<BookingRequest> batch = requests(rooms, BATCH, stay, lastDay(rooms, reservations, stay) + 1);
+        switch (operation) {
+            case "book":
+                return new Update() {
+                    @Override
+                    public void run() {
+                        cancel(hotel, batch);
+                    }
+
+                    @Override
+                    public long getAsLong() {
+                        long booked = 0;
+                        for (BookingRequest request : batch) {
+                            booked += hotel.importBatch(List.of(request)).get(0).isBooked() ? 1 : 0;
+                        }
+                        return booked;
+                    }
+                };
+            case "cancel":
+                return new Update() {
+                    @Override
+                    public void run() {
+                        hotel.importBatch(batch);
+                    }
+
+                    @Override
+                    public long getAsLong() {
+                        return cancel(hotel, batch);
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    /**
+     * Creates an operation that adds a room to a hotel and removes it again, so the hotel keeps its size.
+     *
+     * @param rooms The number of rooms.
+     * @return The operation.
+     */
+    public static LongSupplier addRoom(int rooms) {
+        Hotel hotel = newHotel("Bench", Math.min(rooms, Hotel.MAX_ROOMS - 1));
+        String[] types = {"standard", "deluxe", "executive"};
+        // Added rooms are numbered after every room of their type ever added, so track the counts here
+        int[] counts = new int[types.length];
+        for (Room room : hotel.getRooms()) {
+            counts[room.getTypeCode()]++;
+        }
+        int[] counter = new int[1];
+        return () -> {
+            byte type = (byte) (counter[0]++ % types.length);
+            String error = hotel.tryAddRoom(types[type]);
+            String added = Room.typePrefix(type) + Integer.toString(++counts[type]);
+            return (error == null ? 1 : 0) + (hotel.tryRemoveRoom(added) == null ? 1 : 0);
+        };
+    }
+
+    /**
+     * Creates a hotel with about 60% standard, 30% deluxe, and 10% executive rooms.
+     *
+     * @param name The name of the hotel.
+     * @param rooms The number of rooms.
+     * @return The hotel.
+     */
+    static Hotel newHotel(String name, int rooms) {
+        int deluxe = rooms * 3 / 10;
+        int executive = rooms / 10;
+        return new Hotel(name, rooms - deluxe - executive, deluxe, executive);
+    }
+
+    /**
+     * Books reservations spread evenly over the rooms, each room's stays back to back.
+     *
+     * @param hotel The hotel.
+     * @param rooms The number of rooms.
+     * @param reservations The number of reservations.
+     * @param stay The length of each stay, in nights.
+     * @param firstDay The day before the first check-in.
+     */
+    static void fill(Hotel hotel, int rooms, int reservations, int stay, int firstDay) {
+        hotel.importBatch(requests(rooms, reservations, stay, firstDay + 1));
+    }
+
+    /**
+     * Creates booking requests spread evenly over the rooms, each room's stays back to back.
+     *
+     * @param rooms The number of rooms.
+     * @param count The number of requests.
+     * @param stay The length of each stay, in nights.
+     * @param firstDay The first check-in day.
+     * @return The requests.
+     */
+    private static List<BookingRequest> requests(int rooms, int count, int stay, int firstDay) {
+        List<Room> template = newHotel("Names", rooms).getRooms();
+        List<BookingRequest> requests = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            int checkInDay = firstDay + (k / rooms) * (stay + 1);
+            requests.add(new BookingRequest("Guest " + k % 997, template.get(k % rooms).getName(), checkInDay,
+                    checkInDay + stay, null));
+        }
+        return requests;
+    }
+
+    /**
+     * Gets the last day any of the filled reservations occupies.
+     *
+     * @param rooms The number of rooms.
+     * @param reservations The number of reservations.
+     * @param stay The length of each stay, in nights.
+     * @return The last occupied day.
+     */
+    static int lastDay(int rooms, int reservations, int stay) {
+        return ((reservations + rooms - 1) / rooms) * (stay + 1);
+    }
+
+    /**
+     * Cancels every reservation of a batch that is booked.
+     *
+     * @param hotel The hotel.
+     * @param batch The requests the reservations were booked from.
+     * @return The number of reservations cancelled.
+     */
+    private static long cancel(Hotel hotel, List<BookingRequest> batch) {
+        long cancelled = 0;
+        for (BookingRequest request : batch) {
+            cancelled += hotel.tryRemoveReservation(request.getGuestName(), request.getRoomName(),
+                    request.getCheckInDay(), request.getCheckOutDay()) ? 1 : 0;
+        }
+        return cancelled;
+    }
+}
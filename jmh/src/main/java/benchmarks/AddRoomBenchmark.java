@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times adding a room to a hotel of each size. Every call removes the added room again, so the
+ * hotel keeps its size and the time includes one removal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddRoomBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int rooms;
+
+    /**
+     * The operation being timed.
+     */
+    private LongSupplier op;
+
+    /**
+     * Creates the hotel and builds the operation.
+     */
+    @Setup
+    public void setUp() {
+        op = Fixtures.create("addRoom", new Class<?>[] {int.class}, rooms);
+    }
+
+    /**
+     * Adds a room and removes it again.
+     *
+     * @return The number of steps that succeeded, returned so the work cannot be optimized away.
+     */
+    @Benchmark
+    public long run() {
+        return op.getAsLong();
+    }
+}
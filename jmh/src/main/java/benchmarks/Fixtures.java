@@ -0,0 +1,49 @@
+package benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.LongSupplier;
+
+/**
+ * Looks up the operations built by the fixture classes, such as {@code ReservationFixtures}, which
+ * are in the unnamed package and so can only be reached by name.
+ */
+final class Fixtures {
+    /**
+     * Prevents instantiation; the class only holds the lookup.
+     */
+    private Fixtures() {
+    }
+
+    /**
+     * Calls a static factory of {@code ReservationFixtures}.
+     *
+     * @param method The name of the factory.
+     * @param types The parameter types of the factory.
+     * @param args The arguments to pass.
+     * @return The operation the factory built.
+     */
+    static LongSupplier create(String method, Class<?>[] types, Object... args) {
+        return create("ReservationFixtures", method, types, args);
+    }
+
+    /**
+     * Calls a static factory of a fixture class.
+     *
+     * @param fixtures The name of the fixture class.
+     * @param method The name of the factory.
+     * @param types The parameter types of the factory.
+     * @param args The arguments to pass.
+     * @return The operation the factory built.
+     */
+    static LongSupplier create(String fixtures, String method, Class<?>[] types, Object... args) {
+        try {
+            Method factory = Class.forName(fixtures).getMethod(method, types);
+            return (LongSupplier) factory.invoke(null, args);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Could not build " + method + ".", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(fixtures + "." + method + " is missing.", e);
+        }
+    }
+}
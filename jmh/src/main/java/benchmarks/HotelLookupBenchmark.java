@@ -0,0 +1,53 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times looking hotels up by name in a system with a number of hotels.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotelLookupBenchmark {
+    @Param({"10", "100", "1000"})
+    public int hotels;
+
+    /**
+     * The lookup being timed.
+     */
+    private LongSupplier op;
+
+    /**
+     * Creates the hotels and builds the lookup.
+     */
+    @Setup
+    public void setUp() {
+        op = Fixtures.create("getHotel", new Class<?>[] {int.class}, hotels);
+    }
+
+    /**
+     * Looks up one hotel.
+     *
+     * @return The number of rooms of the hotel found, returned so the lookup cannot be optimized away.
+     */
+    @Benchmark
+    public long run() {
+        return op.getAsLong();
+    }
+}
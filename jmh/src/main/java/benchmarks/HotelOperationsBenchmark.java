@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times the read operations of one filled hotel for every combination of hotel size, reservation
+ * count, and stay length. Booking and cancellation change the hotel between calls and are timed by
+ * {@link HotelUpdateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotelOperationsBenchmark {
+    @Param({"getAvailableRoomsCount", "findAvailableRooms", "Room.isBookedOnDay", "getTotalPrice", "estimatedEarnings"})
+    public String operation;
+
+    @Param({"100", "1000", "10000"})
+    public int rooms;
+
+    @Param({"1000", "20000"})
+    public int reservations;
+
+    @Param({"1", "7"})
+    public int stay;
+
+    /**
+     * The operation being timed.
+     */
+    private LongSupplier op;
+
+    /**
+     * Fills the hotel and builds the operation.
+     */
+    @Setup
+    public void setUp() {
+        op = Fixtures.create("hotelOperation", new Class<?>[] {String.class, int.class, int.class, int.class},
+                operation, rooms, reservations, stay);
+    }
+
+    /**
+     * Runs the operation once.
+     *
+     * @return The operation's result, returned so the work cannot be optimized away.
+     */
+    @Benchmark
+    public long run() {
+        return op.getAsLong();
+    }
+}
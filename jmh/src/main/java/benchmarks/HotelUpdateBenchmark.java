@@ -0,0 +1,89 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times booking and cancelling reservations in one filled hotel, with the same parameters as
+ * {@link HotelOperationsBenchmark}. Each call books or cancels a batch of 500 reservations after the
+ * filled days, and an untimed setup before each call undoes the previous one. The batch makes a call
+ * long enough for the per-invocation setup not to distort the timing; results are per reservation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotelUpdateBenchmark {
+    /**
+     * The number of reservations each call books or cancels, as in {@code ReservationFixtures.BATCH}.
+     */
+    private static final int BATCH = 500;
+
+    @Param({"book", "cancel"})
+    public String operation;
+
+    @Param({"100", "1000", "10000"})
+    public int rooms;
+
+    @Param({"1000", "20000"})
+    public int reservations;
+
+    @Param({"1", "7"})
+    public int stay;
+
+    /**
+     * The batch being timed.
+     */
+    private LongSupplier op;
+
+    /**
+     * Puts the hotel back into the state before the batch.
+     */
+    private Runnable reset;
+
+    /**
+     * Fills the hotel and builds the batch.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        op = Fixtures.create("hotelUpdate", new Class<?>[] {String.class, int.class, int.class, int.class},
+                operation, rooms, reservations, stay);
+        // The fixture's operations are also runnable, and running one undoes it
+        reset = (Runnable) op;
+    }
+
+    /**
+     * Undoes the previous batch.
+     */
+    @Setup(Level.Invocation)
+    public void resetHotel() {
+        reset.run();
+    }
+
+    /**
+     * Books or cancels the batch.
+     *
+     * @return The number of reservations booked or cancelled, returned so the work cannot be optimized away.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long run() {
+        return op.getAsLong();
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times the metrics primitives and the instrumented hotel operations with metrics switched on and
+ * off. The difference between the two runs of an operation is the cost of its metrics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    @Param({"counter.increment", "timer.start+stop", "sampledTimer.start+stop", "System.nanoTime",
+            "isRoomAvailable", "getAvailableRoomsCount", "Reservation.getTotalPrice", "estimatedEarnings"})
+    public String operation;
+
+    @Param({"true", "false"})
+    public boolean enabled;
+
+    @Param({"1000"})
+    public int rooms;
+
+    @Param({"20000"})
+    public int reservations;
+
+    /**
+     * The operation being timed.
+     */
+    private LongSupplier op;
+
+    /**
+     * Switches metrics on or off and builds the operation.
+     */
+    @Setup
+    public void setUp() {
+        op = Fixtures.create("MetricsFixtures", "metricsOperation",
+                new Class<?>[] {String.class, boolean.class, int.class, int.class}, operation, enabled, rooms, reservations);
+    }
+
+    /**
+     * Runs the operation once.
+     *
+     * @return The operation's result, returned so the work cannot be optimized away.
+     */
+    @Benchmark
+    public long run() {
+        return op.getAsLong();
+    }
+}
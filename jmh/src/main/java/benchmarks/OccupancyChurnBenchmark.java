@@ -0,0 +1,63 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times changes to the occupancy of a large portfolio kept on the heap, off the heap, and in a
+ * memory-mapped file, over three years of days. The point of the off-heap stores is the garbage
+ * collector's work rather than the time of a change, so run with {@code -prof gc} to see the
+ * allocation and collections each store causes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OccupancyChurnBenchmark {
+    @Param({"on-heap", "off-heap", "file-backed"})
+    public String store;
+
+    @Param({"20000", "200000"})
+    public int rooms;
+
+    @Param({"1098"})
+    public int days;
+
+    /**
+     * The change being timed.
+     */
+    private LongSupplier op;
+
+    /**
+     * Fills the store and builds the change.
+     */
+    @Setup
+    public void setUp() {
+        op = Fixtures.create("OccupancyFixtures", "churn", new Class<?>[] {String.class, int.class, int.class},
+                store, rooms, days);
+    }
+
+    /**
+     * Releases a stay of one room, books another, and checks the availability of a room.
+     *
+     * @return Whether the room checked was available, returned so the work cannot be optimized away.
+     */
+    @Benchmark
+    public long run() {
+        return op.getAsLong();
+    }
+}
@@ -0,0 +1,77 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the primitive maps behind the hotel's indexes with the boxed {@code HashMap}s they replace.
+ * {@link #get()} looks up one key of a filled map, hits and misses in turn, and {@link #fillAndEmpty()}
+ * puts every key into an empty map and removes them all again. Run with {@code -prof gc} to see the
+ * allocation of each map as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveMapBenchmark {
+    @Param({"IntIntMap", "HashMap<Integer,Integer>", "LongIntMap", "HashMap<Long,Integer>", "IntIntListMap",
+            "HashMap<Integer,List>"})
+    public String map;
+
+    @Param({"10000", "1000000"})
+    public int keys;
+
+    /**
+     * Looks up one key of a filled map.
+     */
+    private LongSupplier getOp;
+
+    /**
+     * Fills an empty map and empties it again.
+     */
+    private LongSupplier fillAndEmptyOp;
+
+    /**
+     * Creates the keys and maps.
+     */
+    @Setup
+    public void setUp() {
+        Class<?>[] types = {String.class, String.class, int.class};
+        getOp = Fixtures.create("MapFixtures", "mapOperation", types, map, "get", keys);
+        fillAndEmptyOp = Fixtures.create("MapFixtures", "mapOperation", types, map, "fillAndEmpty", keys);
+    }
+
+    /**
+     * Looks up one key.
+     *
+     * @return The value found, returned so the lookup cannot be optimized away.
+     */
+    @Benchmark
+    public long get() {
+        return getOp.getAsLong();
+    }
+
+    /**
+     * Puts every key and removes them again.
+     *
+     * @return The size of the emptied map, returned so the work cannot be optimized away.
+     */
+    @Benchmark
+    public long fillAndEmpty() {
+        return fillAndEmptyOp.getAsLong();
+    }
+}
@@ -0,0 +1,125 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that a batch is booked all-or-nothing by {@link Hotel#bookBatch(List)}, leaving the occupancy
+ * index, the reservations, and the journal untouched when one request fails, and request by request
+ * by {@link Hotel#importBatch(List)}.
+ */
+class BookBatchTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void conflictRollsBackTheWholeBatch() throws IOException {
+        Path path = directory.resolve("hotels.journal");
+        Journal journal = new Journal(path, 1, 1);
+        HotelReservationSystem system = new HotelReservationSystem(journal);
+        system.createHotel("Alpha", 3, 0, 0);
+        Hotel alpha = system.getHotel("Alpha");
+        assertTrue(alpha.addReservation(new Reservation("Ann", 10, 12, alpha.getRoomByName("S1"), null)));
+        long position = journal.getPosition();
+
+        List<BookingResult> results = alpha.bookBatch(List.of(
+                new BookingRequest("Bob", "S2", 5, 7, null),
+                new BookingRequest("Cid", "S1", 11, 13, null),
+                new BookingRequest("Dee", "S3", 20, 22, null)));
+
+        assertEquals(BookingResult.Status.NOT_APPLIED, results.get(0).getStatus());
+        assertEquals(BookingResult.Status.CONFLICT, results.get(1).getStatus());
+        assertEquals(BookingResult.Status.NOT_APPLIED, results.get(2).getStatus());
+        assertNull(results.get(0).getReservation());
+        assertEquals(1, alpha.getReservations().size());
+        assertTrue(alpha.isRoomAvailable(alpha.getRoomByName("S2"), 5, 7));
+        assertTrue(alpha.isRoomAvailable(alpha.getRoomByName("S3"), 20, 22));
+        assertTrue(alpha.isRoomAvailable(alpha.getRoomByName("S1"), 13, 13));
+        assertEquals(position, journal.getPosition());
+        journal.close();
+
+        Journal reopened = new Journal(path, 1, 1);
+        HotelReservationSystem replayed = new HotelReservationSystem(reopened);
+        reopened.close();
+        assertEquals(HotelState.describe(system), HotelState.describe(replayed));
+        assertEquals(1, replayed.getHotel("Alpha").getReservations().size());
+    }
+
+    @Test
+    void requestsOfOneBatchCannotOverlapEachOther() {
+        Hotel hotel = new Hotel("H", 2, 0, 0);
+
+        List<BookingResult> results = hotel.bookBatch(List.of(
+                new BookingRequest("Ann", "S1", 5, 8, null),
+                new BookingRequest("Bob", "S1", 8, 9, null)));
+
+        assertEquals(BookingResult.Status.NOT_APPLIED, results.get(0).getStatus());
+        assertEquals(BookingResult.Status.CONFLICT, results.get(1).getStatus());
+        assertTrue(hotel.getReservations().isEmpty());
+        assertTrue(hotel.isRoomAvailable(hotel.getRoomByName("S1"), 1, 20));
+    }
+
+    @Test
+    void validBatchIsBookedAndJournaledTogether() throws IOException {
+        Path path = directory.resolve("hotels.journal");
+        Journal journal = new Journal(path, 1, 1);
+        HotelReservationSystem system = new HotelReservationSystem(journal);
+        system.createHotel("Alpha", 2, 0, 0);
+        Hotel alpha = system.getHotel("Alpha");
+
+        List<BookingResult> results = alpha.bookBatch(List.of(
+                new BookingRequest("Ann", "S1", 5, 8, null),
+                new BookingRequest("Bob", "S1", 9, 10, null),
+                new BookingRequest("Cid", "S2", 5, 6, "I_WORK_HERE")));
+        journal.close();
+
+        for (BookingResult result : results) {
+            assertEquals(BookingResult.Status.BOOKED, result.getStatus());
+        }
+        assertEquals(3, alpha.getReservations().size());
+        Journal reopened = new Journal(path, 1, 1);
+        HotelReservationSystem replayed = new HotelReservationSystem(reopened);
+        reopened.close();
+        assertEquals(HotelState.describe(system), HotelState.describe(replayed));
+    }
+
+    @Test
+    void importBatchBooksEveryValidRequest() throws IOException {
+        Path path = directory.resolve("hotels.journal");
+        Journal journal = new Journal(path, 1, 1);
+        HotelReservationSystem system = new HotelReservationSystem(journal);
+        system.createHotel("Alpha", 2, 0, 0);
+        Hotel alpha = system.getHotel("Alpha");
+        assertTrue(alpha.addReservation(new Reservation("Ann", 10, 12, alpha.getRoomByName("S1"), null)));
+
+        List<BookingResult> results = alpha.importBatch(List.of(
+                new BookingRequest("Bob", "S2", 5, 7, null),
+                new BookingRequest("Cid", "S1", 12, 14, null),
+                new BookingRequest("", "S2", 20, 21, null),
+                new BookingRequest("Dee", "X9", 20, 21, null),
+                new BookingRequest("Eve", "S2", 7, 9, null),
+                new BookingRequest("Fay", "S2", 30, 31, null)));
+        journal.close();
+
+        assertEquals(BookingResult.Status.BOOKED, results.get(0).getStatus());
+        assertEquals(BookingResult.Status.CONFLICT, results.get(1).getStatus());
+        assertEquals(BookingResult.Status.REJECTED, results.get(2).getStatus());
+        assertEquals("Guest name cannot be empty.", results.get(2).getMessage());
+        assertEquals(BookingResult.Status.REJECTED, results.get(3).getStatus());
+        assertEquals("Room X9 does not exist.", results.get(3).getMessage());
+        assertEquals(BookingResult.Status.CONFLICT, results.get(4).getStatus());
+        assertEquals(BookingResult.Status.BOOKED, results.get(5).getStatus());
+        assertEquals(3, alpha.getReservations().size());
+        assertTrue(alpha.isRoomAvailable(alpha.getRoomByName("S1"), 13, 14));
+        Journal reopened = new Journal(path, 1, 1);
+        HotelReservationSystem replayed = new HotelReservationSystem(reopened);
+        reopened.close();
+        assertEquals(HotelState.describe(system), HotelState.describe(replayed));
+    }
+}
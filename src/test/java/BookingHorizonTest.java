@@ -0,0 +1,114 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the rolling booking horizon: stays outside it are refused, rolling over retires the days
+ * before the new first open day, and a journaled roll-over is replayed.
+ */
+class BookingHorizonTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void staysOutsideTheHorizonAreRefused() {
+        Hotel hotel = new Hotel("H", 2, 0, 0);
+        hotel.setBookingHorizon(30);
+        Room room = hotel.getRoomByName("S1");
+
+        assertTrue(hotel.addReservation(new Reservation("Ann", 25, 30, room, null)));
+        assertFalse(hotel.addReservation(new Reservation("Bob", 29, 31, hotel.getRoomByName("S2"), null)));
+        List<BookingResult> results = hotel.importBatch(List.of(new BookingRequest("Cid", "S2", 40, 41, null)));
+        assertEquals(BookingResult.Status.REJECTED, results.get(0).getStatus());
+        assertEquals("The stay is outside the booking horizon.", results.get(0).getMessage());
+        assertNull(hotel.tryAddDatePriceModifier(30, 1.2));
+        assertNotNull(hotel.tryAddDatePriceModifier(31, 1.2));
+    }
+
+    @Test
+    void rollingOverRetiresEarlierDays() {
+        Hotel hotel = new Hotel("H", 2, 0, 0);
+        hotel.setBookingHorizon(30);
+        assertTrue(hotel.addReservation(new Reservation("Ann", 5, 8, hotel.getRoomByName("S1"), null)));
+        assertTrue(hotel.addReservation(new Reservation("Bob", 18, 22, hotel.getRoomByName("S2"), null)));
+        assertTrue(hotel.addDatePriceModifier(6, 1.2));
+        double earnings = hotel.estimatedEarnings();
+        RecordingArchive archive = new RecordingArchive();
+
+        hotel.rollOver(20, archive);
+
+        assertEquals(20, hotel.getFirstOpenDay());
+        assertEquals(1, hotel.getReservations().size());
+        assertEquals("Bob", hotel.getReservations().get(0).getGuestName());
+        assertEquals("Ann", hotel.findReservation("Ann").getGuestName());
+        assertEquals(earnings, hotel.estimatedEarnings(), 0.001);
+        assertEquals(1.0, hotel.getDatePriceModifier(6));
+        assertFalse(hotel.addReservation(new Reservation("Cid", 19, 19, hotel.getRoomByName("S1"), null)));
+        assertTrue(hotel.addReservation(new Reservation("Dee", 45, 49, hotel.getRoomByName("S1"), null)));
+        assertFalse(hotel.isRoomAvailable(hotel.getRoomByName("S2"), 20, 22));
+        // Days from the first reservation up to the day before the new first open day, one per day
+        assertEquals(15, archive.days.size());
+        assertEquals("H 5 1 2 1.0", archive.days.get(0));
+        assertEquals("H 6 1 2 1.2", archive.days.get(1));
+        assertEquals("H 18 1 2 1.0", archive.days.get(13));
+        assertEquals("H 19 1 2 1.0", archive.days.get(14));
+
+        hotel.rollOver(10, archive);
+        assertEquals(20, hotel.getFirstOpenDay());
+        assertEquals(15, archive.days.size());
+    }
+
+    @Test
+    void journaledRollOverIsReplayed() throws IOException {
+        Path path = directory.resolve("hotels.journal");
+        Journal journal = new Journal(path, 1, 1);
+        HotelReservationSystem system = new HotelReservationSystem(journal);
+        system.createHotel("Alpha", 2, 0, 0);
+        Hotel alpha = system.getHotel("Alpha");
+        assertTrue(alpha.addReservation(new Reservation("Ann", 5, 8, alpha.getRoomByName("S1"), null)));
+        assertTrue(alpha.addReservation(new Reservation("Bob", 18, 22, alpha.getRoomByName("S2"), null)));
+        system.rollOver(20);
+        assertTrue(alpha.addReservation(new Reservation("Cid", 25, 27, alpha.getRoomByName("S1"), null)));
+        journal.close();
+
+        Journal reopened = new Journal(path, 1, 1);
+        HotelReservationSystem replayed = new HotelReservationSystem(reopened);
+        reopened.close();
+
+        Hotel replayedAlpha = replayed.getHotel("Alpha");
+        assertEquals(HotelState.describe(system), HotelState.describe(replayed));
+        assertEquals(20, replayedAlpha.getFirstOpenDay());
+        assertEquals(2, replayedAlpha.getReservations().size());
+        assertEquals(alpha.estimatedEarnings(), replayedAlpha.estimatedEarnings(), 0.001);
+        assertFalse(replayedAlpha.addReservation(new Reservation("Dee", 10, 12, replayedAlpha.getRoomByName("S2"), null)));
+    }
+
+    /**
+     * Keeps the days handed to it as text.
+     */
+    private static class RecordingArchive implements DayArchive {
+        /**
+         * One entry per archived day: hotel, day, booked rooms, rooms, and price modifier.
+         */
+        final List<String> days = new ArrayList<>();
+
+        @Override
+        public void archiveDay(String hotelName, int day, int bookedRooms, int roomCount, double revenue, double priceModifier) {
+            days.add(hotelName + ' ' + day + ' ' + bookedRooms + ' ' + roomCount + ' ' + priceModifier);
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+}
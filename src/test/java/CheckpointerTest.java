@@ -0,0 +1,123 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that checkpoints delete only the journal segments their snapshot covers, and that a
+ * reopened system rebuilds the same hotels from the snapshot and the remaining journal.
+ */
+class CheckpointerTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void checkpointCompactsTheJournalAndReopensToTheSameState() throws IOException {
+        Path journalPath = directory.resolve("hotels.journal");
+        Path snapshotPath = directory.resolve("hotels.snapshot");
+        Journal journal = new Journal(journalPath, 1, 1, 256);
+        HotelReservationSystem system = new HotelReservationSystem(journal, snapshotPath);
+        Checkpointer checkpointer = new Checkpointer(system, 60_000, 1, 0);
+        system.createHotel("Alpha", 20, 0, 0);
+        Hotel alpha = system.getHotel("Alpha");
+        book(alpha, journal, 0, 20);
+        List<Path> before = segments();
+        long position = journal.getPosition();
+
+        assertTrue(before.size() > 2);
+        assertTrue(checkpointer.checkpoint(1, 0));
+        assertFalse(checkpointer.checkpoint(1, 0));
+        assertEquals(1, checkpointer.getCheckpointCount());
+        assertEquals(0, checkpointer.getFailureCount());
+        List<Path> after = segments();
+        assertEquals(before.subList(before.size() - 1, before.size()), after);
+        assertTrue(base(after.get(0)) <= position);
+
+        book(alpha, journal, 20, 40);
+        assertTrue(alpha.removeReservation("Guest 3", "S4", 3, 5));
+        journal.close();
+
+        Journal reopened = new Journal(journalPath, 1, 1, 256);
+        HotelReservationSystem restored = new HotelReservationSystem(reopened, snapshotPath);
+        reopened.close();
+
+        assertEquals(21, reopened.getReplayedRecords());
+        assertEquals(HotelState.describe(system), HotelState.describe(restored));
+    }
+
+    @Test
+    void compactionKeepsTheSegmentHoldingTheCheckpoint() throws IOException {
+        Path journalPath = directory.resolve("hotels.journal");
+        Journal journal = new Journal(journalPath, 1, 1, 256);
+        HotelReservationSystem system = new HotelReservationSystem(journal);
+        system.createHotel("Alpha", 20, 0, 0);
+        book(system.getHotel("Alpha"), journal, 0, 20);
+        List<Path> before = segments();
+        long checkpoint = base(before.get(2)) + 1;
+
+        assertEquals(2, journal.compact(checkpoint));
+        assertEquals(0, journal.compact(checkpoint));
+        assertEquals(before.subList(2, before.size()), segments());
+        journal.close();
+    }
+
+    @Test
+    void failedCheckpointIsCountedAndKeepsTheJournal() throws IOException {
+        Path journalPath = directory.resolve("hotels.journal");
+        Path snapshotPath = directory.resolve("hotels.snapshot");
+        Files.createDirectories(snapshotPath.resolve("occupied"));
+        Journal journal = new Journal(journalPath, 1, 1, 256);
+        HotelReservationSystem system = new HotelReservationSystem(journal, snapshotPath);
+        Checkpointer checkpointer = new Checkpointer(system, 60_000, 1, 0);
+        system.createHotel("Alpha", 20, 0, 0);
+        book(system.getHotel("Alpha"), journal, 0, 20);
+        List<Path> before = segments();
+
+        assertFalse(checkpointer.checkpoint(1, 0));
+        assertEquals(0, checkpointer.getCheckpointCount());
+        assertEquals(1, checkpointer.getFailureCount());
+        assertEquals(before, segments());
+        journal.close();
+    }
+
+    /**
+     * Books one two-night stay per guest, each in its own standard room, writing each record out so
+     * segments roll over at predictable positions.
+     */
+    private static void book(Hotel hotel, Journal journal, int fromGuest, int toGuest) throws IOException {
+        for (int i = fromGuest; i < toGuest; i++) {
+            Room room = hotel.getRoomByName("S" + (i % 20 + 1));
+            assertTrue(hotel.addReservation(new Reservation("Guest " + i, 3 + i / 20 * 10, 5 + i / 20 * 10, room, null)));
+            journal.flush();
+        }
+    }
+
+    /**
+     * Lists the journal's segment files in position order.
+     */
+    private List<Path> segments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "hotels.journal.*")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * Gets the position of a segment's first record from its file name.
+     */
+    private static long base(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseUnsignedLong(name.substring(name.lastIndexOf('.') + 1), 16);
+    }
+}
@@ -0,0 +1,40 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the hold timer wheel expires holds after their delay, counted from when they were scheduled.
+ */
+class HoldTimerWheelTest {
+    @Test
+    void holdScheduledLateExpiresAfterItsOwnDelay() throws InterruptedException {
+        HoldTimerWheel wheel = new HoldTimerWheel(20, 64);
+        Hotel hotel = new Hotel("H", 1, 0, 0);
+        RoomHold hold = new RoomHold(hotel, hotel.getRoomByName("S1"), 5, 8);
+        // The wheel has been idle for many times the hold's delay before the hold is scheduled on it
+        Thread.sleep(500);
+        wheel.schedule(hold, 300);
+
+        Thread.sleep(100);
+        wheel.advance();
+        assertTrue(hold.isActive());
+
+        Thread.sleep(400);
+        wheel.advance();
+        assertEquals(RoomHold.Status.EXPIRED, hold.getStatus());
+    }
+
+    @Test
+    void cancelledHoldDoesNotExpire() throws InterruptedException {
+        HoldTimerWheel wheel = new HoldTimerWheel(20, 64);
+        Hotel hotel = new Hotel("H", 1, 0, 0);
+        RoomHold hold = new RoomHold(hotel, hotel.getRoomByName("S1"), 5, 8);
+        wheel.schedule(hold, 50);
+        wheel.cancel(hold);
+
+        Thread.sleep(200);
+        wheel.advance();
+        assertTrue(hold.isActive());
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Describes the observable state of a reservation system as text, so tests can check that two
+ * systems rebuilt in different ways hold the same hotels.
+ */
+final class HotelState {
+    /**
+     * The last day whose price modifier is described.
+     */
+    private static final int LAST_MODIFIER_DAY = 120;
+
+    /**
+     * Prevents instantiation; the class only holds the description.
+     */
+    private HotelState() {
+    }
+
+    /**
+     * Describes every hotel of a system in name order.
+     *
+     * @param system The system.
+     * @return One line per hotel, room, reservation, and price modifier.
+     */
+    static String describe(HotelReservationSystem system) {
+        List<Hotel> hotels = new ArrayList<>(system.getHotels());
+        hotels.sort(Comparator.comparing(Hotel::getName));
+        StringBuilder state = new StringBuilder();
+        for (Hotel hotel : hotels) {
+            state.append(describe(hotel));
+        }
+        return state.toString();
+    }
+
+    /**
+     * Describes one hotel.
+     *
+     * @param hotel The hotel.
+     * @return One line per hotel, room, reservation, and price modifier.
+     */
+    static String describe(Hotel hotel) {
+        StringBuilder state = new StringBuilder();
+        state.append("hotel ").append(hotel.getName()).append('\n');
+        for (Room room : hotel.getRooms()) {
+            state.append("  room ").append(room.getName()).append(' ').append(room.getPrice()).append('\n');
+        }
+        List<String> reservations = new ArrayList<>();
+        for (Reservation reservation : hotel.getReservations()) {
+            reservations.add("  reservation " + reservation.getGuestName() + ' ' + reservation.getRoom().getName() + ' '
+                    + reservation.getCheckInDay() + '-' + reservation.getCheckOutDay() + ' ' + reservation.getSumPrice());
+        }
+        reservations.sort(null);
+        for (String reservation : reservations) {
+            state.append(reservation).append('\n');
+        }
+        for (int day = 1; day <= LAST_MODIFIER_DAY; day++) {
+            double modifier = hotel.getDatePriceModifier(day);
+            if (modifier != 1.0) {
+                state.append("  modifier ").append(day).append(' ').append(modifier).append('\n');
+            }
+        }
+        return state.toString();
+    }
+}
@@ -0,0 +1,77 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that replaying the journal rebuilds exactly the hotels the journaled changes produced.
+ */
+class JournalReplayTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayRebuildsTheSameHotels() throws IOException {
+        Path path = directory.resolve("hotels.journal");
+        Journal journal = new Journal(path, 1, 1);
+        HotelReservationSystem system = new HotelReservationSystem(journal);
+        system.createHotel("Alpha", 4, 2, 1);
+        system.createHotel("Beta", 3, 0, 0);
+        Hotel alpha = system.getHotel("Alpha");
+        Hotel beta = system.getHotel("Beta");
+
+        assertTrue(alpha.updatePrice(1500.0));
+        assertTrue(alpha.addRoom("deluxe"));
+        assertTrue(alpha.removeRoom("S2"));
+        assertTrue(alpha.addDatePriceModifier(10, 1.25));
+        List<BookingRequest> requests = new ArrayList<>();
+        requests.add(new BookingRequest("Ann", "S1", 8, 12, null));
+        requests.add(new BookingRequest("Bob", "D3", 9, 11, "I_WORK_HERE"));
+        requests.add(new BookingRequest("Cid", "S3", 20, 26, "STAY4_GET1"));
+        alpha.bookBatch(requests);
+        assertTrue(alpha.addReservation(new Reservation("Dee", 30, 33, alpha.getRoomByName("E1"), null)));
+        assertTrue(alpha.removeReservation("Bob", "D3", 9, 11));
+        Room held = beta.getRoomByName("S2");
+        assertTrue(beta.confirmHold(beta.placeHold(held, 3, 5, 60_000), "Eve", "PAYDAY") != null);
+        assertTrue(beta.setName("Gamma"));
+        journal.close();
+
+        Journal reopened = new Journal(path, 1, 1);
+        HotelReservationSystem replayed = new HotelReservationSystem(reopened);
+        reopened.close();
+
+        assertEquals(HotelState.describe(system), HotelState.describe(replayed));
+    }
+
+    @Test
+    void changesRefusedLiveAreNotReplayed() throws IOException {
+        Path path = directory.resolve("hotels.journal");
+        Journal journal = new Journal(path, 1, 1);
+        HotelReservationSystem system = new HotelReservationSystem(journal);
+        system.createHotel("Alpha", 2, 0, 0);
+        system.createHotel("Alpha", 5, 0, 0);
+        Hotel alpha = system.getHotel("Alpha");
+        assertTrue(alpha.addReservation(new Reservation("Ann", 5, 8, alpha.getRoomByName("S1"), null)));
+
+        assertFalse(alpha.addReservation(new Reservation("Bob", 6, 7, alpha.getRoomByName("S1"), null)));
+        assertFalse(alpha.removeRoom("S1"));
+        assertFalse(alpha.updatePrice(1500.0));
+        assertFalse(alpha.addDatePriceModifier(6, 3.0));
+        journal.close();
+
+        Journal reopened = new Journal(path, 1, 1);
+        HotelReservationSystem replayed = new HotelReservationSystem(reopened);
+        reopened.close();
+
+        assertEquals(HotelState.describe(system), HotelState.describe(replayed));
+        assertEquals(2, replayed.getHotel("Alpha").getRooms().size());
+        assertEquals(1, replayed.getHotel("Alpha").getReservations().size());
+    }
+}
@@ -0,0 +1,98 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that removing keys from an {@link LongIntMap} keeps every other key reachable.
+ */
+class LongIntMapTest {
+    /**
+     * The number of slots of a map made for 8 keys.
+     */
+    private static final int SLOTS = 16;
+
+    @Test
+    void removalShiftsBackProbeRunsThatWrapAround() {
+        long[] last = keysWithHome(SLOTS - 1, 3, 1);
+        long first = keysWithHome(0, 1, 1)[0];
+        LongIntMap map = new LongIntMap(8);
+        // The run starts in the last slot and wraps into slots 0 to 2
+        for (long key : last) {
+            map.put(key, (int) key + 1);
+        }
+        map.put(first, (int) first + 1);
+
+        assertTrue(map.remove(last[0]));
+
+        assertEquals(-1, map.get(last[0], -1));
+        assertEquals(last[1] + 1, map.get(last[1], -1));
+        assertEquals(last[2] + 1, map.get(last[2], -1));
+        assertEquals(first + 1, map.get(first, -1));
+        assertTrue(map.remove(last[2]));
+        assertEquals(last[1] + 1, map.get(last[1], -1));
+        assertEquals(first + 1, map.get(first, -1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void keyZeroIsKeptApart() {
+        LongIntMap map = new LongIntMap(8);
+        map.put(0L, 7);
+        map.put(keysWithHome(0, 1, 1)[0], 8);
+
+        assertEquals(7, map.get(0L, -1));
+        assertEquals(2, map.size());
+        assertTrue(map.remove(0L));
+        assertFalse(map.containsKey(0L));
+        assertFalse(map.remove(0L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void removalsBeforeAndAfterRehashingMatchAHashMap() {
+        Random random = new Random(7);
+        // Few distinct homes in a small table give long, wrapping runs; rehashing spreads them again
+        long[] keys = keysWithHome(SLOTS - 2, 40, 2);
+        LongIntMap map = new LongIntMap(8);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int step = 0; step < 5_000; step++) {
+            long key = random.nextInt(10) == 0 ? 0 : keys[random.nextInt(keys.length)];
+            if (random.nextBoolean()) {
+                map.put(key, step);
+                expected.put(key, step);
+            } else {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (long key : keys) {
+            assertEquals(expected.getOrDefault(key, -1).intValue(), map.get(key, -1));
+        }
+        assertEquals(expected.getOrDefault(0L, -1).intValue(), map.get(0L, -1));
+    }
+
+    /**
+     * Finds nonzero keys whose home slot in a table of {@link #SLOTS} slots is one of a few slots.
+     *
+     * @param home The first home slot.
+     * @param count The number of keys.
+     * @param homes The number of consecutive home slots, wrapping around, the keys may have.
+     * @return The keys.
+     */
+    private static long[] keysWithHome(int home, int count, int homes) {
+        long[] keys = new long[count];
+        int found = 0;
+        for (long key = 1; found < count; key++) {
+            if ((((LongIntMap.hash(key) & (SLOTS - 1)) - home) & (SLOTS - 1)) < homes) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+}
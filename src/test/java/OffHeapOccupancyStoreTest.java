@@ -0,0 +1,124 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the off-heap occupancy store, in memory and backed by a file, as it grows and its window moves.
+ */
+class OffHeapOccupancyStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void bookAndReleaseAcrossWords() {
+        OffHeapOccupancyStore store = new OffHeapOccupancyStore(2, 366);
+
+        store.book(1, 60, 70);
+
+        assertTrue(store.isBooked(1, 60));
+        assertTrue(store.isBooked(1, 64));
+        assertTrue(store.isBooked(1, 70));
+        assertFalse(store.isBooked(1, 71));
+        assertFalse(store.isBooked(0, 65));
+        assertFalse(store.isAvailable(1, 50, 60));
+        assertTrue(store.isAvailable(1, 71, 80));
+        store.release(1, 63, 65);
+        assertTrue(store.isBooked(1, 62));
+        assertTrue(store.isAvailable(1, 63, 65));
+        assertTrue(store.isBooked(1, 66));
+    }
+
+    @Test
+    void retiredWordsAreReusedForLaterDays() {
+        OffHeapOccupancyStore store = new OffHeapOccupancyStore(1, 128);
+        long bytes = store.getBytes();
+        store.book(0, 10, 20);
+
+        store.retireBefore(200);
+        store.book(0, 250, 260);
+
+        assertEquals(bytes, store.getBytes());
+        assertFalse(store.isBooked(0, 15));
+        assertTrue(store.isBooked(0, 255));
+        assertTrue(store.isAvailable(0, 261, 300));
+    }
+
+    @Test
+    void growingKeepsEveryBooking() {
+        OffHeapOccupancyStore store = new OffHeapOccupancyStore(1, 64);
+        long bytes = store.getBytes();
+        store.book(0, 5, 8);
+
+        store.book(9, 30, 31);
+        store.book(0, 1000, 1003);
+
+        assertTrue(store.getBytes() > bytes);
+        assertTrue(store.isBooked(0, 5));
+        assertTrue(store.isBooked(9, 31));
+        assertTrue(store.isBooked(0, 1003));
+        assertTrue(store.isAvailable(0, 9, 999));
+    }
+
+    @Test
+    void fileBackedStoreGrowsAndReopens() throws IOException {
+        Path file = directory.resolve("occupancy.bin");
+        try (OffHeapOccupancyStore store = OffHeapOccupancyStore.open(file, 1, 64)) {
+            store.book(0, 5, 8);
+            // Both a new row and a wider window make the file grow
+            store.book(7, 20, 22);
+            store.book(0, 500, 502);
+        }
+
+        assertFalse(Files.exists(directory.resolve("occupancy.bin.tmp")));
+        try (OffHeapOccupancyStore store = OffHeapOccupancyStore.open(file, 1, 64)) {
+            assertTrue(store.isBooked(0, 5));
+            assertTrue(store.isBooked(0, 8));
+            assertTrue(store.isBooked(7, 21));
+            assertTrue(store.isBooked(0, 501));
+            assertTrue(store.isAvailable(0, 9, 499));
+            assertFalse(store.isBooked(7, 5));
+        }
+    }
+
+    @Test
+    void openingAnotherFileFails() throws IOException {
+        Path file = directory.resolve("hotels.snapshot");
+        Files.write(file, new byte[128]);
+
+        assertThrows(IOException.class, () -> OffHeapOccupancyStore.open(file, 1, 64));
+    }
+
+    @Test
+    void matrixTooLargeToAllocateFails() {
+        OffHeapOccupancyStore store = new OffHeapOccupancyStore(1, 64);
+        store.book(0, 5, 8);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> store.book(300_000_000, 5, 8));
+
+        assertTrue(e.getMessage().contains("too large"));
+        assertTrue(store.isBooked(0, 5));
+    }
+
+    @Test
+    void fileThatCannotGrowFails() throws IOException {
+        Path file = directory.resolve("occupancy.bin");
+        // A non-empty directory where the grown matrix would be written cannot be replaced
+        Files.createDirectories(directory.resolve("occupancy.bin.tmp").resolve("blocked"));
+        try (OffHeapOccupancyStore store = OffHeapOccupancyStore.open(file, 1, 64)) {
+            store.book(0, 5, 8);
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> store.book(4, 5, 8));
+
+            assertTrue(e.getMessage().startsWith("Could not grow"));
+            assertTrue(store.isBooked(0, 5));
+        }
+    }
+}
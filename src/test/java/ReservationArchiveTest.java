@@ -0,0 +1,123 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the archive of completed reservations and the CSV archive of retired days, including
+ * archived reservations surviving a snapshot round trip.
+ */
+class ReservationArchiveTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void archivedReservationsAreReadBackFromBlocks() {
+        Hotel hotel = new Hotel("H", 1, 1, 0);
+        Room standard = hotel.getRoomByName("S1");
+        Room deluxe = hotel.getRoomByName("D1");
+        List<Reservation> completed = new ArrayList<>();
+        double earnings = 0;
+        for (int i = 0; i < 5000; i++) {
+            Reservation reservation = new Reservation("Guest " + i % 7, 1 + i, 2 + i, i % 2 == 0 ? standard : deluxe,
+                    i % 3 == 0 ? "I_WORK_HERE" : null, 100.0 + i);
+            completed.add(reservation);
+            earnings += reservation.getSumPrice();
+        }
+
+        ReservationArchive archive = ReservationArchive.EMPTY.append(completed);
+
+        assertSame(archive, archive.append(new ArrayList<>()));
+        assertEquals(5000, archive.size());
+        assertEquals(2, archive.getBlockCount());
+        assertEquals(earnings, archive.getTotalEarnings(), 0.001);
+        Reservation last = archive.readBlock(1).get(5000 - 4096 - 1);
+        assertEquals("Guest " + 4999 % 7, last.getGuestName());
+        assertEquals("D1", last.getRoom().getName());
+        assertEquals(5000, last.getCheckInDay());
+        assertEquals(5001, last.getCheckOutDay());
+        assertEquals(5099.0, last.getSumPrice(), 0.001);
+        assertNull(last.getDiscountCode());
+        assertEquals("I_WORK_HERE", archive.readBlock(0).get(3).getDiscountCode());
+        assertEquals(714, archive.findByGuest("GUEST 3").size());
+    }
+
+    @Test
+    void rollOverMovesCompletedStaysIntoTheArchive() {
+        Hotel hotel = new Hotel("H", 2, 0, 0);
+        assertTrue(hotel.addReservation(new Reservation("Ann", 5, 8, hotel.getRoomByName("S1"), null)));
+        assertTrue(hotel.addReservation(new Reservation("Bob", 9, 10, hotel.getRoomByName("S1"), null)));
+        assertTrue(hotel.addReservation(new Reservation("Cid", 9, 12, hotel.getRoomByName("S2"), null)));
+
+        hotel.rollOver(11, null);
+
+        ReservationArchive archive = hotel.getSnapshot().getArchive();
+        assertEquals(2, archive.size());
+        assertEquals(1, hotel.getReservations().size());
+        assertEquals(2, archive.findByGuest("ann").size() + archive.findByGuest("bob").size());
+        assertEquals(2, hotel.getGuestHistory("Ann").size() + hotel.getGuestHistory("Cid").size());
+    }
+
+    @Test
+    void archiveSurvivesASnapshotRoundTrip() throws IOException, InterruptedException, ExecutionException {
+        Path journalPath = directory.resolve("hotels.journal");
+        Path snapshotPath = directory.resolve("hotels.snapshot");
+        Journal journal = new Journal(journalPath, 1, 1);
+        HotelReservationSystem system = new HotelReservationSystem(journal, snapshotPath);
+        system.createHotel("Alpha", 2, 0, 0);
+        Hotel alpha = system.getHotel("Alpha");
+        assertTrue(alpha.addReservation(new Reservation("Ann", 5, 8, alpha.getRoomByName("S1"), "I_WORK_HERE")));
+        assertTrue(alpha.addReservation(new Reservation("Bob", 18, 22, alpha.getRoomByName("S2"), null)));
+        system.rollOver(20);
+        double earnings = alpha.estimatedEarnings();
+        system.writeSnapshot().get();
+        journal.close();
+
+        Journal reopened = new Journal(journalPath, 1, 1);
+        HotelReservationSystem restored = new HotelReservationSystem(reopened, snapshotPath);
+        reopened.close();
+
+        assertEquals(0, reopened.getReplayedRecords());
+        Hotel restoredAlpha = restored.getHotel("Alpha");
+        ReservationArchive archive = restoredAlpha.getSnapshot().getArchive();
+        assertEquals(1, archive.size());
+        assertEquals(20, restoredAlpha.getFirstOpenDay());
+        assertEquals(earnings, restoredAlpha.estimatedEarnings(), 0.001);
+        Reservation ann = restoredAlpha.findReservation("Ann");
+        assertEquals("S1", ann.getRoom().getName());
+        assertEquals("I_WORK_HERE", ann.getDiscountCode());
+        assertEquals(5, ann.getCheckInDay());
+    }
+
+    @Test
+    void csvDayArchiveAppendsOneLinePerDay() throws IOException {
+        Path path = directory.resolve("hotels.days.csv");
+        Hotel hotel = new Hotel("Sea, \"View\"", 2, 0, 0);
+        assertTrue(hotel.addReservation(new Reservation("Ann", 5, 7, hotel.getRoomByName("S1"), null)));
+        try (CsvDayArchive archive = new CsvDayArchive(path)) {
+            hotel.rollOver(8, archive);
+        }
+        try (CsvDayArchive archive = new CsvDayArchive(path)) {
+            archive.archiveDay("Beta", 9, 0, 3, 0.0, 1.0);
+        }
+
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+
+        assertEquals(4, lines.size());
+        double night = hotel.findReservation("Ann").getSumPrice() / 2;
+        assertEquals("\"Sea, \"\"View\"\"\"," + HotelCalendar.format(5) + ",1,2," + night + ",1.0", lines.get(0));
+        assertEquals("\"Sea, \"\"View\"\"\"," + HotelCalendar.format(7) + ",1,2,0.0,1.0", lines.get(2));
+        assertEquals("Beta," + HotelCalendar.format(9) + ",0,3,0.0,1.0", lines.get(3));
+    }
+}
@@ -0,0 +1,174 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests importing reservations from small inline CSV and JSON Lines files.
+ */
+class ReservationImporterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void importUnderAMemoryBudgetBooksEveryHotel() throws IOException {
+        HotelReservationSystem system = new HotelReservationSystem();
+        String[] names = {"Alpha", "Beta", "Gamma", "Delta"};
+        for (String name : names) {
+            system.createHotel(name, 5, 0, 0);
+        }
+        // A budget this small keeps only the most recently used hotel loaded
+        system.setMemoryBudget(1, directory.resolve("spill"));
+
+        StringBuilder csv = new StringBuilder("hotel,guest,room,checkIn,checkOut\n");
+        for (int round = 0; round < 5; round++) {
+            for (String name : names) {
+                csv.append(name).append(",Guest ").append(round).append(",S").append(round + 1).append(",10,12\n");
+            }
+        }
+        ReservationImporter importer = new ReservationImporter(system, 2, 2);
+        ImportReport report = importer.importCsv(new StringReader(csv.toString()));
+
+        assertEquals(20, report.getRows());
+        assertEquals(20, report.getBooked(), String.join("\n", report.getProblems()));
+        for (String name : names) {
+            assertEquals(5, system.getHotel(name).getReservations().size());
+        }
+    }
+
+    @Test
+    void csvValuesMayBeQuoted() {
+        assertEquals(List.of("a", "b,c", "say \"hi\"", ""), ReservationImporter.parseCsvLine("a,\"b,c\",\"say \"\"hi\"\"\","));
+        assertEquals(List.of("", ""), ReservationImporter.parseCsvLine(","));
+        assertEquals(List.of("xy"), ReservationImporter.parseCsvLine("x\"\"y"));
+    }
+
+    @Test
+    void unterminatedQuoteRejectsOnlyItsRow() throws IOException {
+        HotelReservationSystem system = new HotelReservationSystem();
+        system.createHotel("Alpha", 3, 0, 0);
+        String csv = "hotel,guest,room,checkIn,checkOut,discountCode\n"
+                + "Alpha,\"Smith, \"\"Jo\"\"\",S1,10,12,\n"
+                + "Alpha,\"Unfinished,S2,10,12,\n"
+                + "Alpha,Ann,S3,10,12,\" I_WORK_HERE \"\n";
+
+        ImportReport report = new ReservationImporter(system, 10, 2).importCsv(new StringReader(csv));
+
+        assertEquals(3, report.getRows());
+        assertEquals(2, report.getBooked());
+        assertEquals(1, report.getRejects());
+        assertEquals(List.of("Line 3: Unterminated quoted value."), report.getProblems());
+        Hotel alpha = system.getHotel("Alpha");
+        assertTrue(alpha.checkReservationExists("Smith, \"Jo\"", "S1", 10, 12));
+        assertNull(alpha.findReservation("Smith, \"Jo\"").getDiscountCode());
+        assertEquals("I_WORK_HERE", alpha.findReservation("Ann").getDiscountCode());
+    }
+
+    @Test
+    void jsonStringsAreUnescaped() {
+        Map<String, String> fields = ReservationImporter.parseJsonObject(
+                "{ \"Guest\": \"Jo \\\"JJ\\\" O\\\\Neil\\n\\u00e9\", \"checkIn\": 10, \"discountCode\": null, \"vip\": true }");
+
+        assertEquals("Jo \"JJ\" O\\Neil\n\u00e9", fields.get("guest"));
+        assertEquals("10", fields.get("checkin"));
+        assertEquals("true", fields.get("vip"));
+        assertFalse(fields.containsKey("discountcode"));
+        assertTrue(ReservationImporter.parseJsonObject(" {} ").isEmpty());
+    }
+
+    @Test
+    void malformedJsonIsRefused() {
+        assertThrows(IllegalArgumentException.class, () -> ReservationImporter.parseJsonObject("{\"hotel\": }"));
+        assertThrows(IllegalArgumentException.class, () -> ReservationImporter.parseJsonObject("{\"hotel\": \"Alpha\""));
+        assertThrows(IllegalArgumentException.class, () -> ReservationImporter.parseJsonObject("{\"hotel\": \"Alpha}"));
+        assertThrows(IllegalArgumentException.class, () -> ReservationImporter.parseJsonObject("{\"guest\": \"\\u00\"}"));
+        assertThrows(IllegalArgumentException.class, () -> ReservationImporter.parseJsonObject("[1, 2]"));
+        assertThrows(IllegalArgumentException.class, () -> ReservationImporter.parseJsonObject("{\"a\": 1 \"b\": 2}"));
+    }
+
+    @Test
+    void jsonLinesImportReportsEveryRow() throws IOException {
+        HotelReservationSystem system = new HotelReservationSystem();
+        system.createHotel("Alpha", 2, 0, 0);
+        String jsonLines = "{\"hotel\": \"Alpha\", \"guest\": \"Ren\\u00e9e\", \"room\": \"S1\", \"checkIn\": 10, \"checkOut\": 12}\n"
+                + "\n"
+                + "{\"hotel\": \"Alpha\", \"guest\": \"Bob\", \"room\": \"S1\", \"checkIn\": 11, \"checkOut\": 13}\n"
+                + "{\"hotel\": \"Alpha\", \"guest\": \"Cid\", \"room\": \"S2\", \"checkIn\": \"soon\", \"checkOut\": 13}\n"
+                + "{\"hotel\": \"Alpha\", \"guest\": \"Dee\"\n"
+                + "{\"guest\": \"Eve\", \"room\": \"S2\", \"checkIn\": 1, \"checkOut\": 2}\n"
+                + "{\"hotel\": \"Nowhere\", \"guest\": \"Fay\", \"room\": \"S2\", \"checkIn\": 1, \"checkOut\": 2}\n"
+                + "{\"hotel\": \"Alpha\", \"guest\": \"Gus\", \"room\": \"S9\", \"checkIn\": 1, \"checkOut\": 2}\n";
+
+        ImportReport report = new ReservationImporter(system, 10, 2).importJsonLines(new StringReader(jsonLines));
+
+        assertEquals(7, report.getRows());
+        assertEquals(1, report.getBooked());
+        assertEquals(1, report.getConflicts());
+        assertEquals(5, report.getRejects());
+        List<String> problems = report.getProblems();
+        assertTrue(problems.contains("Line 3: Room S1 is not available for the selected dates."), problems.toString());
+        assertTrue(problems.contains("Line 4: Check-in and check-out must be whole days."), problems.toString());
+        assertTrue(problems.contains("Line 5: Malformed JSON object."), problems.toString());
+        assertTrue(problems.contains("Line 6: Hotel name is missing."), problems.toString());
+        assertTrue(problems.contains("Line 7: Hotel Nowhere not found."), problems.toString());
+        assertTrue(problems.contains("Line 8: Room S9 does not exist."), problems.toString());
+        assertTrue(system.getHotel("Alpha").checkReservationExists("Ren\u00e9e", "S1", 10, 12));
+    }
+
+    @Test
+    void csvRowWithTooManyValuesIsRejected() throws IOException {
+        HotelReservationSystem system = new HotelReservationSystem();
+        system.createHotel("Alpha", 2, 0, 0);
+        String csv = "hotel,guest,room,checkIn,checkOut\n"
+                + "Alpha,Ann,S1,10,12,extra\n"
+                + "Alpha,Bob,S1,,12\n"
+                + "Alpha,Cid,S2,10,12\n";
+
+        ImportReport report = new ReservationImporter(system, 10, 2).importCsv(new StringReader(csv));
+
+        assertEquals(3, report.getRows());
+        assertEquals(1, report.getBooked());
+        assertEquals(List.of("Line 2: Row has more values than the header has columns.",
+                "Line 3: Check-in and check-out must be whole days."), report.getProblems());
+    }
+
+    @Test
+    void rowsSpreadOverManyHotelsAreFlushedInOrder() throws IOException {
+        HotelReservationSystem system = new HotelReservationSystem();
+        int hotels = 12;
+        for (int i = 0; i < hotels; i++) {
+            system.createHotel("Hotel " + i, 2, 0, 0);
+        }
+        // Every hotel gets a booking and then a clash with it, far apart in the file
+        StringBuilder csv = new StringBuilder("hotel,guest,room,checkIn,checkOut\n");
+        for (int i = 0; i < hotels; i++) {
+            csv.append("Hotel ").append(i).append(",First,S1,10,12\n");
+        }
+        for (int i = 0; i < hotels; i++) {
+            csv.append("Hotel ").append(i).append(",Second,S1,12,14\n");
+            csv.append("Hotel ").append(i).append(",Third,S2,12,14\n");
+        }
+
+        ImportReport report = new ReservationImporter(system, 3, 1).importCsv(new StringReader(csv.toString()));
+
+        assertEquals(3 * hotels, report.getRows());
+        assertEquals(2 * hotels, report.getBooked());
+        assertEquals(hotels, report.getConflicts());
+        for (int i = 0; i < hotels; i++) {
+            Hotel hotel = system.getHotel("Hotel " + i);
+            assertTrue(hotel.checkReservationExists("First", "S1", 10, 12));
+            assertFalse(hotel.checkReservationExists("Second", "S1", 12, 14));
+            assertTrue(hotel.checkReservationExists("Third", "S2", 12, 14));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the columnar reservation store.
+ */
+class ReservationStoreTest {
+    @Test
+    void everyDistinctDiscountCodeIsKept() {
+        Hotel hotel = new Hotel("H", 5, 0, 0);
+        int codes = 600;
+        for (int i = 0; i < codes; i++) {
+            Room room = hotel.getRoomByName("S" + (1 + i % 5));
+            int checkIn = 1 + (i / 5) * 2;
+            assertTrue(hotel.addReservation(new Reservation("Guest " + i, checkIn, checkIn + 1, room, "CODE" + i)));
+        }
+
+        Set<String> stored = new HashSet<>();
+        for (Reservation reservation : hotel.getReservations()) {
+            assertEquals("CODE" + reservation.getGuestName().substring("Guest ".length()), reservation.getDiscountCode());
+            stored.add(reservation.getDiscountCode());
+        }
+        assertEquals(codes, stored.size());
+    }
+
+    @Test
+    void reservationWithoutCodeHasNone() {
+        Hotel hotel = new Hotel("H", 1, 0, 0);
+        assertTrue(hotel.addReservation(new Reservation("Ann", 3, 4, hotel.getRoomByName("S1"), null)));
+
+        assertNull(hotel.getReservations().get(0).getDiscountCode());
+    }
+
+    @Test
+    void removedRowsAreSkippedAndOlderStoresKeepThem() {
+        List<Reservation> added = new ArrayList<>();
+        Hotel hotel = new Hotel("H", 1, 0, 0);
+        Room room = hotel.getRoomByName("S1");
+        for (int i = 0; i < 10; i++) {
+            added.add(new Reservation("Guest " + i, 1 + i * 2, 2 + i * 2, room, null));
+        }
+        ReservationStore full = new ReservationStore().append(added);
+
+        ReservationStore store = full.remove(3).remove(7);
+
+        assertEquals(10, full.size());
+        assertEquals("Guest 3", full.get(3).getGuestName());
+        assertEquals(8, store.size());
+        assertEquals(10, store.rowCount());
+        assertTrue(store.isRemoved(3));
+        assertFalse(store.isRemoved(4));
+        assertEquals("Guest 4", store.asList().get(3).getGuestName());
+        assertEquals("Guest 9", store.asList().get(7).getGuestName());
+        List<String> names = new ArrayList<>();
+        for (Reservation reservation : store.asList()) {
+            names.add(reservation.getGuestName());
+        }
+        assertEquals(List.of("Guest 0", "Guest 1", "Guest 2", "Guest 4", "Guest 5", "Guest 6", "Guest 8", "Guest 9"), names);
+    }
+
+    @Test
+    void cancellingManyReservationsCompactsTheStore() {
+        Hotel hotel = new Hotel("H", 10, 0, 0);
+        for (int i = 0; i < 400; i++) {
+            int checkIn = 1 + (i / 10) * 2;
+            assertTrue(hotel.addReservation(new Reservation("Guest " + i, checkIn, checkIn + 1, hotel.getRoomByName("S" + (1 + i % 10)), null)));
+        }
+
+        for (int i = 0; i < 400; i += 2) {
+            int checkIn = 1 + (i / 10) * 2;
+            assertTrue(hotel.removeReservation("Guest " + i, "S" + (1 + i % 10), checkIn, checkIn + 1));
+        }
+
+        assertEquals(200, hotel.getReservations().size());
+        for (int i = 0; i < 400; i++) {
+            int checkIn = 1 + (i / 10) * 2;
+            assertEquals(i % 2 == 1, hotel.checkReservationExists("Guest " + i, "S" + (1 + i % 10), checkIn, checkIn + 1));
+            assertEquals(i % 2 == 1, hotel.findReservation("guest " + i) != null);
+        }
+        assertTrue(hotel.addReservation(new Reservation("Guest 0", 1, 2, hotel.getRoomByName("S1"), null)));
+        assertTrue(hotel.checkReservationExists("Guest 0", "S1", 1, 2));
+    }
+}
@@ -0,0 +1,97 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests room holds and how they interact with removing rooms.
+ */
+class RoomHoldTest {
+    /**
+     * How long the holds of these tests last; long enough never to expire during a test.
+     */
+    private static final long HOLD_MILLIS = 60_000;
+
+    @Test
+    void heldRoomCannotBeBookedOrHeldByOthers() {
+        Hotel hotel = new Hotel("H", 2, 0, 0);
+        Room room = hotel.getRoomByName("S1");
+        RoomHold hold = hotel.placeHold(room, 5, 8, HOLD_MILLIS);
+
+        assertNotNull(hold);
+        assertFalse(hotel.isRoomAvailable(room, 7, 9));
+        assertNull(hotel.placeHold(room, 6, 7, HOLD_MILLIS));
+        assertFalse(hotel.addReservation(new Reservation("Other", 6, 7, room, null)));
+        assertTrue(hotel.isRoomAvailable(room, 9, 11));
+    }
+
+    @Test
+    void releasedHoldFreesTheRoom() {
+        Hotel hotel = new Hotel("H", 2, 0, 0);
+        Room room = hotel.getRoomByName("S1");
+        RoomHold hold = hotel.placeHold(room, 5, 8, HOLD_MILLIS);
+
+        hotel.releaseHold(hold);
+
+        assertFalse(hold.isActive());
+        assertTrue(hotel.isRoomAvailable(room, 5, 8));
+        assertNull(hotel.confirmHold(hold, "Guest", null));
+        assertTrue(hotel.getReservations().isEmpty());
+    }
+
+    @Test
+    void confirmedHoldBecomesAReservation() {
+        Hotel hotel = new Hotel("H", 2, 0, 0);
+        Room room = hotel.getRoomByName("S1");
+        RoomHold hold = hotel.placeHold(room, 5, 8, HOLD_MILLIS);
+
+        Reservation reservation = hotel.confirmHold(hold, "Guest", null);
+
+        assertNotNull(reservation);
+        assertEquals("S1", reservation.getRoom().getName());
+        assertEquals(1, hotel.getReservations().size());
+        assertNull(hotel.confirmHold(hold, "Guest", null));
+    }
+
+    @Test
+    void heldRoomCannotBeRemoved() {
+        Hotel hotel = new Hotel("H", 2, 0, 0);
+        RoomHold hold = hotel.placeHold(hotel.getRoomByName("S2"), 5, 8, HOLD_MILLIS);
+
+        assertNotNull(hotel.tryRemoveRoom("S2"));
+        assertNotNull(hotel.getRoomByName("S2"));
+
+        hotel.releaseHold(hold);
+        assertNull(hotel.tryRemoveRoom("S2"));
+        assertNull(hotel.getRoomByName("S2"));
+    }
+
+    @Test
+    void roomWithAReservationCannotBeRemovedUntilItIsCancelled() {
+        Hotel hotel = new Hotel("H", 2, 0, 0);
+        Room room = hotel.getRoomByName("S2");
+        assertNotNull(hotel.confirmHold(hotel.placeHold(room, 5, 8, HOLD_MILLIS), "Guest", null));
+        assertTrue(hotel.addReservation(new Reservation("Later", 10, 12, room, null)));
+
+        assertNotNull(hotel.tryRemoveRoom("S2"));
+        assertTrue(hotel.tryRemoveReservation("Guest", "S2", 5, 8));
+        // The other reservation still keeps the room
+        assertNotNull(hotel.tryRemoveRoom("S2"));
+        assertTrue(hotel.tryRemoveReservation("Later", "S2", 10, 12));
+        assertNull(hotel.tryRemoveRoom("S2"));
+    }
+
+    @Test
+    void roomOfAnotherHotelIsRejected() {
+        Hotel hotel = new Hotel("H", 2, 0, 0);
+        Hotel other = new Hotel("Other", 2, 0, 0);
+        Room foreign = other.getRoomByName("S1");
+
+        assertFalse(hotel.isRoomAvailable(foreign, 5, 8));
+        assertFalse(hotel.addReservation(new Reservation("Guest", 5, 8, foreign, null)));
+        assertTrue(hotel.getReservations().isEmpty());
+    }
+}
@@ -0,0 +1,95 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that hotels survive a round trip through a snapshot, in particular after rooms were removed
+ * and room slots no longer match room positions.
+ */
+class SnapshotFileTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotRestoresHotelsAfterRoomRemoval() throws IOException {
+        Path journalPath = directory.resolve("hotels.journal");
+        Path snapshotPath = directory.resolve("hotels.snapshot");
+        Journal journal = new Journal(journalPath, 1, 1);
+        HotelReservationSystem system = new HotelReservationSystem(journal, snapshotPath);
+        system.createHotel("Alpha", 4, 2, 1);
+        Hotel alpha = system.getHotel("Alpha");
+        assertTrue(alpha.removeRoom("S2"));
+        assertTrue(alpha.removeRoom("D1"));
+        assertTrue(alpha.addRoom("standard"));
+        assertTrue(alpha.addDatePriceModifier(12, 0.8));
+        assertTrue(alpha.addReservation(new Reservation("Ann", 10, 14, alpha.getRoomByName("S3"), null)));
+        assertTrue(alpha.addReservation(new Reservation("Bob", 11, 12, alpha.getRoomByName("D2"), null)));
+        assertTrue(alpha.addReservation(new Reservation("Cid", 20, 22, alpha.getRoomByName("S5"), null)));
+
+        system.writeSnapshot().join();
+        journal.close();
+
+        Journal reopened = new Journal(journalPath, 1, 1);
+        HotelReservationSystem restored = new HotelReservationSystem(reopened, snapshotPath);
+        assertEquals(0, reopened.getReplayedRecords());
+        assertEquals(HotelState.describe(system), HotelState.describe(restored));
+
+        // The restored hotel addresses its rooms by slot, so the rooms after the removed ones must still work
+        Hotel restoredAlpha = restored.getHotel("Alpha");
+        assertNull(restoredAlpha.getRoomByName("S2"));
+        Room s5 = restoredAlpha.getRoomByName("S5");
+        assertFalse(restoredAlpha.isRoomAvailable(s5, 21, 21));
+        assertTrue(restoredAlpha.addReservation(new Reservation("Dee", 25, 27, s5, null)));
+        assertTrue(restoredAlpha.addRoom("standard"));
+        assertNotNull(restoredAlpha.getRoomByName("S6"));
+        assertTrue(restoredAlpha.tryRemoveReservation("Ann", "S3", 10, 14));
+        assertNull(restoredAlpha.tryRemoveRoom("S3"));
+        reopened.close();
+    }
+
+    @Test
+    void journalAfterTheSnapshotIsReplayedOnTopOfIt() throws IOException {
+        Path journalPath = directory.resolve("hotels.journal");
+        Path snapshotPath = directory.resolve("hotels.snapshot");
+        Journal journal = new Journal(journalPath, 1, 1);
+        HotelReservationSystem system = new HotelReservationSystem(journal, snapshotPath);
+        system.createHotel("Alpha", 3, 1, 0);
+        Hotel alpha = system.getHotel("Alpha");
+        assertTrue(alpha.addReservation(new Reservation("Ann", 10, 14, alpha.getRoomByName("S1"), null)));
+        system.writeSnapshot().join();
+
+        assertTrue(alpha.removeRoom("S2"));
+        assertTrue(alpha.addReservation(new Reservation("Bob", 3, 5, alpha.getRoomByName("S3"), null)));
+        journal.close();
+
+        Journal reopened = new Journal(journalPath, 1, 1);
+        HotelReservationSystem restored = new HotelReservationSystem(reopened, snapshotPath);
+        reopened.close();
+
+        assertEquals(2, reopened.getReplayedRecords());
+        assertEquals(HotelState.describe(system), HotelState.describe(restored));
+    }
+
+    @Test
+    void snapshotOfAnotherVersionIsRejected() throws IOException {
+        Path snapshotPath = directory.resolve("hotels.snapshot");
+        ByteBuffer header = ByteBuffer.allocate(20);
+        header.putInt(0x48525353).putInt(3).putLong(0).putInt(0);
+        Files.write(snapshotPath, header.array());
+
+        IOException e = assertThrows(IOException.class, () -> SnapshotFile.load(snapshotPath, new HotelReservationSystem()));
+
+        assertEquals("Unsupported snapshot version 3.", e.getMessage());
+    }
+}
@@ -0,0 +1,39 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that symbol keys match exactly when {@code equalsIgnoreCase} does.
+ */
+class SymbolTableTest {
+    @Test
+    void spellingsThatDifferOnlyInCaseShareAKey() {
+        SymbolTable symbols = new SymbolTable();
+
+        assertEquals(symbols.key("Ann Smith"), symbols.key("ANN SMITH"));
+        assertEquals(symbols.key("Σοφία"), symbols.key("σοφία"));
+        assertEquals(symbols.key("ΟΔΟΣ"), symbols.key("οδος"));
+    }
+
+    @Test
+    void spellingsThatEqualsIgnoreCaseTellApartHaveDifferentKeys() {
+        SymbolTable symbols = new SymbolTable();
+
+        assertFalse("straße".equalsIgnoreCase("STRASSE"));
+        assertNotEquals(symbols.key("straße"), symbols.key("STRASSE"));
+        assertNotEquals(symbols.key("straße"), symbols.key("strasse"));
+    }
+
+    @Test
+    void blankDiscountCodeIsNoCode() {
+        Hotel hotel = new Hotel("H", 1, 0, 0);
+        Room room = hotel.getRoomByName("S1");
+
+        assertNull(new Reservation("Ann", 3, 4, room, "").getDiscountCode());
+        assertNull(new Reservation("Ann", 3, 4, room, "   ").getDiscountCode());
+        assertEquals("I_WORK_HERE", new Reservation("Ann", 3, 4, room, " I_WORK_HERE ").getDiscountCode());
+    }
+}